@@ -0,0 +1,55 @@
+package edu.brandeis.cosi.atg.bench;
+
+import java.util.Optional;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.decisions.BuyDecision;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.decisions.PlayCardDecision;
+
+/**
+ * A trivial "big money" player: plays every card it is offered, then buys the
+ * most expensive card it can afford.
+ */
+public final class BigMoneyPlayer implements Player {
+    private final String name;
+
+    /**
+     * Constructs a BigMoneyPlayer with the specified name.
+     *
+     * @param name the name of the player
+     */
+    public BigMoneyPlayer(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+        Decision best = options.get(options.size() - 1);
+        int bestCost = -1;
+        for (Decision decision : options) {
+            if (decision instanceof PlayCardDecision) {
+                return decision;
+            }
+            if (decision instanceof BuyDecision buy && buy.getCardType().getCost() > bestCost) {
+                best = buy;
+                bestCost = buy.getCardType().getCost();
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public Optional<GameObserver> getObserver() {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,87 @@
+package edu.brandeis.cosi.atg.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.GameDeck;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.cards.Card;
+import edu.brandeis.cosi.atg.api.decisions.BuyDecision;
+import edu.brandeis.cosi.atg.api.decisions.BuyOptions;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.decisions.EndPhaseDecision;
+import edu.brandeis.cosi.atg.api.decisions.PlayCardDecision;
+
+/**
+ * Measures building the list of options that an Engine offers a Player in the
+ * MONEY and BUY phases, the way a straightforward Engine would.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DecisionListBenchmark {
+    private final GameDeck deck = Fixtures.DECK;
+
+    /** The spendable money used when building BUY options. */
+    @Param({ "2", "5", "8" })
+    public int money;
+
+    /**
+     * Builds MONEY phase options: one PlayCardDecision per unplayed card and an
+     * EndPhaseDecision.
+     *
+     * @return the options
+     */
+    @Benchmark
+    public ImmutableList<Decision> moneyPhaseOptions() {
+        ImmutableList.Builder<Decision> options = ImmutableList.builder();
+        for (Card card : Fixtures.UNPLAYED) {
+            options.add(new PlayCardDecision(card));
+        }
+        options.add(new EndPhaseDecision(GameState.TurnPhase.MONEY));
+        return options.build();
+    }
+
+    /**
+     * Builds BUY phase options: one BuyDecision per affordable and available
+     * card type and an EndPhaseDecision.
+     *
+     * @return the options
+     */
+    @Benchmark
+    public ImmutableList<Decision> buyPhaseOptions() {
+        ImmutableList.Builder<Decision> options = ImmutableList.builder();
+        for (Card.Type type : deck.getCardTypes()) {
+            if (type.getCost() <= money && deck.getNumAvailable(type) > 0) {
+                options.add(new BuyDecision(type));
+            }
+        }
+        options.add(new EndPhaseDecision(GameState.TurnPhase.BUY));
+        return options.build();
+    }
+
+    /**
+     * Looks up BUY phase options in the precomputed {@link BuyOptions} table.
+     *
+     * @return the options
+     */
+    @Benchmark
+    public ImmutableList<Decision> buyPhaseOptionsPrecomputed() {
+        return BuyOptions.options(money, BuyOptions.availableMask(deck));
+    }
+}
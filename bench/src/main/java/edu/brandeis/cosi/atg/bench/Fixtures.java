@@ -0,0 +1,40 @@
+package edu.brandeis.cosi.atg.bench;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import edu.brandeis.cosi.atg.api.GameDeck;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Hand;
+import edu.brandeis.cosi.atg.api.cards.Card;
+
+/**
+ * Representative API objects shared by the benchmarks: a mid-game supply and a
+ * five card hand with two cards already played.
+ */
+final class Fixtures {
+    static final ImmutableMap<Card.Type, Integer> SUPPLY_COUNTS = ImmutableMap.<Card.Type, Integer>builder()
+            .put(Card.Type.METHOD, 6)
+            .put(Card.Type.MODULE, 7)
+            .put(Card.Type.FRAMEWORK, 5)
+            .put(Card.Type.BITCOIN, 40)
+            .put(Card.Type.ETHEREUM, 31)
+            .put(Card.Type.DOGECOIN, 24)
+            .build();
+
+    static final ImmutableList<Card> PLAYED = ImmutableList.of(
+            new Card(Card.Type.BITCOIN, 70),
+            new Card(Card.Type.ETHEREUM, 95));
+
+    static final ImmutableList<Card> UNPLAYED = ImmutableList.of(
+            new Card(Card.Type.BITCOIN, 71),
+            new Card(Card.Type.DOGECOIN, 130),
+            new Card(Card.Type.METHOD, 2));
+
+    static final GameDeck DECK = new GameDeck(SUPPLY_COUNTS);
+    static final Hand HAND = new Hand(PLAYED, UNPLAYED);
+    static final GameState MONEY_STATE = new GameState("player1", HAND, GameState.TurnPhase.MONEY, 3, 1, DECK);
+
+    private Fixtures() {
+    }
+}
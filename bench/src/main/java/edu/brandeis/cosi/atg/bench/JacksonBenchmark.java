@@ -0,0 +1,167 @@
+package edu.brandeis.cosi.atg.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.guava.GuavaModule;
+
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.cards.Card;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.decisions.PlayCardDecision;
+import edu.brandeis.cosi.atg.api.event.Event;
+import edu.brandeis.cosi.atg.api.event.PlayCardEvent;
+import edu.brandeis.cosi.atg.api.json.GameJsonCodec;
+
+/**
+ * Measures Jackson round-trips of {@link GameState}, {@link Decision} and
+ * {@link Event} through their annotated constructors, using a shared
+ * {@link ObjectMapper} as a remote Player or game logger would, and compares
+ * them with the streaming {@link GameJsonCodec}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JacksonBenchmark {
+    private final GameState state = Fixtures.MONEY_STATE;
+    private final Decision decision = new PlayCardDecision(Fixtures.UNPLAYED.get(0));
+    private final Event event = new PlayCardEvent(Fixtures.UNPLAYED.get(0), "player1");
+
+    private ObjectWriter stateWriter;
+    private ObjectReader stateReader;
+    private ObjectWriter decisionWriter;
+    private ObjectReader decisionReader;
+    private ObjectWriter eventWriter;
+    private ObjectReader eventReader;
+    private final GameJsonCodec codec = new GameJsonCodec();
+
+    /**
+     * Creates the readers and writers.
+     */
+    @Setup
+    public void setup() {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new GuavaModule());
+        stateWriter = mapper.writerFor(GameState.class);
+        stateReader = mapper.readerFor(GameState.class);
+        decisionWriter = mapper.writerFor(Decision.class);
+        decisionReader = mapper.readerFor(Decision.class);
+        eventWriter = mapper.writerFor(Event.class);
+        eventReader = mapper.readerFor(Event.class);
+    }
+
+    /**
+     * Serializes and deserializes a GameState.
+     *
+     * @return the deserialized state
+     * @throws IOException if serialization fails
+     */
+    @Benchmark
+    public GameState gameStateRoundTrip() throws IOException {
+        return stateReader.readValue(stateWriter.writeValueAsBytes(state));
+    }
+
+    /**
+     * Serializes and deserializes a Decision.
+     *
+     * @return the deserialized decision
+     * @throws IOException if serialization fails
+     */
+    @Benchmark
+    public Decision decisionRoundTrip() throws IOException {
+        return decisionReader.readValue(decisionWriter.writeValueAsBytes(decision));
+    }
+
+    /**
+     * Serializes and deserializes an Event.
+     *
+     * @return the deserialized event
+     * @throws IOException if serialization fails
+     */
+    @Benchmark
+    public Event eventRoundTrip() throws IOException {
+        return eventReader.readValue(eventWriter.writeValueAsBytes(event));
+    }
+
+    /**
+     * Serializes a GameState.
+     *
+     * @return the serialized state
+     * @throws IOException if serialization fails
+     */
+    @Benchmark
+    public byte[] gameStateWrite() throws IOException {
+        return stateWriter.writeValueAsBytes(state);
+    }
+
+    /**
+     * Serializes a Card, the most frequently repeated value in game logs.
+     *
+     * @return the serialized card
+     * @throws IOException if serialization fails
+     */
+    @Benchmark
+    public byte[] cardWrite() throws IOException {
+        return stateWriter.forType(Card.class).writeValueAsBytes(Fixtures.UNPLAYED.get(0));
+    }
+
+    /**
+     * Serializes and deserializes a GameState with the streaming codec.
+     *
+     * @return the deserialized state
+     * @throws IOException if serialization fails
+     */
+    @Benchmark
+    public GameState gameStateRoundTripCodec() throws IOException {
+        return codec.readGameState(codec.writeGameState(state));
+    }
+
+    /**
+     * Serializes and deserializes a Decision with the streaming codec.
+     *
+     * @return the deserialized decision
+     * @throws IOException if serialization fails
+     */
+    @Benchmark
+    public Decision decisionRoundTripCodec() throws IOException {
+        return codec.readDecision(codec.writeDecision(decision));
+    }
+
+    /**
+     * Serializes and deserializes an Event with the streaming codec.
+     *
+     * @return the deserialized event
+     * @throws IOException if serialization fails
+     */
+    @Benchmark
+    public Event eventRoundTripCodec() throws IOException {
+        return codec.readEvent(codec.writeEvent(event));
+    }
+
+    /**
+     * Serializes a GameState with the streaming codec.
+     *
+     * @return the serialized state
+     * @throws IOException if serialization fails
+     */
+    @Benchmark
+    public byte[] gameStateWriteCodec() throws IOException {
+        return codec.writeGameState(state);
+    }
+}
@@ -0,0 +1,82 @@
+package edu.brandeis.cosi.atg.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.cards.Card;
+import edu.brandeis.cosi.atg.api.event.Event;
+import edu.brandeis.cosi.atg.api.event.GainCardEvent;
+import edu.brandeis.cosi.atg.api.event.PlayCardEvent;
+
+/**
+ * Measures creating an event and fanning it out to every
+ * {@link GameObserver} in a game (one per player, plus the Engine's own
+ * observer).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ObserverBenchmark {
+    private final GameState state = Fixtures.MONEY_STATE;
+    private final Card card = Fixtures.UNPLAYED.get(0);
+    private GameObserver[] observers;
+
+    /** The number of observers notified of each event. */
+    @Param({ "1", "3" })
+    public int observerCount;
+
+    /**
+     * Creates observers which consume every event.
+     *
+     * @param bh the blackhole
+     */
+    @Setup
+    public void setup(Blackhole bh) {
+        observers = new GameObserver[observerCount];
+        for (int i = 0; i < observerCount; i++) {
+            observers[i] = (state, event) -> {
+                bh.consume(state);
+                bh.consume(event);
+            };
+        }
+    }
+
+    /**
+     * Notifies all observers of a PlayCardEvent.
+     */
+    @Benchmark
+    public void playCardEvent() {
+        dispatch(new PlayCardEvent(card, "player1"));
+    }
+
+    /**
+     * Notifies all observers of a GainCardEvent.
+     */
+    @Benchmark
+    public void gainCardEvent() {
+        dispatch(new GainCardEvent(Card.Type.ETHEREUM, "player1"));
+    }
+
+    private void dispatch(Event event) {
+        for (GameObserver observer : observers) {
+            observer.notifyEvent(state, event);
+        }
+    }
+}
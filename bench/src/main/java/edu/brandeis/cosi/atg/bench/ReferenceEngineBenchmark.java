@@ -0,0 +1,81 @@
+package edu.brandeis.cosi.atg.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.PlayerViolationException;
+import edu.brandeis.cosi.atg.api.engine.ReferenceEngine;
+
+/**
+ * Measures full-game throughput of the {@link ReferenceEngine} with two
+ * {@link BigMoneyPlayer}s. The {@code turns} secondary result reports
+ * simulated turns per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ReferenceEngineBenchmark {
+    private ImmutableList<Player> players;
+    private SplittableRandom random;
+
+    /**
+     * Counts the turns simulated during each iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class TurnCounter {
+        /** The number of turns simulated. */
+        public long turns;
+
+        /**
+         * Resets the counter before each iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            turns = 0;
+        }
+    }
+
+    /**
+     * Creates the players and random source.
+     */
+    @Setup
+    public void setup() {
+        players = ImmutableList.of(new BigMoneyPlayer("player1"), new BigMoneyPlayer("player2"));
+        random = new SplittableRandom(42);
+    }
+
+    /**
+     * Plays a single game to completion.
+     *
+     * @param counter the turn counter
+     * @return the scores
+     * @throws PlayerViolationException never, for the players used here
+     */
+    @Benchmark
+    public ImmutableList<Player.ScorePair> playGame(TurnCounter counter) throws PlayerViolationException {
+        ReferenceEngine engine = new ReferenceEngine(players, null, random.split());
+        ImmutableList<Player.ScorePair> scores = engine.play();
+        counter.turns += engine.getTurnCount();
+        return scores;
+    }
+}
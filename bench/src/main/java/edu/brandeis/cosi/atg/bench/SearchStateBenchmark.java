@@ -0,0 +1,73 @@
+package edu.brandeis.cosi.atg.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.brandeis.cosi.atg.api.search.RolloutPolicy;
+import edu.brandeis.cosi.atg.api.search.SearchState;
+
+/**
+ * Measures {@link SearchState} rollouts, the inner loop of a Monte Carlo Tree
+ * Search, and apply/undo of a single action.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchStateBenchmark {
+    private final RolloutPolicy policy = RolloutPolicy.greedy(0.1);
+    private final int[] actions = new int[SearchState.ACTION_COUNT];
+    private SearchState root;
+    private SearchState state;
+
+    /**
+     * Creates the root state of a new two player game.
+     */
+    @Setup
+    public void setup() {
+        root = SearchState.newGame(2, new SplittableRandom(1));
+        state = new SearchState(2, new SplittableRandom(2));
+    }
+
+    /**
+     * Copies and determinizes the root, then plays the game to the end.
+     *
+     * @return the first player's score
+     */
+    @Benchmark
+    public int rollout() {
+        state.copyFrom(root);
+        state.determinize(0);
+        while (!state.isTerminal()) {
+            int count = state.legalActions(actions);
+            state.apply(policy.choose(state, actions, count, state.getRandom()));
+        }
+        return state.getScore(0);
+    }
+
+    /**
+     * Applies and undoes the first legal action at the root.
+     *
+     * @return the money after undoing
+     */
+    @Benchmark
+    public int applyUndo() {
+        root.legalActions(actions);
+        root.apply(actions[0]);
+        root.undo();
+        return root.getMoney();
+    }
+}
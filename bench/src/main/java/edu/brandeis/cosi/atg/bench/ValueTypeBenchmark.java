@@ -0,0 +1,118 @@
+package edu.brandeis.cosi.atg.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.collect.ImmutableCollection;
+
+import edu.brandeis.cosi.atg.api.GameDeck;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Hand;
+import edu.brandeis.cosi.atg.api.cards.Card;
+
+/**
+ * Measures construction of and access to the API value types that an Engine
+ * builds on every prompt: {@link GameState}, {@link Hand} and
+ * {@link GameDeck}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValueTypeBenchmark {
+    private final GameDeck deck = Fixtures.DECK;
+    private final Hand hand = Fixtures.HAND;
+    private final GameState state = Fixtures.MONEY_STATE;
+
+    /**
+     * Builds a GameState, including a new Hand and GameDeck.
+     *
+     * @return the new state
+     */
+    @Benchmark
+    public GameState constructGameState() {
+        return new GameState("player1", new Hand(Fixtures.PLAYED, Fixtures.UNPLAYED), GameState.TurnPhase.MONEY,
+                3, 1, new GameDeck(Fixtures.SUPPLY_COUNTS));
+    }
+
+    /**
+     * Reads every getter of a GameState.
+     *
+     * @param bh the blackhole
+     */
+    @Benchmark
+    public void readGameState(Blackhole bh) {
+        bh.consume(state.getCurrentPlayerName());
+        bh.consume(state.getCurrentPlayerHand());
+        bh.consume(state.getTurnPhase());
+        bh.consume(state.getSpendableMoney());
+        bh.consume(state.getAvailableBuys());
+        bh.consume(state.getDeck());
+    }
+
+    /**
+     * Gets all cards of a hand.
+     *
+     * @return all cards
+     */
+    @Benchmark
+    public ImmutableCollection<Card> handGetAllCards() {
+        return hand.getAllCards();
+    }
+
+    /**
+     * Checks hand membership of a card.
+     *
+     * @return whether the card is in the hand
+     */
+    @Benchmark
+    public boolean handContains() {
+        return hand.contains(Fixtures.UNPLAYED.get(1));
+    }
+
+    /**
+     * Builds the hand that results from playing a card.
+     *
+     * @return the new hand
+     */
+    @Benchmark
+    public Hand handPlay() {
+        return hand.play(Fixtures.UNPLAYED.get(0));
+    }
+
+    /**
+     * Looks up the available count of every card type.
+     *
+     * @return the total number of available cards
+     */
+    @Benchmark
+    public int deckGetNumAvailable() {
+        int total = 0;
+        for (Card.Type type : Card.Type.values()) {
+            total += deck.getNumAvailable(type);
+        }
+        return total;
+    }
+
+    /**
+     * Builds the deck that results from buying a card.
+     *
+     * @return the new deck
+     */
+    @Benchmark
+    public GameDeck deckWithDelta() {
+        return deck.withDelta(Card.Type.ETHEREUM, -1);
+    }
+}
@@ -1,5 +1,7 @@
 package edu.brandeis.cosi.atg.api;
 
+import java.util.Map;
+
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -15,9 +17,17 @@ import edu.brandeis.cosi.atg.api.cards.Card;
  * private implementation detail of the game engine), but rather the piles of
  * cards available for purchase during the game.
  *
+ * Counts are stored in an array indexed by {@link Card.Type#ordinal()}, so
+ * looking up the number of available cards does not box or hash. The map
+ * returned by {@link #getCardCounts()} is built on first use.
  */
 public final class GameDeck {
-    private final ImmutableMap<Card.Type, Integer> cardCounts;
+    private static final Card.Type[] TYPES = Card.Type.values();
+
+    private final int[] counts;
+    /** Bit {@code 1 << ordinal} is set for each card type present in the deck. */
+    private final int present;
+    private ImmutableMap<Card.Type, Integer> cardCounts;
 
     /**
      * Constructs a GameDeck with the specified cards types and counts.
@@ -27,27 +37,68 @@ public final class GameDeck {
      */
     @JsonCreator
     public GameDeck(@JsonProperty("cardCounts") ImmutableMap<Card.Type, Integer> cardCounts) {
+        this.counts = new int[TYPES.length];
+        int mask = 0;
+        for (Map.Entry<Card.Type, Integer> entry : cardCounts.entrySet()) {
+            counts[entry.getKey().ordinal()] = entry.getValue();
+            mask |= 1 << entry.getKey().ordinal();
+        }
+        this.present = mask;
         this.cardCounts = cardCounts;
     }
 
+    /**
+     * Constructs a GameDeck containing every card type, with the specified counts.
+     *
+     * @param counts the number of available cards of each type, indexed by
+     *               {@link Card.Type#ordinal()}
+     */
+    public GameDeck(int[] counts) {
+        this(copyCounts(counts), (1 << TYPES.length) - 1);
+    }
+
+    private GameDeck(int[] counts, int present) {
+        this.counts = counts;
+        this.present = present;
+    }
+
+    private static int[] copyCounts(int[] counts) {
+        if (counts.length != TYPES.length) {
+            throw new IllegalArgumentException("Expected " + TYPES.length + " counts, got " + counts.length);
+        }
+        return counts.clone();
+    }
+
     /**
      * Gets the number of available cards of each type.
      *
      * @return a map of card types to the number of available cards of that type
      */
     public ImmutableMap<Card.Type, Integer> getCardCounts() {
-        return cardCounts;
+        ImmutableMap<Card.Type, Integer> result = cardCounts;
+        if (result == null) {
+            ImmutableMap.Builder<Card.Type, Integer> builder = ImmutableMap.builderWithExpectedSize(TYPES.length);
+            for (Card.Type type : TYPES) {
+                if ((present & (1 << type.ordinal())) != 0) {
+                    builder.put(type, counts[type.ordinal()]);
+                }
+            }
+            result = builder.build();
+            cardCounts = result;
+        }
+        return result;
     }
 
     /**
      * Gets the number of available cards of the specified type.
      *
      * @param cardType the type of card
-     * @return the number of available cards of the specified type
+     * @return the number of available cards of the specified type, or 0 if the
+     *         type is not part of the deck
      */
     @JsonIgnore
     public int getNumAvailable(Card.Type cardType) {
-        return cardCounts.get(cardType);
+        return counts[cardType.ordinal()];
     }
 
     /**
@@ -57,6 +108,27 @@ public final class GameDeck {
      */
     @JsonIgnore
     public ImmutableSet<Card.Type> getCardTypes() {
-        return cardCounts.keySet();
+        return getCardCounts().keySet();
+    }
+
+    /**
+     * Returns a copy of this deck with the number of available cards of the
+     * specified type changed by {@code delta}. For example,
+     * {@code deck.withDelta(type, -1)} is the deck after a card of that type has
+     * been bought.
+     *
+     * @param cardType the type of card
+     * @param delta    the amount to add to the number of available cards
+     * @return a new GameDeck
+     * @throws IllegalArgumentException if the resulting count would be negative
+     */
+    public GameDeck withDelta(Card.Type cardType, int delta) {
+        int ordinal = cardType.ordinal();
+        if (counts[ordinal] + delta < 0) {
+            throw new IllegalArgumentException("Not enough " + cardType + " cards available: " + counts[ordinal]);
+        }
+        int[] copy = counts.clone();
+        copy[ordinal] += delta;
+        return new GameDeck(copy, present | (1 << ordinal));
     }
 }
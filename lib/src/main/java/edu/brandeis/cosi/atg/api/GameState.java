@@ -1,5 +1,7 @@
 package edu.brandeis.cosi.atg.api;
 
+import java.util.function.Supplier;
+
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -12,14 +14,24 @@ import com.fasterxml.jackson.annotation.JsonProperty;
  *
  * GameState is intentionally immutable: the only way players can modify the
  * state of the game is to make a decision when prompted by the Engine.
+ * <br/>
+ * <br/>
+ * An Engine may create a GameState with {@link #lazy lazy} hand and deck, so
+ * that a {@link Hand} or {@link GameDeck} is only built for players who ask
+ * for one. Such a GameState behaves exactly like any other: its getters always
+ * return the same values, however long it is kept.
  */
 public final class GameState {
     private final String currentPlayerName;
     private final int availableBuys;
     private final int spendableMoney;
-    private final Hand currentPlayerHand;
-    private final GameDeck deck;
     private final TurnPhase phase;
+    private final Supplier<Hand> handSource;
+    private final Supplier<GameDeck> deckSource;
+    // Built on first use when the GameState is lazy. Hand and GameDeck are
+    // immutable, so a racing thread can at worst build an equal copy.
+    private Hand currentPlayerHand;
+    private GameDeck deck;
 
     /**
      * Represents the phase of a turn.
@@ -66,6 +78,42 @@ public final class GameState {
         this.deck = deck;
         this.spendableMoney = spendableMoney;
         this.phase = phase;
+        this.handSource = null;
+        this.deckSource = null;
+    }
+
+    private GameState(String currentPlayerName, Supplier<Hand> handSource, TurnPhase phase, int spendableMoney,
+            int availableBuys, Supplier<GameDeck> deckSource) {
+        this.availableBuys = availableBuys;
+        this.currentPlayerName = currentPlayerName;
+        this.spendableMoney = spendableMoney;
+        this.phase = phase;
+        this.handSource = handSource;
+        this.deckSource = deckSource;
+    }
+
+    /**
+     * Creates a GameState whose hand and deck are built by the specified
+     * suppliers the first time they are requested, and then reused.
+     * <br/>
+     * <br/>
+     * The suppliers must describe the state of the game at the moment this
+     * method is called, and keep returning equal values afterwards; typically
+     * they read a private copy of the engine's state, not the live state.
+     *
+     * @param currentPlayerName the name of the player whose turn it is
+     * @param handSource        supplies the hand of the current player, or null
+     *                          if the GameState is intended for a player who is
+     *                          not the current player
+     * @param phase             the phase of the current turn
+     * @param spendableMoney    the amount of money the player can spend this turn
+     * @param availableBuys     the number of available buys
+     * @param deckSource        supplies the game deck
+     * @return the new GameState
+     */
+    public static GameState lazy(String currentPlayerName, Supplier<Hand> handSource, TurnPhase phase,
+            int spendableMoney, int availableBuys, Supplier<GameDeck> deckSource) {
+        return new GameState(currentPlayerName, handSource, phase, spendableMoney, availableBuys, deckSource);
     }
 
     /**
@@ -83,7 +131,12 @@ public final class GameState {
      * @return the hand of the current player
      */
     public Hand getCurrentPlayerHand() {
-        return currentPlayerHand;
+        Hand hand = currentPlayerHand;
+        if (hand == null && handSource != null) {
+            hand = handSource.get();
+            currentPlayerHand = hand;
+        }
+        return hand;
     }
 
     /**
@@ -114,7 +167,12 @@ public final class GameState {
      * @return the game deck
      */
     public GameDeck getDeck() {
-        return deck;
+        GameDeck gameDeck = deck;
+        if (gameDeck == null && deckSource != null) {
+            gameDeck = deckSource.get();
+            deck = gameDeck;
+        }
+        return gameDeck;
     }
 
     /**
@@ -1,9 +1,12 @@
 package edu.brandeis.cosi.atg.api;
 
+import java.util.Arrays;
+
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
 import edu.brandeis.cosi.atg.api.cards.Card;
@@ -11,10 +14,82 @@ import edu.brandeis.cosi.atg.api.cards.Card;
 /**
  * A Hand represents the collection of cards a player has in their hand during a
  * single turn of the game.
+ *
+ * Played cards are listed in the order they were played: first the played
+ * cards given to the constructor, in their order, then each card played
+ * through {@link #play(Card)}. Unplayed cards keep the order they were given
+ * to the constructor in.
+ *
+ * Internally, a Hand is an array of all its cards plus a bitmask of which of
+ * them have been played and the positions of the played cards in play order.
+ * The array is shared by every Hand derived from it through
+ * {@link #play(Card)}, along with a bitset over card ids used by
+ * {@link #contains(Card)}. The collections returned by the getters and the
+ * per-type counts are built on first use and cached.
  */
 public final class Hand {
-    private final ImmutableCollection<Card> playedCards;
-    private final ImmutableCollection<Card> unplayedCards;
+    private static final Card.Type[] TYPES = Card.Type.values();
+    /** Hands whose cards have larger {@link Card#hashCode()}s are not indexed. */
+    private static final int MAX_INDEXED_HASH = 1 << 16;
+
+    private final Cards cards;
+    /** Bit {@code i} is set if {@code cards.cards[i]} has been played. */
+    private final long[] played;
+    /** The positions in {@code cards.cards} of the played cards, in play order. */
+    private final int[] playOrder;
+
+    private ImmutableCollection<Card> playedCards;
+    private ImmutableCollection<Card> unplayedCards;
+    private ImmutableSet<Card> allCards;
+    /** Played counts by type ordinal, followed by unplayed counts. */
+    private volatile int[] typeCounts;
+
+    /**
+     * The cards of a hand, shared between all hands derived from it.
+     */
+    private static final class Cards {
+        final Card[] cards;
+        /** Membership bitset indexed by {@link Card#hashCode()}; built on use. */
+        volatile long[] index;
+
+        Cards(Card[] cards) {
+            this.cards = cards;
+        }
+
+        boolean contains(Card card) {
+            long[] bits = index;
+            if (bits == null) {
+                bits = buildIndex();
+                index = bits;
+            }
+            if (bits.length == 0) {
+                for (Card c : cards) {
+                    if (c.equals(card)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            int hash = card.hashCode();
+            return hash >= 0 && (hash >>> 6) < bits.length && (bits[hash >>> 6] & (1L << hash)) != 0;
+        }
+
+        private long[] buildIndex() {
+            int max = 0;
+            for (Card c : cards) {
+                int hash = c.hashCode();
+                if (hash < 0 || hash >= MAX_INDEXED_HASH) {
+                    return new long[0];
+                }
+                max = Math.max(max, hash);
+            }
+            long[] bits = new long[(max >>> 6) + 1];
+            for (Card c : cards) {
+                bits[c.hashCode() >>> 6] |= 1L << c.hashCode();
+            }
+            return bits;
+        }
+    }
 
     /**
      * Constructs a Hand with the specified cards
@@ -25,10 +100,31 @@ public final class Hand {
     @JsonCreator
     public Hand(@JsonProperty("playedCards") ImmutableCollection<Card> playedCards,
             @JsonProperty("unplayedCards") ImmutableCollection<Card> unplayedCards) {
+        Card[] all = new Card[playedCards.size() + unplayedCards.size()];
+        int i = 0;
+        for (Card card : playedCards) {
+            all[i++] = card;
+        }
+        for (Card card : unplayedCards) {
+            all[i++] = card;
+        }
+        this.cards = new Cards(all);
+        this.played = new long[(all.length + 63) >>> 6];
+        this.playOrder = new int[playedCards.size()];
+        for (int j = 0; j < playedCards.size(); j++) {
+            played[j >>> 6] |= 1L << j;
+            playOrder[j] = j;
+        }
         this.playedCards = playedCards;
         this.unplayedCards = unplayedCards;
     }
 
+    private Hand(Cards cards, long[] played, int[] playOrder) {
+        this.cards = cards;
+        this.played = played;
+        this.playOrder = playOrder;
+    }
+
     /**
      * Gets all cards in the hand.
      *
@@ -36,7 +132,12 @@ public final class Hand {
      */
     @JsonIgnore
     public ImmutableCollection<Card> getAllCards() {
-        return ImmutableSet.<Card>builder().addAll(playedCards).addAll(unplayedCards).build();
+        ImmutableSet<Card> result = allCards;
+        if (result == null) {
+            result = ImmutableSet.<Card>builder().addAll(getPlayedCards()).addAll(getUnplayedCards()).build();
+            allCards = result;
+        }
+        return result;
     }
 
     /**
@@ -45,7 +146,12 @@ public final class Hand {
      * @return an immutable collection of unplayed cards in the hand
      */
     public ImmutableCollection<Card> getUnplayedCards() {
-        return unplayedCards;
+        ImmutableCollection<Card> result = unplayedCards;
+        if (result == null) {
+            result = selectUnplayed();
+            unplayedCards = result;
+        }
+        return result;
     }
 
     /**
@@ -54,6 +160,105 @@ public final class Hand {
      * @return an immutable collection of played cards in the hand
      */
     public ImmutableCollection<Card> getPlayedCards() {
-        return playedCards;
+        ImmutableCollection<Card> result = playedCards;
+        if (result == null) {
+            result = selectPlayed();
+            playedCards = result;
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a card is in the hand, whether played or not. This is a
+     * constant time operation.
+     *
+     * @param card the card to look for
+     * @return true if the card is in the hand
+     */
+    public boolean contains(Card card) {
+        return cards.contains(card);
+    }
+
+    /**
+     * Counts the played cards of the specified type.
+     *
+     * @param type the card type
+     * @return the number of played cards of that type
+     */
+    public int countPlayed(Card.Type type) {
+        return typeCounts()[type.ordinal()];
+    }
+
+    /**
+     * Counts the unplayed cards of the specified type.
+     *
+     * @param type the card type
+     * @return the number of unplayed cards of that type
+     */
+    public int countUnplayed(Card.Type type) {
+        return typeCounts()[TYPES.length + type.ordinal()];
+    }
+
+    /**
+     * Returns the hand that results from playing the specified card. The new
+     * hand shares this hand's cards, so this only copies the (usually single
+     * word) bitmask of played cards and the short list of their positions. The
+     * card is listed after the cards already played, and is removed from the
+     * unplayed cards without changing the order of the others.
+     *
+     * @param card the unplayed card to play
+     * @return a new Hand in which the card has been played
+     * @throws IllegalArgumentException if the card is not an unplayed card in
+     *                                  this hand
+     */
+    public Hand play(Card card) {
+        Card[] all = cards.cards;
+        for (int i = 0; i < all.length; i++) {
+            if (!isPlayed(i) && all[i].equals(card)) {
+                long[] next = played.clone();
+                next[i >>> 6] |= 1L << i;
+                int[] order = Arrays.copyOf(playOrder, playOrder.length + 1);
+                order[playOrder.length] = i;
+                return new Hand(cards, next, order);
+            }
+        }
+        throw new IllegalArgumentException(card + " is not an unplayed card in this hand");
+    }
+
+    private boolean isPlayed(int i) {
+        return (played[i >>> 6] & (1L << i)) != 0;
+    }
+
+    private ImmutableList<Card> selectPlayed() {
+        Card[] all = cards.cards;
+        ImmutableList.Builder<Card> builder = ImmutableList.builderWithExpectedSize(playOrder.length);
+        for (int i : playOrder) {
+            builder.add(all[i]);
+        }
+        return builder.build();
+    }
+
+    private ImmutableList<Card> selectUnplayed() {
+        Card[] all = cards.cards;
+        ImmutableList.Builder<Card> builder = ImmutableList.builderWithExpectedSize(all.length - playOrder.length);
+        for (int i = 0; i < all.length; i++) {
+            if (!isPlayed(i)) {
+                builder.add(all[i]);
+            }
+        }
+        return builder.build();
+    }
+
+    private int[] typeCounts() {
+        int[] result = typeCounts;
+        if (result == null) {
+            result = new int[2 * TYPES.length];
+            Card[] all = cards.cards;
+            for (int i = 0; i < all.length; i++) {
+                result[(isPlayed(i) ? 0 : TYPES.length) + all[i].getType().ordinal()]++;
+            }
+            typeCounts = result;
+        }
+        return result;
     }
 }
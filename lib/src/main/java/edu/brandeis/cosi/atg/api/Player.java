@@ -62,6 +62,28 @@ public interface Player {
      */
     public Optional<GameObserver> getObserver();
 
+    /**
+     * Indicates whether this player always plays every money card in its hand
+     * during the {@link GameState.TurnPhase#MONEY MONEY} phase.
+     *
+     * If this method returns true, an Engine may play all of the player's
+     * {@link edu.brandeis.cosi.atg.api.cards.Card.Type.Category#MONEY MONEY}
+     * cards on its behalf at the start of the MONEY phase, notifying observers
+     * of each play as usual, and move on to the BUY phase without calling
+     * {@link #makeDecision makeDecision}. This saves a prompt (and a new
+     * {@link GameState}) per card, which matters most for players whose
+     * decisions are expensive to request, such as remote players.
+     *
+     * The result must not change during a game. Engines are not required to
+     * honor it; a player returning true must still handle MONEY phase prompts.
+     *
+     * @return true if the player's money cards may be played automatically;
+     *         false by default
+     */
+    public default boolean autoPlaysMoney() {
+        return false;
+    }
+
     /**
      * A pair of a player and their score.
      */
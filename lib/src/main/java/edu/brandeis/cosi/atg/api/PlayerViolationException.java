@@ -5,6 +5,8 @@ package edu.brandeis.cosi.atg.api;
  * exception.
  */
 public class PlayerViolationException extends Exception {
+    /** The name of the player who committed the violation, if known. */
+    private final String playerName;
 
     /**
      * Constructs a PlayerViolationException with the specified detail message.
@@ -13,6 +15,7 @@ public class PlayerViolationException extends Exception {
      */
     public PlayerViolationException(String message) {
         super(message);
+        this.playerName = null;
     }
 
     /**
@@ -24,6 +27,20 @@ public class PlayerViolationException extends Exception {
      */
     public PlayerViolationException(String message, Throwable cause) {
         super(message, cause);
+        this.playerName = null;
+    }
+
+    /**
+     * Constructs a PlayerViolationException identifying the player who committed
+     * the violation.
+     *
+     * @param playerName the name of the player who committed the violation
+     * @param message    the detail message
+     * @param cause      the cause of the exception, or null if there is none
+     */
+    public PlayerViolationException(String playerName, String message, Throwable cause) {
+        super(message, cause);
+        this.playerName = playerName;
     }
 
     /**
@@ -33,5 +50,16 @@ public class PlayerViolationException extends Exception {
      */
     public PlayerViolationException(Throwable cause) {
         super(cause);
+        this.playerName = null;
+    }
+
+    /**
+     * Gets the name of the player who committed the violation.
+     *
+     * @return the name of the player, or null if the exception does not identify
+     *         one
+     */
+    public String getPlayerName() {
+        return playerName;
     }
 }
@@ -0,0 +1,48 @@
+package edu.brandeis.cosi.atg.api.batch;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+
+/**
+ * A player that makes the decisions for many games at once. A BatchPlayer
+ * takes part in games through the players created by a
+ * {@link DecisionBatcher}.
+ * <br/>
+ * <br/>
+ * The requests in a batch come from different games, in no particular order,
+ * and a game has at most one request in each batch. A BatchPlayer is only
+ * called from one thread at a time. It does not receive game events; players
+ * that need them should track the games themselves from the states they are
+ * given.
+ */
+public interface BatchPlayer {
+
+    /**
+     * Gets the name of the player, which is used in every game it plays.
+     *
+     * @return the name of the player
+     */
+    public String getName();
+
+    /**
+     * Makes a decision for each request in a batch.
+     *
+     * Throwing an exception forfeits every game in the batch.
+     *
+     * @param requests the prompts to decide, at least one
+     * @return the chosen decision for each request, in the same order
+     */
+    public ImmutableList<Decision> makeDecisions(ImmutableList<DecisionRequest> requests);
+
+    /**
+     * Indicates whether this player always plays every money card in its hand.
+     * See {@link edu.brandeis.cosi.atg.api.Player#autoPlaysMoney()}.
+     *
+     * @return true if the player's money cards may be played automatically;
+     *         false by default
+     */
+    public default boolean autoPlaysMoney() {
+        return false;
+    }
+}
@@ -0,0 +1,45 @@
+package edu.brandeis.cosi.atg.api.batch;
+
+import java.util.Optional;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+
+/**
+ * The Player for a single game created by a {@link DecisionBatcher}.
+ */
+final class BatchedPlayer implements Player {
+    private final DecisionBatcher batcher;
+    private final String name;
+    private final boolean autoPlaysMoney;
+
+    BatchedPlayer(DecisionBatcher batcher, String name, boolean autoPlaysMoney) {
+        this.batcher = batcher;
+        this.name = name;
+        this.autoPlaysMoney = autoPlaysMoney;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+        return batcher.decide(state, options);
+    }
+
+    @Override
+    public Optional<GameObserver> getObserver() {
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean autoPlaysMoney() {
+        return autoPlaysMoney;
+    }
+}
@@ -0,0 +1,289 @@
+package edu.brandeis.cosi.atg.api.batch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.metrics.LatencyHistogram;
+
+/**
+ * Schedules the prompts of many concurrently running games into batches for a
+ * {@link BatchPlayer}.
+ * <br/>
+ * <br/>
+ * Each game uses its own {@link Player} from {@link #newPlayer()}. When the
+ * engine prompts that player, the game's thread queues the prompt and waits.
+ * A dispatcher thread collects queued prompts until it has
+ * {@code maxBatchSize} of them, or until {@code maxDelay} has passed since
+ * the first one arrived, and then passes them all to the BatchPlayer at once.
+ * Prompts that arrive while a batch is being decided wait for the next batch.
+ * <br/>
+ * <br/>
+ * Batches can only be as large as the number of games waiting for a decision,
+ * so the games should run on at least {@code maxBatchSize} threads, for
+ * example with a {@link edu.brandeis.cosi.atg.api.tournament.Tournament
+ * Tournament} of that parallelism:
+ *
+ * <pre>
+ * DecisionBatcher batcher = new DecisionBatcher(network, 64, Duration.ofMillis(2));
+ * new Tournament(engines, ImmutableMap.of("network", batcher.supplier(), "money", BigMoney::new), 1000, 64)
+ *         .runRoundRobin();
+ * batcher.close();
+ * </pre>
+ *
+ * A DecisionBatcher must be {@link #close() closed} to stop its dispatcher
+ * thread.
+ */
+public final class DecisionBatcher implements AutoCloseable {
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final BatchPlayer player;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final LinkedBlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    private final Thread dispatcher;
+    private volatile boolean closed;
+    /** Set by the dispatcher before it fails the prompts left in the queue. */
+    private volatile boolean stopped;
+
+    /**
+     * A queued prompt, completed by the dispatcher.
+     */
+    private static final class Pending extends CompletableFuture<Decision> {
+        final DecisionRequest request;
+        final long start = System.nanoTime();
+
+        Pending(DecisionRequest request) {
+            this.request = request;
+        }
+    }
+
+    /**
+     * Constructs a DecisionBatcher and starts its dispatcher thread.
+     *
+     * @param player       the player that decides each batch
+     * @param maxBatchSize the largest number of prompts in a batch
+     * @param maxDelay     the longest time a batch waits for more prompts
+     *                     after its first prompt arrives
+     */
+    public DecisionBatcher(BatchPlayer player, int maxBatchSize, Duration maxDelay) {
+        if (maxBatchSize < 1 || maxDelay.isNegative()) {
+            throw new IllegalArgumentException("Invalid batch size or delay");
+        }
+        this.player = player;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.dispatcher = new Thread(this::dispatch, "atg-decision-batcher-" + THREAD_COUNT.incrementAndGet());
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Creates a player for a single game, whose decisions are made in batches.
+     *
+     * @return a new player
+     */
+    public Player newPlayer() {
+        return new BatchedPlayer(this, player.getName(), player.autoPlaysMoney());
+    }
+
+    /**
+     * Returns a supplier of batched players, for example one registered with a
+     * {@link edu.brandeis.cosi.atg.api.tournament.Tournament Tournament}.
+     *
+     * @return a supplier that calls {@link #newPlayer()}
+     */
+    public Supplier<Player> supplier() {
+        return this::newPlayer;
+    }
+
+    /**
+     * Gets the number of batches passed to the player.
+     *
+     * @return the number of batches
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * Gets the number of prompts passed to the player.
+     *
+     * @return the number of prompts
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Gets the average number of prompts in a batch.
+     *
+     * @return the mean batch size, or 0 if there have been no batches
+     */
+    public double getMeanBatchSize() {
+        long b = batches.sum();
+        return b == 0 ? 0 : (double) requests.sum() / b;
+    }
+
+    /**
+     * Gets the time from each prompt being queued to its decision being made,
+     * including the time spent waiting for the batch to fill.
+     *
+     * @return the histogram of decision latencies
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Stops the dispatcher thread once every queued prompt has been decided.
+     * Prompts made after this call fail, forfeiting their games. If the
+     * dispatcher stops for any other reason, such as an {@link Error} thrown by
+     * the BatchPlayer, waiting prompts fail as well.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queues a prompt and waits for its decision.
+     */
+    Decision decide(GameState state, ImmutableList<Decision> options) {
+        if (closed) {
+            throw new IllegalStateException("DecisionBatcher is closed");
+        }
+        Pending pending = new Pending(new DecisionRequest(state, options));
+        queue.add(pending);
+        // The dispatcher sets stopped before its final drain of the queue, so a
+        // prompt added after that drain sees it here.
+        if (stopped && queue.remove(pending)) {
+            throw new IllegalStateException("DecisionBatcher is closed");
+        }
+        try {
+            while (true) {
+                try {
+                    return pending.get(IDLE_POLL_NANOS, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    if (!dispatcher.isAlive()) {
+                        pending.completeExceptionally(new IllegalStateException("DecisionBatcher has stopped"));
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a decision", e);
+        }
+    }
+
+    private void dispatch() {
+        try {
+            dispatchBatches();
+        } finally {
+            stopped = true;
+            IllegalStateException failure = new IllegalStateException("DecisionBatcher is closed");
+            for (Pending pending = queue.poll(); pending != null; pending = queue.poll()) {
+                pending.completeExceptionally(failure);
+            }
+        }
+    }
+
+    private void dispatchBatches() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        ImmutableList.Builder<DecisionRequest> batchRequests = ImmutableList.builderWithExpectedSize(maxBatchSize);
+        while (true) {
+            try {
+                Pending first = queue.poll(IDLE_POLL_NANOS, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    if (closed && queue.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                long deadline = first.start + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Only close() stops the dispatcher; decide whatever was collected.
+            }
+            for (Pending pending : batch) {
+                batchRequests.add(pending.request);
+            }
+            decideBatch(batch, batchRequests.build());
+            batch.clear();
+            batchRequests = ImmutableList.builderWithExpectedSize(maxBatchSize);
+        }
+    }
+
+    private void decideBatch(List<Pending> batch, ImmutableList<DecisionRequest> batchRequests) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batches.increment();
+        requests.add(batch.size());
+        ImmutableList<Decision> decisions;
+        try {
+            decisions = player.makeDecisions(batchRequests);
+            if (decisions == null || decisions.size() != batch.size()) {
+                throw new IllegalStateException(player.getName() + " returned "
+                        + (decisions == null ? "no decisions" : decisions.size() + " decisions")
+                        + " for a batch of " + batch.size());
+            }
+        } catch (RuntimeException e) {
+            for (Pending pending : batch) {
+                pending.completeExceptionally(e);
+            }
+            return;
+        } catch (Error e) {
+            for (Pending pending : batch) {
+                pending.completeExceptionally(e);
+            }
+            throw e;
+        }
+        long now = System.nanoTime();
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            latencies.record(now - pending.start);
+            pending.complete(decisions.get(i));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package edu.brandeis.cosi.atg.api.batch;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+
+/**
+ * A single prompt within a batch: the arguments one game passed to
+ * {@link edu.brandeis.cosi.atg.api.Player#makeDecision makeDecision}.
+ */
+public final class DecisionRequest {
+    private final GameState state;
+    private final ImmutableList<Decision> options;
+
+    /**
+     * Constructs a DecisionRequest.
+     *
+     * @param state   the current game state
+     * @param options the available decisions to choose from
+     */
+    public DecisionRequest(GameState state, ImmutableList<Decision> options) {
+        this.state = state;
+        this.options = options;
+    }
+
+    /**
+     * Gets the current game state.
+     *
+     * @return the game state
+     */
+    public GameState getState() {
+        return state;
+    }
+
+    /**
+     * Gets the available decisions to choose from.
+     *
+     * @return the options
+     */
+    public ImmutableList<Decision> getOptions() {
+        return options;
+    }
+
+    @Override
+    public String toString() {
+        return "DecisionRequest{options=" + options + "}";
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * This package contains an interface for players that make many decisions at
+ * once, and a scheduler that batches the prompts of concurrently running
+ * games for them.
+ * <br/>
+ * <br/>
+ * A {@link edu.brandeis.cosi.atg.api.batch.BatchPlayer} decides a list of
+ * {@link edu.brandeis.cosi.atg.api.batch.DecisionRequest}s in one call, which
+ * suits players backed by neural networks or lookup tables. A
+ * {@link edu.brandeis.cosi.atg.api.batch.DecisionBatcher} creates an ordinary
+ * {@link edu.brandeis.cosi.atg.api.Player Player} for each game, collects the
+ * prompts of all those games, and passes them to the BatchPlayer in batches.
+ */
+package edu.brandeis.cosi.atg.api.batch;
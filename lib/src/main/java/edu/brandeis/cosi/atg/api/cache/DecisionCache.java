@@ -0,0 +1,240 @@
+package edu.brandeis.cosi.atg.api.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.GameDeck;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Hand;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.cards.Card;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.search.SearchState;
+import edu.brandeis.cosi.atg.api.search.TranspositionTable;
+
+/**
+ * A bounded, concurrent cache of the decisions made by a deterministic
+ * player, shared by every {@link MemoizingPlayer} it creates.
+ * <br/>
+ * <br/>
+ * A prompt is reduced to a compact key of three longs, which records exactly
+ * the number of cards of each type in the supply, the number of played and
+ * unplayed cards of each type in the hand, the turn phase, the spendable
+ * money, the available buys, and the sequence of options in card-type form
+ * (see {@link SearchState#toAction(Decision)}). The cache stores the position
+ * of the chosen decision among the options, so a PlayCardDecision may be
+ * replayed as a different card of the same type. The cache therefore only
+ * suits players whose decisions depend on nothing but this information; in
+ * particular not on the player's history, the identity of individual cards,
+ * or randomness. Prompts with more than 16 options, or counts too large for
+ * the key, are passed to the player without caching.
+ * <br/>
+ * <br/>
+ * Entries are kept in a {@link TranspositionTable}, which evicts the least
+ * recently used entry of a small set when the cache is full. Players with
+ * different strategies must use different caches.
+ */
+public final class DecisionCache {
+    private static final Card.Type[] TYPES = Card.Type.values();
+
+    private final TranspositionTable<Entry> table;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypasses = new LongAdder();
+
+    /**
+     * A cached decision and the full key it was stored under.
+     */
+    private static final class Entry {
+        final long high;
+        final long low;
+        final long sequence;
+        final int index;
+
+        Entry(long high, long low, long sequence, int index) {
+            this.high = high;
+            this.low = low;
+            this.sequence = sequence;
+            this.index = index;
+        }
+    }
+
+    /**
+     * Constructs a DecisionCache.
+     *
+     * @param capacity the maximum number of cached decisions
+     */
+    public DecisionCache(int capacity) {
+        this.table = new TranspositionTable<>(capacity);
+    }
+
+    /**
+     * Wraps a player so that its decisions are cached.
+     *
+     * @param player the deterministic player to wrap
+     * @return the wrapped player
+     */
+    public MemoizingPlayer wrap(Player player) {
+        return new MemoizingPlayer(player, this);
+    }
+
+    /**
+     * Wraps a supplier of players, for example one registered with a
+     * {@link edu.brandeis.cosi.atg.api.tournament.Tournament Tournament}.
+     *
+     * @param players the supplier to wrap
+     * @return a supplier of wrapped players
+     */
+    public Supplier<Player> supplier(Supplier<Player> players) {
+        return () -> wrap(players.get());
+    }
+
+    /**
+     * Gets the number of prompts answered from the cache.
+     *
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of prompts passed to the player and then cached.
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of prompts passed to the player without caching, because
+     * they could not be represented by a key.
+     *
+     * @return the number of bypassed prompts
+     */
+    public long getBypassCount() {
+        return bypasses.sum();
+    }
+
+    /**
+     * Gets the fraction of all prompts answered from the cache.
+     *
+     * @return the hit rate, between 0 and 1
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum() + bypasses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * Gets the number of cached decisions.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return table.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DecisionCache[size=%d, hits=%d, misses=%d, bypasses=%d, hit rate=%.3f]", size(),
+                getHitCount(), getMissCount(), getBypassCount(), getHitRate());
+    }
+
+    /**
+     * Answers a prompt from the cache, or asks the player and caches its
+     * decision.
+     */
+    Decision decide(Player player, GameState state, ImmutableList<Decision> options) {
+        long high = highKey(state);
+        long low = lowKey(state);
+        long sequence = sequenceKey(options);
+        if (high == -1 || low == -1 || sequence == -1) {
+            bypasses.increment();
+            return player.makeDecision(state, options);
+        }
+        long key = (high * 0x9E3779B97F4A7C15L ^ low) * 0xBF58476D1CE4E5B9L ^ sequence;
+        Entry entry = table.get(key);
+        if (entry != null && entry.high == high && entry.low == low && entry.sequence == sequence) {
+            hits.increment();
+            return options.get(entry.index);
+        }
+        misses.increment();
+        Decision decision = player.makeDecision(state, options);
+        int index = options.indexOf(decision);
+        if (index >= 0) {
+            table.put(key, new Entry(high, low, sequence, index));
+        }
+        return decision;
+    }
+
+    /**
+     * Packs the supply (6 bits per type), the phase, the buys (5 bits) and the
+     * money (8 bits).
+     *
+     * @return the key, or -1 if a value does not fit
+     */
+    private static long highKey(GameState state) {
+        GameDeck deck = state.getDeck();
+        GameState.TurnPhase phase = state.getTurnPhase();
+        int money = state.getSpendableMoney();
+        int buys = state.getAvailableBuys();
+        if (deck == null || phase == null || money < 0 || money > 0xFF || buys < 0 || buys > 0x1F) {
+            return -1;
+        }
+        long key = 0;
+        for (Card.Type type : TYPES) {
+            int count = deck.getNumAvailable(type);
+            if (count > 0x3F) {
+                return -1;
+            }
+            key = key << 6 | count;
+        }
+        key = key << 2 | phase.ordinal();
+        key = key << 5 | buys;
+        return key << 8 | money;
+    }
+
+    /**
+     * Packs the unplayed and played counts of the hand, 5 bits per type each.
+     *
+     * @return the key, or -1 if a count does not fit
+     */
+    private static long lowKey(GameState state) {
+        Hand hand = state.getCurrentPlayerHand();
+        if (hand == null) {
+            return -1;
+        }
+        long key = 0;
+        for (Card.Type type : TYPES) {
+            int unplayed = hand.countUnplayed(type);
+            int played = hand.countPlayed(type);
+            if (unplayed > 0x1F || played > 0x1F) {
+                return -1;
+            }
+            key = key << 10 | unplayed << 5 | played;
+        }
+        return key;
+    }
+
+    /**
+     * Packs the action of each option plus one, 4 bits per option, so that
+     * sequences of different lengths differ.
+     *
+     * @return the key, or -1 if there are too many options
+     */
+    private static long sequenceKey(ImmutableList<Decision> options) {
+        if (options.size() > Long.SIZE / 4) {
+            return -1;
+        }
+        long key = 0;
+        for (Decision option : options) {
+            key = key << 4 | SearchState.toAction(option) + 1;
+        }
+        return key;
+    }
+}
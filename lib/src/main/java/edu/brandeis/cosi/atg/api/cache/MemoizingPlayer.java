@@ -0,0 +1,69 @@
+package edu.brandeis.cosi.atg.api.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Optional;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+
+/**
+ * A Player that answers prompts from a {@link DecisionCache} when it can, and
+ * otherwise asks the player it wraps. MemoizingPlayers are created by
+ * {@link DecisionCache#wrap(Player)}.
+ * <br/>
+ * <br/>
+ * Events are delivered to the wrapped player's observer as usual, whether or
+ * not its decisions come from the cache.
+ */
+public final class MemoizingPlayer implements Player, Closeable {
+    private final Player player;
+    private final DecisionCache cache;
+
+    MemoizingPlayer(Player player, DecisionCache cache) {
+        this.player = player;
+        this.cache = cache;
+    }
+
+    @Override
+    public String getName() {
+        return player.getName();
+    }
+
+    @Override
+    public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+        return cache.decide(player, state, options);
+    }
+
+    @Override
+    public Optional<GameObserver> getObserver() {
+        return player.getObserver();
+    }
+
+    @Override
+    public boolean autoPlaysMoney() {
+        return player.autoPlaysMoney();
+    }
+
+    /**
+     * Closes the wrapped player if it is {@link AutoCloseable}.
+     *
+     * @throws IOException if the wrapped player cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (player instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
+    }
+}
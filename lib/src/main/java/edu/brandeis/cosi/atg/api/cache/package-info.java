@@ -0,0 +1,11 @@
+/**
+ * This package contains a cache of the decisions made by deterministic
+ * {@link edu.brandeis.cosi.atg.api.Player Players}.
+ * <br/>
+ * <br/>
+ * A {@link edu.brandeis.cosi.atg.api.cache.DecisionCache} remembers the
+ * decision a player made for each distinct position, and wraps players in
+ * {@link edu.brandeis.cosi.atg.api.cache.MemoizingPlayer}s that answer
+ * repeated prompts from the cache instead of asking the player again.
+ */
+package edu.brandeis.cosi.atg.api.cache;
@@ -12,10 +12,34 @@ import com.fasterxml.jackson.annotation.JsonProperty;
  * They also have ids, which are unique to each card in the game. The id of a
  * card is used to distinguish it from other cards of the same type. Two cards
  * are considered equal if they have the same type and id.
+ * <br/>
+ * <br/>
+ * Cards are immutable. Prefer {@link #of(Type, int)} to the constructor: it
+ * returns a shared instance for every card id that can occur in the standard
+ * supply, so engines (and Jackson deserialization) don't allocate a new Card
+ * each time one is played or sent to a player.
  */
-public class Card {
-    private Type type;
-    private int id;
+public final class Card {
+    /**
+     * The number of cards in the standard supply. {@link #of(Type, int)} returns
+     * a shared instance for ids from 0 (inclusive) up to this value (exclusive),
+     * for every card type.
+     */
+    public static final int POOL_SIZE = 160;
+
+    private static final Type[] TYPES = Type.values();
+    private static final Card[] POOL = new Card[TYPES.length * POOL_SIZE];
+
+    static {
+        for (Type type : TYPES) {
+            for (int id = 0; id < POOL_SIZE; id++) {
+                POOL[type.ordinal() * POOL_SIZE + id] = new Card(type, id);
+            }
+        }
+    }
+
+    private final Type type;
+    private final int id;
 
     /**
      * Constructs a Card with the specified type and id.
@@ -23,12 +47,27 @@ public class Card {
      * @param type the type of the card
      * @param id   the id of the card
      */
-    @JsonCreator
-    public Card(@JsonProperty("type") Type type, @JsonProperty("id") int id) {
+    public Card(Type type, int id) {
         this.type = type;
         this.id = id;
     }
 
+    /**
+     * Gets a Card with the specified type and id, returning a shared instance if
+     * the id is in the range [0, {@value #POOL_SIZE}).
+     *
+     * @param type the type of the card
+     * @param id   the id of the card
+     * @return a card with the specified type and id
+     */
+    @JsonCreator
+    public static Card of(@JsonProperty("type") Type type, @JsonProperty("id") int id) {
+        if (id >= 0 && id < POOL_SIZE) {
+            return POOL[type.ordinal() * POOL_SIZE + id];
+        }
+        return new Card(type, id);
+    }
+
     /**
      * Gets the type of the card.
      *
@@ -98,16 +137,23 @@ public class Card {
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         if (!(o instanceof Card)) {
             return false;
         }
         Card other = (Card) o;
-        return type.equals(other.type) && id == other.id;
+        return type == other.type && id == other.id;
     }
 
+    /**
+     * Returns a hash code which is unique for every type and non-negative id
+     * below 2<sup>28</sup>, and stable across JVM runs.
+     */
     @Override
     public int hashCode() {
-        return type.hashCode() + id;
+        return id * TYPES.length + type.ordinal();
     }
 
     /**
@@ -169,10 +215,10 @@ public class Card {
          */
         DOGECOIN("Dogecoin", Category.MONEY, 6, 3);
 
-        private String description;
-        private Category category;
-        private int value;
-        private int cost;
+        private final String description;
+        private final Category category;
+        private final int value;
+        private final int cost;
 
         /**
          * Constructs a Type with the specified description, category, value, and cost.
@@ -238,7 +284,7 @@ public class Card {
              */
             VICTORY("Victory");
 
-            private String name;
+            private final String name;
 
             /**
              * Constructs a Category with the specified name.
@@ -0,0 +1,265 @@
+package edu.brandeis.cosi.atg.api.deadline;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.decisions.EndPhaseDecision;
+import edu.brandeis.cosi.atg.api.event.Event;
+import edu.brandeis.cosi.atg.api.metrics.LatencyHistogram;
+
+/**
+ * A Player that asks another player for each decision on a separate thread,
+ * and applies a {@link DeadlinePolicy} if the decision takes too long.
+ * DeadlinePlayers are created by {@link DecisionDeadlines#wrap(Player)}.
+ * <br/>
+ * <br/>
+ * When a deadline passes, the thread making the decision is interrupted, and
+ * any decision it returns later is discarded. Because players are not
+ * expected to be thread safe, a DeadlinePlayer never asks its player for a
+ * new decision until the previous call has returned, even if the player
+ * ignores the interrupt; until then, decisions are treated as missing the
+ * deadline immediately. A player that never returns therefore occupies at most
+ * one executor thread. The latency of every decision that completes, including
+ * late ones, is recorded.
+ * <br/>
+ * <br/>
+ * Events are delivered to the wrapped player's observer without a deadline,
+ * on the thread that reports them. While a late decision is still running,
+ * events are held instead, and delivered in order by the decision's thread
+ * when the call returns, so the player is never called concurrently.
+ */
+public final class DeadlinePlayer implements Player, Closeable {
+    private final Player player;
+    private final ExecutorService executor;
+    private final long deadlineNanos;
+    private final DeadlinePolicy policy;
+    private final LatencyHistogram latencies;
+    private final LongAdder timeouts;
+
+    private final Optional<GameObserver> observer;
+
+    /** Guards {@link #busy} and the held events. */
+    private final Object lock = new Object();
+    /** Whether a call to the wrapped player has been submitted and not returned. */
+    private boolean busy;
+    /** Events reported while a late call was running, and their states. */
+    private final Queue<GameState> heldStates = new ArrayDeque<>();
+    private final Queue<Event> heldEvents = new ArrayDeque<>();
+
+    private Future<Decision> running;
+    private Call runningCall;
+    private boolean forfeited;
+
+    DeadlinePlayer(Player player, ExecutorService executor, long deadlineNanos, DeadlinePolicy policy,
+            LatencyHistogram latencies, LongAdder timeouts) {
+        this.player = player;
+        this.executor = executor;
+        this.deadlineNanos = deadlineNanos;
+        this.policy = policy;
+        this.latencies = latencies;
+        this.timeouts = timeouts;
+        this.observer = player.getObserver().isPresent() ? Optional.of(this::deliver) : Optional.empty();
+    }
+
+    @Override
+    public String getName() {
+        return player.getName();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws DecisionTimeoutException if the deadline passes and the policy is
+     *                                  {@link DeadlinePolicy#THROW}
+     */
+    @Override
+    public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+        if (forfeited) {
+            return endPhase(options, 0);
+        }
+        long start = System.nanoTime();
+        synchronized (lock) {
+            if (busy) {
+                return timedOut(options, 0);
+            }
+            busy = true;
+        }
+        runningCall = new Call(state, options, start);
+        try {
+            running = executor.submit(runningCall);
+        } catch (RejectedExecutionException e) {
+            finished();
+            throw e;
+        }
+        try {
+            return running.get(deadlineNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            abandon();
+            return timedOut(options, System.nanoTime() - start);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            abandon();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + getName(), e);
+        }
+    }
+
+    @Override
+    public Optional<GameObserver> getObserver() {
+        return observer;
+    }
+
+    @Override
+    public boolean autoPlaysMoney() {
+        return player.autoPlaysMoney();
+    }
+
+    /**
+     * Checks whether the player has forfeited the game under the
+     * {@link DeadlinePolicy#FORFEIT} policy.
+     *
+     * @return true if the player has missed a deadline and forfeited
+     */
+    public boolean isForfeited() {
+        return forfeited;
+    }
+
+    /**
+     * Interrupts any decision still running, and closes the wrapped player if
+     * it is {@link AutoCloseable}.
+     *
+     * @throws IOException if the wrapped player cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (running != null) {
+            abandon();
+        }
+        if (player instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    /**
+     * Interrupts the running call. If it has not started yet, it never will,
+     * and the wrapped player is free at once.
+     */
+    private void abandon() {
+        running.cancel(true);
+        if (runningCall.claimed.compareAndSet(false, true)) {
+            finished();
+        }
+    }
+
+    /**
+     * Delivers the events held while the wrapped player was busy, and marks it
+     * free for the next decision.
+     */
+    private void finished() {
+        synchronized (lock) {
+            while (!heldEvents.isEmpty()) {
+                notifyWrapped(heldStates.poll(), heldEvents.poll());
+            }
+            busy = false;
+        }
+    }
+
+    private void deliver(GameState state, Event event) {
+        synchronized (lock) {
+            if (busy) {
+                heldStates.add(state);
+                heldEvents.add(event);
+            } else {
+                notifyWrapped(state, event);
+            }
+        }
+    }
+
+    private void notifyWrapped(GameState state, Event event) {
+        player.getObserver().ifPresent(delegate -> delegate.notifyEvent(state, event));
+    }
+
+    /**
+     * One call to the wrapped player. Whichever of the executor and
+     * {@link #abandon()} claims the call first decides whether it runs.
+     */
+    private final class Call implements Callable<Decision> {
+        private final GameState state;
+        private final ImmutableList<Decision> options;
+        private final long start;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        Call(GameState state, ImmutableList<Decision> options, long start) {
+            this.state = state;
+            this.options = options;
+            this.start = start;
+        }
+
+        @Override
+        public Decision call() {
+            if (!claimed.compareAndSet(false, true)) {
+                return null;
+            }
+            try {
+                Decision decision = player.makeDecision(state, options);
+                latencies.record(System.nanoTime() - start);
+                return decision;
+            } finally {
+                finished();
+            }
+        }
+    }
+
+    private Decision timedOut(ImmutableList<Decision> options, long elapsedNanos) {
+        timeouts.increment();
+        switch (policy) {
+            case FORFEIT:
+                forfeited = true;
+                return endPhase(options, elapsedNanos);
+            case END_PHASE:
+                return endPhase(options, elapsedNanos);
+            default:
+                throw new DecisionTimeoutException(getName(), deadlineNanos, elapsedNanos);
+        }
+    }
+
+    private Decision endPhase(ImmutableList<Decision> options, long elapsedNanos) {
+        for (Decision option : options) {
+            if (option instanceof EndPhaseDecision) {
+                return option;
+            }
+        }
+        throw new DecisionTimeoutException(getName(), deadlineNanos, elapsedNanos);
+    }
+}
@@ -0,0 +1,31 @@
+package edu.brandeis.cosi.atg.api.deadline;
+
+/**
+ * What a {@link DeadlinePlayer} does when its player misses a decision
+ * deadline.
+ */
+public enum DeadlinePolicy {
+    /**
+     * The player forfeits the rest of the game: it is not asked for any further
+     * decisions, and ends every remaining phase. The game continues to its
+     * normal end and the Engine scores it as usual, so the forfeiting player
+     * keeps the victory cards it already owns and may still finish ahead. A
+     * {@link edu.brandeis.cosi.atg.api.tournament.Tournament Tournament} scores
+     * the game as a loss for the forfeiting player (see
+     * {@link DeadlinePlayer#isForfeited()}).
+     */
+    FORFEIT,
+    /**
+     * The player ends the current phase, as if it had chosen the
+     * {@link edu.brandeis.cosi.atg.api.decisions.EndPhaseDecision} among its
+     * options. The player is asked for later decisions as usual, unless it is
+     * still busy with the decision that timed out.
+     */
+    END_PHASE,
+    /**
+     * The decision fails with a {@link DecisionTimeoutException}, which an
+     * Engine reports as a
+     * {@link edu.brandeis.cosi.atg.api.PlayerViolationException}.
+     */
+    THROW
+}
@@ -0,0 +1,137 @@
+package edu.brandeis.cosi.atg.api.deadline;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableMap;
+
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.metrics.LatencyHistogram;
+
+/**
+ * Enforces a deadline on every decision made by the players it wraps, and
+ * records their decision latencies by player name.
+ * <br/>
+ * <br/>
+ * Decisions run on an {@link ExecutorService}. By default this creates a new
+ * virtual thread for each decision when the runtime supports them (Java 21 and
+ * later), so that thousands of concurrent games do not need a platform thread
+ * for each slow player, and otherwise uses a cached pool of daemon threads.
+ * <br/>
+ * <br/>
+ * Example usage with a {@link edu.brandeis.cosi.atg.api.tournament.Tournament
+ * Tournament}:
+ *
+ * <pre>
+ * DecisionDeadlines deadlines = new DecisionDeadlines(Duration.ofMillis(50), DeadlinePolicy.FORFEIT);
+ * ImmutableMap&lt;String, Supplier&lt;Player&gt;&gt; wrapped = ImmutableMap.copyOf(
+ *         Maps.transformValues(players, deadlines::supplier));
+ * new Tournament(engines, wrapped, 1000, 8).runRoundRobin();
+ * System.out.println(deadlines.getLatencies());
+ * </pre>
+ */
+public final class DecisionDeadlines {
+    private final long deadlineNanos;
+    private final DeadlinePolicy policy;
+    private final ExecutorService executor;
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> timeouts = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a DecisionDeadlines using the {@link #defaultExecutor()}.
+     *
+     * @param deadline the time each player has to make a decision
+     * @param policy   what to do when a player misses the deadline
+     */
+    public DecisionDeadlines(Duration deadline, DeadlinePolicy policy) {
+        this(deadline, policy, defaultExecutor());
+    }
+
+    /**
+     * Constructs a DecisionDeadlines.
+     *
+     * @param deadline the time each player has to make a decision
+     * @param policy   what to do when a player misses the deadline
+     * @param executor the executor on which decisions are made
+     */
+    public DecisionDeadlines(Duration deadline, DeadlinePolicy policy, ExecutorService executor) {
+        if (deadline.isNegative() || deadline.isZero()) {
+            throw new IllegalArgumentException("Deadline must be positive: " + deadline);
+        }
+        this.deadlineNanos = deadline.toNanos();
+        this.policy = policy;
+        this.executor = executor;
+    }
+
+    /**
+     * Wraps a player so that its decisions are subject to the deadline. The
+     * returned player is intended for a single game.
+     *
+     * @param player the player to wrap
+     * @return the wrapped player
+     */
+    public DeadlinePlayer wrap(Player player) {
+        String name = player.getName();
+        return new DeadlinePlayer(player, executor, deadlineNanos, policy,
+                latencies.computeIfAbsent(name, n -> new LatencyHistogram()),
+                timeouts.computeIfAbsent(name, n -> new LongAdder()));
+    }
+
+    /**
+     * Wraps a supplier of players, for example one registered with a
+     * {@link edu.brandeis.cosi.atg.api.tournament.Tournament Tournament}.
+     *
+     * @param players the supplier to wrap
+     * @return a supplier of wrapped players
+     */
+    public Supplier<Player> supplier(Supplier<Player> players) {
+        return () -> wrap(players.get());
+    }
+
+    /**
+     * Gets the decision latencies recorded so far for each player name.
+     *
+     * @return a map of player names to their (live) latency histograms
+     */
+    public ImmutableMap<String, LatencyHistogram> getLatencies() {
+        return ImmutableMap.copyOf(latencies);
+    }
+
+    /**
+     * Gets the number of missed deadlines for each player name.
+     *
+     * @return a map of player names to their missed deadline counts
+     */
+    public ImmutableMap<String, Long> getTimeoutCounts() {
+        ImmutableMap.Builder<String, Long> builder = ImmutableMap.builder();
+        timeouts.forEach((name, count) -> builder.put(name, count.sum()));
+        return builder.build();
+    }
+
+    /**
+     * Returns an executor that runs each task on a new virtual thread if the
+     * runtime supports them, and otherwise on a cached pool of daemon threads.
+     *
+     * @return a new executor
+     */
+    public static ExecutorService defaultExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threads = new AtomicInteger();
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "decision-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package edu.brandeis.cosi.atg.api.deadline;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exception thrown by a {@link DeadlinePlayer} with the
+ * {@link DeadlinePolicy#THROW} policy when its player misses a decision
+ * deadline.
+ */
+public class DecisionTimeoutException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /** The name of the player that missed the deadline. */
+    private final String playerName;
+    /** The deadline that was missed, in nanoseconds. */
+    private final long deadlineNanos;
+    /** How long the engine waited for the decision, in nanoseconds. */
+    private final long elapsedNanos;
+
+    /**
+     * Constructs a DecisionTimeoutException.
+     *
+     * @param playerName    the name of the player that missed the deadline
+     * @param deadlineNanos the deadline, in nanoseconds
+     * @param elapsedNanos  how long the engine waited, in nanoseconds
+     */
+    public DecisionTimeoutException(String playerName, long deadlineNanos, long elapsedNanos) {
+        super(String.format("%s did not make a decision within %.3fms (waited %.3fms)", playerName,
+                millis(deadlineNanos), millis(elapsedNanos)));
+        this.playerName = playerName;
+        this.deadlineNanos = deadlineNanos;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Gets the name of the player that missed the deadline.
+     *
+     * @return the player name
+     */
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    /**
+     * Gets the deadline that was missed.
+     *
+     * @return the deadline in nanoseconds
+     */
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    /**
+     * Gets how long the engine waited for the decision.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
@@ -0,0 +1,13 @@
+/**
+ * This package contains wrappers that bound how long a
+ * {@link edu.brandeis.cosi.atg.api.Player Player} may take to make a decision.
+ * <br/>
+ * <br/>
+ * {@link edu.brandeis.cosi.atg.api.deadline.DecisionDeadlines} wraps players so
+ * that each call to
+ * {@link edu.brandeis.cosi.atg.api.Player#makeDecision makeDecision} runs on a
+ * separate thread with a deadline, applies a
+ * {@link edu.brandeis.cosi.atg.api.deadline.DeadlinePolicy} when the deadline
+ * passes, and records each player's decision latencies.
+ */
+package edu.brandeis.cosi.atg.api.deadline;
@@ -8,20 +8,43 @@ import edu.brandeis.cosi.atg.api.cards.Card;
 
 /**
  * Represents a decision by a player to buy a card.
+ *
+ * BuyDecisions are immutable, and {@link #of(Card.Type)} returns a shared
+ * instance for each card type.
  */
 public final class BuyDecision implements Decision {
-    private Card.Type cardType;
+    private static final BuyDecision[] INSTANCES;
+
+    static {
+        Card.Type[] types = Card.Type.values();
+        INSTANCES = new BuyDecision[types.length];
+        for (Card.Type type : types) {
+            INSTANCES[type.ordinal()] = new BuyDecision(type);
+        }
+    }
+
+    private final Card.Type cardType;
 
     /**
      * Constructs a BuyDecision with the specified card type.
      *
      * @param cardType the type of card to buy
      */
-    @JsonCreator
-    public BuyDecision(@JsonProperty("cardType") Card.Type cardType) {
+    public BuyDecision(Card.Type cardType) {
         this.cardType = cardType;
     }
 
+    /**
+     * Gets the shared BuyDecision for the specified card type.
+     *
+     * @param cardType the type of card to buy
+     * @return the shared BuyDecision for the card type
+     */
+    @JsonCreator
+    public static BuyDecision of(@JsonProperty("cardType") Card.Type cardType) {
+        return INSTANCES[cardType.ordinal()];
+    }
+
     /**
      * Gets the description of the buy decision.
      *
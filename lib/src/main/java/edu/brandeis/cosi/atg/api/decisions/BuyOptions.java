@@ -0,0 +1,124 @@
+package edu.brandeis.cosi.atg.api.decisions;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.GameDeck;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.cards.Card;
+
+/**
+ * Precomputed lists of options for the
+ * {@link GameState.TurnPhase#BUY BUY} phase.
+ * <br/>
+ * <br/>
+ * The options offered in the BUY phase are one {@link BuyDecision} for each
+ * card type that is both available in the {@link GameDeck} and affordable, plus
+ * an {@link EndPhaseDecision}. They depend only on which card types are
+ * offered, so there are only 2<sup>{@code types}</sup> distinct lists. All of
+ * them are built once, using the shared {@link BuyDecision#of(Card.Type)} and
+ * {@link EndPhaseDecision#of(GameState.TurnPhase)} instances, and Engines can
+ * look them up without allocating.
+ * <br/>
+ * <br/>
+ * Sets of card types are represented as bitmasks, where bit
+ * {@code 1 << type.ordinal()} is set if the type is in the set.
+ */
+public final class BuyOptions {
+    private static final Card.Type[] TYPES = Card.Type.values();
+    private static final EndPhaseDecision END_BUY = EndPhaseDecision.of(GameState.TurnPhase.BUY);
+
+    /** Options indexed by the mask of offered card types. */
+    private static final ImmutableList<Decision>[] OPTIONS;
+    /** Mask of affordable card types, indexed by money up to the highest cost. */
+    private static final int[] AFFORDABLE;
+
+    static {
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        ImmutableList<Decision>[] options = new ImmutableList[1 << TYPES.length];
+        for (int mask = 0; mask < options.length; mask++) {
+            ImmutableList.Builder<Decision> builder = ImmutableList.builderWithExpectedSize(Integer.bitCount(mask) + 1);
+            for (Card.Type type : TYPES) {
+                if ((mask & (1 << type.ordinal())) != 0) {
+                    builder.add(BuyDecision.of(type));
+                }
+            }
+            options[mask] = builder.add(END_BUY).build();
+        }
+        OPTIONS = options;
+
+        int maxCost = 0;
+        for (Card.Type type : TYPES) {
+            maxCost = Math.max(maxCost, type.getCost());
+        }
+        AFFORDABLE = new int[maxCost + 1];
+        for (int money = 0; money <= maxCost; money++) {
+            for (Card.Type type : TYPES) {
+                if (type.getCost() <= money) {
+                    AFFORDABLE[money] |= 1 << type.ordinal();
+                }
+            }
+        }
+    }
+
+    private BuyOptions() {
+    }
+
+    /**
+     * Gets the mask of card types with at least one card available in the deck.
+     *
+     * @param deck the game deck
+     * @return the mask of available card types
+     */
+    public static int availableMask(GameDeck deck) {
+        int mask = 0;
+        for (Card.Type type : TYPES) {
+            if (deck.getNumAvailable(type) > 0) {
+                mask |= 1 << type.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Gets the mask of card types which are available and cost no more than the
+     * specified amount of money.
+     *
+     * @param money         the spendable money
+     * @param availableMask the mask of available card types
+     * @return the mask of card types which can be bought
+     */
+    public static int offeredMask(int money, int availableMask) {
+        if (money < 0) {
+            return 0;
+        }
+        return AFFORDABLE[Math.min(money, AFFORDABLE.length - 1)] & availableMask;
+    }
+
+    /**
+     * Gets the BUY phase options for a player with the specified money.
+     *
+     * @param money         the spendable money
+     * @param availableMask the mask of available card types
+     * @return a shared list of one {@link BuyDecision} per offered card type, in
+     *         {@link Card.Type} order, followed by an {@link EndPhaseDecision}
+     */
+    public static ImmutableList<Decision> options(int money, int availableMask) {
+        return OPTIONS[offeredMask(money, availableMask)];
+    }
+
+    /**
+     * Checks, in constant time, whether a decision is one of the options returned
+     * by {@link #options(int, int)} for the same money and available types.
+     *
+     * @param decision      the decision to check
+     * @param money         the spendable money
+     * @param availableMask the mask of available card types
+     * @return true if the decision was offered
+     */
+    public static boolean isOffered(Decision decision, int money, int availableMask) {
+        if (decision instanceof BuyDecision buy) {
+            return (offeredMask(money, availableMask) & (1 << buy.getCardType().ordinal())) != 0;
+        }
+        return decision instanceof EndPhaseDecision end && end.getPhase() == GameState.TurnPhase.BUY;
+    }
+}
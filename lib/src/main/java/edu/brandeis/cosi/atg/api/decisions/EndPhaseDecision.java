@@ -8,20 +8,43 @@ import edu.brandeis.cosi.atg.api.GameState;
 
 /**
  * Represents a decision by a player to end a phase of their turn.
+ *
+ * EndPhaseDecisions are immutable, and {@link #of(GameState.TurnPhase)} returns
+ * a shared instance for each phase.
  */
 public final class EndPhaseDecision implements Decision {
-    private GameState.TurnPhase phase;
+    private static final EndPhaseDecision[] INSTANCES;
+
+    static {
+        GameState.TurnPhase[] phases = GameState.TurnPhase.values();
+        INSTANCES = new EndPhaseDecision[phases.length];
+        for (GameState.TurnPhase phase : phases) {
+            INSTANCES[phase.ordinal()] = new EndPhaseDecision(phase);
+        }
+    }
+
+    private final GameState.TurnPhase phase;
 
     /**
      * Constructs a EndPhaseDecision with the specified phase.
      *
      * @param phase the phase to end
      */
-    @JsonCreator
-    public EndPhaseDecision(@JsonProperty("phase") GameState.TurnPhase phase) {
+    public EndPhaseDecision(GameState.TurnPhase phase) {
         this.phase = phase;
     }
 
+    /**
+     * Gets the shared EndPhaseDecision for the specified phase.
+     *
+     * @param phase the phase to end
+     * @return the shared EndPhaseDecision for the phase
+     */
+    @JsonCreator
+    public static EndPhaseDecision of(@JsonProperty("phase") GameState.TurnPhase phase) {
+        return INSTANCES[phase.ordinal()];
+    }
+
     /**
      * Gets the description of the end turn decision.
      *
@@ -10,7 +10,7 @@ import edu.brandeis.cosi.atg.api.cards.Card;
  * Represents a decision by a player to play a card.
  */
 public final class PlayCardDecision implements Decision {
-    private Card card;
+    private final Card card;
 
     /**
      * Constructs a PlayCardDecision with the specified card.
@@ -19,5 +19,12 @@
  * edu.brandeis.cosi.atg.api.Player Player} to choose one. The {@link
  * edu.brandeis.cosi.atg.api.Player Player} is responsible for choosing
  * a decision when prompted.
+ * <br/>
+ * <br/>
+ * {@link edu.brandeis.cosi.atg.api.decisions.BuyOptions} provides precomputed
+ * option lists for the BUY phase, built from the shared instances returned by
+ * {@link edu.brandeis.cosi.atg.api.decisions.BuyDecision#of BuyDecision.of} and
+ * {@link edu.brandeis.cosi.atg.api.decisions.EndPhaseDecision#of
+ * EndPhaseDecision.of}.
  */
 package edu.brandeis.cosi.atg.api.decisions;
\ No newline at end of file
@@ -0,0 +1,29 @@
+package edu.brandeis.cosi.atg.api.engine;
+
+import java.util.function.Supplier;
+
+import edu.brandeis.cosi.atg.api.GameDeck;
+
+/**
+ * A copy of the supply, taken when a GameState is created. The
+ * {@link GameDeck} itself is only built if a player or observer asks for it,
+ * and is then shared by every GameState created from this view.
+ */
+final class DeckView implements Supplier<GameDeck> {
+    private final int[] counts;
+    private GameDeck deck;
+
+    DeckView(int[] supply) {
+        this.counts = supply.clone();
+    }
+
+    @Override
+    public GameDeck get() {
+        GameDeck built = deck;
+        if (built == null) {
+            built = new GameDeck(counts);
+            deck = built;
+        }
+        return built;
+    }
+}
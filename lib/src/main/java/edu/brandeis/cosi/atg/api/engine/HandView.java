@@ -0,0 +1,65 @@
+package edu.brandeis.cosi.atg.api.engine;
+
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.Hand;
+import edu.brandeis.cosi.atg.api.cards.Card;
+
+/**
+ * A copy of the current player's hand, taken when a GameState is created. The
+ * {@link Hand} itself is only built if a player or observer asks for it, and
+ * is then shared by every GameState created from this view.
+ */
+final class HandView implements Supplier<Hand> {
+    /** The ids of the played cards, followed by the unplayed cards. */
+    private final int[] cardIds;
+    private final int playedSize;
+    private Hand hand;
+
+    HandView(PlayerState player) {
+        this.cardIds = new int[player.playedSize + player.handSize];
+        this.playedSize = player.playedSize;
+        System.arraycopy(player.played, 0, cardIds, 0, player.playedSize);
+        System.arraycopy(player.hand, 0, cardIds, player.playedSize, player.handSize);
+    }
+
+    private HandView(Hand hand) {
+        this.cardIds = null;
+        this.playedSize = 0;
+        this.hand = hand;
+    }
+
+    /**
+     * Derives the view of the hand after a card is played. A Hand which has
+     * already been built is updated rather than rebuilt.
+     *
+     * @param card the played card
+     * @return the new view, or null if the Hand has not been built, in which
+     *         case a new copy of the player's hand is as cheap
+     */
+    HandView afterPlaying(Card card) {
+        Hand built = hand;
+        return built == null ? null : new HandView(built.play(card));
+    }
+
+    @Override
+    public Hand get() {
+        Hand built = hand;
+        if (built == null) {
+            ImmutableList.Builder<Card> playedCards = ImmutableList.builderWithExpectedSize(playedSize);
+            for (int i = 0; i < playedSize; i++) {
+                playedCards.add(ReferenceEngine.card(cardIds[i]));
+            }
+            ImmutableList.Builder<Card> unplayedCards = ImmutableList
+                    .builderWithExpectedSize(cardIds.length - playedSize);
+            for (int i = playedSize; i < cardIds.length; i++) {
+                unplayedCards.add(ReferenceEngine.card(cardIds[i]));
+            }
+            built = new Hand(playedCards.build(), unplayedCards.build());
+            hand = built;
+        }
+        return built;
+    }
+}
@@ -0,0 +1,190 @@
+package edu.brandeis.cosi.atg.api.engine;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.random.GameRandom;
+
+/**
+ * The engine-side state of a single player: deck, discard pile, and hand.
+ *
+ * Cards are tracked by id only (see {@link ReferenceEngine#typeOf(int)}), so
+ * moving a card between piles never allocates. The top of the deck is the last
+ * element of {@link #deck}.
+ */
+final class PlayerState {
+    final Player player;
+    final String name;
+    /** See {@link Player#autoPlaysMoney()}. */
+    final boolean autoPlaysMoney;
+
+    final int[] deck = new int[ReferenceEngine.CARD_COUNT];
+    int deckSize;
+    final int[] discard = new int[ReferenceEngine.CARD_COUNT];
+    int discardSize;
+    final int[] hand = new int[ReferenceEngine.CARD_COUNT];
+    int handSize;
+    /** One more than the index of each card within {@link #hand}, or 0. */
+    final int[] handPosition = new int[ReferenceEngine.CARD_COUNT];
+    final int[] played = new int[ReferenceEngine.CARD_COUNT];
+    int playedSize;
+
+    /** Number of cards owned by this player, indexed by card type ordinal. */
+    final int[] owned = new int[ReferenceEngine.TYPE_COUNT];
+
+    PlayerState(Player player) {
+        this.player = player;
+        this.name = player.getName();
+        this.autoPlaysMoney = player.autoPlaysMoney();
+    }
+
+    /**
+     * Adds a newly gained card to this player's discard pile.
+     *
+     * @param cardId the id of the gained card
+     */
+    void gain(int cardId) {
+        discard[discardSize++] = cardId;
+        owned[ReferenceEngine.typeOf(cardId).ordinal()]++;
+    }
+
+    /**
+     * Draws up to {@code count} cards into the hand, shuffling the discard pile
+     * into the deck if the deck runs out.
+     *
+     * @param count    the number of cards to draw
+     * @param shuffles supplies the random source for each shuffle
+     */
+    void draw(int count, Supplier<SplittableRandom> shuffles) {
+        for (int i = 0; i < count; i++) {
+            if (deckSize == 0) {
+                if (discardSize == 0) {
+                    return;
+                }
+                System.arraycopy(discard, 0, deck, 0, discardSize);
+                deckSize = discardSize;
+                discardSize = 0;
+                GameRandom.shuffle(deck, 0, deckSize, shuffles.get());
+            }
+            int cardId = deck[--deckSize];
+            hand[handSize++] = cardId;
+            handPosition[cardId] = handSize;
+        }
+    }
+
+    /**
+     * Moves the card at the given hand index to the played pile. The cards left
+     * in the hand keep their order, and the played pile is in play order, as in
+     * a {@link edu.brandeis.cosi.atg.api.Hand} derived with
+     * {@link edu.brandeis.cosi.atg.api.Hand#play}.
+     *
+     * @param handIndex the index of the card within {@link #hand}
+     * @return the id of the played card
+     */
+    int play(int handIndex) {
+        int cardId = hand[handIndex];
+        handSize--;
+        for (int i = handIndex; i < handSize; i++) {
+            hand[i] = hand[i + 1];
+            handPosition[hand[i]] = i + 1;
+        }
+        handPosition[cardId] = 0;
+        played[playedSize++] = cardId;
+        return cardId;
+    }
+
+    /**
+     * Finds a card within the unplayed portion of the hand.
+     *
+     * @param cardId the id of the card
+     * @return the index of the card within {@link #hand}, or -1 if not present
+     */
+    int indexInHand(int cardId) {
+        return handPosition[cardId] - 1;
+    }
+
+    /**
+     * Moves all played and unplayed cards to the discard pile.
+     */
+    void discardHand() {
+        for (int i = 0; i < handSize; i++) {
+            handPosition[hand[i]] = 0;
+        }
+        System.arraycopy(hand, 0, discard, discardSize, handSize);
+        discardSize += handSize;
+        handSize = 0;
+        System.arraycopy(played, 0, discard, discardSize, playedSize);
+        discardSize += playedSize;
+        playedSize = 0;
+    }
+
+    /**
+     * Writes the deck, discard pile and hand. The played pile is always empty
+     * between turns.
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        writePile(out, deck, deckSize);
+        writePile(out, discard, discardSize);
+        writePile(out, hand, handSize);
+    }
+
+    /**
+     * Restores the piles written by {@link #writeTo}, and recounts the cards
+     * owned.
+     */
+    void readFrom(DataInputStream in) throws IOException {
+        deckSize = readPile(in, deck);
+        discardSize = readPile(in, discard);
+        handSize = readPile(in, hand);
+        playedSize = 0;
+        Arrays.fill(handPosition, 0);
+        for (int i = 0; i < handSize; i++) {
+            handPosition[hand[i]] = i + 1;
+        }
+        Arrays.fill(owned, 0);
+        for (int cardId : cardIds()) {
+            owned[ReferenceEngine.typeOf(cardId).ordinal()]++;
+        }
+    }
+
+    /**
+     * Gets the ids of every card this player owns, in no particular order.
+     *
+     * @return a new array of card ids
+     */
+    int[] cardIds() {
+        int[] ids = new int[deckSize + discardSize + handSize + playedSize];
+        System.arraycopy(deck, 0, ids, 0, deckSize);
+        System.arraycopy(discard, 0, ids, deckSize, discardSize);
+        System.arraycopy(hand, 0, ids, deckSize + discardSize, handSize);
+        System.arraycopy(played, 0, ids, deckSize + discardSize + handSize, playedSize);
+        return ids;
+    }
+
+    private static void writePile(DataOutputStream out, int[] pile, int size) throws IOException {
+        out.writeByte(size);
+        for (int i = 0; i < size; i++) {
+            out.writeByte(pile[i]);
+        }
+    }
+
+    private static int readPile(DataInputStream in, int[] pile) throws IOException {
+        int size = in.readUnsignedByte();
+        if (size > pile.length) {
+            throw new IOException("Invalid pile size " + size);
+        }
+        for (int i = 0; i < size; i++) {
+            int cardId = in.readUnsignedByte();
+            if (cardId >= ReferenceEngine.CARD_COUNT) {
+                throw new IOException("Invalid card id " + cardId);
+            }
+            pile[i] = cardId;
+        }
+        return size;
+    }
+}
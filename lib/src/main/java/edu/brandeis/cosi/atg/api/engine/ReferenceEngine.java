@@ -0,0 +1,755 @@
+package edu.brandeis.cosi.atg.api.engine;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.Engine;
+import edu.brandeis.cosi.atg.api.EngineCreator;
+import edu.brandeis.cosi.atg.api.GameDeck;
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Hand;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.PlayerViolationException;
+import edu.brandeis.cosi.atg.api.cards.Card;
+import edu.brandeis.cosi.atg.api.deadline.DecisionTimeoutException;
+import edu.brandeis.cosi.atg.api.decisions.BuyDecision;
+import edu.brandeis.cosi.atg.api.decisions.BuyOptions;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.decisions.EndPhaseDecision;
+import edu.brandeis.cosi.atg.api.decisions.PlayCardDecision;
+import edu.brandeis.cosi.atg.api.event.EndTurnEvent;
+import edu.brandeis.cosi.atg.api.event.Event;
+import edu.brandeis.cosi.atg.api.event.GainCardEvent;
+import edu.brandeis.cosi.atg.api.event.PlayCardEvent;
+import edu.brandeis.cosi.atg.api.metrics.EngineMetrics;
+import edu.brandeis.cosi.atg.api.random.GameRandom;
+import edu.brandeis.cosi.atg.api.scoring.Scoring;
+
+/**
+ * A reference implementation of the {@link Engine} interface, which implements
+ * the full rules described in the {@link Engine} documentation.
+ * <br/>
+ * <br/>
+ * The engine is designed for high-throughput batch simulation. Internally, all
+ * game state (the supply, and each player's deck, discard pile and hand) is
+ * kept in primitive arrays of card ids, and the immutable API objects
+ * ({@link GameState}, {@link Hand}, {@link GameDeck} and the list of
+ * {@link Decision}s) are only materialized when a {@link Player} is prompted
+ * or a {@link GameObserver} is notified. Each GameState is
+ * {@link GameState#lazy lazy}: it holds a small copy of the hand and supply,
+ * and the {@link Hand} and {@link GameDeck} objects are only built if someone
+ * asks for them. The copies are shared until the underlying state changes (a
+ * played card derives the next Hand through {@link Hand#play(Card)} if it was
+ * built), and events are not created at all if nobody is observing the game.
+ * <br/>
+ * <br/>
+ * Cards are identified by ids which are unique within a game, assigned
+ * in blocks by {@link Card.Type} so that the type of a card can be looked up
+ * from its id. During the {@link GameState.TurnPhase#MONEY MONEY} phase, the
+ * player is only offered {@link PlayCardDecision}s for
+ * {@link Card.Type.Category#MONEY MONEY} cards, since victory cards are never
+ * playable. For a player that {@link Player#autoPlaysMoney() auto-plays money},
+ * the engine plays those cards itself, in the order the player would have
+ * reached them by always choosing the first option, and does not prompt
+ * during the MONEY phase at all.
+ * <br/>
+ * <br/>
+ * A game only ends when the last {@link Card.Type#FRAMEWORK FRAMEWORK} card
+ * is bought, so players that never buy one, such as players that always end
+ * their turn, would play forever. An engine constructed with a turn limit
+ * abandons such a game with a {@link TurnLimitException} instead of scoring
+ * it.
+ * <br/>
+ * <br/>
+ * An engine constructed with an {@link EngineMetrics} reports the duration of
+ * the game, of each turn and of each decision to it, along with every event
+ * and violation. Without one, nothing is measured.
+ * <br/>
+ * <br/>
+ * Each shuffle uses a fresh random source derived from a seed drawn once from
+ * the engine's random source and the number of shuffles so far (see
+ * {@link GameRandom#gameSeed(long, long)}). The whole state of a game between
+ * turns, including that seed and count, can therefore be captured with
+ * {@link #requestSnapshot()} and continued with
+ * {@link #resume(byte[], ImmutableList, GameObserver)}, for example to
+ * checkpoint long tournaments or to fork a position into many rollouts. A
+ * resumed game plays out exactly as the original would have, given players
+ * that make the same decisions.
+ * <br/>
+ * <br/>
+ * A ReferenceEngine executes a single game; create a new instance for each
+ * game.
+ */
+public final class ReferenceEngine implements Engine {
+    /** The number of cards in a player's hand at the start of a turn. */
+    public static final int HAND_SIZE = 5;
+    /** The number of {@link Card.Type#BITCOIN BITCOIN} cards in a starting deck. */
+    public static final int STARTING_BITCOINS = 7;
+    /** The number of {@link Card.Type#METHOD METHOD} cards in a starting deck. */
+    public static final int STARTING_METHODS = 3;
+    /** The number of distinct card types. */
+    static final int TYPE_COUNT = Card.Type.values().length;
+    /** The total number of cards in the game. */
+    static final int CARD_COUNT;
+
+    private static final Card.Type[] TYPES = Card.Type.values();
+    private static final int[] SUPPLY_SIZES = new int[TYPE_COUNT];
+    private static final int[] ID_OFFSETS = new int[TYPE_COUNT];
+    private static final Card.Type[] TYPE_BY_ID;
+
+    private static final EndPhaseDecision END_MONEY = EndPhaseDecision.of(GameState.TurnPhase.MONEY);
+
+    private static final int SNAPSHOT_MAGIC = 0x41544753;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    static {
+        SUPPLY_SIZES[Card.Type.BITCOIN.ordinal()] = 60;
+        SUPPLY_SIZES[Card.Type.ETHEREUM.ordinal()] = 40;
+        SUPPLY_SIZES[Card.Type.DOGECOIN.ordinal()] = 30;
+        SUPPLY_SIZES[Card.Type.METHOD.ordinal()] = 14;
+        SUPPLY_SIZES[Card.Type.MODULE.ordinal()] = 8;
+        SUPPLY_SIZES[Card.Type.FRAMEWORK.ordinal()] = 8;
+
+        int total = 0;
+        for (int t = 0; t < TYPE_COUNT; t++) {
+            ID_OFFSETS[t] = total;
+            total += SUPPLY_SIZES[t];
+        }
+        CARD_COUNT = total;
+        TYPE_BY_ID = new Card.Type[CARD_COUNT];
+        for (int t = 0; t < TYPE_COUNT; t++) {
+            Arrays.fill(TYPE_BY_ID, ID_OFFSETS[t], ID_OFFSETS[t] + SUPPLY_SIZES[t], TYPES[t]);
+        }
+    }
+
+    private final PlayerState[] players;
+    private final GameObserver[] playerObservers;
+    private final GameObserver observer;
+    private final boolean observed;
+    private long shuffleSeed;
+    private long shuffleCount;
+    private final Supplier<SplittableRandom> shuffles = this::nextShuffleRandom;
+    private final EngineMetrics metrics;
+    private final boolean instrumented;
+    private final long maxTurns;
+
+    private final int[] supply = SUPPLY_SIZES.clone();
+    /** Mask of card types with cards left in the supply; see {@link BuyOptions}. */
+    private int availableMask = (1 << TYPE_COUNT) - 1;
+    private final PlayCardDecision[] playDecisions = new PlayCardDecision[CARD_COUNT];
+
+    private DeckView deckView;
+    private HandView handView;
+    private long turns;
+    private int currentSeat;
+    private boolean dealt;
+    private boolean played;
+
+    private final AtomicReference<CompletableFuture<byte[]>> snapshotRequest = new AtomicReference<>();
+    /** Set once the game is over; the state no longer changes. */
+    private volatile boolean finished;
+    private volatile boolean violated;
+
+    /**
+     * Constructs a ReferenceEngine for a two player game.
+     *
+     * @param player1  the first player
+     * @param player2  the second player
+     * @param observer an observer that will be notified of all game events, or
+     *                 null if no observer is required
+     */
+    public ReferenceEngine(Player player1, Player player2, GameObserver observer) {
+        this(ImmutableList.of(player1, player2), observer, new SplittableRandom());
+    }
+
+    /**
+     * Constructs a ReferenceEngine with the specified players and random source.
+     * Players take turns in the order they are given.
+     *
+     * @param players  the players participating in the game; between 2 and 4
+     *                 players are supported
+     * @param observer an observer that will be notified of all game events, or
+     *                 null if no observer is required
+     * @param random   the random source used to shuffle player decks
+     */
+    public ReferenceEngine(ImmutableList<Player> players, GameObserver observer, SplittableRandom random) {
+        this(players, observer, random, EngineMetrics.NONE);
+    }
+
+    /**
+     * Constructs a ReferenceEngine with the specified players, random source and
+     * metrics. Players take turns in the order they are given.
+     *
+     * @param players  the players participating in the game; between 2 and 4
+     *                 players are supported
+     * @param observer an observer that will be notified of all game events, or
+     *                 null if no observer is required
+     * @param random   the random source used to shuffle player decks
+     * @param metrics  the metrics to report measurements to, which may be shared
+     *                 with other engines
+     */
+    public ReferenceEngine(ImmutableList<Player> players, GameObserver observer, SplittableRandom random,
+            EngineMetrics metrics) {
+        this(players, observer, random, metrics, Long.MAX_VALUE);
+    }
+
+    /**
+     * Constructs a ReferenceEngine with the specified players, random source,
+     * metrics and turn limit. Players take turns in the order they are given.
+     *
+     * @param players  the players participating in the game; between 2 and 4
+     *                 players are supported
+     * @param observer an observer that will be notified of all game events, or
+     *                 null if no observer is required
+     * @param random   the random source used to shuffle player decks
+     * @param metrics  the metrics to report measurements to, which may be shared
+     *                 with other engines
+     * @param maxTurns the number of turns, counted over all players, after
+     *                 which {@link #play()} throws a {@link TurnLimitException}
+     *                 if the game has not ended, or {@link Long#MAX_VALUE} for
+     *                 no limit
+     */
+    public ReferenceEngine(ImmutableList<Player> players, GameObserver observer, SplittableRandom random,
+            EngineMetrics metrics, long maxTurns) {
+        if (players.size() < 2 || players.size() > 4) {
+            throw new IllegalArgumentException("A game requires between 2 and 4 players, got " + players.size());
+        }
+        if (maxTurns < 1) {
+            throw new IllegalArgumentException("maxTurns must be positive");
+        }
+        this.players = new PlayerState[players.size()];
+        this.playerObservers = new GameObserver[players.size()];
+        boolean anyObserver = observer != null;
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            this.players[i] = new PlayerState(player);
+            this.playerObservers[i] = player.getObserver().orElse(null);
+            anyObserver |= this.playerObservers[i] != null;
+        }
+        this.observer = observer;
+        this.observed = anyObserver;
+        this.shuffleSeed = random.nextLong();
+        this.metrics = metrics;
+        this.instrumented = metrics != EngineMetrics.NONE;
+        this.maxTurns = maxTurns;
+    }
+
+    /**
+     * Creates a ReferenceEngine for a two player game.
+     *
+     * @param player1  the first player
+     * @param player2  the second player
+     * @param observer an observer that will be notified of all game events, or
+     *                 null if no observer is required
+     * @return a new ReferenceEngine
+     */
+    @EngineCreator
+    public static ReferenceEngine create(Player player1, Player player2, GameObserver observer) {
+        return new ReferenceEngine(player1, player2, observer);
+    }
+
+    /**
+     * Gets the number of cards of a type in the supply at the start of a game,
+     * before the players' starting decks are dealt from it.
+     *
+     * @param type the card type
+     * @return the initial supply size of that type
+     */
+    public static int getInitialSupply(Card.Type type) {
+        return SUPPLY_SIZES[type.ordinal()];
+    }
+
+    /**
+     * Gets the type of the card with the specified id.
+     *
+     * @param cardId the id of the card
+     * @return the type of the card
+     */
+    static Card.Type typeOf(int cardId) {
+        return TYPE_BY_ID[cardId];
+    }
+
+    /**
+     * Gets the number of turns that have been taken so far in this game, summed
+     * across all players.
+     *
+     * @return the number of turns taken
+     */
+    public long getTurnCount() {
+        return turns;
+    }
+
+    /**
+     * Requests a snapshot of the game. The snapshot is taken between turns: at
+     * the start of the next turn, or when the game ends if it is already over.
+     * This method may be called from any thread, including from a player or an
+     * observer of this game.
+     *
+     * A snapshot is a compact binary encoding of the supply, every player's
+     * deck, discard pile and hand, the turn count, the player to move, and the
+     * shuffle seed. It contains the players' names but not the players
+     * themselves; see {@link #resume(byte[], ImmutableList, GameObserver)}.
+     *
+     * @return a future that completes with the snapshot, or completes
+     *         exceptionally if the game ends with a violation first
+     */
+    public CompletableFuture<byte[]> requestSnapshot() {
+        CompletableFuture<byte[]> request = snapshotRequest.updateAndGet(
+                pending -> pending != null ? pending : new CompletableFuture<>());
+        if (finished) {
+            completeSnapshotRequest();
+        }
+        return request;
+    }
+
+    /**
+     * Creates an engine that continues a game from a snapshot. The players must
+     * have the same names, in the same order, as the players of the original
+     * game.
+     *
+     * @param snapshot a snapshot from {@link #requestSnapshot()}
+     * @param players  the players to continue the game with
+     * @param observer an observer that will be notified of all further game
+     *                 events, or null if no observer is required
+     * @return an engine whose {@link #play()} continues the game
+     * @throws IllegalArgumentException if the snapshot is malformed or the
+     *                                  players do not match it
+     */
+    public static ReferenceEngine resume(byte[] snapshot, ImmutableList<Player> players, GameObserver observer) {
+        return resume(snapshot, players, observer, null, EngineMetrics.NONE);
+    }
+
+    /**
+     * Creates an engine that continues a game from a snapshot, optionally with
+     * different shuffles from the original game, to explore what might happen
+     * from the same position.
+     *
+     * @param snapshot a snapshot from {@link #requestSnapshot()}
+     * @param players  the players to continue the game with, with the same
+     *                 names in the same order as the original game
+     * @param observer an observer that will be notified of all further game
+     *                 events, or null if no observer is required
+     * @param random   a random source from which to draw a new shuffle seed,
+     *                 or null to keep the snapshot's shuffle seed
+     * @param metrics  the metrics to report measurements to
+     * @return an engine whose {@link #play()} continues the game
+     * @throws IllegalArgumentException if the snapshot is malformed or the
+     *                                  players do not match it
+     */
+    public static ReferenceEngine resume(byte[] snapshot, ImmutableList<Player> players, GameObserver observer,
+            SplittableRandom random, EngineMetrics metrics) {
+        ReferenceEngine engine = new ReferenceEngine(players, observer, new SplittableRandom(0), metrics);
+        try {
+            engine.readSnapshot(new DataInputStream(new ByteArrayInputStream(snapshot)));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed snapshot", e);
+        }
+        if (random != null) {
+            engine.shuffleSeed = random.nextLong();
+            engine.shuffleCount = 0;
+        }
+        return engine;
+    }
+
+    @Override
+    public ImmutableList<Player.ScorePair> play() throws PlayerViolationException {
+        if (played) {
+            throw new IllegalStateException("A ReferenceEngine can only play a single game");
+        }
+        played = true;
+        long start = instrumented ? System.nanoTime() : 0;
+        if (instrumented) {
+            metrics.gameStarted(players.length);
+        }
+
+        if (!dealt) {
+            for (PlayerState player : players) {
+                for (int i = 0; i < STARTING_BITCOINS; i++) {
+                    player.gain(take(Card.Type.BITCOIN.ordinal()));
+                }
+                for (int i = 0; i < STARTING_METHODS; i++) {
+                    player.gain(take(Card.Type.METHOD.ordinal()));
+                }
+                player.draw(HAND_SIZE, shuffles);
+            }
+            dealt = true;
+        }
+
+        try {
+            while (supply[Card.Type.FRAMEWORK.ordinal()] > 0) {
+                if (turns >= maxTurns) {
+                    throw new TurnLimitException(turns);
+                }
+                if (snapshotRequest.get() != null) {
+                    completeSnapshotRequest();
+                }
+                if (instrumented) {
+                    takeInstrumentedTurn(players[currentSeat]);
+                } else {
+                    takeTurn(players[currentSeat]);
+                }
+                currentSeat = (currentSeat + 1) % players.length;
+            }
+        } catch (PlayerViolationException e) {
+            violated = true;
+            if (instrumented) {
+                metrics.violation(players[currentSeat].name, e);
+            }
+            throw e;
+        } catch (RuntimeException | Error e) {
+            violated = true;
+            throw e;
+        } finally {
+            finished = true;
+            completeSnapshotRequest();
+            if (instrumented) {
+                metrics.gameEnded(System.nanoTime() - start, turns);
+            }
+        }
+        return score();
+    }
+
+    private void completeSnapshotRequest() {
+        CompletableFuture<byte[]> request = snapshotRequest.getAndSet(null);
+        if (request == null) {
+            return;
+        }
+        if (violated) {
+            request.completeExceptionally(new IllegalStateException("The game ended with a violation"));
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        try {
+            writeSnapshot(new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        request.complete(bytes.toByteArray());
+    }
+
+    /**
+     * Writes the state of the game between turns. Card ids and pile sizes are
+     * written as single bytes, since there are fewer than 256 cards.
+     */
+    private void writeSnapshot(DataOutputStream out) throws IOException {
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeByte(SNAPSHOT_VERSION);
+        out.writeByte(players.length);
+        for (PlayerState player : players) {
+            out.writeUTF(player.name);
+        }
+        out.writeLong(turns);
+        out.writeByte(currentSeat);
+        out.writeLong(shuffleSeed);
+        out.writeLong(shuffleCount);
+        for (int t = 0; t < TYPE_COUNT; t++) {
+            out.writeByte(supply[t]);
+        }
+        for (PlayerState player : players) {
+            player.writeTo(out);
+        }
+    }
+
+    /**
+     * Restores the state written by {@link #writeSnapshot}, checking that every
+     * card taken from the supply belongs to exactly one player.
+     */
+    private void readSnapshot(DataInputStream in) throws IOException {
+        if (in.readInt() != SNAPSHOT_MAGIC || in.readUnsignedByte() != SNAPSHOT_VERSION) {
+            throw new IOException("Not a ReferenceEngine snapshot");
+        }
+        if (in.readUnsignedByte() != players.length) {
+            throw new IllegalArgumentException("The snapshot has a different number of players");
+        }
+        for (PlayerState player : players) {
+            String name = in.readUTF();
+            if (!name.equals(player.name)) {
+                throw new IllegalArgumentException("Expected player " + name + " but got " + player.name);
+            }
+        }
+        turns = in.readLong();
+        currentSeat = in.readUnsignedByte();
+        shuffleSeed = in.readLong();
+        shuffleCount = in.readLong();
+        if (turns < 0 || currentSeat >= players.length || shuffleCount < 0) {
+            throw new IOException("Invalid turn, player or shuffle count");
+        }
+        availableMask = 0;
+        for (int t = 0; t < TYPE_COUNT; t++) {
+            supply[t] = in.readUnsignedByte();
+            if (supply[t] > SUPPLY_SIZES[t]) {
+                throw new IOException("Invalid supply of " + TYPES[t]);
+            }
+            if (supply[t] > 0) {
+                availableMask |= 1 << t;
+            }
+        }
+        boolean[] owned = new boolean[CARD_COUNT];
+        for (PlayerState player : players) {
+            player.readFrom(in);
+            for (int cardId : player.cardIds()) {
+                int t = TYPE_BY_ID[cardId].ordinal();
+                if (owned[cardId] || cardId >= ID_OFFSETS[t] + SUPPLY_SIZES[t] - supply[t]) {
+                    throw new IOException("Card " + cardId + " is duplicated or still in the supply");
+                }
+                owned[cardId] = true;
+            }
+        }
+        for (int t = 0; t < TYPE_COUNT; t++) {
+            int taken = SUPPLY_SIZES[t] - supply[t];
+            for (int id = ID_OFFSETS[t]; id < ID_OFFSETS[t] + taken; id++) {
+                if (!owned[id]) {
+                    throw new IOException("Card " + id + " is owned by no player");
+                }
+            }
+        }
+        if (in.read() != -1) {
+            throw new IOException("Trailing bytes after the snapshot");
+        }
+        deckView = null;
+        dealt = true;
+    }
+
+    /**
+     * Creates the random source for the next shuffle.
+     */
+    private SplittableRandom nextShuffleRandom() {
+        return new SplittableRandom(GameRandom.gameSeed(shuffleSeed, shuffleCount++));
+    }
+
+    private void takeInstrumentedTurn(PlayerState player) throws PlayerViolationException {
+        metrics.turnStarted(player.name);
+        long start = System.nanoTime();
+        takeTurn(player);
+        metrics.turnEnded(player.name, System.nanoTime() - start);
+    }
+
+    private void takeTurn(PlayerState player) throws PlayerViolationException {
+        handView = null;
+        int money = 0;
+        int buys = 1;
+
+        if (player.autoPlaysMoney) {
+            for (int i = firstMoneyCard(player); i >= 0; i = firstMoneyCard(player)) {
+                money += playCard(player, i, money, buys);
+            }
+        }
+
+        while (!player.autoPlaysMoney) {
+            ImmutableList.Builder<Decision> options = ImmutableList.builderWithExpectedSize(player.handSize + 1);
+            for (int i = 0; i < player.handSize; i++) {
+                int cardId = player.hand[i];
+                if (TYPE_BY_ID[cardId].getCategory() == Card.Type.Category.MONEY) {
+                    options.add(playDecision(cardId));
+                }
+            }
+            options.add(END_MONEY);
+            Decision decision = prompt(player, GameState.TurnPhase.MONEY, money, buys, options.build());
+            if (!isOfferedInMoneyPhase(player, decision)) {
+                throw notOffered(player, decision);
+            }
+            if (decision instanceof EndPhaseDecision) {
+                break;
+            }
+            int cardId = ((PlayCardDecision) decision).getCard().getId();
+            money += playCard(player, player.indexInHand(cardId), money, buys);
+        }
+
+        while (buys > 0) {
+            ImmutableList<Decision> options = BuyOptions.options(money, availableMask);
+            Decision decision = prompt(player, GameState.TurnPhase.BUY, money, buys, options);
+            if (!BuyOptions.isOffered(decision, money, availableMask)) {
+                throw notOffered(player, decision);
+            }
+            if (decision instanceof EndPhaseDecision) {
+                break;
+            }
+            Card.Type type = ((BuyDecision) decision).getCardType();
+            player.gain(take(type.ordinal()));
+            money -= type.getCost();
+            buys--;
+            if (observed) {
+                notifyObservers(player, GameState.TurnPhase.BUY, money, buys, new GainCardEvent(type, player.name));
+            }
+        }
+
+        player.discardHand();
+        player.draw(HAND_SIZE, shuffles);
+        handView = null;
+        turns++;
+        if (observed) {
+            notifyObservers(player, GameState.TurnPhase.CLEANUP, 0, 0, new EndTurnEvent());
+        }
+    }
+
+    /**
+     * Plays a card from the player's hand during the MONEY phase, notifying
+     * observers.
+     *
+     * @param player    the current player
+     * @param handIndex the index of the card within the player's hand
+     * @param money     the spendable money before the card is played
+     * @param buys      the available buys
+     * @return the value of the played card
+     */
+    private int playCard(PlayerState player, int handIndex, int money, int buys) {
+        int cardId = player.play(handIndex);
+        if (handView != null) {
+            handView = handView.afterPlaying(card(cardId));
+        }
+        int value = TYPE_BY_ID[cardId].getValue();
+        if (observed) {
+            notifyObservers(player, GameState.TurnPhase.MONEY, money + value, buys,
+                    new PlayCardEvent(card(cardId), player.name));
+        }
+        return value;
+    }
+
+    /**
+     * Finds the first money card in the unplayed portion of a player's hand.
+     *
+     * @return the index of the card within the hand, or -1 if there is none
+     */
+    private static int firstMoneyCard(PlayerState player) {
+        for (int i = 0; i < player.handSize; i++) {
+            if (TYPE_BY_ID[player.hand[i]].getCategory() == Card.Type.Category.MONEY) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Decision prompt(PlayerState player, GameState.TurnPhase phase, int money, int buys,
+            ImmutableList<Decision> options) throws PlayerViolationException {
+        GameState state = GameState.lazy(player.name, handView(player), phase, money, buys, deckView());
+        Decision decision;
+        long start = instrumented ? System.nanoTime() : 0;
+        try {
+            decision = player.player.makeDecision(state, options);
+        } catch (DecisionTimeoutException e) {
+            throw new PlayerViolationException(player.name, e.getMessage(), e);
+        } catch (RuntimeException e) {
+            throw new PlayerViolationException(player.name,
+                    player.name + " threw an exception while making a decision", e);
+        }
+        if (instrumented) {
+            metrics.decisionMade(player.name, phase, System.nanoTime() - start);
+        }
+        if (decision == null) {
+            throw new PlayerViolationException(player.name, player.name + " did not return a decision", null);
+        }
+        return decision;
+    }
+
+    /**
+     * Checks, in constant time, whether a decision is one of the MONEY phase
+     * options: an unplayed money card in the player's hand, or ending the phase.
+     */
+    private static boolean isOfferedInMoneyPhase(PlayerState player, Decision decision) {
+        if (decision instanceof PlayCardDecision play) {
+            Card card = play.getCard();
+            int cardId = card.getId();
+            return cardId >= 0 && cardId < CARD_COUNT && TYPE_BY_ID[cardId] == card.getType()
+                    && card.getCategory() == Card.Type.Category.MONEY && player.indexInHand(cardId) >= 0;
+        }
+        return decision instanceof EndPhaseDecision end && end.getPhase() == GameState.TurnPhase.MONEY;
+    }
+
+    private static PlayerViolationException notOffered(PlayerState player, Decision decision) {
+        return new PlayerViolationException(player.name,
+                player.name + " made a decision that was not offered: " + decision, null);
+    }
+
+    private void notifyObservers(PlayerState current, GameState.TurnPhase phase, int money, int buys, Event event) {
+        if (instrumented) {
+            metrics.eventPublished(event);
+        }
+        GameState fullState = GameState.lazy(current.name, handView(current), phase, money, buys, deckView());
+        GameState publicState = null;
+        for (int i = 0; i < players.length; i++) {
+            GameObserver playerObserver = playerObservers[i];
+            if (playerObserver == null) {
+                continue;
+            }
+            if (players[i] == current) {
+                playerObserver.notifyEvent(fullState, event);
+            } else {
+                if (publicState == null) {
+                    publicState = GameState.lazy(current.name, null, phase, money, buys, deckView());
+                }
+                playerObserver.notifyEvent(publicState, event);
+            }
+        }
+        if (observer != null) {
+            observer.notifyEvent(fullState, event);
+        }
+    }
+
+    private ImmutableList<Player.ScorePair> score() {
+        int[] points = new int[players.length];
+        for (int i = 0; i < players.length; i++) {
+            points[i] = Scoring.victoryPoints(players[i].owned);
+        }
+        int[] order = new int[players.length];
+        Scoring.rank(points, players.length, order);
+        ImmutableList.Builder<Player.ScorePair> scores = ImmutableList.builderWithExpectedSize(players.length);
+        for (int seat : order) {
+            scores.add(new Player.ScorePair(players[seat].player, points[seat]));
+        }
+        return scores.build();
+    }
+
+    /**
+     * Removes a card of the specified type from the supply.
+     *
+     * @param type the ordinal of the card type
+     * @return the id of the removed card
+     */
+    private int take(int type) {
+        int cardId = ID_OFFSETS[type] + SUPPLY_SIZES[type] - supply[type];
+        if (--supply[type] == 0) {
+            availableMask &= ~(1 << type);
+        }
+        deckView = null;
+        return cardId;
+    }
+
+    static Card card(int cardId) {
+        return Card.of(TYPE_BY_ID[cardId], cardId);
+    }
+
+    private PlayCardDecision playDecision(int cardId) {
+        PlayCardDecision decision = playDecisions[cardId];
+        if (decision == null) {
+            decision = new PlayCardDecision(card(cardId));
+            playDecisions[cardId] = decision;
+        }
+        return decision;
+    }
+
+    private DeckView deckView() {
+        if (deckView == null) {
+            deckView = new DeckView(supply);
+        }
+        return deckView;
+    }
+
+    private HandView handView(PlayerState player) {
+        if (handView == null) {
+            handView = new HandView(player);
+        }
+        return handView;
+    }
+}
@@ -0,0 +1,33 @@
+package edu.brandeis.cosi.atg.api.engine;
+
+/**
+ * Exception thrown by a {@link ReferenceEngine} constructed with a turn limit
+ * when a game reaches the limit before the last
+ * {@link edu.brandeis.cosi.atg.api.cards.Card.Type#FRAMEWORK FRAMEWORK} card
+ * is bought. The game is abandoned and not scored.
+ */
+public class TurnLimitException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /** The number of turns taken when the game was abandoned. */
+    private final long turns;
+
+    /**
+     * Constructs a TurnLimitException.
+     *
+     * @param turns the number of turns taken, counted over all players
+     */
+    public TurnLimitException(long turns) {
+        super("The game did not end within " + turns + " turns");
+        this.turns = turns;
+    }
+
+    /**
+     * Gets the number of turns taken when the game was abandoned.
+     *
+     * @return the number of turns, counted over all players
+     */
+    public long getTurns() {
+        return turns;
+    }
+}
@@ -0,0 +1,12 @@
+/**
+ * This package contains a reference implementation of the
+ * {@link edu.brandeis.cosi.atg.api.Engine Engine} interface.
+ * <br/>
+ * <br/>
+ * The {@link edu.brandeis.cosi.atg.api.engine.ReferenceEngine} implements the
+ * full rules described in the {@link edu.brandeis.cosi.atg.api.Engine Engine}
+ * documentation, and is intended for batch simulation (e.g. ranking bots in a
+ * tournament) as well as for testing {@link edu.brandeis.cosi.atg.api.Player
+ * Player} implementations.
+ */
+package edu.brandeis.cosi.atg.api.engine;
@@ -0,0 +1,682 @@
+package edu.brandeis.cosi.atg.api.json;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import edu.brandeis.cosi.atg.api.GameDeck;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Hand;
+import edu.brandeis.cosi.atg.api.cards.Card;
+import edu.brandeis.cosi.atg.api.decisions.BuyDecision;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.decisions.EndPhaseDecision;
+import edu.brandeis.cosi.atg.api.decisions.PlayCardDecision;
+import edu.brandeis.cosi.atg.api.event.EndTurnEvent;
+import edu.brandeis.cosi.atg.api.event.Event;
+import edu.brandeis.cosi.atg.api.event.GainCardEvent;
+import edu.brandeis.cosi.atg.api.event.GameEvent;
+import edu.brandeis.cosi.atg.api.event.PlayCardEvent;
+
+/**
+ * Reads and writes {@link GameState}s, {@link Decision}s, {@link Event}s and
+ * {@link Card}s as JSON using Jackson's streaming API.
+ * <br/>
+ * <br/>
+ * The JSON is the same as that produced by a default {@code ObjectMapper} from
+ * the Jackson annotations on these types, including the {@code type}
+ * discriminator of the {@link Decision} and {@link Event} hierarchies. When
+ * reading, the codec also accepts the property names used by the annotated
+ * constructors where they differ from the getters: {@code currentPlayerNmae}
+ * for {@link GameState} and {@code cardType} for {@link GainCardEvent}.
+ * Unknown properties are ignored.
+ * <br/>
+ * <br/>
+ * Each thread reuses its own output buffer, and cards and decisions are read
+ * into the shared instances returned by {@link Card#of(Card.Type, int)},
+ * {@link BuyDecision#of(Card.Type)} and
+ * {@link EndPhaseDecision#of(GameState.TurnPhase)}. A GameJsonCodec is thread
+ * safe.
+ */
+public final class GameJsonCodec {
+    private static final Card.Type[] TYPES = Card.Type.values();
+    private static final SerializedString[] TYPE_NAMES = new SerializedString[TYPES.length];
+
+    static {
+        for (Card.Type type : TYPES) {
+            TYPE_NAMES[type.ordinal()] = new SerializedString(type.name());
+        }
+    }
+
+    private static final SerializedString AVAILABLE_BUYS = new SerializedString("availableBuys");
+    private static final SerializedString CARD = new SerializedString("card");
+    private static final SerializedString CARD_COUNTS = new SerializedString("cardCounts");
+    private static final SerializedString CARD_TYPE = new SerializedString("cardType");
+    private static final SerializedString CURRENT_PLAYER_HAND = new SerializedString("currentPlayerHand");
+    private static final SerializedString CURRENT_PLAYER_NAME = new SerializedString("currentPlayerName");
+    private static final SerializedString DECISION = new SerializedString("decision");
+    private static final SerializedString DECK = new SerializedString("deck");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString PHASE = new SerializedString("phase");
+    private static final SerializedString PLAYED_CARDS = new SerializedString("playedCards");
+    private static final SerializedString PLAYER_NAME = new SerializedString("playerName");
+    private static final SerializedString SPENDABLE_MONEY = new SerializedString("spendableMoney");
+    private static final SerializedString TURN_PHASE = new SerializedString("turnPhase");
+    private static final SerializedString TYPE = new SerializedString("type");
+    private static final SerializedString UNPLAYED_CARDS = new SerializedString("unplayedCards");
+
+    private final JsonFactory factory;
+    private final ThreadLocal<ByteArrayBuilder> buffers = ThreadLocal.withInitial(() -> new ByteArrayBuilder(512));
+
+    /**
+     * Constructs a GameJsonCodec with a default {@link JsonFactory}.
+     */
+    public GameJsonCodec() {
+        this(new JsonFactory());
+    }
+
+    /**
+     * Constructs a GameJsonCodec with the specified {@link JsonFactory}.
+     *
+     * @param factory the factory used to create generators and parsers
+     */
+    public GameJsonCodec(JsonFactory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Writes a GameState as JSON.
+     *
+     * @param state the state to write
+     * @return the UTF-8 encoded JSON
+     * @throws IOException if the state cannot be written
+     */
+    public byte[] writeGameState(GameState state) throws IOException {
+        ByteArrayBuilder buffer = buffers.get();
+        buffer.reset();
+        try (JsonGenerator generator = factory.createGenerator(buffer)) {
+            writeGameState(generator, state);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Writes a list of decisions as a JSON array.
+     *
+     * @param decisions the decisions to write
+     * @return the UTF-8 encoded JSON
+     * @throws IOException if the decisions cannot be written
+     */
+    public byte[] writeDecisions(ImmutableList<Decision> decisions) throws IOException {
+        ByteArrayBuilder buffer = buffers.get();
+        buffer.reset();
+        try (JsonGenerator generator = factory.createGenerator(buffer)) {
+            writeDecisions(generator, decisions);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Writes a single decision as JSON.
+     *
+     * @param decision the decision to write
+     * @return the UTF-8 encoded JSON
+     * @throws IOException if the decision cannot be written
+     */
+    public byte[] writeDecision(Decision decision) throws IOException {
+        ByteArrayBuilder buffer = buffers.get();
+        buffer.reset();
+        try (JsonGenerator generator = factory.createGenerator(buffer)) {
+            writeDecision(generator, decision);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Writes an event as JSON.
+     *
+     * @param event the event to write
+     * @return the UTF-8 encoded JSON
+     * @throws IOException if the event cannot be written
+     */
+    public byte[] writeEvent(Event event) throws IOException {
+        ByteArrayBuilder buffer = buffers.get();
+        buffer.reset();
+        try (JsonGenerator generator = factory.createGenerator(buffer)) {
+            writeEvent(generator, event);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Reads a GameState from JSON.
+     *
+     * @param json the UTF-8 encoded JSON
+     * @return the state
+     * @throws IOException if the JSON is malformed
+     */
+    public GameState readGameState(byte[] json) throws IOException {
+        try (JsonParser parser = factory.createParser(json)) {
+            parser.nextToken();
+            return readGameState(parser);
+        }
+    }
+
+    /**
+     * Reads a list of decisions from a JSON array.
+     *
+     * @param json the UTF-8 encoded JSON
+     * @return the decisions
+     * @throws IOException if the JSON is malformed
+     */
+    public ImmutableList<Decision> readDecisions(byte[] json) throws IOException {
+        try (JsonParser parser = factory.createParser(json)) {
+            parser.nextToken();
+            return readDecisions(parser);
+        }
+    }
+
+    /**
+     * Reads a single decision from JSON.
+     *
+     * @param json the UTF-8 encoded JSON
+     * @return the decision
+     * @throws IOException if the JSON is malformed
+     */
+    public Decision readDecision(byte[] json) throws IOException {
+        try (JsonParser parser = factory.createParser(json)) {
+            parser.nextToken();
+            return readDecision(parser);
+        }
+    }
+
+    /**
+     * Reads an event from JSON.
+     *
+     * @param json the UTF-8 encoded JSON
+     * @return the event
+     * @throws IOException if the JSON is malformed
+     */
+    public Event readEvent(byte[] json) throws IOException {
+        try (JsonParser parser = factory.createParser(json)) {
+            parser.nextToken();
+            return readEvent(parser);
+        }
+    }
+
+    /**
+     * Writes a GameState to a generator.
+     *
+     * @param generator the generator to write to
+     * @param state     the state to write
+     * @throws IOException if the state cannot be written
+     */
+    public static void writeGameState(JsonGenerator generator, GameState state) throws IOException {
+        if (state == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeFieldName(CURRENT_PLAYER_HAND);
+        writeHand(generator, state.getCurrentPlayerHand());
+        generator.writeFieldName(TURN_PHASE);
+        writeEnum(generator, state.getTurnPhase());
+        generator.writeFieldName(SPENDABLE_MONEY);
+        generator.writeNumber(state.getSpendableMoney());
+        generator.writeFieldName(AVAILABLE_BUYS);
+        generator.writeNumber(state.getAvailableBuys());
+        generator.writeFieldName(DECK);
+        writeDeck(generator, state.getDeck());
+        generator.writeFieldName(CURRENT_PLAYER_NAME);
+        generator.writeString(state.getCurrentPlayerName());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes a list of decisions to a generator.
+     *
+     * @param generator the generator to write to
+     * @param decisions the decisions to write
+     * @throws IOException if the decisions cannot be written
+     */
+    public static void writeDecisions(JsonGenerator generator, ImmutableList<Decision> decisions)
+            throws IOException {
+        generator.writeStartArray();
+        for (Decision decision : decisions) {
+            writeDecision(generator, decision);
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * Writes a decision to a generator.
+     *
+     * @param generator the generator to write to
+     * @param decision  the decision to write
+     * @throws IOException if the decision cannot be written
+     */
+    public static void writeDecision(JsonGenerator generator, Decision decision) throws IOException {
+        if (decision == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        if (decision instanceof BuyDecision buy) {
+            generator.writeFieldName(TYPE);
+            generator.writeString("buy");
+            generator.writeFieldName(CARD_TYPE);
+            writeEnum(generator, buy.getCardType());
+        } else if (decision instanceof EndPhaseDecision end) {
+            generator.writeFieldName(TYPE);
+            generator.writeString("end_phase");
+            generator.writeFieldName(PHASE);
+            writeEnum(generator, end.getPhase());
+        } else if (decision instanceof PlayCardDecision play) {
+            generator.writeFieldName(TYPE);
+            generator.writeString("play_card");
+            generator.writeFieldName(CARD);
+            writeCard(generator, play.getCard());
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes an event to a generator.
+     *
+     * @param generator the generator to write to
+     * @param event     the event to write
+     * @throws IOException if the event cannot be written
+     */
+    public static void writeEvent(JsonGenerator generator, Event event) throws IOException {
+        if (event == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        if (event instanceof EndTurnEvent) {
+            generator.writeFieldName(TYPE);
+            generator.writeString("end_turn");
+        } else if (event instanceof GainCardEvent gain) {
+            generator.writeFieldName(TYPE);
+            generator.writeString("gain_card");
+            generator.writeFieldName(PLAYER_NAME);
+            generator.writeString(gain.getPlayerName());
+            generator.writeFieldName(DECISION);
+            writeEnum(generator, gain.getDecision());
+        } else if (event instanceof GameEvent game) {
+            generator.writeFieldName(TYPE);
+            generator.writeString("game");
+            generator.writeFieldName(DESCRIPTION);
+            generator.writeString(game.getDescription());
+        } else if (event instanceof PlayCardEvent play) {
+            generator.writeFieldName(TYPE);
+            generator.writeString("play_card");
+            generator.writeFieldName(CARD);
+            writeCard(generator, play.getCard());
+            generator.writeFieldName(PLAYER_NAME);
+            generator.writeString(play.getPlayerName());
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes a card to a generator.
+     *
+     * @param generator the generator to write to
+     * @param card      the card to write
+     * @throws IOException if the card cannot be written
+     */
+    public static void writeCard(JsonGenerator generator, Card card) throws IOException {
+        if (card == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeFieldName(TYPE);
+        if (card.getType() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(TYPE_NAMES[card.getType().ordinal()]);
+        }
+        generator.writeFieldName(ID);
+        generator.writeNumber(card.getId());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Reads a GameState from a parser positioned at its first token.
+     *
+     * @param parser the parser to read from
+     * @return the state
+     * @throws IOException if the JSON is malformed
+     */
+    public static GameState readGameState(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, JsonToken.START_OBJECT);
+        String name = null;
+        Hand hand = null;
+        GameState.TurnPhase phase = null;
+        int money = 0;
+        int buys = 0;
+        GameDeck deck = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "currentPlayerName":
+                case "currentPlayerNmae":
+                    name = parser.getValueAsString();
+                    break;
+                case "currentPlayerHand":
+                    hand = readHand(parser);
+                    break;
+                case "turnPhase":
+                    phase = readEnum(parser, GameState.TurnPhase.class);
+                    break;
+                case "spendableMoney":
+                    money = parser.getValueAsInt();
+                    break;
+                case "availableBuys":
+                    buys = parser.getValueAsInt();
+                    break;
+                case "deck":
+                    deck = readDeck(parser);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return new GameState(name, hand, phase, money, buys, deck);
+    }
+
+    /**
+     * Reads a list of decisions from a parser positioned at the start of an
+     * array.
+     *
+     * @param parser the parser to read from
+     * @return the decisions
+     * @throws IOException if the JSON is malformed
+     */
+    public static ImmutableList<Decision> readDecisions(JsonParser parser) throws IOException {
+        expect(parser, JsonToken.START_ARRAY);
+        ImmutableList.Builder<Decision> decisions = ImmutableList.builder();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            decisions.add(readDecision(parser));
+        }
+        return decisions.build();
+    }
+
+    /**
+     * Reads a decision from a parser positioned at its first token.
+     *
+     * @param parser the parser to read from
+     * @return the decision
+     * @throws IOException if the JSON is malformed
+     */
+    public static Decision readDecision(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, JsonToken.START_OBJECT);
+        String type = null;
+        Card.Type cardType = null;
+        GameState.TurnPhase phase = null;
+        Card card = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "type":
+                    type = parser.getValueAsString();
+                    break;
+                case "cardType":
+                    cardType = readEnum(parser, Card.Type.class);
+                    break;
+                case "phase":
+                    phase = readEnum(parser, GameState.TurnPhase.class);
+                    break;
+                case "card":
+                    card = readCard(parser);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        if ("buy".equals(type)) {
+            return cardType == null ? new BuyDecision(null) : BuyDecision.of(cardType);
+        } else if ("end_phase".equals(type)) {
+            return phase == null ? new EndPhaseDecision(null) : EndPhaseDecision.of(phase);
+        } else if ("play_card".equals(type)) {
+            return new PlayCardDecision(card);
+        }
+        throw new JsonParseException(parser, "Unknown decision type: " + type);
+    }
+
+    /**
+     * Reads an event from a parser positioned at its first token.
+     *
+     * @param parser the parser to read from
+     * @return the event
+     * @throws IOException if the JSON is malformed
+     */
+    public static Event readEvent(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, JsonToken.START_OBJECT);
+        String type = null;
+        String playerName = null;
+        String description = null;
+        Card.Type cardType = null;
+        Card card = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "type":
+                    type = parser.getValueAsString();
+                    break;
+                case "playerName":
+                    playerName = parser.getValueAsString();
+                    break;
+                case "description":
+                    description = parser.getValueAsString();
+                    break;
+                case "decision":
+                case "cardType":
+                    cardType = readEnum(parser, Card.Type.class);
+                    break;
+                case "card":
+                    card = readCard(parser);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        if ("end_turn".equals(type)) {
+            return new EndTurnEvent();
+        } else if ("gain_card".equals(type)) {
+            return new GainCardEvent(cardType, playerName);
+        } else if ("game".equals(type)) {
+            return new GameEvent(description);
+        } else if ("play_card".equals(type)) {
+            return new PlayCardEvent(card, playerName);
+        }
+        throw new JsonParseException(parser, "Unknown event type: " + type);
+    }
+
+    /**
+     * Reads a card from a parser positioned at its first token.
+     *
+     * @param parser the parser to read from
+     * @return the card
+     * @throws IOException if the JSON is malformed
+     */
+    public static Card readCard(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, JsonToken.START_OBJECT);
+        Card.Type type = null;
+        int id = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (field.equals("type")) {
+                type = readEnum(parser, Card.Type.class);
+            } else if (field.equals("id")) {
+                id = parser.getValueAsInt();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return type == null ? new Card(null, id) : Card.of(type, id);
+    }
+
+    private static void writeHand(JsonGenerator generator, Hand hand) throws IOException {
+        if (hand == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeFieldName(PLAYED_CARDS);
+        writeCards(generator, hand.getPlayedCards());
+        generator.writeFieldName(UNPLAYED_CARDS);
+        writeCards(generator, hand.getUnplayedCards());
+        generator.writeEndObject();
+    }
+
+    private static void writeCards(JsonGenerator generator, ImmutableCollection<Card> cards) throws IOException {
+        if (cards == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartArray();
+        for (Card card : cards) {
+            writeCard(generator, card);
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeDeck(JsonGenerator generator, GameDeck deck) throws IOException {
+        if (deck == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeFieldName(CARD_COUNTS);
+        generator.writeStartObject();
+        for (ImmutableMap.Entry<Card.Type, Integer> entry : deck.getCardCounts().entrySet()) {
+            generator.writeFieldName(TYPE_NAMES[entry.getKey().ordinal()]);
+            generator.writeNumber(entry.getValue());
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    private static void writeEnum(JsonGenerator generator, Enum<?> value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value.name());
+        }
+    }
+
+    private static Hand readHand(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, JsonToken.START_OBJECT);
+        ImmutableList<Card> played = ImmutableList.of();
+        ImmutableList<Card> unplayed = ImmutableList.of();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (field.equals("playedCards")) {
+                played = readCards(parser);
+            } else if (field.equals("unplayedCards")) {
+                unplayed = readCards(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new Hand(played, unplayed);
+    }
+
+    private static ImmutableList<Card> readCards(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return ImmutableList.of();
+        }
+        expect(parser, JsonToken.START_ARRAY);
+        ImmutableList.Builder<Card> cards = ImmutableList.builder();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            cards.add(readCard(parser));
+        }
+        return cards.build();
+    }
+
+    private static GameDeck readDeck(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, JsonToken.START_OBJECT);
+        ImmutableMap<Card.Type, Integer> counts = ImmutableMap.of();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (field.equals("cardCounts")) {
+                expect(parser, JsonToken.START_OBJECT);
+                Map<Card.Type, Integer> builder = new EnumMap<>(Card.Type.class);
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    Card.Type type = enumValue(parser, Card.Type.class, parser.currentName());
+                    parser.nextToken();
+                    expect(parser, JsonToken.VALUE_NUMBER_INT);
+                    if (builder.put(type, parser.getIntValue()) != null) {
+                        throw new JsonParseException(parser, "Duplicate card count: " + type);
+                    }
+                }
+                counts = ImmutableMap.copyOf(builder);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new GameDeck(counts);
+    }
+
+    private static <E extends Enum<E>> E readEnum(JsonParser parser, Class<E> type) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, JsonToken.VALUE_STRING);
+        return enumValue(parser, type, parser.getText());
+    }
+
+    private static <E extends Enum<E>> E enumValue(JsonParser parser, Class<E> type, String name)
+            throws IOException {
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(parser, "Unknown " + type.getSimpleName() + ": " + name);
+        }
+    }
+
+    private static void expect(JsonParser parser, JsonToken token) throws IOException {
+        if (parser.currentToken() != token) {
+            throw new JsonParseException(parser, "Expected " + token + " but found " + parser.currentToken());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * This package contains a fast JSON codec for the API types exchanged with
+ * remote {@link edu.brandeis.cosi.atg.api.Player Players}.
+ * <br/>
+ * <br/>
+ * {@link edu.brandeis.cosi.atg.api.json.GameJsonCodec} reads and writes the
+ * same JSON as a Jackson {@code ObjectMapper} using the annotations on the API
+ * types, but uses Jackson's streaming API with hand-written serializers instead
+ * of reflection.
+ */
+package edu.brandeis.cosi.atg.api.json;
@@ -0,0 +1,114 @@
+package edu.brandeis.cosi.atg.api.log;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import edu.brandeis.cosi.atg.api.cards.Card;
+
+/**
+ * Constants and primitive encodings shared by {@link GameLogWriter} and
+ * {@link GameLogReader}.
+ */
+final class GameLogFormat {
+    static final byte[] MAGIC = { 'A', 'T', 'G', 'L' };
+    static final int VERSION = 1;
+
+    /** Record tag: defines the next entry of the string table. */
+    static final int TAG_STRING = 0x40;
+
+    /** Event kinds, stored in the low two bits of an event record tag. */
+    static final int KIND_END_TURN = 0;
+    static final int KIND_GAIN_CARD = 1;
+    static final int KIND_GAME = 2;
+    static final int KIND_PLAY_CARD = 3;
+    static final int KIND_MASK = 0x03;
+
+    /** Event record flags. */
+    static final int FLAG_DECK_CHANGED = 0x04;
+    static final int FLAG_DECK_NULL = 0x08;
+    static final int FLAG_HAND_SAME = 0x10;
+    static final int FLAG_HAND_NULL = 0x20;
+
+    static final Card.Type[] TYPES = Card.Type.values();
+
+    private GameLogFormat() {
+    }
+
+    static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static void writeSignedVarLong(OutputStream out, long value) throws IOException {
+        writeVarLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated game log");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in game log");
+    }
+
+    static long readSignedVarLong(InputStream in) throws IOException {
+        long value = readVarLong(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static int readVarInt(InputStream in) throws IOException {
+        long value = readVarLong(in);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IOException("Value out of range in game log: " + value);
+        }
+        return (int) value;
+    }
+
+    static int readSignedVarInt(InputStream in) throws IOException {
+        long value = readSignedVarLong(in);
+        if (value != (int) value) {
+            throw new IOException("Value out of range in game log: " + value);
+        }
+        return (int) value;
+    }
+
+    static int readByte(InputStream in) throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException("Truncated game log");
+        }
+        return b;
+    }
+
+    /**
+     * Encodes a card as a single varint: the zigzag-encoded id times the number of
+     * card types, plus the type ordinal.
+     */
+    static void writeCard(OutputStream out, Card card) throws IOException {
+        long id = card.getId();
+        writeVarLong(out, ((id << 1) ^ (id >> 63)) * TYPES.length + card.getType().ordinal());
+    }
+
+    static Card readCard(InputStream in) throws IOException {
+        long value = readVarLong(in);
+        long zigzag = Long.divideUnsigned(value, TYPES.length);
+        int type = (int) Long.remainderUnsigned(value, TYPES.length);
+        long id = (zigzag >>> 1) ^ -(zigzag & 1);
+        if (id != (int) id) {
+            throw new IOException("Invalid card id in game log: " + id);
+        }
+        return Card.of(TYPES[type], (int) id);
+    }
+}
@@ -0,0 +1,209 @@
+package edu.brandeis.cosi.atg.api.log;
+
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.FLAG_DECK_CHANGED;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.FLAG_DECK_NULL;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.FLAG_HAND_NULL;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.FLAG_HAND_SAME;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.KIND_GAIN_CARD;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.KIND_GAME;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.KIND_MASK;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.KIND_PLAY_CARD;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.TAG_STRING;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.TYPES;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.readByte;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.readCard;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.readSignedVarInt;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.readVarInt;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import edu.brandeis.cosi.atg.api.GameDeck;
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Hand;
+import edu.brandeis.cosi.atg.api.cards.Card;
+import edu.brandeis.cosi.atg.api.event.EndTurnEvent;
+import edu.brandeis.cosi.atg.api.event.Event;
+import edu.brandeis.cosi.atg.api.event.GainCardEvent;
+import edu.brandeis.cosi.atg.api.event.GameEvent;
+import edu.brandeis.cosi.atg.api.event.PlayCardEvent;
+
+/**
+ * Reads a game log written by a {@link GameLogWriter}, one record at a time.
+ *
+ * Consecutive records with the same supply or hand share the same
+ * {@link GameDeck} or {@link Hand} instance.
+ */
+public final class GameLogReader implements Closeable {
+    private static final GameState.TurnPhase[] PHASES = GameState.TurnPhase.values();
+
+    private final InputStream in;
+    private final List<String> strings = new ArrayList<>();
+
+    private GameDeck lastDeck;
+    private final int[] lastCounts = new int[TYPES.length];
+    private Hand lastHand;
+
+    /**
+     * Constructs a GameLogReader and reads the log header.
+     *
+     * @param in the stream to read from
+     * @throws IOException if the stream is not a game log
+     */
+    public GameLogReader(InputStream in) throws IOException {
+        this.in = new BufferedInputStream(in);
+        byte[] magic = this.in.readNBytes(GameLogFormat.MAGIC.length);
+        if (!Arrays.equals(magic, GameLogFormat.MAGIC)) {
+            throw new IOException("Not a game log");
+        }
+        int version = this.in.read();
+        if (version != GameLogFormat.VERSION) {
+            throw new IOException("Unsupported game log version: " + version);
+        }
+        strings.add(null);
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the next record, or an empty Optional at the end of the log
+     * @throws IOException if the log cannot be read or is malformed
+     */
+    public Optional<GameLogRecord> read() throws IOException {
+        int tag = in.read();
+        while (tag == TAG_STRING) {
+            strings.add(readString());
+            tag = in.read();
+        }
+        if (tag < 0) {
+            return Optional.empty();
+        }
+
+        String name = string(readVarInt(in));
+        int phase = readByte(in);
+        if (phase > PHASES.length) {
+            throw new IOException("Invalid turn phase in game log: " + phase);
+        }
+        int money = readSignedVarInt(in);
+        int buys = readSignedVarInt(in);
+        if ((tag & FLAG_DECK_NULL) != 0) {
+            lastDeck = null;
+        } else if ((tag & FLAG_DECK_CHANGED) != 0) {
+            lastDeck = readDeck();
+        }
+        if ((tag & FLAG_HAND_NULL) != 0) {
+            lastHand = null;
+        } else if ((tag & FLAG_HAND_SAME) == 0) {
+            ImmutableList<Card> played = readCards();
+            lastHand = new Hand(played, readCards());
+        }
+        GameState state = new GameState(name, lastHand, phase == 0 ? null : PHASES[phase - 1], money, buys,
+                lastDeck);
+
+        Event event;
+        switch (tag & KIND_MASK) {
+            case KIND_PLAY_CARD:
+                Card card = readCard(in);
+                event = new PlayCardEvent(card, string(readVarInt(in)));
+                break;
+            case KIND_GAIN_CARD:
+                int ordinal = readByte(in);
+                if (ordinal >= TYPES.length) {
+                    throw new IOException("Invalid card type in game log: " + ordinal);
+                }
+                Card.Type type = TYPES[ordinal];
+                event = new GainCardEvent(type, string(readVarInt(in)));
+                break;
+            case KIND_GAME:
+                event = new GameEvent(readString());
+                break;
+            default:
+                event = new EndTurnEvent();
+                break;
+        }
+        return Optional.of(new GameLogRecord(state, event));
+    }
+
+    /**
+     * Reads all remaining records, notifying an observer of each one in order.
+     *
+     * @param observer the observer to notify
+     * @return the number of records read
+     * @throws IOException if the log cannot be read or is malformed
+     */
+    public long replay(GameObserver observer) throws IOException {
+        long count = 0;
+        for (Optional<GameLogRecord> record = read(); record.isPresent(); record = read()) {
+            observer.notifyEvent(record.get().getState(), record.get().getEvent());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Closes the underlying stream.
+     *
+     * @throws IOException if the stream cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private GameDeck readDeck() throws IOException {
+        int present = readByte(in);
+        for (Card.Type type : TYPES) {
+            int t = type.ordinal();
+            lastCounts[t] = (present & (1 << t)) != 0 ? lastCounts[t] + readSignedVarInt(in) : 0;
+        }
+        if (present == (1 << TYPES.length) - 1) {
+            return new GameDeck(lastCounts);
+        }
+        ImmutableMap.Builder<Card.Type, Integer> counts = ImmutableMap.builder();
+        for (Card.Type type : TYPES) {
+            if ((present & (1 << type.ordinal())) != 0) {
+                counts.put(type, lastCounts[type.ordinal()]);
+            }
+        }
+        return new GameDeck(counts.build());
+    }
+
+    private ImmutableList<Card> readCards() throws IOException {
+        int size = readVarInt(in);
+        ImmutableList.Builder<Card> cards = ImmutableList.builderWithExpectedSize(size);
+        for (int i = 0; i < size; i++) {
+            cards.add(readCard(in));
+        }
+        return cards.build();
+    }
+
+    private String string(int index) throws IOException {
+        if (index >= strings.size()) {
+            throw new IOException("Undefined string table entry: " + index);
+        }
+        return strings.get(index);
+    }
+
+    private String readString() throws IOException {
+        int length = readVarInt(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = in.readNBytes(length - 1);
+        if (bytes.length != length - 1) {
+            throw new IOException("Truncated game log");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,42 @@
+package edu.brandeis.cosi.atg.api.log;
+
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.event.Event;
+
+/**
+ * A single recorded event, along with the {@link GameState} it was reported
+ * with.
+ */
+public final class GameLogRecord {
+    private final GameState state;
+    private final Event event;
+
+    /**
+     * Constructs a GameLogRecord.
+     *
+     * @param state the state of the game when the event occurred
+     * @param event the event
+     */
+    public GameLogRecord(GameState state, Event event) {
+        this.state = state;
+        this.event = event;
+    }
+
+    /**
+     * Gets the state of the game when the event occurred.
+     *
+     * @return the state of the game
+     */
+    public GameState getState() {
+        return state;
+    }
+
+    /**
+     * Gets the event.
+     *
+     * @return the event
+     */
+    public Event getEvent() {
+        return event;
+    }
+}
@@ -0,0 +1,261 @@
+package edu.brandeis.cosi.atg.api.log;
+
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.FLAG_DECK_CHANGED;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.FLAG_DECK_NULL;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.FLAG_HAND_NULL;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.FLAG_HAND_SAME;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.KIND_END_TURN;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.KIND_GAIN_CARD;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.KIND_GAME;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.KIND_PLAY_CARD;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.TAG_STRING;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.TYPES;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.writeCard;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.writeSignedVarLong;
+import static edu.brandeis.cosi.atg.api.log.GameLogFormat.writeVarLong;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.Iterables;
+
+import edu.brandeis.cosi.atg.api.GameDeck;
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Hand;
+import edu.brandeis.cosi.atg.api.cards.Card;
+import edu.brandeis.cosi.atg.api.event.EndTurnEvent;
+import edu.brandeis.cosi.atg.api.event.Event;
+import edu.brandeis.cosi.atg.api.event.GainCardEvent;
+import edu.brandeis.cosi.atg.api.event.GameEvent;
+import edu.brandeis.cosi.atg.api.event.PlayCardEvent;
+
+/**
+ * A {@link GameObserver} which records every event, and the {@link GameState}
+ * it was reported with, in a compact binary format.
+ * <br/>
+ * <br/>
+ * <strong>Format:</strong> a log starts with the bytes {@code ATGL} and a
+ * version byte, followed by a sequence of records. Integers are written as
+ * unsigned LEB128 varints, and signed integers are zigzag encoded first. A card
+ * is a single varint combining its id and type.
+ * <ul>
+ * <li>A string record (tag {@code 0x40}) adds a UTF-8 string to the string
+ * table. Player names are written once, and then referred to by their index
+ * (starting at 1; 0 stands for null).</li>
+ * <li>An event record starts with a tag byte holding the event kind and flags,
+ * followed by the current player's name, the turn phase, spendable money and
+ * available buys. The supply is only written when it differs from the previous
+ * record, as a bitmask of card types followed by the change in count for each
+ * type. The hand is omitted when it is unchanged from the previous record.
+ * Finally, the event's own fields are written.</li>
+ * </ul>
+ * Writes are buffered; call {@link #flush()} or {@link #close()} to make sure
+ * they reach the underlying stream. This class is thread safe, but a log is
+ * only meaningful if the events of a single game are written in order.
+ */
+public final class GameLogWriter implements GameObserver, Closeable {
+    private final OutputStream out;
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    private GameDeck lastDeck;
+    private final int[] lastCounts = new int[TYPES.length];
+    private int lastPresent;
+    private Hand lastHand;
+
+    /**
+     * Constructs a GameLogWriter and writes the log header.
+     *
+     * @param out the stream to write to
+     * @throws IOException if the header cannot be written
+     */
+    public GameLogWriter(OutputStream out) throws IOException {
+        this.out = new BufferedOutputStream(out);
+        this.out.write(GameLogFormat.MAGIC);
+        this.out.write(GameLogFormat.VERSION);
+    }
+
+    /**
+     * Records an event.
+     *
+     * @param state the current state of the game
+     * @param event the event that occurred
+     * @throws UncheckedIOException if the record cannot be written
+     */
+    @Override
+    public synchronized void notifyEvent(GameState state, Event event) {
+        try {
+            write(state, event);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write game log", e);
+        }
+    }
+
+    /**
+     * Flushes buffered records to the underlying stream.
+     *
+     * @throws IOException if the stream cannot be flushed
+     */
+    public synchronized void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Flushes buffered records and closes the underlying stream.
+     *
+     * @throws IOException if the stream cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    private void write(GameState state, Event event) throws IOException {
+        int name = stringIndex(state.getCurrentPlayerName());
+        int eventPlayer = 0;
+        int kind;
+        if (event instanceof PlayCardEvent play) {
+            kind = KIND_PLAY_CARD;
+            eventPlayer = stringIndex(play.getPlayerName());
+        } else if (event instanceof GainCardEvent gain) {
+            kind = KIND_GAIN_CARD;
+            eventPlayer = stringIndex(gain.getPlayerName());
+        } else if (event instanceof GameEvent) {
+            kind = KIND_GAME;
+        } else if (event instanceof EndTurnEvent) {
+            kind = KIND_END_TURN;
+        } else {
+            throw new IllegalArgumentException("Unknown event type: " + event);
+        }
+
+        GameDeck deck = state.getDeck();
+        Hand hand = state.getCurrentPlayerHand();
+        int tag = kind;
+        if (deck == null) {
+            tag |= lastDeck == null ? 0 : FLAG_DECK_CHANGED;
+            tag |= FLAG_DECK_NULL;
+        } else if (deckChanged(deck)) {
+            tag |= FLAG_DECK_CHANGED;
+        }
+        if (hand == null) {
+            tag |= FLAG_HAND_NULL;
+        } else if (sameHand(hand)) {
+            tag |= FLAG_HAND_SAME;
+        }
+
+        out.write(tag);
+        writeVarLong(out, name);
+        out.write(state.getTurnPhase() == null ? 0 : state.getTurnPhase().ordinal() + 1);
+        writeSignedVarLong(out, state.getSpendableMoney());
+        writeSignedVarLong(out, state.getAvailableBuys());
+        if (deck != null && (tag & FLAG_DECK_CHANGED) != 0) {
+            writeDeck(deck);
+        }
+        lastDeck = deck;
+        if (hand != null && (tag & FLAG_HAND_SAME) == 0) {
+            writeCards(hand.getPlayedCards());
+            writeCards(hand.getUnplayedCards());
+        }
+        lastHand = hand;
+
+        switch (kind) {
+            case KIND_PLAY_CARD:
+                writeCard(out, ((PlayCardEvent) event).getCard());
+                writeVarLong(out, eventPlayer);
+                break;
+            case KIND_GAIN_CARD:
+                out.write(((GainCardEvent) event).getDecision().ordinal());
+                writeVarLong(out, eventPlayer);
+                break;
+            case KIND_GAME:
+                writeString(((GameEvent) event).getDescription());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private boolean deckChanged(GameDeck deck) {
+        if (deck == lastDeck) {
+            return false;
+        }
+        if (lastDeck == null || present(deck) != lastPresent) {
+            return true;
+        }
+        for (Card.Type type : TYPES) {
+            if (deck.getNumAvailable(type) != lastCounts[type.ordinal()]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeDeck(GameDeck deck) throws IOException {
+        int present = present(deck);
+        out.write(present);
+        for (Card.Type type : TYPES) {
+            int count = (present & (1 << type.ordinal())) != 0 ? deck.getNumAvailable(type) : 0;
+            if ((present & (1 << type.ordinal())) != 0) {
+                writeSignedVarLong(out, (long) count - lastCounts[type.ordinal()]);
+            }
+            lastCounts[type.ordinal()] = count;
+        }
+        lastPresent = present;
+    }
+
+    private static int present(GameDeck deck) {
+        int present = 0;
+        for (Card.Type type : deck.getCardTypes()) {
+            present |= 1 << type.ordinal();
+        }
+        return present;
+    }
+
+    private boolean sameHand(Hand hand) {
+        return lastHand != null && (hand == lastHand
+                || (Iterables.elementsEqual(hand.getPlayedCards(), lastHand.getPlayedCards())
+                        && Iterables.elementsEqual(hand.getUnplayedCards(), lastHand.getUnplayedCards())));
+    }
+
+    private void writeCards(ImmutableCollection<Card> cards) throws IOException {
+        writeVarLong(out, cards.size());
+        for (Card card : cards) {
+            writeCard(out, card);
+        }
+    }
+
+    private int stringIndex(String value) throws IOException {
+        if (value == null) {
+            return 0;
+        }
+        Integer index = strings.get(value);
+        if (index == null) {
+            index = strings.size() + 1;
+            strings.put(value, index);
+            out.write(TAG_STRING);
+            writeString(value);
+        }
+        return index;
+    }
+
+    /**
+     * Writes a string as its UTF-8 length plus one (0 for null), followed by its
+     * bytes.
+     */
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+}
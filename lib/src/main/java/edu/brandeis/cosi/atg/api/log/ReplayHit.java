@@ -0,0 +1,77 @@
+package edu.brandeis.cosi.atg.api.log;
+
+import java.io.IOException;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A single event found by a {@link ReplayStore} query.
+ *
+ * A ReplayHit only holds the location of the event. The {@link GameLogRecord}
+ * for the event, or for its whole game, is decoded from the store when
+ * requested.
+ */
+public final class ReplayHit {
+    private final ReplayStore store;
+    private final int segment;
+    private final int game;
+    private final int record;
+    private final int turn;
+
+    ReplayHit(ReplayStore store, int segment, int game, int record, int turn) {
+        this.store = store;
+        this.segment = segment;
+        this.game = game;
+        this.record = record;
+        this.turn = turn;
+    }
+
+    /**
+     * Gets an identifier for the game containing the event, which is unique
+     * within the store.
+     *
+     * @return the game id
+     */
+    public long getGameId() {
+        return ((long) segment << 32) | game;
+    }
+
+    /**
+     * Gets the index of the event within its game's log.
+     *
+     * @return the record index
+     */
+    public int getRecordIndex() {
+        return record;
+    }
+
+    /**
+     * Gets the turn number of the current player when the event occurred,
+     * starting at 1 for each player's first turn.
+     *
+     * @return the turn number
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    /**
+     * Decodes the event and the game state it was reported with.
+     *
+     * @return the record for the event
+     * @throws IOException if the store cannot be read
+     */
+    public GameLogRecord getRecord() throws IOException {
+        return store.readRecord(segment, game, record);
+    }
+
+    /**
+     * Decodes every record of the game containing the event.
+     *
+     * @return the records of the game, in order
+     * @throws IOException if the store cannot be read
+     */
+    public ImmutableList<GameLogRecord> getGame() throws IOException {
+        return store.readGame(segment, game);
+    }
+}
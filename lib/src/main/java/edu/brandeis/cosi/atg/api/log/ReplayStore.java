@@ -0,0 +1,570 @@
+package edu.brandeis.cosi.atg.api.log;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.cards.Card;
+import edu.brandeis.cosi.atg.api.event.EndTurnEvent;
+import edu.brandeis.cosi.atg.api.event.Event;
+import edu.brandeis.cosi.atg.api.event.GainCardEvent;
+import edu.brandeis.cosi.atg.api.event.GameEvent;
+import edu.brandeis.cosi.atg.api.event.PlayCardEvent;
+
+/**
+ * An append-only store of recorded games, indexed for fast queries.
+ * <br/>
+ * <br/>
+ * Games are appended as complete logs written by a {@link GameLogWriter}. The
+ * store is a directory of segments; each segment consists of four files:
+ * <ul>
+ * <li>{@code .log} - the game logs, concatenated</li>
+ * <li>{@code .games} - the offset and length of each game log</li>
+ * <li>{@code .idx} - one fixed-size entry per event, holding the event kind,
+ * player, card type and turn number</li>
+ * <li>{@code .post} - the postings lists of the segment: for each player, card
+ * type, event kind and turn, the sorted numbers of the matching entries</li>
+ * </ul>
+ * A new segment is started once the current one reaches the configured size,
+ * and the postings of the full segment are written then; the postings of the
+ * segment being appended to are kept in memory. Player names are stored once,
+ * in a shared name table.
+ * <br/>
+ * <br/>
+ * An append writes the game's log, its index entries and finally its
+ * {@code .games} entry, and only then adds it to the in-memory postings, so a
+ * game is never found by a query before all of its data is written. If a write
+ * fails, the segment's files are truncated back to the end of the previous
+ * game. When the store is opened, the {@code .games} entries decide which games
+ * were appended completely, and the postings of a full segment are rebuilt from
+ * its index if their {@code .post} file does not match it.
+ * <br/>
+ * <br/>
+ * Queries intersect the memory-mapped postings lists of their criteria,
+ * starting from the shortest, so the cost of a query depends on the number of
+ * events matching its most selective criterion rather than on the size of the
+ * store. No {@link edu.brandeis.cosi.atg.api.GameState GameState} or
+ * {@link Event} objects are created while searching. The
+ * {@link GameLogRecord}s for matching events are decoded lazily, through the
+ * returned {@link ReplayHit}s.
+ * <br/>
+ * <br/>
+ * Appends are serialized; queries may run concurrently with each other and
+ * with appends, and see every game whose append completed before the query
+ * started.
+ */
+public final class ReplayStore implements Closeable {
+    /** The default maximum size of a segment's log file. */
+    public static final long DEFAULT_SEGMENT_SIZE = 64L << 20;
+
+    private static final int GAME_ENTRY_SIZE = 16;
+    static final int INDEX_ENTRY_SIZE = 16;
+    static final int NO_CARD_TYPE = 0xFF;
+    private static final String NAMES_FILE = "names.dat";
+
+    private final Path directory;
+    private final long segmentSize;
+
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    private final DataOutputStream namesOut;
+
+    private volatile int segmentCount;
+    private volatile int activeGames;
+    private volatile int activeEntries;
+    /** The postings of each segment; the last one is being appended to. */
+    private final List<SegmentPostings> postings = new ArrayList<>();
+    private FileChannel logOut;
+    private FileChannel gamesOut;
+    private FileChannel indexOut;
+
+    /**
+     * Opens a store in the specified directory, creating it if needed, with the
+     * {@link #DEFAULT_SEGMENT_SIZE default segment size}.
+     *
+     * @param directory the directory containing the store
+     * @throws IOException if the store cannot be opened
+     */
+    public ReplayStore(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens a store in the specified directory, creating it if needed. Any
+     * partially appended game left by a crash is discarded.
+     *
+     * @param directory   the directory containing the store
+     * @param segmentSize the size at which a new segment is started
+     * @throws IOException if the store cannot be opened
+     */
+    public ReplayStore(Path directory, long segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+
+        Path names = directory.resolve(NAMES_FILE);
+        if (Files.exists(names)) {
+            readNames(names);
+        }
+        this.namesOut = new DataOutputStream(Files.newOutputStream(names, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND));
+
+        int segments = 0;
+        while (Files.exists(segmentFile(segments, "log"))) {
+            segments++;
+        }
+        for (int segment = 0; segment < segments - 1; segment++) {
+            Path post = segmentFile(segment, "post");
+            ByteBuffer index = map(segmentFile(segment, "idx"), 0, -1);
+            int entries = index.limit() / INDEX_ENTRY_SIZE;
+            SegmentPostings lists = Files.exists(post) ? SegmentPostings.mapIfValid(post, entries) : null;
+            if (lists == null) {
+                // The store stopped while sealing this segment, or the postings
+                // were written for different index entries
+                SegmentPostings.build(index, entries).write(post);
+                lists = SegmentPostings.map(post);
+            }
+            postings.add(lists);
+        }
+        openSegment(Math.max(0, segments - 1));
+    }
+
+    /**
+     * Reads the name table. A name torn by a crash while it was being appended
+     * is truncated, so that later names are appended after the last complete
+     * one.
+     */
+    private void readNames(Path names) throws IOException {
+        byte[] table = Files.readAllBytes(names);
+        int end = 0;
+        while (end + 2 <= table.length) {
+            int length = ((table[end] & 0xFF) << 8) | (table[end + 1] & 0xFF);
+            if (end + 2 + length > table.length) {
+                break;
+            }
+            String name;
+            try {
+                name = new DataInputStream(new ByteArrayInputStream(table, end, 2 + length)).readUTF();
+            } catch (UTFDataFormatException e) {
+                break;
+            }
+            nameIds.put(name, nameIds.size());
+            end += 2 + length;
+        }
+        if (end < table.length) {
+            try (FileChannel channel = FileChannel.open(names, StandardOpenOption.WRITE)) {
+                channel.truncate(end);
+            }
+        }
+    }
+
+    /**
+     * Appends a complete game log to the store.
+     *
+     * @param log a game log written by a {@link GameLogWriter}
+     * @return the id of the game, as returned by {@link ReplayHit#getGameId()}
+     * @throws IOException if the log is malformed or cannot be written
+     */
+    public synchronized long append(byte[] log) throws IOException {
+        ByteBuffer entries = index(log);
+        if (logOut.size() > 0 && logOut.size() + log.length > segmentSize) {
+            closeSegment();
+            int full = segmentCount - 1;
+            Path post = segmentFile(full, "post");
+            postings.get(full).write(post);
+            postings.set(full, SegmentPostings.map(post));
+            openSegment(segmentCount);
+        }
+        long offset = logOut.size();
+        long indexEnd = indexOut.size();
+        long gamesEnd = gamesOut.size();
+        int game = activeGames;
+        for (int i = 0; i < entries.limit(); i += INDEX_ENTRY_SIZE) {
+            entries.putInt(i, game);
+        }
+        ByteBuffer entry = ByteBuffer.allocate(GAME_ENTRY_SIZE);
+        entry.putLong(offset).putInt(log.length).putInt(entries.limit() / INDEX_ENTRY_SIZE).flip();
+        try {
+            writeFully(logOut, ByteBuffer.wrap(log));
+            writeFully(indexOut, entries);
+            writeFully(gamesOut, entry);
+        } catch (IOException e) {
+            rollBack(offset, indexEnd, gamesEnd, e);
+            throw e;
+        }
+        SegmentPostings active = postings.get(segmentCount - 1);
+        for (int i = 0; i < entries.limit(); i += INDEX_ENTRY_SIZE) {
+            active.add(activeEntries + i / INDEX_ENTRY_SIZE, entries, i);
+        }
+        activeEntries += entries.limit() / INDEX_ENTRY_SIZE;
+        activeGames = game + 1;
+        return ((long) (segmentCount - 1) << 32) | game;
+    }
+
+    /**
+     * Truncates the files of the segment being appended to after a failed
+     * append, so that the next game is written where the failed one started.
+     */
+    private void rollBack(long logEnd, long indexEnd, long gamesEnd, IOException failure) {
+        try {
+            gamesOut.truncate(gamesEnd).position(gamesEnd);
+            indexOut.truncate(indexEnd).position(indexEnd);
+            logOut.truncate(logEnd).position(logEnd);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Finds events matching all of the specified criteria. For example, to find
+     * every game where player X bought a FRAMEWORK before their tenth turn:
+     *
+     * <pre>
+     * store.find(GainCardEvent.class, "X", Card.Type.FRAMEWORK, 1, 9)
+     * </pre>
+     *
+     * @param eventType  the type of event to find, or {@code Event.class} for
+     *                   any type
+     * @param playerName the player who played or gained a card, or whose turn it
+     *                   was for other events; null for any player
+     * @param cardType   the type of card played or gained, or null for any (or
+     *                   no) card type
+     * @param minTurn    the minimum turn number of the current player, inclusive
+     * @param maxTurn    the maximum turn number of the current player, inclusive
+     * @return the matching events, in the order they were appended
+     * @throws IOException if the store cannot be read
+     */
+    public ImmutableList<ReplayHit> find(Class<? extends Event> eventType, String playerName, Card.Type cardType,
+            int minTurn, int maxTurn) throws IOException {
+        int kind = eventType == Event.class ? -1 : kindOf(eventType);
+        int playerId = -1;
+        if (playerName != null) {
+            Integer id;
+            synchronized (this) {
+                id = nameIds.get(playerName);
+            }
+            if (id == null) {
+                return ImmutableList.of();
+            }
+            playerId = id;
+        }
+        int type = cardType == null ? -1 : cardType.ordinal();
+
+        int segments;
+        int lastEntries;
+        SegmentPostings[] segmentPostings;
+        synchronized (this) {
+            segments = segmentCount;
+            lastEntries = activeEntries;
+            segmentPostings = postings.toArray(new SegmentPostings[0]);
+        }
+        ImmutableList.Builder<ReplayHit> hits = ImmutableList.builder();
+        for (int segment = 0; segment < segments; segment++) {
+            ByteBuffer index = map(segmentFile(segment, "idx"), 0,
+                    segment == segments - 1 ? (long) lastEntries * INDEX_ENTRY_SIZE : -1);
+            int entries = index.limit() / INDEX_ENTRY_SIZE;
+            SegmentPostings lists = segmentPostings[segment];
+            List<IntBuffer> criteria = new ArrayList<>(4);
+            if (kind >= 0) {
+                criteria.add(lists.list(SegmentPostings.KIND, kind));
+            }
+            if (playerId >= 0) {
+                criteria.add(lists.list(SegmentPostings.PLAYER, playerId));
+            }
+            if (type >= 0) {
+                criteria.add(lists.list(SegmentPostings.CARD_TYPE, type));
+            }
+            if (minTurn > 1 || maxTurn < SegmentPostings.MAX_TURN) {
+                int shortest = entries;
+                for (IntBuffer list : criteria) {
+                    shortest = Math.min(shortest, list.limit());
+                }
+                IntBuffer turns = turnList(lists, minTurn, maxTurn, shortest);
+                if (turns != null) {
+                    criteria.add(turns);
+                }
+            }
+            criteria.sort(Comparator.comparingInt(IntBuffer::limit));
+            find(segment, index, entries, criteria, minTurn, maxTurn, hits);
+        }
+        return hits.build();
+    }
+
+    /**
+     * Adds the entries of a segment which are in every one of the specified
+     * lists and within the turn range. The first list drives the intersection;
+     * the others are searched with exponential search from the previous match.
+     */
+    private void find(int segment, ByteBuffer index, int entries, List<IntBuffer> criteria, int minTurn,
+            int maxTurn, ImmutableList.Builder<ReplayHit> hits) {
+        IntBuffer driver = criteria.isEmpty() ? null : criteria.get(0);
+        int count = driver == null ? entries : driver.limit();
+        int[] cursors = new int[criteria.size()];
+        candidates: for (int i = 0; i < count; i++) {
+            int entry = driver == null ? i : driver.get(i);
+            if (entry >= entries) {
+                break;
+            }
+            for (int c = 1; c < criteria.size(); c++) {
+                IntBuffer list = criteria.get(c);
+                cursors[c] = seek(list, cursors[c], entry);
+                if (cursors[c] == list.limit()) {
+                    break candidates;
+                }
+                if (list.get(cursors[c]) != entry) {
+                    continue candidates;
+                }
+            }
+            int offset = entry * INDEX_ENTRY_SIZE;
+            int turn = index.getShort(offset + 12);
+            if (turn >= minTurn && turn <= maxTurn) {
+                hits.add(new ReplayHit(this, segment, index.getInt(offset), index.getInt(offset + 4), turn));
+            }
+        }
+    }
+
+    /**
+     * Finds the first position at or after {@code from} whose entry is at least
+     * {@code entry}, or the limit of the list if there is none.
+     */
+    private static int seek(IntBuffer list, int from, int entry) {
+        int limit = list.limit();
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < limit && list.get(high) < entry) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        high = Math.min(high, limit);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (list.get(middle) < entry) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Merges the turn lists of a turn range into one sorted list, unless it
+     * would be longer than {@code shortest}, in which case the turn range is
+     * only checked against the index entries.
+     *
+     * @return the merged list, or null
+     */
+    private static IntBuffer turnList(SegmentPostings lists, int minTurn, int maxTurn, int shortest) {
+        int first = Math.max(minTurn, 1);
+        int last = Math.min(maxTurn, SegmentPostings.MAX_TURN);
+        if (first > last) {
+            return IntBuffer.wrap(new int[0]);
+        }
+        IntBuffer[] turns = new IntBuffer[last - first + 1];
+        int total = 0;
+        for (int turn = first; turn <= last; turn++) {
+            turns[turn - first] = lists.list(SegmentPostings.TURN, turn);
+            total += turns[turn - first].limit();
+            if (total > shortest) {
+                return null;
+            }
+        }
+        int[] merged = new int[total];
+        int size = 0;
+        for (IntBuffer list : turns) {
+            list.get(0, merged, size, list.limit());
+            size += list.limit();
+        }
+        Arrays.sort(merged);
+        return IntBuffer.wrap(merged);
+    }
+
+    /**
+     * Closes the store.
+     *
+     * @throws IOException if the files cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closeSegment();
+        namesOut.close();
+    }
+
+    GameLogRecord readRecord(int segment, int game, int record) throws IOException {
+        try (GameLogReader reader = openGame(segment, game)) {
+            for (int i = 0; i < record; i++) {
+                reader.read();
+            }
+            return reader.read().orElseThrow(() -> new IOException("Record not found: " + record));
+        }
+    }
+
+    ImmutableList<GameLogRecord> readGame(int segment, int game) throws IOException {
+        ImmutableList.Builder<GameLogRecord> records = ImmutableList.builder();
+        try (GameLogReader reader = openGame(segment, game)) {
+            for (Optional<GameLogRecord> record = reader.read(); record.isPresent(); record = reader.read()) {
+                records.add(record.get());
+            }
+        }
+        return records.build();
+    }
+
+    private GameLogReader openGame(int segment, int game) throws IOException {
+        ByteBuffer entry = map(segmentFile(segment, "games"), (long) game * GAME_ENTRY_SIZE, GAME_ENTRY_SIZE);
+        ByteBuffer log = map(segmentFile(segment, "log"), entry.getLong(0), entry.getInt(8));
+        return new GameLogReader(new ByteBufferInputStream(log));
+    }
+
+    /**
+     * Builds the index entries for a game log. The game number of each entry is
+     * filled in by the caller.
+     */
+    private ByteBuffer index(byte[] log) throws IOException {
+        List<long[]> rows = new ArrayList<>();
+        Map<String, Integer> turns = new HashMap<>();
+        try (GameLogReader reader = new GameLogReader(new ByteArrayInputStream(log))) {
+            for (Optional<GameLogRecord> next = reader.read(); next.isPresent(); next = reader.read()) {
+                GameLogRecord record = next.get();
+                Event event = record.getEvent();
+                String current = record.getState().getCurrentPlayerName();
+                int turn = turns.getOrDefault(current, 0) + 1;
+                String player = current;
+                int cardType = NO_CARD_TYPE;
+                if (event instanceof PlayCardEvent play) {
+                    player = play.getPlayerName();
+                    cardType = play.getCard().getType().ordinal();
+                } else if (event instanceof GainCardEvent gain) {
+                    player = gain.getPlayerName();
+                    cardType = gain.getDecision().ordinal();
+                } else if (event instanceof EndTurnEvent) {
+                    turns.put(current, turn);
+                }
+                rows.add(new long[] { rows.size(), nameId(player), Math.min(turn, Short.MAX_VALUE),
+                        kindOf(event.getClass()), cardType });
+            }
+        }
+        ByteBuffer entries = ByteBuffer.allocate(rows.size() * INDEX_ENTRY_SIZE);
+        for (long[] row : rows) {
+            entries.putInt(0).putInt((int) row[0]).putInt((int) row[1]).putShort((short) row[2])
+                    .put((byte) row[3]).put((byte) row[4]);
+        }
+        entries.flip();
+        return entries;
+    }
+
+    private int nameId(String name) throws IOException {
+        if (name == null) {
+            return -1;
+        }
+        Integer id = nameIds.get(name);
+        if (id == null) {
+            id = nameIds.size();
+            namesOut.writeUTF(name);
+            namesOut.flush();
+            nameIds.put(name, id);
+        }
+        return id;
+    }
+
+    private static int kindOf(Class<?> eventType) {
+        if (eventType == PlayCardEvent.class) {
+            return GameLogFormat.KIND_PLAY_CARD;
+        } else if (eventType == GainCardEvent.class) {
+            return GameLogFormat.KIND_GAIN_CARD;
+        } else if (eventType == GameEvent.class) {
+            return GameLogFormat.KIND_GAME;
+        } else if (eventType == EndTurnEvent.class) {
+            return GameLogFormat.KIND_END_TURN;
+        }
+        throw new IllegalArgumentException("Unknown event type: " + eventType);
+    }
+
+    private void openSegment(int segment) throws IOException {
+        logOut = FileChannel.open(segmentFile(segment, "log"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        gamesOut = FileChannel.open(segmentFile(segment, "games"), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        indexOut = FileChannel.open(segmentFile(segment, "idx"), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+
+        // The .games entry is written last, so it determines which games were fully
+        // appended. Anything after the last complete game is discarded.
+        int games = (int) (gamesOut.size() / GAME_ENTRY_SIZE);
+        long logEnd = 0;
+        int entries = 0;
+        if (games > 0) {
+            ByteBuffer last = ByteBuffer.allocate(GAME_ENTRY_SIZE);
+            gamesOut.read(last, (long) (games - 1) * GAME_ENTRY_SIZE);
+            logEnd = last.getLong(0) + last.getInt(8);
+            for (int game = 0; game < games; game++) {
+                ByteBuffer entry = ByteBuffer.allocate(GAME_ENTRY_SIZE);
+                gamesOut.read(entry, (long) game * GAME_ENTRY_SIZE);
+                entries += entry.getInt(12);
+            }
+        }
+        gamesOut.truncate((long) games * GAME_ENTRY_SIZE);
+        logOut.truncate(logEnd);
+        indexOut.truncate((long) entries * INDEX_ENTRY_SIZE);
+        logOut.position(logOut.size());
+        gamesOut.position(gamesOut.size());
+        indexOut.position(indexOut.size());
+
+        postings.add(SegmentPostings.build(map(segmentFile(segment, "idx"), 0, (long) entries * INDEX_ENTRY_SIZE),
+                entries));
+        activeGames = games;
+        activeEntries = entries;
+        segmentCount = segment + 1;
+    }
+
+    private void closeSegment() throws IOException {
+        logOut.force(false);
+        gamesOut.force(false);
+        indexOut.force(false);
+        logOut.close();
+        gamesOut.close();
+        indexOut.close();
+    }
+
+    private Path segmentFile(int segment, String extension) {
+        return directory.resolve(String.format("segment-%05d.%s", segment, extension));
+    }
+
+    /**
+     * Maps part of a file into memory, read only.
+     *
+     * @param length the number of bytes to map, or -1 for the rest of the file
+     */
+    private static ByteBuffer map(Path file, long offset, long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = length < 0 ? channel.size() - offset : length;
+            if (size == 0) {
+                return ByteBuffer.allocate(0);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package edu.brandeis.cosi.atg.api.log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The postings lists of one {@link ReplayStore} segment: for each player, card
+ * type, event kind and turn number, the ascending numbers of the index entries
+ * with that value.
+ * <br/>
+ * <br/>
+ * The postings of the segment being appended to are kept in memory and grow
+ * with every game. When a segment is full, its postings are written to a
+ * {@code .post} file, which is memory-mapped by later queries:
+ * <pre>
+ * for each of the 4 sections:
+ *   int keyCount
+ *   int[keyCount + 1] start of each key's list, relative to the entries
+ * int[] entries, the lists of every section concatenated
+ * </pre>
+ */
+final class SegmentPostings {
+    /** Lists keyed by player name id. */
+    static final int PLAYER = 0;
+    /** Lists keyed by card type ordinal. */
+    static final int CARD_TYPE = 1;
+    /** Lists keyed by event kind. */
+    static final int KIND = 2;
+    /** Lists keyed by turn number; turns from {@link #MAX_TURN} on share a list. */
+    static final int TURN = 3;
+    private static final int SECTIONS = 4;
+
+    /** The turn number of the last turn list. */
+    static final int MAX_TURN = 255;
+
+    private static final int[] NONE = new int[0];
+
+    // Mutable form, for the segment being appended to
+    private final int[][][] lists;
+    private final int[][] sizes;
+
+    // Mapped form, for a full segment
+    private final IntBuffer mapped;
+    private final int[][] starts;
+
+    /**
+     * Creates empty postings for a new segment.
+     */
+    SegmentPostings() {
+        this.lists = new int[SECTIONS][0][];
+        this.sizes = new int[SECTIONS][0];
+        this.mapped = null;
+        this.starts = null;
+    }
+
+    private SegmentPostings(IntBuffer mapped, int[][] starts) {
+        this.lists = null;
+        this.sizes = null;
+        this.mapped = mapped;
+        this.starts = starts;
+    }
+
+    /**
+     * Maps the postings of a full segment from its {@code .post} file.
+     *
+     * @param file the postings file
+     * @return the postings
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    static SegmentPostings map(Path file) throws IOException {
+        SegmentPostings postings = read(file);
+        if (postings == null) {
+            throw new IOException("Malformed postings file: " + file);
+        }
+        return postings;
+    }
+
+    /**
+     * Maps the postings of a full segment from its {@code .post} file, if they
+     * are well formed and cover exactly the segment's index entries: every
+     * entry is in one event kind list and one turn list, and no list refers to
+     * an entry past the end of the index.
+     *
+     * @param file    the postings file
+     * @param entries the number of index entries in the segment
+     * @return the postings, or null if the file does not match the index
+     * @throws IOException if the file cannot be read
+     */
+    static SegmentPostings mapIfValid(Path file, int entries) throws IOException {
+        SegmentPostings postings = read(file);
+        if (postings == null) {
+            return null;
+        }
+        for (int section = 0; section < SECTIONS; section++) {
+            int[] sectionStarts = postings.starts[section];
+            for (int key = 0; key + 1 < sectionStarts.length; key++) {
+                int end = sectionStarts[key + 1];
+                if (end > sectionStarts[key] && postings.mapped.get(end - 1) >= entries) {
+                    return null;
+                }
+            }
+            int covered = sectionStarts[sectionStarts.length - 1] - sectionStarts[0];
+            if ((section == KIND || section == TURN) && covered != entries) {
+                return null;
+            }
+        }
+        return postings;
+    }
+
+    /**
+     * Maps a {@code .post} file and checks that its key tables are in bounds
+     * and ascending.
+     *
+     * @return the postings, or null if the file is malformed
+     */
+    private static SegmentPostings read(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        IntBuffer ints = buffer.asIntBuffer();
+        int[][] starts = new int[SECTIONS][];
+        int position = 0;
+        for (int section = 0; section < SECTIONS; section++) {
+            if (position >= ints.limit()) {
+                return null;
+            }
+            int keys = ints.get(position++);
+            if (keys < 0 || keys + 1 > ints.limit() - position) {
+                return null;
+            }
+            starts[section] = new int[keys + 1];
+            ints.get(position, starts[section]);
+            position += keys + 1;
+        }
+        IntBuffer entries = ints.position(position).slice();
+        int previous = 0;
+        for (int[] section : starts) {
+            for (int start : section) {
+                if (start < previous || start > entries.limit()) {
+                    return null;
+                }
+                previous = start;
+            }
+        }
+        return new SegmentPostings(entries, starts);
+    }
+
+    /**
+     * Builds the postings of a segment from its index entries.
+     *
+     * @param index   the segment's index entries
+     * @param entries the number of entries
+     * @return the mutable postings
+     */
+    static SegmentPostings build(ByteBuffer index, int entries) {
+        SegmentPostings postings = new SegmentPostings();
+        for (int entry = 0; entry < entries; entry++) {
+            postings.add(entry, index, entry * ReplayStore.INDEX_ENTRY_SIZE);
+        }
+        return postings;
+    }
+
+    /**
+     * Adds an index entry to the lists. Entries must be added in ascending order.
+     *
+     * @param entry  the number of the entry within the segment
+     * @param index  a buffer holding the entry
+     * @param offset the offset of the entry within the buffer
+     */
+    synchronized void add(int entry, ByteBuffer index, int offset) {
+        int player = index.getInt(offset + 8);
+        if (player >= 0) {
+            append(PLAYER, player, entry);
+        }
+        int cardType = index.get(offset + 15) & 0xFF;
+        if (cardType != ReplayStore.NO_CARD_TYPE) {
+            append(CARD_TYPE, cardType, entry);
+        }
+        append(KIND, index.get(offset + 14), entry);
+        append(TURN, Math.min(index.getShort(offset + 12), MAX_TURN), entry);
+    }
+
+    /**
+     * Gets the entries with the specified value, in ascending order. The list of
+     * a segment being appended to is a snapshot, which does not see later
+     * additions.
+     *
+     * @param section the section of the list
+     * @param key     the value
+     * @return the list, with its position at 0
+     */
+    synchronized IntBuffer list(int section, int key) {
+        if (mapped != null) {
+            int[] sectionStarts = starts[section];
+            if (key < 0 || key >= sectionStarts.length - 1) {
+                return IntBuffer.wrap(NONE);
+            }
+            return mapped.slice(sectionStarts[key], sectionStarts[key + 1] - sectionStarts[key]);
+        }
+        if (key < 0 || key >= lists[section].length || lists[section][key] == null) {
+            return IntBuffer.wrap(NONE);
+        }
+        return IntBuffer.wrap(lists[section][key], 0, sizes[section][key]).slice();
+    }
+
+    /**
+     * Writes the postings to a {@code .post} file, replacing it atomically.
+     *
+     * @param file the postings file
+     * @throws IOException if the file cannot be written
+     */
+    synchronized void write(Path file) throws IOException {
+        int headerSize = 0;
+        int total = 0;
+        for (int section = 0; section < SECTIONS; section++) {
+            headerSize += lists[section].length + 2;
+            for (int size : sizes[section]) {
+                total += size;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((headerSize + total) * Integer.BYTES);
+        int start = 0;
+        for (int section = 0; section < SECTIONS; section++) {
+            buffer.putInt(lists[section].length);
+            for (int size : sizes[section]) {
+                buffer.putInt(start);
+                start += size;
+            }
+            buffer.putInt(start);
+        }
+        for (int section = 0; section < SECTIONS; section++) {
+            for (int key = 0; key < lists[section].length; key++) {
+                for (int i = 0; i < sizes[section][key]; i++) {
+                    buffer.putInt(lists[section][key][i]);
+                }
+            }
+        }
+        buffer.flip();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void append(int section, int key, int entry) {
+        if (key >= lists[section].length) {
+            lists[section] = Arrays.copyOf(lists[section], key + 1);
+            sizes[section] = Arrays.copyOf(sizes[section], key + 1);
+        }
+        int[] list = lists[section][key];
+        int size = sizes[section][key];
+        if (list == null) {
+            list = new int[16];
+            lists[section][key] = list;
+        } else if (size == list.length) {
+            // Grown into a new array, so that snapshots of the old one stay valid
+            list = Arrays.copyOf(list, size * 2);
+            lists[section][key] = list;
+        }
+        list[size] = entry;
+        sizes[section][key] = size + 1;
+    }
+}
@@ -0,0 +1,21 @@
+/**
+ * This package contains a compact binary format for recording games.
+ * <br/>
+ * <br/>
+ * A {@link edu.brandeis.cosi.atg.api.log.GameLogWriter} is a
+ * {@link edu.brandeis.cosi.atg.api.GameObserver GameObserver} which records
+ * every event, along with the {@link edu.brandeis.cosi.atg.api.GameState
+ * GameState} it was reported with, to an output stream. A
+ * {@link edu.brandeis.cosi.atg.api.log.GameLogReader} reads the records back,
+ * and can replay them into another observer.
+ * <br/>
+ * <br/>
+ * A {@link edu.brandeis.cosi.atg.api.log.ReplayStore} archives many game logs
+ * in append-only segment files, and answers queries by player, card type and
+ * turn number by intersecting memory-mapped postings lists.
+ * <br/>
+ * <br/>
+ * See {@link edu.brandeis.cosi.atg.api.log.GameLogWriter} for a description
+ * of the format.
+ */
+package edu.brandeis.cosi.atg.api.log;
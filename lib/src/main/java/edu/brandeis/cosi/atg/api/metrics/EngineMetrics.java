@@ -0,0 +1,89 @@
+package edu.brandeis.cosi.atg.api.metrics;
+
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.PlayerViolationException;
+import edu.brandeis.cosi.atg.api.event.Event;
+
+/**
+ * Receives measurements from an {@link edu.brandeis.cosi.atg.api.Engine
+ * Engine} as it plays a game.
+ * <br/>
+ * <br/>
+ * An Engine that supports instrumentation accepts an EngineMetrics and calls
+ * it at the points below, on the thread that plays the game. Engines running
+ * concurrently may share one EngineMetrics, so implementations must be thread
+ * safe, and they should be fast: they are called for every decision. Every
+ * method does nothing by default, so implementations only override what they
+ * need. {@link MetricsRegistry} is an in-memory implementation.
+ */
+public interface EngineMetrics {
+
+    /**
+     * An EngineMetrics that ignores all measurements. Engines given this instance
+     * may skip measuring altogether.
+     */
+    public static final EngineMetrics NONE = new EngineMetrics() {
+    };
+
+    /**
+     * Called when a game starts.
+     *
+     * @param playerCount the number of players in the game
+     */
+    public default void gameStarted(int playerCount) {
+    }
+
+    /**
+     * Called when a game ends, whether it was completed or a player violated the
+     * rules.
+     *
+     * @param nanos the time the game took
+     * @param turns the number of turns taken, summed across all players
+     */
+    public default void gameEnded(long nanos, long turns) {
+    }
+
+    /**
+     * Called when a player starts a turn.
+     *
+     * @param player the name of the player
+     */
+    public default void turnStarted(String player) {
+    }
+
+    /**
+     * Called when a player completes a turn.
+     *
+     * @param player the name of the player
+     * @param nanos  the time the turn took, including the player's decisions
+     */
+    public default void turnEnded(String player, long nanos) {
+    }
+
+    /**
+     * Called when a player returns a decision, before the engine checks it.
+     *
+     * @param player the name of the player
+     * @param phase  the phase the decision was made in
+     * @param nanos  the time the player took to decide
+     */
+    public default void decisionMade(String player, GameState.TurnPhase phase, long nanos) {
+    }
+
+    /**
+     * Called when an event is delivered to observers.
+     *
+     * @param event the event
+     */
+    public default void eventPublished(Event event) {
+    }
+
+    /**
+     * Called when a player violates the rules, forfeiting the game.
+     *
+     * @param player    the name of the player
+     * @param violation the exception the engine throws
+     */
+    public default void violation(String player, PlayerViolationException violation) {
+    }
+}
@@ -0,0 +1,125 @@
+package edu.brandeis.cosi.atg.api.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import edu.brandeis.cosi.atg.api.GameState;
+
+/**
+ * Writes the contents of a {@link MetricsRegistry} as plain text, in the
+ * Prometheus text exposition format.
+ * <br/>
+ * <br/>
+ * Counters are written as {@code atg_<name>_total}, and each histogram as a
+ * summary with the 50th, 90th, 99th and 99.9th percentiles, a count and a
+ * sum. Durations are in seconds and allocations in bytes. Player names are
+ * written as {@code player} labels.
+ */
+public final class MetricsExporter {
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private MetricsExporter() {
+    }
+
+    /**
+     * Formats a registry as text.
+     *
+     * @param registry the registry
+     * @return the formatted metrics
+     */
+    public static String toText(MetricsRegistry registry) {
+        StringBuilder out = new StringBuilder();
+        try {
+            write(registry, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes a registry as text.
+     *
+     * @param registry the registry
+     * @param out      where to write the metrics
+     * @throws IOException if writing fails
+     */
+    public static void write(MetricsRegistry registry, Appendable out) throws IOException {
+        counter(out, "atg_games_total", "Games played", registry.getGameCount());
+        counter(out, "atg_turns_total", "Turns completed", registry.getTurnCount());
+        counter(out, "atg_decisions_total", "Decisions made", registry.getDecisionCount());
+        counter(out, "atg_events_total", "Events delivered to observers", registry.getEventCount());
+        header(out, "atg_violations_total", "Rule violations", "counter");
+        sample(out, "atg_violations_total", null, registry.getViolationCount());
+        for (Map.Entry<String, Long> entry : new TreeMap<>(registry.getViolationCounts()).entrySet()) {
+            sample(out, "atg_violations_total", label("player", entry.getKey()), entry.getValue());
+        }
+
+        header(out, "atg_game_seconds", "Game durations", "summary");
+        summary(out, "atg_game_seconds", null, registry.getGameLatencies(), NANOS_PER_SECOND);
+        header(out, "atg_turn_seconds", "Turn durations", "summary");
+        summary(out, "atg_turn_seconds", null, registry.getTurnLatencies(), NANOS_PER_SECOND);
+        header(out, "atg_decision_seconds", "Decision latencies by phase", "summary");
+        for (GameState.TurnPhase phase : GameState.TurnPhase.values()) {
+            summary(out, "atg_decision_seconds", label("phase", phase.name()), registry.getDecisionLatencies(phase),
+                    NANOS_PER_SECOND);
+        }
+        header(out, "atg_player_decision_seconds", "Decision latencies by player", "summary");
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(registry.getDecisionLatencies()).entrySet()) {
+            summary(out, "atg_player_decision_seconds", label("player", entry.getKey()), entry.getValue(),
+                    NANOS_PER_SECOND);
+        }
+        if (registry.getAllocationSampleInterval() > 0) {
+            header(out, "atg_turn_allocated_bytes", "Bytes allocated per sampled turn", "summary");
+            summary(out, "atg_turn_allocated_bytes", null, registry.getTurnAllocations(), 1);
+        }
+    }
+
+    private static void counter(Appendable out, String name, String help, long value) throws IOException {
+        header(out, name, help, "counter");
+        sample(out, name, null, value);
+    }
+
+    private static void header(Appendable out, String name, String help, String type) throws IOException {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void summary(Appendable out, String name, String labels, LatencyHistogram histogram,
+            double unit) throws IOException {
+        for (double quantile : QUANTILES) {
+            String quantileLabel = "quantile=\"" + quantile + "\"";
+            sample(out, name, labels == null ? quantileLabel : labels + "," + quantileLabel,
+                    histogram.getValueAtPercentile(quantile * 100) / unit);
+        }
+        long count = histogram.getCount();
+        sample(out, name + "_sum", labels, histogram.getMean() * count / unit);
+        sample(out, name + "_count", labels, count);
+    }
+
+    private static void sample(Appendable out, String name, String labels, Object value) throws IOException {
+        out.append(name);
+        if (labels != null) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(String.valueOf(value)).append('\n');
+    }
+
+    private static String label(String name, String value) {
+        StringBuilder label = new StringBuilder(name).append("=\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> label.append("\\\\");
+                case '"' -> label.append("\\\"");
+                case '\n' -> label.append("\\n");
+                default -> label.append(c);
+            }
+        }
+        return label.append('"').toString();
+    }
+}
@@ -0,0 +1,264 @@
+package edu.brandeis.cosi.atg.api.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.collect.ImmutableMap;
+
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.PlayerViolationException;
+import edu.brandeis.cosi.atg.api.event.Event;
+
+/**
+ * An {@link EngineMetrics} that keeps counters and {@link LatencyHistogram}s
+ * in memory, for any number of concurrent games.
+ * <br/>
+ * <br/>
+ * The registry counts games, turns, decisions, events and violations, and
+ * records the duration of games and turns, and of decisions both by
+ * {@link GameState.TurnPhase} and by player name. Comparing a player's
+ * decision latencies with the turn latencies shows whether time is spent in
+ * the engine or in a particular player. {@link MetricsExporter} formats a
+ * registry as text.
+ * <br/>
+ * <br/>
+ * The registry can also sample the memory allocated by the game thread during
+ * every n-th turn, where the JVM supports per-thread allocation counters.
+ * Sampling costs a call into the JVM per sampled turn, so it is off unless
+ * requested.
+ * <br/>
+ * <br/>
+ * Example usage with a {@link edu.brandeis.cosi.atg.api.tournament.Tournament
+ * Tournament}:
+ *
+ * <pre>
+ * MetricsRegistry metrics = new MetricsRegistry(64);
+ * new Tournament((p1, p2, observer) -&gt; new ReferenceEngine(ImmutableList.of(p1, p2), observer,
+ *         new SplittableRandom(), metrics), players, 1000, 8).runRoundRobin();
+ * System.out.print(MetricsExporter.toText(metrics));
+ * </pre>
+ */
+public final class MetricsRegistry implements EngineMetrics {
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private final LongAdder games = new LongAdder();
+    private final LongAdder turns = new LongAdder();
+    private final LongAdder decisions = new LongAdder();
+    private final LongAdder events = new LongAdder();
+    private final LongAdder violations = new LongAdder();
+
+    private final LatencyHistogram gameLatencies = new LatencyHistogram();
+    private final LatencyHistogram turnLatencies = new LatencyHistogram();
+    private final Map<GameState.TurnPhase, LatencyHistogram> phaseLatencies = new EnumMap<>(GameState.TurnPhase.class);
+    private final Map<String, LatencyHistogram> playerLatencies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> playerViolations = new ConcurrentHashMap<>();
+
+    private final int allocationSampleInterval;
+    private final LatencyHistogram turnAllocations = new LatencyHistogram();
+    /** Per game thread: the turns until the next sample, and the bytes allocated when the sample began. */
+    private final ThreadLocal<long[]> allocationSamples = ThreadLocal.withInitial(() -> new long[] { 0, -1 });
+
+    /**
+     * Constructs a MetricsRegistry that does not sample allocations.
+     */
+    public MetricsRegistry() {
+        this(0);
+    }
+
+    /**
+     * Constructs a MetricsRegistry.
+     *
+     * @param allocationSampleInterval sample the allocations of every n-th turn
+     *                                 on each thread, or 0 to disable sampling
+     */
+    public MetricsRegistry(int allocationSampleInterval) {
+        if (allocationSampleInterval < 0) {
+            throw new IllegalArgumentException("Invalid sample interval: " + allocationSampleInterval);
+        }
+        this.allocationSampleInterval = THREADS == null ? 0 : allocationSampleInterval;
+        for (GameState.TurnPhase phase : GameState.TurnPhase.values()) {
+            phaseLatencies.put(phase, new LatencyHistogram());
+        }
+    }
+
+    @Override
+    public void gameEnded(long nanos, long turnCount) {
+        games.increment();
+        gameLatencies.record(nanos);
+    }
+
+    @Override
+    public void turnStarted(String player) {
+        if (allocationSampleInterval == 0) {
+            return;
+        }
+        long[] sample = allocationSamples.get();
+        if (--sample[0] <= 0) {
+            sample[0] = allocationSampleInterval;
+            sample[1] = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+
+    @Override
+    public void turnEnded(String player, long nanos) {
+        turns.increment();
+        turnLatencies.record(nanos);
+        if (allocationSampleInterval == 0) {
+            return;
+        }
+        long[] sample = allocationSamples.get();
+        if (sample[1] >= 0) {
+            long allocated = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) - sample[1];
+            sample[1] = -1;
+            if (allocated >= 0) {
+                turnAllocations.record(allocated);
+            }
+        }
+    }
+
+    @Override
+    public void decisionMade(String player, GameState.TurnPhase phase, long nanos) {
+        decisions.increment();
+        phaseLatencies.get(phase).record(nanos);
+        playerLatencies.computeIfAbsent(player, p -> new LatencyHistogram()).record(nanos);
+    }
+
+    @Override
+    public void eventPublished(Event event) {
+        events.increment();
+    }
+
+    @Override
+    public void violation(String player, PlayerViolationException violation) {
+        violations.increment();
+        playerViolations.computeIfAbsent(player, p -> new LongAdder()).increment();
+    }
+
+    /**
+     * Gets the number of games that have ended.
+     *
+     * @return the number of games
+     */
+    public long getGameCount() {
+        return games.sum();
+    }
+
+    /**
+     * Gets the number of completed turns.
+     *
+     * @return the number of turns
+     */
+    public long getTurnCount() {
+        return turns.sum();
+    }
+
+    /**
+     * Gets the number of decisions made by all players.
+     *
+     * @return the number of decisions
+     */
+    public long getDecisionCount() {
+        return decisions.sum();
+    }
+
+    /**
+     * Gets the number of events delivered to observers.
+     *
+     * @return the number of events
+     */
+    public long getEventCount() {
+        return events.sum();
+    }
+
+    /**
+     * Gets the number of rule violations by all players.
+     *
+     * @return the number of violations
+     */
+    public long getViolationCount() {
+        return violations.sum();
+    }
+
+    /**
+     * Gets the number of rule violations by each player.
+     *
+     * @return the number of violations, by player name
+     */
+    public ImmutableMap<String, Long> getViolationCounts() {
+        ImmutableMap.Builder<String, Long> counts = ImmutableMap.builder();
+        playerViolations.forEach((player, count) -> counts.put(player, count.sum()));
+        return counts.buildOrThrow();
+    }
+
+    /**
+     * Gets the durations of games.
+     *
+     * @return the histogram of game durations
+     */
+    public LatencyHistogram getGameLatencies() {
+        return gameLatencies;
+    }
+
+    /**
+     * Gets the durations of turns.
+     *
+     * @return the histogram of turn durations
+     */
+    public LatencyHistogram getTurnLatencies() {
+        return turnLatencies;
+    }
+
+    /**
+     * Gets the durations of decisions made in a phase.
+     *
+     * @param phase the phase
+     * @return the histogram of decision latencies in that phase
+     */
+    public LatencyHistogram getDecisionLatencies(GameState.TurnPhase phase) {
+        return phaseLatencies.get(phase);
+    }
+
+    /**
+     * Gets the durations of decisions made by each player.
+     *
+     * @return the histograms of decision latencies, by player name
+     */
+    public ImmutableMap<String, LatencyHistogram> getDecisionLatencies() {
+        return ImmutableMap.copyOf(playerLatencies);
+    }
+
+    /**
+     * Gets the bytes allocated by the game thread during sampled turns. The
+     * histogram's values are bytes rather than nanoseconds.
+     *
+     * @return the histogram of bytes allocated per sampled turn, which is empty
+     *         if sampling is disabled or unsupported
+     */
+    public LatencyHistogram getTurnAllocations() {
+        return turnAllocations;
+    }
+
+    /**
+     * Gets the interval at which turns are sampled for allocations.
+     *
+     * @return the sample interval, or 0 if sampling is disabled or unsupported
+     */
+    public int getAllocationSampleInterval() {
+        return allocationSampleInterval;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                    && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                return bean;
+            }
+        } catch (LinkageError | UnsupportedOperationException e) {
+            // The management extensions are unavailable
+        }
+        return null;
+    }
+}
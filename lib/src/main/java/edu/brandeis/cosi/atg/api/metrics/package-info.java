@@ -0,0 +1,19 @@
+/**
+ * This package contains lock-free measurement primitives for engines and
+ * players.
+ * <br/>
+ * <br/>
+ * {@link edu.brandeis.cosi.atg.api.metrics.LatencyHistogram} records durations
+ * with bounded relative error and can be updated concurrently from any number
+ * of threads.
+ * <br/>
+ * <br/>
+ * {@link edu.brandeis.cosi.atg.api.metrics.EngineMetrics} is the interface
+ * through which engines report the duration of games, turns and decisions,
+ * and the events and violations that occur.
+ * {@link edu.brandeis.cosi.atg.api.metrics.MetricsRegistry} keeps those
+ * measurements in memory, and
+ * {@link edu.brandeis.cosi.atg.api.metrics.MetricsExporter} writes them as
+ * text.
+ */
+package edu.brandeis.cosi.atg.api.metrics;
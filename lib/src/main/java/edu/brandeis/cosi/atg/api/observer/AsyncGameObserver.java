@@ -0,0 +1,428 @@
+package edu.brandeis.cosi.atg.api.observer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.event.Event;
+
+/**
+ * A {@link GameObserver} which delivers events to another observer
+ * asynchronously, on a dedicated consumer thread.
+ * <br/>
+ * <br/>
+ * Events are placed in a bounded, lock-free ring buffer and returned to the
+ * caller immediately. The consumer thread delivers them to the wrapped
+ * observer one at a time, in the order they were published. Any number of
+ * threads (e.g. several engines) may publish to the same AsyncGameObserver.
+ * <br/>
+ * <br/>
+ * The consumer thread parks while the buffer is empty, and a publisher unparks
+ * it only when it finds it parked, so an idle observer uses no CPU and a busy
+ * one costs publishers no more than a volatile read per event.
+ * <br/>
+ * <br/>
+ * When the buffer is full, the {@link Backpressure} policy decides what
+ * happens. Exceptions thrown by the wrapped observer are counted (see
+ * {@link #getFailedCount()}) and do not stop delivery of later events.
+ * <br/>
+ * <br/>
+ * An AsyncGameObserver must be {@link #close() closed} to stop its consumer
+ * thread; closing delivers all events which have already been published.
+ */
+public final class AsyncGameObserver implements GameObserver, AutoCloseable {
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final long FULL_PARK_NANOS = 1_000;
+
+    /**
+     * What to do when an event is published while the buffer is full.
+     */
+    public enum Backpressure {
+        /** Wait until the consumer makes room. No events are lost. */
+        BLOCK,
+        /** Discard the new event. */
+        DROP,
+        /**
+         * Discard the oldest pending event to make room for the new one. Since each
+         * event carries a full {@link GameState}, the observer always catches up to
+         * the most recent state of the game.
+         */
+        COALESCE
+    }
+
+    private final GameObserver delegate;
+    private final Backpressure backpressure;
+    private final int mask;
+
+    private final GameState[] states;
+    private final Event[] events;
+    private final long[] publishTimes;
+    /** Vyukov-style per-slot sequence numbers. */
+    private final AtomicLongArray sequences;
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    private final AtomicLong dequeuePosition = new AtomicLong();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile long delivered;
+    /**
+     * The position of the event the consumer is delivering, or
+     * {@link Long#MAX_VALUE} if it is not delivering one. Set before the event
+     * is dequeued, so that {@link #flush()} never misses it.
+     */
+    private volatile long delivering = Long.MAX_VALUE;
+    private volatile long lastLatencyNanos;
+    private volatile long maxLatencyNanos;
+
+    private final Thread consumer;
+    /** Whether the consumer is parked, or about to park, on an empty buffer. */
+    private volatile boolean consumerIdle;
+    /** Signalled by the consumer, when {@link #flushWaiters} is positive, after each event. */
+    private final Object progress = new Object();
+    private volatile int flushWaiters;
+    /** Set when the consumer thread stops, normally or because of an Error. */
+    private volatile boolean stopped;
+    private volatile boolean closed;
+
+    /**
+     * Constructs an AsyncGameObserver and starts its consumer thread.
+     *
+     * @param delegate     the observer to deliver events to
+     * @param capacity     the maximum number of pending events; rounded up to a
+     *                     power of two
+     * @param backpressure what to do when the buffer is full
+     */
+    public AsyncGameObserver(GameObserver delegate, int capacity, Backpressure backpressure) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        if (capacity == 1) {
+            size = 1;
+        }
+        this.delegate = delegate;
+        this.backpressure = backpressure;
+        this.mask = size - 1;
+        this.states = new GameState[size];
+        this.events = new Event[size];
+        this.publishTimes = new long[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.consumer = new Thread(this::consume, "atg-async-observer-" + THREAD_COUNT.incrementAndGet());
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    /**
+     * Constructs an AsyncGameObserver with a buffer of 4096 events which blocks
+     * when full, and starts its consumer thread.
+     *
+     * @param delegate the observer to deliver events to
+     */
+    public AsyncGameObserver(GameObserver delegate) {
+        this(delegate, 4096, Backpressure.BLOCK);
+    }
+
+    /**
+     * Publishes an event for asynchronous delivery. Events published after this
+     * observer has been closed are dropped.
+     *
+     * @param state the current state of the game
+     * @param event the event that occurred
+     */
+    @Override
+    public void notifyEvent(GameState state, Event event) {
+        if (closed) {
+            dropped.increment();
+            return;
+        }
+        published.increment();
+        while (!offer(state, event)) {
+            switch (backpressure) {
+                case DROP:
+                    dropped.increment();
+                    return;
+                case COALESCE:
+                    if (poll(false)) {
+                        dropped.increment();
+                    }
+                    break;
+                default:
+                    if (closed || !consumer.isAlive()) {
+                        dropped.increment();
+                        return;
+                    }
+                    LockSupport.parkNanos(FULL_PARK_NANOS);
+            }
+        }
+        if (consumerIdle) {
+            LockSupport.unpark(consumer);
+        }
+        if (closed) {
+            // close() raced with this call, and the consumer may already have
+            // stopped without seeing the event
+            awaitConsumer();
+            discardPending();
+        }
+    }
+
+    /**
+     * Waits until every event published so far has been delivered or dropped.
+     * When this method returns, the wrapped observer has finished handling
+     * every delivered event. Returns early if the consumer thread has stopped.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void flush() throws InterruptedException {
+        long target = enqueuePosition.get();
+        synchronized (progress) {
+            flushWaiters++;
+            try {
+                // dequeuePosition must be read before delivering; see poll()
+                while ((dequeuePosition.get() < target || delivering < target) && !stopped) {
+                    progress.wait();
+                }
+            } finally {
+                flushWaiters--;
+            }
+        }
+    }
+
+    /**
+     * Stops accepting events, delivers all pending events, and stops the consumer
+     * thread. If the calling thread is interrupted while waiting, this method
+     * returns early with the interrupt status set; pending events are still
+     * delivered in the background.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(consumer);
+        if (awaitConsumer()) {
+            discardPending();
+        }
+    }
+
+    /**
+     * Gets the number of events published to this observer, including events
+     * which were later dropped.
+     *
+     * @return the number of published events
+     */
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    /**
+     * Gets the number of events delivered to the wrapped observer.
+     *
+     * @return the number of delivered events
+     */
+    public long getDeliveredCount() {
+        return delivered;
+    }
+
+    /**
+     * Gets the number of events discarded because of the backpressure policy or
+     * because the observer was closed.
+     *
+     * @return the number of dropped events
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Gets the number of events for which the wrapped observer threw an exception.
+     * These events are also counted as delivered.
+     *
+     * @return the number of failed deliveries
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Gets the number of events waiting in the buffer.
+     *
+     * @return the current lag, in events
+     */
+    public long getLag() {
+        return Math.max(0, enqueuePosition.get() - dequeuePosition.get());
+    }
+
+    /**
+     * Gets the time between publishing and delivery of the most recently
+     * delivered event.
+     *
+     * @return the most recent delivery latency, in nanoseconds
+     */
+    public long getLastLatencyNanos() {
+        return lastLatencyNanos;
+    }
+
+    /**
+     * Gets the longest time between publishing and delivery of any event.
+     *
+     * @return the maximum delivery latency, in nanoseconds
+     */
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    private boolean offer(GameState state, Event event) {
+        long position = enqueuePosition.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (enqueuePosition.compareAndSet(position, position + 1)) {
+                    states[index] = state;
+                    events[index] = event;
+                    publishTimes[index] = System.nanoTime();
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = enqueuePosition.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = enqueuePosition.get();
+            }
+        }
+    }
+
+    /**
+     * Waits for the consumer thread to stop.
+     *
+     * @return true if the consumer has stopped, false if the calling thread is
+     *         the consumer or was interrupted while waiting
+     */
+    private boolean awaitConsumer() {
+        if (Thread.currentThread() == consumer) {
+            return false;
+        }
+        try {
+            consumer.join();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Discards, and counts as dropped, the events left in the buffer after the
+     * consumer has stopped.
+     */
+    private void discardPending() {
+        while (poll(false)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Removes the oldest pending event, delivering it if requested. Only the
+     * consumer thread may deliver events.
+     *
+     * @param deliver whether to deliver the event, or just discard it
+     * @return true if an event was removed
+     */
+    private boolean poll(boolean deliver) {
+        try {
+            return pollPosition(deliver);
+        } finally {
+            if (deliver) {
+                delivering = Long.MAX_VALUE;
+            }
+        }
+    }
+
+    private boolean pollPosition(boolean deliver) {
+        long position = dequeuePosition.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (deliver) {
+                    delivering = position;
+                }
+                if (dequeuePosition.compareAndSet(position, position + 1)) {
+                    GameState state = states[index];
+                    Event event = events[index];
+                    long publishTime = publishTimes[index];
+                    states[index] = null;
+                    events[index] = null;
+                    sequences.set(index, position + mask + 1);
+                    if (deliver) {
+                        deliver(state, event, publishTime);
+                    }
+                    return true;
+                }
+                position = dequeuePosition.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = dequeuePosition.get();
+            }
+        }
+    }
+
+    private void deliver(GameState state, Event event, long publishTime) {
+        try {
+            delegate.notifyEvent(state, event);
+        } catch (RuntimeException e) {
+            failed.increment();
+        }
+        long latency = System.nanoTime() - publishTime;
+        lastLatencyNanos = latency;
+        if (latency > maxLatencyNanos) {
+            maxLatencyNanos = latency;
+        }
+        delivered++;
+    }
+
+    private void consume() {
+        try {
+            while (true) {
+                if (poll(true)) {
+                    signalProgress();
+                } else if (getLag() > 0) {
+                    // A publisher has claimed a slot but not yet filled it
+                    Thread.onSpinWait();
+                } else if (closed) {
+                    return;
+                } else {
+                    // Announce the park before checking the buffer again, so that
+                    // a publisher either sees the flag or its event is seen here
+                    consumerIdle = true;
+                    if (getLag() == 0 && !closed) {
+                        LockSupport.park(this);
+                    }
+                    consumerIdle = false;
+                }
+            }
+        } finally {
+            stopped = true;
+            signalProgress();
+        }
+    }
+
+    /**
+     * Wakes threads waiting in {@link #flush()}, if there are any.
+     */
+    private void signalProgress() {
+        if (flushWaiters > 0) {
+            synchronized (progress) {
+                progress.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package edu.brandeis.cosi.atg.api.observer;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.collect.ImmutableMap;
+
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.cards.Card;
+import edu.brandeis.cosi.atg.api.event.EndTurnEvent;
+import edu.brandeis.cosi.atg.api.event.Event;
+import edu.brandeis.cosi.atg.api.event.GainCardEvent;
+import edu.brandeis.cosi.atg.api.event.PlayCardEvent;
+
+/**
+ * A {@link GameObserver} which maintains a {@link PlayerModel} of every player
+ * in a game from the event stream.
+ * <br/>
+ * <br/>
+ * Each event updates the model of one player:
+ * {@link GainCardEvent}s add to the cards the player owns,
+ * {@link PlayCardEvent}s add to the money the player has played, and
+ * {@link EndTurnEvent}s count the turn of the current player. Players are
+ * added when they are first seen, owning the starting cards given to the
+ * constructor. An update replaces the player's model with a new one, copying
+ * its card counts if a card was gained, so its cost depends on the number of
+ * card types but not on the length of the game.
+ * <br/>
+ * <br/>
+ * Events must be delivered by one thread at a time, in order, as an Engine or
+ * an {@link AsyncGameObserver} does. Reads are lock-free and may be made from
+ * any thread, including from
+ * {@link edu.brandeis.cosi.atg.api.Player#makeDecision makeDecision} while
+ * events are being delivered asynchronously: each update publishes a new
+ * immutable PlayerModel, so a model that has been read never changes.
+ * <br/>
+ * <br/>
+ * Example usage in a Player:
+ *
+ * <pre>
+ * private final OpponentTracker tracker = new OpponentTracker(
+ *         ImmutableMap.of(Card.Type.BITCOIN, 7, Card.Type.METHOD, 3));
+ *
+ * public Optional&lt;GameObserver&gt; getObserver() {
+ *     return Optional.of(tracker);
+ * }
+ *
+ * public Decision makeDecision(GameState state, ImmutableList&lt;Decision&gt; options) {
+ *     for (PlayerModel opponent : tracker.getModels().values()) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ */
+public final class OpponentTracker implements GameObserver {
+    private final Map<String, Slot> players = new ConcurrentHashMap<>();
+    private final int[] startingCards = new int[Card.Type.values().length];
+
+    /**
+     * Holds the latest model of a single player.
+     */
+    private static final class Slot {
+        volatile PlayerModel model;
+
+        Slot(PlayerModel model) {
+            this.model = model;
+        }
+    }
+
+    /**
+     * Constructs an OpponentTracker for the start of a game.
+     *
+     * @param startingCards the number of cards of each type every player owns
+     *                      at the start of the game; for the reference rules,
+     *                      see {@link edu.brandeis.cosi.atg.api.engine.ReferenceEngine#STARTING_BITCOINS
+     *                      STARTING_BITCOINS} and
+     *                      {@link edu.brandeis.cosi.atg.api.engine.ReferenceEngine#STARTING_METHODS
+     *                      STARTING_METHODS}
+     */
+    public OpponentTracker(ImmutableMap<Card.Type, Integer> startingCards) {
+        startingCards.forEach((type, count) -> {
+            if (count < 0) {
+                throw new IllegalArgumentException("Negative starting count of " + type + ": " + count);
+            }
+            this.startingCards[type.ordinal()] = count;
+        });
+    }
+
+    @Override
+    public void notifyEvent(GameState state, Event event) {
+        if (event instanceof GainCardEvent gain) {
+            Slot slot = slot(gain.getPlayerName());
+            slot.model = slot.model.withGained(gain.getDecision(), 1);
+        } else if (event instanceof PlayCardEvent play) {
+            Slot slot = slot(play.getPlayerName());
+            slot.model = slot.model.withPlayed(play.getCard().getType());
+        } else if (event instanceof EndTurnEvent) {
+            Slot slot = slot(state.getCurrentPlayerName());
+            slot.model = slot.model.withTurnTaken();
+        }
+    }
+
+    /**
+     * Gets the latest model of a player.
+     *
+     * @param playerName the player's name
+     * @return the player's model, or an empty Optional if no event has involved
+     *         the player yet
+     */
+    public Optional<PlayerModel> getModel(String playerName) {
+        Slot slot = players.get(playerName);
+        return slot == null ? Optional.empty() : Optional.of(slot.model);
+    }
+
+    /**
+     * Gets the latest model of every player seen so far. Each model is
+     * consistent on its own, but models of different players may reflect
+     * different numbers of events if events are being delivered concurrently.
+     *
+     * @return a map of player names to their models
+     */
+    public ImmutableMap<String, PlayerModel> getModels() {
+        ImmutableMap.Builder<String, PlayerModel> models = ImmutableMap.builderWithExpectedSize(players.size());
+        players.forEach((name, slot) -> models.put(name, slot.model));
+        return models.build();
+    }
+
+    private Slot slot(String playerName) {
+        Slot slot = players.get(playerName);
+        if (slot == null) {
+            slot = players.computeIfAbsent(playerName,
+                    name -> new Slot(PlayerModel.initial(name, startingCards)));
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,184 @@
+package edu.brandeis.cosi.atg.api.observer;
+
+import edu.brandeis.cosi.atg.api.cards.Card;
+
+/**
+ * An immutable summary of the cards a player owns and has played, as
+ * maintained by an {@link OpponentTracker}.
+ * <br/>
+ * <br/>
+ * Card counts start from the starting cards given to the
+ * {@link OpponentTracker} and include every card the player has gained since.
+ * Totals are maintained incrementally, so every getter is a constant time field
+ * read.
+ * <br/>
+ * <br/>
+ * Because a model never changes, every update creates a new one. A gained card
+ * also copies the player's card counts, one per {@link Card.Type}, so an update
+ * costs a small allocation of fixed size, however long the game has been
+ * running.
+ */
+public final class PlayerModel {
+    private static final Card.Type[] TYPES = Card.Type.values();
+
+    private final String playerName;
+    private final int[] counts;
+    private final int totalCards;
+    private final int moneyValue;
+    private final int victoryPoints;
+    private final int turnsTaken;
+    private final int moneyPlayed;
+
+    private PlayerModel(String playerName, int[] counts, int totalCards, int moneyValue, int victoryPoints,
+            int turnsTaken, int moneyPlayed) {
+        this.playerName = playerName;
+        this.counts = counts;
+        this.totalCards = totalCards;
+        this.moneyValue = moneyValue;
+        this.victoryPoints = victoryPoints;
+        this.turnsTaken = turnsTaken;
+        this.moneyPlayed = moneyPlayed;
+    }
+
+    /**
+     * Creates the model of a player at the start of a game.
+     *
+     * @param playerName    the player's name
+     * @param startingCards the number of cards of each type the player starts
+     *                      with, indexed by type ordinal
+     * @return a model of the starting cards
+     */
+    static PlayerModel initial(String playerName, int[] startingCards) {
+        PlayerModel model = new PlayerModel(playerName, new int[TYPES.length], 0, 0, 0, 0, 0);
+        for (Card.Type type : TYPES) {
+            if (startingCards[type.ordinal()] > 0) {
+                model = model.withGained(type, startingCards[type.ordinal()]);
+            }
+        }
+        return model;
+    }
+
+    /**
+     * Returns a model in which the player has gained cards of a type. Copies the
+     * card counts.
+     */
+    PlayerModel withGained(Card.Type type, int count) {
+        int[] next = counts.clone();
+        next[type.ordinal()] += count;
+        boolean money = type.getCategory() == Card.Type.Category.MONEY;
+        return new PlayerModel(playerName, next, totalCards + count,
+                moneyValue + (money ? count * type.getValue() : 0),
+                victoryPoints + (money ? 0 : count * type.getValue()), turnsTaken, moneyPlayed);
+    }
+
+    /**
+     * Returns a model in which the player has played a card.
+     */
+    PlayerModel withPlayed(Card.Type type) {
+        int value = type.getCategory() == Card.Type.Category.MONEY ? type.getValue() : 0;
+        return new PlayerModel(playerName, counts, totalCards, moneyValue, victoryPoints, turnsTaken,
+                moneyPlayed + value);
+    }
+
+    /**
+     * Returns a model in which the player has finished a turn.
+     */
+    PlayerModel withTurnTaken() {
+        return new PlayerModel(playerName, counts, totalCards, moneyValue, victoryPoints, turnsTaken + 1,
+                moneyPlayed);
+    }
+
+    /**
+     * Gets the name of the player.
+     *
+     * @return the player's name
+     */
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    /**
+     * Gets the number of cards of a type the player owns.
+     *
+     * @param type the card type
+     * @return the number of cards owned
+     */
+    public int getCount(Card.Type type) {
+        return counts[type.ordinal()];
+    }
+
+    /**
+     * Gets the total number of cards the player owns.
+     *
+     * @return the number of cards owned
+     */
+    public int getTotalCards() {
+        return totalCards;
+    }
+
+    /**
+     * Gets the total value of the money cards the player owns.
+     *
+     * @return the total money value
+     */
+    public int getMoneyValue() {
+        return moneyValue;
+    }
+
+    /**
+     * Gets the average money value per card the player owns, which is the
+     * expected money in a hand divided by the hand size.
+     *
+     * @return the money density
+     */
+    public double getMoneyDensity() {
+        return totalCards == 0 ? 0 : (double) moneyValue / totalCards;
+    }
+
+    /**
+     * Gets the player's current score: the total value of the victory cards
+     * they own.
+     *
+     * @return the player's victory points
+     */
+    public int getVictoryPoints() {
+        return victoryPoints;
+    }
+
+    /**
+     * Gets the number of turns the player has finished.
+     *
+     * @return the number of turns taken
+     */
+    public int getTurnsTaken() {
+        return turnsTaken;
+    }
+
+    /**
+     * Gets the total value of the money cards the player has played.
+     *
+     * @return the money played
+     */
+    public int getMoneyPlayed() {
+        return moneyPlayed;
+    }
+
+    /**
+     * Gets the average money the player has played per finished turn.
+     *
+     * @return the money played per turn, or 0 before the first turn ends
+     */
+    public double getMoneyPerTurn() {
+        return turnsTaken == 0 ? 0 : (double) moneyPlayed / turnsTaken;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder(playerName).append(": ");
+        for (Card.Type type : TYPES) {
+            s.append(type).append('=').append(counts[type.ordinal()]).append(' ');
+        }
+        return s.append(String.format("(%d VP, %.2f money/card, %d turns)", victoryPoints, getMoneyDensity(),
+                turnsTaken)).toString();
+    }
+}
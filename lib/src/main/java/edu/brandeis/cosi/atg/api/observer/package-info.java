@@ -0,0 +1,16 @@
+/**
+ * This package contains reusable
+ * {@link edu.brandeis.cosi.atg.api.GameObserver GameObserver} implementations
+ * and adapters.
+ * <br/>
+ * <br/>
+ * <ul>
+ * <li>{@link edu.brandeis.cosi.atg.api.observer.AsyncGameObserver} - delivers
+ * events to another observer on a dedicated thread, so that a slow observer
+ * does not stall the game</li>
+ * <li>{@link edu.brandeis.cosi.atg.api.observer.OpponentTracker} - maintains a
+ * {@link edu.brandeis.cosi.atg.api.observer.PlayerModel} of the cards owned by
+ * every player, readable from any thread</li>
+ * </ul>
+ */
+package edu.brandeis.cosi.atg.api.observer;
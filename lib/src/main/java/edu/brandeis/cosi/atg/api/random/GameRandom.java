@@ -0,0 +1,95 @@
+package edu.brandeis.cosi.atg.api.random;
+
+import java.util.SplittableRandom;
+
+/**
+ * Derives per-game random sources from a seed, and shuffles arrays of cards in
+ * place.
+ * <br/>
+ * <br/>
+ * The random source of a game depends only on the seed and the game's index,
+ * not on the order in which games are played or on which thread, so a run of
+ * many games is reproducible however it is scheduled. A game that ended with a
+ * {@link edu.brandeis.cosi.atg.api.PlayerViolationException
+ * PlayerViolationException} can be replayed on its own by creating an engine
+ * with {@link #forGame(long, long)} and the same players.
+ * <br/>
+ * <br/>
+ * The shuffles are Fisher-Yates shuffles over primitive arrays of card ids or
+ * types. They do not allocate, and each draws exactly one bounded random
+ * integer per position from the end of the range towards its start, so an
+ * engine that shuffles only through these methods produces the same games
+ * from the same random source.
+ */
+public final class GameRandom {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private GameRandom() {
+    }
+
+    /**
+     * Derives the seed of a game.
+     *
+     * @param seed      the seed of the run, such as a tournament
+     * @param gameIndex the index of the game within the run
+     * @return the seed of the game
+     */
+    public static long gameSeed(long seed, long gameIndex) {
+        return mix(mix(seed) + GOLDEN_GAMMA * (gameIndex + 1));
+    }
+
+    /**
+     * Creates the random source of a game.
+     *
+     * @param seed      the seed of the run, such as a tournament
+     * @param gameIndex the index of the game within the run
+     * @return a new random source, which should only be used by that game
+     */
+    public static SplittableRandom forGame(long seed, long gameIndex) {
+        return new SplittableRandom(gameSeed(seed, gameIndex));
+    }
+
+    /**
+     * Shuffles part of an array of card ids in place.
+     *
+     * @param cards  the array
+     * @param offset the index of the first card to shuffle
+     * @param length the number of cards to shuffle
+     * @param random the random source
+     */
+    public static void shuffle(int[] cards, int offset, int length, SplittableRandom random) {
+        for (int i = length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = cards[offset + i];
+            cards[offset + i] = cards[offset + j];
+            cards[offset + j] = tmp;
+        }
+    }
+
+    /**
+     * Shuffles part of an array of card types in place.
+     *
+     * @param cards  the array
+     * @param offset the index of the first card to shuffle
+     * @param length the number of cards to shuffle
+     * @param random the random source
+     */
+    public static void shuffle(byte[] cards, int offset, int length, SplittableRandom random) {
+        for (int i = length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte tmp = cards[offset + i];
+            cards[offset + i] = cards[offset + j];
+            cards[offset + j] = tmp;
+        }
+    }
+
+    /**
+     * The finalizer of SplitMix64, a bijection that spreads nearby inputs across
+     * all 64 bits.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * This package contains the randomness contract for engines: how each game's
+ * random source is derived from a seed, and how decks are shuffled with it.
+ * <br/>
+ * <br/>
+ * {@link edu.brandeis.cosi.atg.api.random.GameRandom} derives an independent
+ * {@link java.util.SplittableRandom} for every game of a run from a single
+ * seed and the game's index, so games can run on any number of threads
+ * without sharing a random source, and any one game can be replayed exactly.
+ */
+package edu.brandeis.cosi.atg.api.random;
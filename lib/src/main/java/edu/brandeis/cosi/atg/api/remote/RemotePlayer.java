@@ -0,0 +1,110 @@
+package edu.brandeis.cosi.atg.api.remote;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.event.Event;
+
+/**
+ * A Player for a single game, whose decisions are made by a player hosted by a
+ * {@link RemotePlayerServer}. RemotePlayers are created with
+ * {@link RemotePlayerClient#open(String)}.
+ * <br/>
+ * <br/>
+ * {@link #makeDecision} blocks until the server responds. If the connection
+ * fails or the remote player throws an exception, it throws an unchecked
+ * exception, which an Engine treats as a forfeit. If the remote player has an
+ * observer, {@link #getObserver()} returns an observer that sends events to it
+ * without waiting; events that cannot be sent are dropped, and the failure is
+ * reported by the next decision.
+ * <br/>
+ * <br/>
+ * A RemotePlayer should be closed once its game has finished, so the server
+ * can release the player.
+ */
+public final class RemotePlayer implements Player, Closeable {
+    private final RemotePlayerClient client;
+    private final int game;
+    private final String name;
+    private final Optional<GameObserver> observer;
+    private final boolean autoPlaysMoney;
+
+    RemotePlayer(RemotePlayerClient client, int game, String name, boolean observed, boolean autoPlaysMoney) {
+        this.client = client;
+        this.game = game;
+        this.name = name;
+        this.observer = observed ? Optional.of(this::sendEvent) : Optional.empty();
+        this.autoPlaysMoney = autoPlaysMoney;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UncheckedIOException  if the connection fails
+     * @throws IllegalStateException if the remote player throws an exception
+     */
+    @Override
+    public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+        try {
+            ByteBuffer response = client.request(RemoteProtocol.DECIDE, game,
+                    client.codec().writeGameState(state), client.codec().writeDecisions(options));
+            byte type = response.get();
+            response.getInt();
+            if (type == RemoteProtocol.ERROR) {
+                throw new IllegalStateException(
+                        "Remote player " + name + " failed: " + RemoteProtocol.utf8(RemoteProtocol.rest(response)));
+            }
+            return client.codec().readDecision(RemoteProtocol.rest(response));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Optional<GameObserver> getObserver() {
+        return observer;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * This is the value reported by the remote player when it was opened.
+     */
+    @Override
+    public boolean autoPlaysMoney() {
+        return autoPlaysMoney;
+    }
+
+    /**
+     * Tells the server that this game is over.
+     *
+     * @throws IOException if the connection has failed
+     */
+    @Override
+    public void close() throws IOException {
+        client.send(RemoteProtocol.CLOSE, game);
+    }
+
+    private void sendEvent(GameState state, Event event) {
+        try {
+            client.send(RemoteProtocol.EVENT, game, client.codec().writeGameState(state),
+                    client.codec().writeEvent(event));
+        } catch (IOException e) {
+            // Reported by the next call to makeDecision.
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package edu.brandeis.cosi.atg.api.remote;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.json.GameJsonCodec;
+
+/**
+ * A connection to a {@link RemotePlayerServer}, shared by any number of
+ * {@link RemotePlayer}s.
+ * <br/>
+ * <br/>
+ * Each call to {@link #open(String)} starts a new game on the server and
+ * returns a Player for it. Each game has at most one outstanding request (a
+ * game asks its players for one decision at a time), but requests from
+ * different games are pipelined over the connection, and a dedicated thread
+ * matches responses to the games that are waiting for them.
+ * <br/>
+ * <br/>
+ * Example usage with a {@link edu.brandeis.cosi.atg.api.tournament.Tournament
+ * Tournament}:
+ *
+ * <pre>
+ * try (RemotePlayerClient client = RemotePlayerClient.connect(address)) {
+ *     Tournament tournament = new Tournament(engines,
+ *             ImmutableMap.of("bot", client.supplier("bot"), "other", client.supplier("other")),
+ *             1000, 8);
+ *     tournament.runRoundRobin();
+ * }
+ * </pre>
+ */
+public final class RemotePlayerClient implements Closeable {
+    private final SocketChannel channel;
+    private final GameJsonCodec codec = new GameJsonCodec();
+    private final ConcurrentHashMap<Integer, CompletableFuture<ByteBuffer>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger nextGame = new AtomicInteger();
+    private final Thread reader;
+    private volatile IOException failure;
+
+    private RemotePlayerClient(SocketChannel channel) throws IOException {
+        this.channel = channel;
+        RemoteProtocol.configure(channel);
+        this.reader = new Thread(this::readResponses, "remote-player-client-" + channel.getRemoteAddress());
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Connects to a {@link RemotePlayerServer}.
+     *
+     * @param address an {@link java.net.InetSocketAddress} or
+     *                {@link java.net.UnixDomainSocketAddress}
+     * @return the connected client
+     * @throws IOException if the connection cannot be established
+     */
+    public static RemotePlayerClient connect(SocketAddress address) throws IOException {
+        return new RemotePlayerClient(SocketChannel.open(address));
+    }
+
+    /**
+     * Starts a game on the server with a new instance of the named player.
+     *
+     * @param playerKey the name under which the player is registered with the
+     *                  server
+     * @return a Player that forwards decisions and events to the server
+     * @throws IOException if the connection fails or the server cannot create
+     *                     the player
+     */
+    public RemotePlayer open(String playerKey) throws IOException {
+        int game = nextGame.incrementAndGet();
+        ByteBuffer response = request(RemoteProtocol.OPEN, game, RemoteProtocol.utf8(playerKey));
+        if (response.get() == RemoteProtocol.ERROR) {
+            response.getInt();
+            throw new IOException("Cannot open " + playerKey + ": " + RemoteProtocol.utf8(RemoteProtocol.rest(response)));
+        }
+        response.getInt();
+        byte flags = RemoteProtocol.part(response)[0];
+        String name = RemoteProtocol.utf8(RemoteProtocol.rest(response));
+        return new RemotePlayer(this, game, name, (flags & RemoteProtocol.OBSERVED) != 0,
+                (flags & RemoteProtocol.AUTO_PLAYS_MONEY) != 0);
+    }
+
+    /**
+     * Returns a supplier of remote players, suitable for a
+     * {@link edu.brandeis.cosi.atg.api.tournament.Tournament Tournament}.
+     *
+     * @param playerKey the name under which the player is registered with the
+     *                  server
+     * @return a supplier that calls {@link #open(String)}, wrapping any
+     *         IOException in an UncheckedIOException
+     */
+    public Supplier<Player> supplier(String playerKey) {
+        return () -> {
+            try {
+                return open(playerKey);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    /**
+     * Gets the number of games waiting for a response from the server.
+     *
+     * @return the number of outstanding requests
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Closes the connection. Games waiting for a response fail, and the server
+     * discards all games opened by this client.
+     *
+     * @throws IOException if the channel cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Sends a request and waits for its response.
+     *
+     * @return the response frame, positioned at its type
+     */
+    ByteBuffer request(byte type, int game, byte[]... parts) throws IOException {
+        CompletableFuture<ByteBuffer> response = new CompletableFuture<>();
+        if (pending.putIfAbsent(game, response) != null) {
+            throw new IllegalStateException("Game " + game + " already has an outstanding request");
+        }
+        try {
+            send(type, game, parts);
+            IOException failed = failure;
+            if (failed != null) {
+                pending.remove(game);
+                throw new IOException("Connection failed", failed);
+            }
+            return response.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Connection failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the server", e);
+        } finally {
+            pending.remove(game, response);
+        }
+    }
+
+    /**
+     * Sends a message without waiting for a response.
+     */
+    void send(byte type, int game, byte[]... parts) throws IOException {
+        IOException failed = failure;
+        if (failed != null) {
+            throw new IOException("Connection failed", failed);
+        }
+        RemoteProtocol.writeFrame(channel, type, game, parts);
+    }
+
+    GameJsonCodec codec() {
+        return codec;
+    }
+
+    private void readResponses() {
+        RemoteProtocol.FrameReader frames = new RemoteProtocol.FrameReader(channel);
+        IOException cause;
+        try {
+            ByteBuffer frame;
+            while ((frame = frames.next()) != null) {
+                CompletableFuture<ByteBuffer> response = pending.get(frame.getInt(1));
+                if (response != null) {
+                    response.complete(frame);
+                }
+            }
+            cause = new EOFException("Server closed the connection");
+        } catch (IOException e) {
+            cause = e;
+        }
+        failure = cause;
+        for (CompletableFuture<ByteBuffer> response : pending.values()) {
+            response.completeExceptionally(cause);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package edu.brandeis.cosi.atg.api.remote;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.event.Event;
+import edu.brandeis.cosi.atg.api.json.GameJsonCodec;
+
+/**
+ * Hosts {@link Player}s for {@link RemotePlayerClient}s in other processes.
+ * <br/>
+ * <br/>
+ * Players are registered by name, typically with the map returned by
+ * {@link edu.brandeis.cosi.atg.api.tournament.CreatorScanner#findPlayerCreators
+ * CreatorScanner.findPlayerCreators}, and a new instance is created for every
+ * game a client opens. Each connection has a thread that reads its messages;
+ * the work for each game (creating the player, delivering events and making
+ * decisions) runs on the server's executor, one task at a time and in the
+ * order the messages arrived, while different games run in parallel.
+ * <br/>
+ * <br/>
+ * Example usage:
+ *
+ * <pre>
+ * ExecutorService executor = Executors.newFixedThreadPool(8);
+ * try (RemotePlayerServer server = new RemotePlayerServer(players, executor)) {
+ *     server.bind(UnixDomainSocketAddress.of("/tmp/atg.sock"));
+ *     server.awaitClose();
+ * }
+ * </pre>
+ */
+public final class RemotePlayerServer implements Closeable {
+    private final ImmutableMap<String, Supplier<Player>> players;
+    private final Executor executor;
+    private final GameJsonCodec codec = new GameJsonCodec();
+    private final Set<ServerSocketChannel> listeners = ConcurrentHashMap.newKeySet();
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * Constructs a RemotePlayerServer.
+     *
+     * @param players  suppliers of the players that clients may open, by name
+     * @param executor the executor on which players make their decisions
+     */
+    public RemotePlayerServer(ImmutableMap<String, Supplier<Player>> players, Executor executor) {
+        this.players = players;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts accepting connections on the specified address. A server may listen
+     * on several addresses.
+     *
+     * @param address an {@link java.net.InetSocketAddress} or
+     *                {@link UnixDomainSocketAddress} to listen on
+     * @return the bound address, which includes the chosen port if the address
+     *         specified port 0
+     * @throws IOException if the address cannot be bound
+     */
+    public SocketAddress bind(SocketAddress address) throws IOException {
+        if (closed.get()) {
+            throw new ClosedChannelException();
+        }
+        ServerSocketChannel listener = address instanceof UnixDomainSocketAddress
+                ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+                : ServerSocketChannel.open();
+        listener.bind(address);
+        listeners.add(listener);
+        SocketAddress bound = listener.getLocalAddress();
+        Thread acceptor = new Thread(() -> accept(listener), "remote-player-server-" + bound);
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return bound;
+    }
+
+    /**
+     * Waits until the server is closed.
+     *
+     * @throws InterruptedException if the current thread is interrupted
+     */
+    public void awaitClose() throws InterruptedException {
+        synchronized (closed) {
+            while (!closed.get()) {
+                closed.wait();
+            }
+        }
+    }
+
+    /**
+     * Stops accepting connections and closes all open connections. Tasks
+     * already submitted to the executor are not cancelled.
+     *
+     * @throws IOException if a channel cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        synchronized (closed) {
+            closed.notifyAll();
+        }
+        IOException failure = null;
+        for (Closeable channel : ImmutableList.<Closeable>builder().addAll(listeners).addAll(connections).build()) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void accept(ServerSocketChannel listener) {
+        try (listener) {
+            while (!closed.get()) {
+                SocketChannel channel = listener.accept();
+                RemoteProtocol.configure(channel);
+                connections.add(channel);
+                Thread reader = new Thread(() -> serve(channel), "remote-player-connection-" + channel.getRemoteAddress());
+                reader.setDaemon(true);
+                reader.start();
+            }
+        } catch (IOException e) {
+            // The listener was closed.
+        } finally {
+            listeners.remove(listener);
+        }
+    }
+
+    private void serve(SocketChannel channel) {
+        Map<Integer, Game> games = new ConcurrentHashMap<>();
+        RemoteProtocol.FrameReader frames = new RemoteProtocol.FrameReader(channel);
+        try (channel) {
+            ByteBuffer frame;
+            while ((frame = frames.next()) != null) {
+                byte type = frame.get();
+                int id = frame.getInt();
+                Game game = type == RemoteProtocol.OPEN ? games.computeIfAbsent(id, i -> new Game(channel, i))
+                        : games.get(id);
+                if (game == null) {
+                    if (type == RemoteProtocol.DECIDE) {
+                        reply(channel, RemoteProtocol.ERROR, id, RemoteProtocol.utf8("Unknown game " + id));
+                    }
+                    continue;
+                }
+                ByteBuffer message = frame;
+                switch (type) {
+                    case RemoteProtocol.OPEN -> game.submit(() -> game.open(RemoteProtocol.utf8(RemoteProtocol.rest(message))));
+                    case RemoteProtocol.DECIDE -> game.submit(() -> game.decide(message));
+                    case RemoteProtocol.EVENT -> game.submit(() -> game.notifyEvent(message));
+                    case RemoteProtocol.CLOSE -> games.remove(id);
+                    default -> throw new IOException("Unexpected message type " + type);
+                }
+            }
+        } catch (IOException e) {
+            // The connection failed; its games are discarded.
+        } finally {
+            connections.remove(channel);
+        }
+    }
+
+    private static void reply(SocketChannel channel, byte type, int game, byte[]... parts) {
+        try {
+            RemoteProtocol.writeFrame(channel, type, game, parts);
+        } catch (IOException e) {
+            // The reading thread notices the failed connection.
+        }
+    }
+
+    /**
+     * The server side of a single game: a player and the queue of tasks for it.
+     */
+    private final class Game implements Runnable {
+        private final SocketChannel channel;
+        private final int id;
+        private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private Player player;
+        private Optional<GameObserver> observer = Optional.empty();
+
+        Game(SocketChannel channel, int id) {
+            this.channel = channel;
+            this.id = id;
+        }
+
+        void submit(Runnable task) {
+            tasks.add(task);
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            do {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                }
+                scheduled.set(false);
+            } while (!tasks.isEmpty() && scheduled.compareAndSet(false, true));
+        }
+
+        void open(String key) {
+            Supplier<Player> supplier = players.get(key);
+            if (supplier == null) {
+                reply(channel, RemoteProtocol.ERROR, id, RemoteProtocol.utf8("Unknown player " + key));
+                return;
+            }
+            try {
+                player = supplier.get();
+                observer = player.getObserver();
+            } catch (RuntimeException e) {
+                reply(channel, RemoteProtocol.ERROR, id, RemoteProtocol.utf8(String.valueOf(e)));
+                return;
+            }
+            int flags = (observer.isPresent() ? RemoteProtocol.OBSERVED : 0)
+                    | (player.autoPlaysMoney() ? RemoteProtocol.AUTO_PLAYS_MONEY : 0);
+            reply(channel, RemoteProtocol.OPENED, id, new byte[] { (byte) flags }, RemoteProtocol.utf8(player.getName()));
+        }
+
+        void decide(ByteBuffer message) {
+            if (player == null) {
+                reply(channel, RemoteProtocol.ERROR, id, RemoteProtocol.utf8("Game " + id + " has no player"));
+                return;
+            }
+            try {
+                GameState state = codec.readGameState(RemoteProtocol.part(message));
+                ImmutableList<Decision> options = codec.readDecisions(RemoteProtocol.rest(message));
+                Decision decision = player.makeDecision(state, options);
+                reply(channel, RemoteProtocol.DECISION, id, codec.writeDecision(decision));
+            } catch (IOException | RuntimeException e) {
+                reply(channel, RemoteProtocol.ERROR, id, RemoteProtocol.utf8(String.valueOf(e)));
+            }
+        }
+
+        void notifyEvent(ByteBuffer message) {
+            if (observer.isEmpty()) {
+                return;
+            }
+            try {
+                GameState state = codec.readGameState(RemoteProtocol.part(message));
+                Event event = codec.readEvent(RemoteProtocol.rest(message));
+                observer.get().notifyEvent(state, event);
+            } catch (IOException | RuntimeException e) {
+                // Events are not acknowledged, so there is no one to report to.
+            }
+        }
+    }
+}
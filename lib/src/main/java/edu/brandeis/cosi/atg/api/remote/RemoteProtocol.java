@@ -0,0 +1,207 @@
+package edu.brandeis.cosi.atg.api.remote;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Message types and framing shared by {@link RemotePlayerClient} and
+ * {@link RemotePlayerServer}.
+ *
+ * A frame is {@code [int length][byte type][int game][body]}, where
+ * {@code length} counts every byte after itself. A body is a sequence of
+ * parts; every part but the last is preceded by its 4-byte length, and the
+ * last part extends to the end of the frame.
+ */
+final class RemoteProtocol {
+    /** Client to server: {@code [player key]}. Answered by OPENED or ERROR. */
+    static final byte OPEN = 1;
+    /** Server to client: {@code [flags (1 byte)][player name]}. */
+    static final byte OPENED = 2;
+    /** Client to server: {@code [state][options]}. Answered by DECISION or ERROR. */
+    static final byte DECIDE = 3;
+    /** Server to client: {@code [decision]}. */
+    static final byte DECISION = 4;
+    /** Client to server: {@code [state][event]}. Not answered. */
+    static final byte EVENT = 5;
+    /** Client to server: no body. Not answered. */
+    static final byte CLOSE = 6;
+    /** Server to client: {@code [message]}. */
+    static final byte ERROR = 7;
+
+    /** OPENED flag: the player has an observer. */
+    static final byte OBSERVED = 1;
+    /** OPENED flag: the player {@link edu.brandeis.cosi.atg.api.Player#autoPlaysMoney() auto-plays money}. */
+    static final byte AUTO_PLAYS_MONEY = 2;
+
+    /** The largest accepted frame. */
+    static final int MAX_FRAME_LENGTH = 1 << 24;
+
+    private static final int HEADER_LENGTH = 1 + 4;
+    private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocate(4096));
+
+    private RemoteProtocol() {
+    }
+
+    /**
+     * Sets socket options suitable for small request/response messages.
+     *
+     * @param channel a connected channel
+     * @throws IOException if the options cannot be set
+     */
+    static void configure(SocketChannel channel) throws IOException {
+        if (!(channel.getRemoteAddress() instanceof UnixDomainSocketAddress)) {
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        }
+    }
+
+    /**
+     * Writes a frame. The frame is assembled in a per-thread buffer and written
+     * to the channel while holding the channel's lock, so frames from
+     * different threads are never interleaved.
+     *
+     * @param channel the channel to write to
+     * @param type    the message type
+     * @param game    the game id
+     * @param parts   the parts of the body
+     * @throws IOException if the frame cannot be written
+     */
+    static void writeFrame(WritableByteChannel channel, byte type, int game, byte[]... parts) throws IOException {
+        int length = HEADER_LENGTH;
+        for (int i = 0; i < parts.length; i++) {
+            length += parts[i].length + (i < parts.length - 1 ? 4 : 0);
+        }
+        if (length > MAX_FRAME_LENGTH) {
+            throw new IOException("Frame too large: " + length + " bytes");
+        }
+        ByteBuffer buffer = BUFFERS.get();
+        if (buffer.capacity() < 4 + length) {
+            buffer = ByteBuffer.allocate(Math.max(4 + length, 2 * buffer.capacity()));
+            BUFFERS.set(buffer);
+        }
+        buffer.clear();
+        buffer.putInt(length).put(type).putInt(game);
+        for (int i = 0; i < parts.length; i++) {
+            if (i < parts.length - 1) {
+                buffer.putInt(parts[i].length);
+            }
+            buffer.put(parts[i]);
+        }
+        buffer.flip();
+        synchronized (channel) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Reads a length-prefixed part of a frame body.
+     *
+     * @param frame the frame, positioned at the part
+     * @return the part
+     */
+    static byte[] part(ByteBuffer frame) {
+        byte[] bytes = new byte[frame.getInt()];
+        frame.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Reads the last part of a frame body.
+     *
+     * @param frame the frame, positioned at the part
+     * @return the rest of the frame
+     */
+    static byte[] rest(ByteBuffer frame) {
+        byte[] bytes = new byte[frame.remaining()];
+        frame.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Encodes a string.
+     *
+     * @param s the string
+     * @return its UTF-8 bytes
+     */
+    static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes a string.
+     *
+     * @param bytes UTF-8 bytes
+     * @return the string
+     */
+    static String utf8(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads frames from a channel. A single FrameReader must only be used by
+     * one thread.
+     */
+    static final class FrameReader {
+        private final ReadableByteChannel channel;
+        /** Unconsumed input, in read mode. */
+        private ByteBuffer buffer = ByteBuffer.allocate(1 << 16).flip();
+
+        FrameReader(ReadableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Reads the next frame.
+         *
+         * @return a buffer holding the frame's type, game id and body, or null if
+         *         the channel reached end of stream between frames
+         * @throws IOException if the channel fails, ends within a frame, or a
+         *                     frame has an invalid length
+         */
+        ByteBuffer next() throws IOException {
+            if (!fill(4)) {
+                return null;
+            }
+            int length = buffer.getInt(buffer.position());
+            if (length < HEADER_LENGTH || length > MAX_FRAME_LENGTH) {
+                throw new IOException("Invalid frame length: " + length);
+            }
+            if (!fill(4 + length)) {
+                throw new EOFException("Connection closed within a frame");
+            }
+            buffer.position(buffer.position() + 4);
+            byte[] frame = new byte[length];
+            buffer.get(frame);
+            return ByteBuffer.wrap(frame);
+        }
+
+        private boolean fill(int needed) throws IOException {
+            while (buffer.remaining() < needed) {
+                if (buffer.capacity() < needed) {
+                    ByteBuffer larger = ByteBuffer.allocate(Math.max(needed, 2 * buffer.capacity()));
+                    larger.put(buffer);
+                    buffer = larger;
+                } else {
+                    buffer.compact();
+                }
+                int read = channel.read(buffer);
+                buffer.flip();
+                if (read < 0) {
+                    if (buffer.hasRemaining()) {
+                        throw new EOFException("Connection closed within a frame");
+                    }
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+/**
+ * This package contains a protocol for hosting
+ * {@link edu.brandeis.cosi.atg.api.Player Players} in another process.
+ * <br/>
+ * <br/>
+ * A {@link edu.brandeis.cosi.atg.api.remote.RemotePlayerServer} hosts Players
+ * by name and accepts connections over TCP or Unix domain sockets. An engine
+ * process connects with a {@link edu.brandeis.cosi.atg.api.remote.RemotePlayerClient}
+ * and opens one {@link edu.brandeis.cosi.atg.api.remote.RemotePlayer} per game.
+ * Many games, driven by many engine threads, can share a single connection:
+ * decisions for different games are in flight at the same time, and observer
+ * events are sent without waiting for acknowledgement.
+ * <br/>
+ * <br/>
+ * <strong>Wire format:</strong>
+ * <br/>
+ * <br/>
+ * Every message is a frame consisting of a 4-byte big-endian length followed
+ * by that many bytes: a message type, the 4-byte id of the game the message
+ * belongs to, and the message body. Game states, decisions and events in the
+ * body are encoded as JSON by {@link edu.brandeis.cosi.atg.api.json.GameJsonCodec}.
+ */
+package edu.brandeis.cosi.atg.api.remote;
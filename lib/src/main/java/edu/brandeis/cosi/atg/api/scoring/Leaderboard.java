@@ -0,0 +1,365 @@
+package edu.brandeis.cosi.atg.api.scoring;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.tournament.Standing;
+
+/**
+ * Accumulates the results of many games per player, with an Elo rating, and
+ * can be updated concurrently from any number of games.
+ * <br/>
+ * <br/>
+ * Players are {@link #register(String) registered} once by name and then
+ * referred to by an integer id. Each player's wins, draws, losses, total score
+ * and rating are kept in primitive arrays, guarded by a fixed set of lock
+ * stripes, so recording a game takes one or two uncontended locks and creates
+ * no objects, however many games are recorded. Games of more than two players
+ * given as a list of scores reuse buffers owned by the recording thread.
+ * <br/>
+ * <br/>
+ * In a game of more than two players, the player with the highest score wins
+ * and the others lose; players sharing the highest score draw. Ratings are
+ * updated as if each pair of players had played a game, with the K-factor
+ * divided by the number of opponents.
+ */
+public final class Leaderboard {
+    /** The rating of a player who has not played. */
+    public static final double INITIAL_RATING = 1500;
+    private static final int STRIPES = 64;
+    /** Per-thread buffers for games of more than two players. */
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final double kFactor;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final String[] names;
+    private volatile int size;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final long[] wins;
+    private final long[] draws;
+    private final long[] losses;
+    private final long[] totalScores;
+    private final double[] ratings;
+
+    /**
+     * The ids and scores of a game being recorded, reused by each thread and
+     * grown to the largest game it has seen.
+     */
+    private static final class Scratch {
+        private int[] players = new int[0];
+        private int[] scores = new int[0];
+
+        int[] players(int count) {
+            if (players.length < count) {
+                players = new int[count];
+            }
+            return players;
+        }
+
+        int[] scores(int count) {
+            if (scores.length < count) {
+                scores = new int[count];
+            }
+            return scores;
+        }
+    }
+
+    /**
+     * Constructs a Leaderboard with a K-factor of 16.
+     *
+     * @param capacity the maximum number of players
+     */
+    public Leaderboard(int capacity) {
+        this(capacity, 16);
+    }
+
+    /**
+     * Constructs a Leaderboard.
+     *
+     * @param capacity the maximum number of players
+     * @param kFactor  the largest rating change from a single two-player game
+     */
+    public Leaderboard(int capacity, double kFactor) {
+        if (capacity < 1 || !(kFactor > 0)) {
+            throw new IllegalArgumentException("Invalid capacity or K-factor");
+        }
+        this.kFactor = kFactor;
+        this.names = new String[capacity];
+        this.wins = new long[capacity];
+        this.draws = new long[capacity];
+        this.losses = new long[capacity];
+        this.totalScores = new long[capacity];
+        this.ratings = new double[capacity];
+        Arrays.fill(ratings, INITIAL_RATING);
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Registers a player, or finds a player already registered.
+     *
+     * @param name the name of the player
+     * @return the player's id
+     * @throws IllegalStateException if the leaderboard is full
+     */
+    public int register(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (names) {
+            id = ids.get(name);
+            if (id != null) {
+                return id;
+            }
+            if (size == names.length) {
+                throw new IllegalStateException("Leaderboard is full: " + names.length + " players");
+            }
+            // Publish the name and size before the id, so that a thread which
+            // finds the id can also use it.
+            int newId = size;
+            names[newId] = name;
+            size = newId + 1;
+            ids.put(name, newId);
+            return newId;
+        }
+    }
+
+    /**
+     * Gets the number of registered players. Ids range from 0 to one less than
+     * this.
+     *
+     * @return the number of players
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the name of a player.
+     *
+     * @param player the player's id
+     * @return the player's name
+     */
+    public String getName(int player) {
+        checkId(player);
+        return names[player];
+    }
+
+    /**
+     * Records a two-player game.
+     *
+     * @param player1 the id of the first player
+     * @param score1  the score of the first player
+     * @param player2 the id of the second player
+     * @param score2  the score of the second player
+     */
+    public void recordGame(int player1, int score1, int player2, int score2) {
+        checkId(player1);
+        checkId(player2);
+        if (player1 == player2) {
+            throw new IllegalArgumentException("A player cannot play itself: " + names[player1]);
+        }
+        lock(player1, player2);
+        try {
+            double result = score1 > score2 ? 1 : score1 < score2 ? 0 : 0.5;
+            tally(player1, score1, result);
+            tally(player2, score2, 1 - result);
+            updateRatings(player1, player2, result, kFactor);
+        } finally {
+            unlock(player1, player2);
+        }
+    }
+
+    /**
+     * Records a game of any number of players.
+     *
+     * @param players the id of each player
+     * @param scores  the score of each player, in the same order
+     * @param count   the number of players
+     */
+    public void recordGame(int[] players, int[] scores, int count) {
+        if (count == 2) {
+            recordGame(players[0], scores[0], players[1], scores[1]);
+            return;
+        }
+        int best = Integer.MIN_VALUE;
+        int leaders = 0;
+        for (int i = 0; i < count; i++) {
+            checkId(players[i]);
+            if (scores[i] > best) {
+                best = scores[i];
+                leaders = 1;
+            } else if (scores[i] == best) {
+                leaders++;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int player = players[i];
+            ReentrantLock lock = locks[player % STRIPES];
+            lock.lock();
+            try {
+                tally(player, scores[i], scores[i] < best ? 0 : leaders == 1 ? 1 : 0.5);
+            } finally {
+                lock.unlock();
+            }
+        }
+        double k = kFactor / Math.max(1, count - 1);
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 1; j < count; j++) {
+                lock(players[i], players[j]);
+                try {
+                    double result = scores[i] > scores[j] ? 1 : scores[i] < scores[j] ? 0 : 0.5;
+                    updateRatings(players[i], players[j], result, k);
+                } finally {
+                    unlock(players[i], players[j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a game as returned by {@link edu.brandeis.cosi.atg.api.Engine#play()},
+     * registering its players by name if needed.
+     *
+     * @param scores the scores of the game
+     */
+    public void recordGame(ImmutableList<Player.ScorePair> scores) {
+        int count = scores.size();
+        if (count == 2) {
+            recordGame(register(scores.get(0).player.getName()), scores.get(0).score,
+                    register(scores.get(1).player.getName()), scores.get(1).score);
+            return;
+        }
+        Scratch scratch = SCRATCH.get();
+        int[] players = scratch.players(count);
+        int[] points = scratch.scores(count);
+        for (int i = 0; i < count; i++) {
+            players[i] = register(scores.get(i).player.getName());
+            points[i] = scores.get(i).score;
+        }
+        recordGame(players, points, count);
+    }
+
+    /**
+     * Gets a player's rating.
+     *
+     * @param player the player's id
+     * @return the Elo rating
+     */
+    public double getRating(int player) {
+        checkId(player);
+        ReentrantLock lock = locks[player % STRIPES];
+        lock.lock();
+        try {
+            return ratings[player];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets a player's results.
+     *
+     * @param player the player's id
+     * @return the player's wins, draws, losses and total score
+     */
+    public Standing getStanding(int player) {
+        checkId(player);
+        ReentrantLock lock = locks[player % STRIPES];
+        lock.lock();
+        try {
+            long games = wins[player] + draws[player] + losses[player];
+            return new Standing(names[player], wins[player], draws[player], losses[player], 0, totalScores[player],
+                    games);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the ids of all players from the highest rating to the lowest. Players
+     * with equal ratings are ordered by id.
+     *
+     * @return the ranked player ids
+     */
+    public int[] getRanking() {
+        int count = size;
+        int[] order = new int[count];
+        double[] snapshot = new double[count];
+        for (int i = 0; i < count; i++) {
+            snapshot[i] = getRating(i);
+        }
+        for (int i = 0; i < count; i++) {
+            int j = i;
+            while (j > 0 && snapshot[order[j - 1]] < snapshot[i]) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = i;
+        }
+        return order;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        for (int player : getRanking()) {
+            s.append(String.format("%7.1f %s%n", getRating(player), getStanding(player)));
+        }
+        return s.toString();
+    }
+
+    private void tally(int player, int score, double result) {
+        if (result == 1) {
+            wins[player]++;
+        } else if (result == 0) {
+            losses[player]++;
+        } else {
+            draws[player]++;
+        }
+        totalScores[player] += score;
+    }
+
+    private void updateRatings(int player1, int player2, double result, double k) {
+        double expected = 1 / (1 + Math.pow(10, (ratings[player2] - ratings[player1]) / 400));
+        double change = k * (result - expected);
+        ratings[player1] += change;
+        ratings[player2] -= change;
+    }
+
+    /**
+     * Locks the stripes of two players, in stripe order so that concurrent games
+     * cannot deadlock.
+     */
+    private void lock(int player1, int player2) {
+        int stripe1 = player1 % STRIPES;
+        int stripe2 = player2 % STRIPES;
+        locks[Math.min(stripe1, stripe2)].lock();
+        if (stripe1 != stripe2) {
+            locks[Math.max(stripe1, stripe2)].lock();
+        }
+    }
+
+    private void unlock(int player1, int player2) {
+        int stripe1 = player1 % STRIPES;
+        int stripe2 = player2 % STRIPES;
+        if (stripe1 != stripe2) {
+            locks[Math.max(stripe1, stripe2)].unlock();
+        }
+        locks[Math.min(stripe1, stripe2)].unlock();
+    }
+
+    private void checkId(int player) {
+        if (player < 0 || player >= size) {
+            throw new IllegalArgumentException("Unknown player id: " + player);
+        }
+    }
+}
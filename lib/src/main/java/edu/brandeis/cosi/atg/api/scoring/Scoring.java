@@ -0,0 +1,78 @@
+package edu.brandeis.cosi.atg.api.scoring;
+
+import edu.brandeis.cosi.atg.api.cards.Card;
+
+/**
+ * Computes scores from primitive card counts, and ranks players by score.
+ * <br/>
+ * <br/>
+ * A player's score is the sum of {@link Card.Type#getValue()} over the
+ * {@link Card.Type.Category#VICTORY VICTORY} cards they own. Counts are given
+ * as an array indexed by {@link Card.Type} ordinal, optionally at an offset
+ * within a larger array that holds the counts of several players. None of
+ * these methods allocate.
+ */
+public final class Scoring {
+    private static final Card.Type[] TYPES = Card.Type.values();
+    /** The points of each card type by ordinal, or 0 for money cards. */
+    private static final int[] POINTS = new int[TYPES.length];
+
+    static {
+        for (Card.Type type : TYPES) {
+            if (type.getCategory() == Card.Type.Category.VICTORY) {
+                POINTS[type.ordinal()] = type.getValue();
+            }
+        }
+    }
+
+    private Scoring() {
+    }
+
+    /**
+     * Computes the score of a player.
+     *
+     * @param counts the number of cards of each type the player owns, indexed
+     *               by type ordinal
+     * @return the player's score
+     */
+    public static int victoryPoints(int[] counts) {
+        return victoryPoints(counts, 0);
+    }
+
+    /**
+     * Computes the score of a player whose counts are stored at an offset.
+     *
+     * @param counts the array holding the counts
+     * @param offset the index of the player's count of the first type
+     * @return the player's score
+     */
+    public static int victoryPoints(int[] counts, int offset) {
+        int points = 0;
+        for (int t = 0; t < POINTS.length; t++) {
+            points += counts[offset + t] * POINTS[t];
+        }
+        return points;
+    }
+
+    /**
+     * Ranks players from the highest score to the lowest. Players with equal
+     * scores keep their seat order, matching the order of the scores returned by
+     * {@link edu.brandeis.cosi.atg.api.Engine#play()}.
+     *
+     * @param scores the score of each seat
+     * @param count  the number of seats
+     * @param order  receives the seats in ranked order; at least {@code count}
+     *               long
+     */
+    public static void rank(int[] scores, int count, int[] order) {
+        for (int i = 0; i < count; i++) {
+            int seat = i;
+            int j = i;
+            while (j > 0 && scores[order[j - 1]] < scores[seat]) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = seat;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+/**
+ * This package contains primitive, allocation-free scoring and ranking of
+ * games, and a concurrent leaderboard for aggregating the results of many
+ * games.
+ * <br/>
+ * <br/>
+ * {@link edu.brandeis.cosi.atg.api.scoring.Scoring} computes victory points
+ * from per-type card counts and ranks players by score.
+ * {@link edu.brandeis.cosi.atg.api.scoring.Leaderboard} accumulates wins,
+ * points and Elo ratings per player in primitive arrays, so that recording a
+ * game creates no objects.
+ */
+package edu.brandeis.cosi.atg.api.scoring;
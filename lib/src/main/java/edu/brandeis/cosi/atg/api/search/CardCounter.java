@@ -0,0 +1,188 @@
+package edu.brandeis.cosi.atg.api.search;
+
+import java.util.Arrays;
+
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Hand;
+import edu.brandeis.cosi.atg.api.cards.Card;
+import edu.brandeis.cosi.atg.api.engine.ReferenceEngine;
+import edu.brandeis.cosi.atg.api.event.EndTurnEvent;
+import edu.brandeis.cosi.atg.api.event.Event;
+import edu.brandeis.cosi.atg.api.event.GainCardEvent;
+
+/**
+ * Counts the cards that a player can account for during a game, for building
+ * a {@link SearchState}.
+ * <br/>
+ * <br/>
+ * A CardCounter should be the observer of one player (see
+ * {@link edu.brandeis.cosi.atg.api.Player#getObserver()}) for one game. It
+ * tracks the cards owned by every player, starting from the standard starting
+ * deck and adding each {@link GainCardEvent}. For its own player, whose hands
+ * it sees, it also tracks the contents of the discard pile and the size of the
+ * deck, following the same draw and shuffle rules as the
+ * {@link ReferenceEngine}.
+ * <br/>
+ * <br/>
+ * Players are assigned seats in the order in which they first take a turn,
+ * which is the order in which they take turns. Events only identify players by
+ * name, so the number of players must be given up front.
+ * <br/>
+ * <br/>
+ * A CardCounter is not thread safe.
+ */
+public final class CardCounter implements GameObserver {
+    private static final Card.Type[] TYPES = Card.Type.values();
+
+    private final String self;
+    private final String[] names;
+    private int seats;
+    private final int[][] owned;
+    private final int[] discard = new int[TYPES.length];
+    private final int[] lastHand = new int[TYPES.length];
+    private int deckSize;
+
+    /**
+     * Constructs a CardCounter for the start of a game.
+     *
+     * @param self        the name of the player using this counter
+     * @param playerCount the number of players in the game
+     */
+    public CardCounter(String self, int playerCount) {
+        this.self = self;
+        this.names = new String[playerCount];
+        this.owned = new int[playerCount][TYPES.length];
+        for (int[] cards : owned) {
+            cards[Card.Type.BITCOIN.ordinal()] = ReferenceEngine.STARTING_BITCOINS;
+            cards[Card.Type.METHOD.ordinal()] = ReferenceEngine.STARTING_METHODS;
+        }
+        this.deckSize = ReferenceEngine.STARTING_BITCOINS + ReferenceEngine.STARTING_METHODS
+                - ReferenceEngine.HAND_SIZE;
+    }
+
+    @Override
+    public void notifyEvent(GameState state, Event event) {
+        String name = state.getCurrentPlayerName();
+        seatOf(name);
+        if (event instanceof GainCardEvent gain) {
+            int type = gain.getDecision().ordinal();
+            owned[seatOf(gain.getPlayerName())][type]++;
+            if (self.equals(gain.getPlayerName())) {
+                discard[type]++;
+            }
+        }
+        if (self.equals(name)) {
+            if (event instanceof EndTurnEvent) {
+                cleanup();
+            }
+            observe(state);
+        }
+    }
+
+    /**
+     * Records the hand shown in a state for this counter's player. Players
+     * should call this from
+     * {@link edu.brandeis.cosi.atg.api.Player#makeDecision makeDecision}, since
+     * the first hand of the game is not shown to observers until a card is
+     * played; {@link SearchState#fromGame} does so automatically.
+     *
+     * @param state a state whose current player is this counter's player
+     */
+    public void observe(GameState state) {
+        if (!self.equals(state.getCurrentPlayerName()) || state.getCurrentPlayerHand() == null) {
+            return;
+        }
+        seatOf(self);
+        Arrays.fill(lastHand, 0);
+        Hand hand = state.getCurrentPlayerHand();
+        for (Card card : hand.getPlayedCards()) {
+            lastHand[card.getType().ordinal()]++;
+        }
+        for (Card card : hand.getUnplayedCards()) {
+            lastHand[card.getType().ordinal()]++;
+        }
+    }
+
+    /**
+     * Gets the number of players in the game.
+     *
+     * @return the number of players
+     */
+    public int getPlayerCount() {
+        return names.length;
+    }
+
+    /**
+     * Gets the seat of a player.
+     *
+     * @param name the player's name
+     * @return the player's seat, or -1 if the player has not yet taken a turn
+     */
+    public int getSeat(String name) {
+        for (int i = 0; i < seats; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the number of cards of a type owned by the player in a seat.
+     *
+     * @param seat the player's seat
+     * @param type the card type
+     * @return the number of cards owned
+     */
+    public int getOwned(int seat, Card.Type type) {
+        return owned[seat][type.ordinal()];
+    }
+
+    /**
+     * Gets the number of cards of a type in this counter's player's discard
+     * pile.
+     *
+     * @param type the card type
+     * @return the number of discarded cards
+     */
+    public int getDiscardCount(Card.Type type) {
+        return discard[type.ordinal()];
+    }
+
+    /**
+     * Gets the number of cards in this counter's player's deck.
+     *
+     * @return the size of the deck
+     */
+    public int getDeckSize() {
+        return deckSize;
+    }
+
+    private int seatOf(String name) {
+        int seat = getSeat(name);
+        if (seat < 0 && seats < names.length) {
+            seat = seats++;
+            names[seat] = name;
+        }
+        return seat;
+    }
+
+    /**
+     * Discards the hand seen before this EndTurnEvent and draws the next, as
+     * ReferenceEngine does.
+     */
+    private void cleanup() {
+        int discarded = 0;
+        for (int t = 0; t < TYPES.length; t++) {
+            discard[t] += lastHand[t];
+            discarded += discard[t];
+        }
+        if (deckSize >= ReferenceEngine.HAND_SIZE) {
+            deckSize -= ReferenceEngine.HAND_SIZE;
+        } else {
+            deckSize = Math.max(0, discarded - (ReferenceEngine.HAND_SIZE - deckSize));
+            Arrays.fill(discard, 0);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package edu.brandeis.cosi.atg.api.search;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.brandeis.cosi.atg.api.random.GameRandom;
+
+/**
+ * A Monte Carlo Tree Search over {@link SearchState}s, run in parallel on
+ * several threads.
+ * <br/>
+ * <br/>
+ * The search uses root parallelization: each thread grows its own tree from
+ * the root state, with its own random source, and the visit counts and rewards
+ * of the root actions are summed across threads when the search ends. Every
+ * iteration resamples the hidden information with
+ * {@link SearchState#determinize(int)}, so a single tree aggregates many
+ * possible deck orders and opponent hands. Nodes are selected with UCB1,
+ * rollouts are played with a {@link RolloutPolicy}, and each node's reward is
+ * counted from the point of view of the player who chose the action leading
+ * to it.
+ * <br/>
+ * <br/>
+ * The random sources of the trees are derived from the seed of the
+ * MonteCarloTreeSearch and the number of searches it has run, never from the
+ * root state, so searching leaves the root state untouched.
+ * <br/>
+ * <br/>
+ * Example usage in a Player:
+ *
+ * <pre>
+ * public Decision makeDecision(GameState state, ImmutableList&lt;Decision&gt; options) {
+ *     SearchState root = SearchState.fromGame(state, counter, random.split());
+ *     SearchResult result = search.search(root, Duration.ofMillis(20));
+ *     return SearchState.toDecision(result.getBestAction(), options);
+ * }
+ * </pre>
+ */
+public final class MonteCarloTreeSearch {
+    private static final int DEADLINE_CHECK_INTERVAL = 32;
+
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final RolloutPolicy policy;
+    private final double exploration;
+    private final int maxRolloutTurns;
+    private final long seed;
+    private final AtomicLong searches = new AtomicLong();
+
+    /**
+     * Constructs a MonteCarloTreeSearch that runs one tree per available
+     * processor on the common ForkJoinPool, with a
+     * {@link RolloutPolicy#greedy(double) greedy} rollout policy.
+     */
+    public MonteCarloTreeSearch() {
+        this(ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors(), RolloutPolicy.greedy(0.1),
+                Math.sqrt(2), 200);
+    }
+
+    /**
+     * Constructs a MonteCarloTreeSearch with a random seed.
+     *
+     * @param executor        the executor on which trees are searched
+     * @param parallelism     the number of trees to search concurrently
+     * @param policy          the policy used to play out simulated games
+     * @param exploration     the UCB1 exploration constant
+     * @param maxRolloutTurns the number of turns after which a simulated game
+     *                        is stopped and scored as it stands
+     */
+    public MonteCarloTreeSearch(ExecutorService executor, int parallelism, RolloutPolicy policy, double exploration,
+            int maxRolloutTurns) {
+        this(executor, parallelism, policy, exploration, maxRolloutTurns, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Constructs a reproducible MonteCarloTreeSearch. A sequence of searches run
+     * for a fixed number of iterations returns the same results each time.
+     *
+     * @param executor        the executor on which trees are searched
+     * @param parallelism     the number of trees to search concurrently
+     * @param policy          the policy used to play out simulated games
+     * @param exploration     the UCB1 exploration constant
+     * @param maxRolloutTurns the number of turns after which a simulated game
+     *                        is stopped and scored as it stands
+     * @param seed            the seed from which the random sources of the
+     *                        trees are derived
+     */
+    public MonteCarloTreeSearch(ExecutorService executor, int parallelism, RolloutPolicy policy, double exploration,
+            int maxRolloutTurns, long seed) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.policy = policy;
+        this.exploration = exploration;
+        this.maxRolloutTurns = maxRolloutTurns;
+        this.seed = seed;
+    }
+
+    /**
+     * Searches for the given amount of time.
+     *
+     * @param root   the state to search from; it is not modified
+     * @param budget the time to search for
+     * @return the statistics of the root actions
+     */
+    public SearchResult search(SearchState root, Duration budget) {
+        return search(root, Long.MAX_VALUE, true, System.nanoTime() + budget.toNanos());
+    }
+
+    /**
+     * Searches for a fixed number of iterations on each thread.
+     *
+     * @param root       the state to search from; it is not modified
+     * @param iterations the number of iterations per thread
+     * @return the statistics of the root actions
+     */
+    public SearchResult search(SearchState root, long iterations) {
+        return search(root, iterations, false, 0);
+    }
+
+    /**
+     * Runs a search.
+     *
+     * @param timed    whether the search stops at the deadline
+     * @param deadline the {@link System#nanoTime()} at which a timed search
+     *                 stops
+     */
+    private SearchResult search(SearchState root, long iterations, boolean timed, long deadline) {
+        long start = System.nanoTime();
+        long searchSeed = GameRandom.gameSeed(seed, searches.getAndIncrement());
+        List<Future<Tree>> trees = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            Tree tree = new Tree(root, GameRandom.forGame(searchSeed, i));
+            trees.add(executor.submit(() -> tree.run(iterations, timed, deadline)));
+        }
+        long[] visits = new long[SearchState.ACTION_COUNT];
+        double[] rewards = new double[SearchState.ACTION_COUNT];
+        long total = 0;
+        try {
+            for (Future<Tree> future : trees) {
+                Tree tree = future.get();
+                total += tree.iterations;
+                for (Node child : tree.root.children) {
+                    if (child != null) {
+                        visits[child.action] += child.visits;
+                        rewards[child.action] += child.reward;
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search failed", e.getCause());
+        } catch (InterruptedException e) {
+            for (Future<Tree> future : trees) {
+                future.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while searching", e);
+        }
+        return new SearchResult(visits, rewards, total, System.nanoTime() - start);
+    }
+
+    /**
+     * A node of a search tree, reached by {@link #action} from its parent.
+     */
+    private static final class Node {
+        final int action;
+        /** The seat of the player who chose {@link #action}. */
+        final int mover;
+        final Node[] children = new Node[SearchState.ACTION_COUNT];
+        long visits;
+        double reward;
+
+        Node(int action, int mover) {
+            this.action = action;
+            this.mover = mover;
+        }
+    }
+
+    /**
+     * The search performed by a single thread.
+     */
+    private final class Tree {
+        final SearchState rootState;
+        final SearchState state;
+        final SplittableRandom random;
+        final int observer;
+        final Node root = new Node(-1, -1);
+        final int[] actions = new int[SearchState.ACTION_COUNT];
+        final double[] rewards;
+        Node[] path = new Node[64];
+        long iterations;
+
+        Tree(SearchState rootState, SplittableRandom random) {
+            this.rootState = rootState;
+            this.state = new SearchState(rootState.getPlayerCount(), random);
+            this.random = random;
+            this.observer = rootState.getCurrentPlayer();
+            this.rewards = new double[rootState.getPlayerCount()];
+        }
+
+        Tree run(long maxIterations, boolean timed, long deadline) {
+            while (iterations < maxIterations) {
+                if (iterations % DEADLINE_CHECK_INTERVAL == 0
+                        && ((timed && System.nanoTime() - deadline > 0) || Thread.currentThread().isInterrupted())) {
+                    break;
+                }
+                iterate();
+                iterations++;
+            }
+            return this;
+        }
+
+        private void iterate() {
+            state.copyFrom(rootState);
+            state.determinize(observer);
+            int depth = 0;
+            path[depth++] = root;
+            Node node = root;
+            while (!state.isTerminal()) {
+                int count = state.legalActions(actions);
+                Node next = null;
+                int untried = 0;
+                for (int i = 0; i < count; i++) {
+                    if (node.children[actions[i]] == null) {
+                        untried++;
+                    }
+                }
+                if (untried > 0) {
+                    int pick = random.nextInt(untried);
+                    for (int i = 0; i < count; i++) {
+                        if (node.children[actions[i]] == null && pick-- == 0) {
+                            next = new Node(actions[i], state.getCurrentPlayer());
+                            node.children[actions[i]] = next;
+                            break;
+                        }
+                    }
+                } else {
+                    next = select(node, count);
+                }
+                state.apply(next.action);
+                if (depth == path.length) {
+                    path = Arrays.copyOf(path, depth * 2);
+                }
+                path[depth++] = next;
+                node = next;
+                if (untried > 0) {
+                    break;
+                }
+            }
+            int limit = state.getTurn() + maxRolloutTurns;
+            while (!state.isTerminal() && state.getTurn() < limit) {
+                int count = state.legalActions(actions);
+                state.apply(policy.choose(state, actions, count, random));
+            }
+            score();
+            for (int i = 0; i < depth; i++) {
+                Node n = path[i];
+                n.visits++;
+                if (n.mover >= 0) {
+                    n.reward += rewards[n.mover];
+                }
+            }
+        }
+
+        private Node select(Node node, int count) {
+            double logVisits = Math.log(node.visits + 1);
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < count; i++) {
+                Node child = node.children[actions[i]];
+                double value = child.reward / child.visits + exploration * Math.sqrt(logVisits / child.visits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        /** Gives each player 1 for a win, shared equally among tied leaders. */
+        private void score() {
+            int best = Integer.MIN_VALUE;
+            int leaders = 0;
+            for (int p = 0; p < rewards.length; p++) {
+                int score = state.getScore(p);
+                if (score > best) {
+                    best = score;
+                    leaders = 1;
+                } else if (score == best) {
+                    leaders++;
+                }
+            }
+            for (int p = 0; p < rewards.length; p++) {
+                rewards[p] = state.getScore(p) == best ? 1.0 / leaders : 0;
+            }
+        }
+    }
+}
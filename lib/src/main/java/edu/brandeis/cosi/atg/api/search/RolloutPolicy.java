@@ -0,0 +1,68 @@
+package edu.brandeis.cosi.atg.api.search;
+
+import java.util.SplittableRandom;
+
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.cards.Card;
+
+/**
+ * Chooses actions while simulating the rest of a game from a
+ * {@link SearchState}.
+ */
+@FunctionalInterface
+public interface RolloutPolicy {
+
+    /**
+     * Chooses one of the legal actions.
+     *
+     * @param state   the current state; must not be modified
+     * @param actions the legal actions, as returned by
+     *                {@link SearchState#legalActions(int[])}
+     * @param count   the number of legal actions
+     * @param random  a random source for this thread
+     * @return one of the first {@code count} elements of {@code actions}
+     */
+    public int choose(SearchState state, int[] actions, int count, SplittableRandom random);
+
+    /**
+     * Returns a policy that chooses uniformly among the legal actions.
+     *
+     * @return the random policy
+     */
+    public static RolloutPolicy random() {
+        return (state, actions, count, random) -> actions[random.nextInt(count)];
+    }
+
+    /**
+     * Returns a policy that plays every money card and buys the most expensive
+     * of FRAMEWORK, DOGECOIN, ETHEREUM and BITCOIN that it can afford, but
+     * chooses a random legal action with the specified probability.
+     *
+     * @param epsilon the probability of choosing a random action
+     * @return the greedy policy
+     */
+    public static RolloutPolicy greedy(double epsilon) {
+        int[] preferences = {
+                SearchState.buyAction(Card.Type.FRAMEWORK),
+                SearchState.buyAction(Card.Type.DOGECOIN),
+                SearchState.buyAction(Card.Type.ETHEREUM),
+                SearchState.buyAction(Card.Type.BITCOIN),
+        };
+        return (state, actions, count, random) -> {
+            if (count == 1 || random.nextDouble() < epsilon) {
+                return actions[random.nextInt(count)];
+            }
+            if (state.getPhase() == GameState.TurnPhase.MONEY) {
+                return actions[0];
+            }
+            for (int preferred : preferences) {
+                for (int i = 0; i < count; i++) {
+                    if (actions[i] == preferred) {
+                        return preferred;
+                    }
+                }
+            }
+            return SearchState.END_PHASE;
+        };
+    }
+}
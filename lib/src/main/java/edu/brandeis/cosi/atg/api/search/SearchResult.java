@@ -0,0 +1,85 @@
+package edu.brandeis.cosi.atg.api.search;
+
+/**
+ * The statistics gathered by a {@link MonteCarloTreeSearch} for each action
+ * available at the root of the search.
+ */
+public final class SearchResult {
+    private final long[] visits;
+    private final double[] rewards;
+    private final long iterations;
+    private final long elapsedNanos;
+
+    SearchResult(long[] visits, double[] rewards, long iterations, long elapsedNanos) {
+        this.visits = visits;
+        this.rewards = rewards;
+        this.iterations = iterations;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Gets the most visited action, which is the search's recommendation.
+     *
+     * @return the best action, or {@link SearchState#END_PHASE} if no action
+     *         was visited
+     */
+    public int getBestAction() {
+        int best = SearchState.END_PHASE;
+        for (int a = 0; a < visits.length; a++) {
+            if (visits[a] > visits[best]) {
+                best = a;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gets the number of times an action was chosen at the root.
+     *
+     * @param action the action
+     * @return the number of visits
+     */
+    public long getVisits(int action) {
+        return visits[action];
+    }
+
+    /**
+     * Gets the mean reward of the games simulated after choosing an action at
+     * the root: 1 for a win, 0 for a loss, and a share of 1 for a tie.
+     *
+     * @param action the action
+     * @return the mean reward, or 0 if the action was not visited
+     */
+    public double getMeanReward(int action) {
+        return visits[action] == 0 ? 0 : rewards[action] / visits[action];
+    }
+
+    /**
+     * Gets the total number of simulated games, across all threads.
+     *
+     * @return the number of iterations
+     */
+    public long getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Gets the wall-clock duration of the search.
+     *
+     * @return the duration in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder("SearchResult[iterations=").append(iterations);
+        for (int a = 0; a < visits.length; a++) {
+            if (visits[a] > 0) {
+                s.append(String.format(", %d: %d visits %.3f", a, visits[a], getMeanReward(a)));
+            }
+        }
+        return s.append(']').toString();
+    }
+}
@@ -0,0 +1,733 @@
+package edu.brandeis.cosi.atg.api.search;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Hand;
+import edu.brandeis.cosi.atg.api.cards.Card;
+import edu.brandeis.cosi.atg.api.decisions.BuyDecision;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.decisions.EndPhaseDecision;
+import edu.brandeis.cosi.atg.api.decisions.PlayCardDecision;
+import edu.brandeis.cosi.atg.api.engine.ReferenceEngine;
+import edu.brandeis.cosi.atg.api.random.GameRandom;
+import edu.brandeis.cosi.atg.api.scoring.Scoring;
+
+/**
+ * A mutable game position for search, following the rules of the
+ * {@link ReferenceEngine}.
+ * <br/>
+ * <br/>
+ * Cards of the same type are interchangeable during a game, so a SearchState
+ * tracks each player's hand, played cards and discard pile as counts by type,
+ * and their deck as a stack of card types. Decisions are represented by
+ * <i>actions</i>: small integers returned by {@link #playAction},
+ * {@link #buyAction} and {@link #END_PHASE}, which can be converted to and
+ * from {@link Decision}s with {@link #toAction(Decision)} and
+ * {@link #toDecision(int, ImmutableList)}.
+ * <br/>
+ * <br/>
+ * {@link #apply(int)} performs an action and {@link #undo()} reverts the most
+ * recent one. Both take constant time and do not allocate (other than to grow
+ * the undo stack); ending the BUY phase also discards the hand and draws the
+ * next one, shuffling the discard pile into the deck with this state's random
+ * source if needed. Like the ReferenceEngine, making the last available buy
+ * ends the turn without an explicit {@link #END_PHASE}. The
+ * {@link ZobristHash} of the position is kept up to date as well (see
+ * {@link #getFingerprint()}).
+ * <br/>
+ * <br/>
+ * A SearchState is not thread safe; searches on several threads should give
+ * each thread its own copy (see {@link #copyFrom(SearchState)}).
+ */
+public final class SearchState {
+    /** The action that ends the current phase. */
+    public static final int END_PHASE;
+    /** The number of distinct actions; every action is less than this. */
+    public static final int ACTION_COUNT;
+
+    private static final Card.Type[] TYPES = Card.Type.values();
+    private static final int T = TYPES.length;
+    private static final int[] COST = new int[T];
+    private static final int[] VALUE = new int[T];
+    private static final boolean[] MONEY = new boolean[T];
+    private static final int FRAMEWORK = Card.Type.FRAMEWORK.ordinal();
+    private static final int MAX_CARDS;
+    private static final int PHASE_MONEY = 0;
+    private static final int PHASE_BUY = 1;
+    /** Marks an undo frame that includes the cleanup of a turn. */
+    private static final int CLEANUP_FLAG = 0x100;
+    private static final int HEADER_SIZE = 8;
+    private static final GameState.TurnPhase[] PHASES = { GameState.TurnPhase.MONEY, GameState.TurnPhase.BUY };
+
+    static {
+        int cards = 0;
+        for (Card.Type type : TYPES) {
+            COST[type.ordinal()] = type.getCost();
+            VALUE[type.ordinal()] = type.getValue();
+            MONEY[type.ordinal()] = type.getCategory() == Card.Type.Category.MONEY;
+            cards += ReferenceEngine.getInitialSupply(type);
+        }
+        MAX_CARDS = cards;
+        END_PHASE = 2 * T;
+        ACTION_COUNT = END_PHASE + 1;
+    }
+
+    private final int playerCount;
+    private final int[] supply = new int[T];
+    private final int[] owned;
+    private final int[] hand;
+    private final int[] played;
+    private final int[] discard;
+    private final byte[] deck;
+    private final int[] deckSize;
+    private int current;
+    private int phase;
+    private int money;
+    private int buys;
+    private int turn;
+    private long fingerprint;
+    private SplittableRandom random;
+
+    private int[] undo = new int[256];
+    private int undoSize;
+    private int depth;
+
+    /**
+     * Constructs an empty SearchState: no cards in the supply or owned by any
+     * player. Use {@link #newGame} or {@link #fromGame} to construct a
+     * playable state.
+     *
+     * @param playerCount the number of players, between 2 and 4
+     * @param random      the random source used to shuffle decks
+     */
+    public SearchState(int playerCount, SplittableRandom random) {
+        if (playerCount < 2 || playerCount > 4) {
+            throw new IllegalArgumentException("A game requires between 2 and 4 players, got " + playerCount);
+        }
+        this.playerCount = playerCount;
+        this.owned = new int[playerCount * T];
+        this.hand = new int[playerCount * T];
+        this.played = new int[playerCount * T];
+        this.discard = new int[playerCount * T];
+        this.deck = new byte[playerCount * MAX_CARDS];
+        this.deckSize = new int[playerCount];
+        this.random = random;
+        this.buys = 1;
+    }
+
+    /**
+     * Creates the state at the start of a new game: each player has drawn their
+     * first hand from a shuffled starting deck, and the first player is about
+     * to begin the MONEY phase.
+     *
+     * @param playerCount the number of players, between 2 and 4
+     * @param random      the random source used to shuffle decks
+     * @return the new state
+     */
+    public static SearchState newGame(int playerCount, SplittableRandom random) {
+        SearchState state = new SearchState(playerCount, random);
+        for (Card.Type type : TYPES) {
+            state.supply[type.ordinal()] = ReferenceEngine.getInitialSupply(type);
+        }
+        for (int p = 0; p < playerCount; p++) {
+            state.addToDeck(p, Card.Type.BITCOIN.ordinal(), ReferenceEngine.STARTING_BITCOINS);
+            state.addToDeck(p, Card.Type.METHOD.ordinal(), ReferenceEngine.STARTING_METHODS);
+            state.supply[Card.Type.BITCOIN.ordinal()] -= ReferenceEngine.STARTING_BITCOINS;
+            state.supply[Card.Type.METHOD.ordinal()] -= ReferenceEngine.STARTING_METHODS;
+            state.shuffleDeck(p);
+            state.draw(p);
+        }
+        state.rehash();
+        return state;
+    }
+
+    /**
+     * Creates a state from the point of view of the player about to make a
+     * decision, sampling the information hidden from that player.
+     * <br/>
+     * <br/>
+     * The player's hand, played cards and money come from the GameState, and
+     * the supply from its {@link edu.brandeis.cosi.atg.api.GameDeck GameDeck}.
+     * The counter supplies the cards owned by every player and the contents of
+     * the player's own discard pile; the remaining cards the player owns make
+     * up its deck, in random order. Each opponent's cards are shuffled into a
+     * deck, from which its next hand is drawn.
+     *
+     * @param state   the state passed to {@link edu.brandeis.cosi.atg.api.Player#makeDecision}
+     * @param counter a counter that has observed the game so far
+     * @param random  the random source used to sample hidden information and
+     *                shuffle decks
+     * @return the new state, whose current player is the deciding player
+     */
+    public static SearchState fromGame(GameState state, CardCounter counter, SplittableRandom random) {
+        counter.observe(state);
+        SearchState search = new SearchState(counter.getPlayerCount(), random);
+        for (Card.Type type : TYPES) {
+            search.supply[type.ordinal()] = state.getDeck().getNumAvailable(type);
+        }
+        int self = counter.getSeat(state.getCurrentPlayerName());
+        for (int p = 0; p < search.playerCount; p++) {
+            for (int t = 0; t < T; t++) {
+                search.owned[p * T + t] = counter.getOwned(p, TYPES[t]);
+            }
+        }
+        Hand cards = state.getCurrentPlayerHand();
+        for (Card card : cards.getUnplayedCards()) {
+            search.hand[self * T + card.getType().ordinal()]++;
+        }
+        for (Card card : cards.getPlayedCards()) {
+            search.played[self * T + card.getType().ordinal()]++;
+        }
+        for (int p = 0; p < search.playerCount; p++) {
+            for (int t = 0; t < T; t++) {
+                int i = p * T + t;
+                if (p == self) {
+                    search.discard[i] = Math.min(counter.getDiscardCount(TYPES[t]),
+                            Math.max(0, search.owned[i] - search.hand[i] - search.played[i]));
+                }
+                search.addToDeck(p, t, Math.max(0, search.owned[i] - search.hand[i] - search.played[i]
+                        - search.discard[i]));
+            }
+        }
+        search.current = self;
+        search.phase = state.getTurnPhase() == GameState.TurnPhase.BUY ? PHASE_BUY : PHASE_MONEY;
+        search.money = state.getSpendableMoney();
+        search.buys = state.getAvailableBuys();
+        search.determinize(self);
+        search.rehash();
+        return search;
+    }
+
+    /**
+     * Makes this state a copy of another state with the same number of
+     * players. The undo history is not copied; after this call there is
+     * nothing to undo.
+     *
+     * @param other the state to copy
+     */
+    public void copyFrom(SearchState other) {
+        if (other.playerCount != playerCount) {
+            throw new IllegalArgumentException("Expected " + playerCount + " players, got " + other.playerCount);
+        }
+        System.arraycopy(other.supply, 0, supply, 0, T);
+        System.arraycopy(other.owned, 0, owned, 0, owned.length);
+        System.arraycopy(other.hand, 0, hand, 0, hand.length);
+        System.arraycopy(other.played, 0, played, 0, played.length);
+        System.arraycopy(other.discard, 0, discard, 0, discard.length);
+        System.arraycopy(other.deckSize, 0, deckSize, 0, playerCount);
+        for (int p = 0; p < playerCount; p++) {
+            System.arraycopy(other.deck, p * MAX_CARDS, deck, p * MAX_CARDS, deckSize[p]);
+        }
+        current = other.current;
+        phase = other.phase;
+        money = other.money;
+        buys = other.buys;
+        turn = other.turn;
+        fingerprint = other.fingerprint;
+        undoSize = 0;
+        depth = 0;
+    }
+
+    /**
+     * Resamples the information hidden from a player: the order of every
+     * player's deck, and the hands of the other players that are not currently
+     * taking their turn, which are shuffled back into their decks and redrawn.
+     *
+     * @param observer the seat of the player whose point of view is kept
+     */
+    public void determinize(int observer) {
+        for (int p = 0; p < playerCount; p++) {
+            if (p != observer && p != current) {
+                for (int t = 0; t < T; t++) {
+                    addToDeck(p, t, hand[p * T + t]);
+                    hand[p * T + t] = 0;
+                }
+                shuffleDeck(p);
+                drawFromDeck(p, ReferenceEngine.HAND_SIZE);
+            } else {
+                shuffleDeck(p);
+            }
+        }
+    }
+
+    /**
+     * Sets the random source used to shuffle decks.
+     *
+     * @param random the random source
+     */
+    public void setRandom(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Gets the random source used to shuffle decks.
+     *
+     * @return the random source
+     */
+    public SplittableRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * Writes the actions available to the current player into an array: an
+     * action to play each type of money card in the hand during the MONEY
+     * phase, or to buy each affordable type still in the supply during the BUY
+     * phase, followed by {@link #END_PHASE}.
+     *
+     * @param actions an array of at least {@link #ACTION_COUNT} elements
+     * @return the number of actions written, or 0 if the game is over
+     */
+    public int legalActions(int[] actions) {
+        if (isTerminal()) {
+            return 0;
+        }
+        int n = 0;
+        int base = current * T;
+        if (phase == PHASE_MONEY) {
+            for (int t = 0; t < T; t++) {
+                if (MONEY[t] && hand[base + t] > 0) {
+                    actions[n++] = t;
+                }
+            }
+        } else {
+            for (int t = 0; t < T; t++) {
+                if (supply[t] > 0 && COST[t] <= money) {
+                    actions[n++] = T + t;
+                }
+            }
+        }
+        actions[n++] = END_PHASE;
+        return n;
+    }
+
+    /**
+     * Checks whether an action is available to the current player.
+     *
+     * @param action the action
+     * @return true if the action is legal in this state
+     */
+    public boolean isLegal(int action) {
+        if (isTerminal() || action < 0 || action > END_PHASE) {
+            return false;
+        }
+        if (action == END_PHASE) {
+            return true;
+        }
+        if (action < T) {
+            return phase == PHASE_MONEY && MONEY[action] && hand[current * T + action] > 0;
+        }
+        int t = action - T;
+        return phase == PHASE_BUY && supply[t] > 0 && COST[t] <= money;
+    }
+
+    /**
+     * Performs an action for the current player. The action must be legal; this
+     * is not checked.
+     *
+     * @param action the action to perform
+     */
+    public void apply(int action) {
+        int savedMoney = money;
+        int savedBuys = buys;
+        int savedPhase = phase;
+        int savedCurrent = current;
+        int savedTurn = turn;
+        long savedFingerprint = fingerprint;
+        int code = action;
+        int base = current * T;
+        if (action < T) {
+            int i = base + action;
+            fingerprint ^= ZobristHash.unplayedKey(action, hand[i]) ^ ZobristHash.unplayedKey(action, hand[i] - 1)
+                    ^ ZobristHash.playedKey(action, played[i]) ^ ZobristHash.playedKey(action, played[i] + 1)
+                    ^ ZobristHash.moneyKey(money) ^ ZobristHash.moneyKey(money + VALUE[action]);
+            hand[i]--;
+            played[i]++;
+            money += VALUE[action];
+        } else if (action < END_PHASE) {
+            int t = action - T;
+            fingerprint ^= ZobristHash.supplyKey(t, supply[t]) ^ ZobristHash.supplyKey(t, supply[t] - 1)
+                    ^ ZobristHash.moneyKey(money) ^ ZobristHash.moneyKey(money - COST[t])
+                    ^ ZobristHash.buysKey(buys) ^ ZobristHash.buysKey(buys - 1);
+            supply[t]--;
+            discard[base + t]++;
+            owned[base + t]++;
+            money -= COST[t];
+            buys--;
+            if (buys == 0) {
+                pushCleanup(current);
+                code |= CLEANUP_FLAG;
+            }
+        } else if (phase == PHASE_MONEY) {
+            fingerprint ^= ZobristHash.phaseKey(GameState.TurnPhase.MONEY)
+                    ^ ZobristHash.phaseKey(GameState.TurnPhase.BUY);
+            phase = PHASE_BUY;
+        } else {
+            pushCleanup(current);
+            code |= CLEANUP_FLAG;
+        }
+        ensureUndoCapacity(HEADER_SIZE);
+        undo[undoSize++] = (int) (savedFingerprint >>> 32);
+        undo[undoSize++] = (int) savedFingerprint;
+        undo[undoSize++] = savedMoney;
+        undo[undoSize++] = savedBuys;
+        undo[undoSize++] = savedPhase;
+        undo[undoSize++] = savedCurrent;
+        undo[undoSize++] = savedTurn;
+        undo[undoSize++] = code;
+        depth++;
+    }
+
+    /**
+     * Reverts the most recent action that has not already been reverted.
+     *
+     * @throws IllegalStateException if there is nothing to undo
+     */
+    public void undo() {
+        if (undoSize == 0) {
+            throw new IllegalStateException("Nothing to undo");
+        }
+        depth--;
+        int code = undo[--undoSize];
+        turn = undo[--undoSize];
+        current = undo[--undoSize];
+        phase = undo[--undoSize];
+        buys = undo[--undoSize];
+        money = undo[--undoSize];
+        int low = undo[--undoSize];
+        fingerprint = ((long) undo[--undoSize] << 32) | (low & 0xFFFFFFFFL);
+        int base = current * T;
+        if ((code & CLEANUP_FLAG) != 0) {
+            popCleanup(current);
+        }
+        int action = code & ~CLEANUP_FLAG;
+        if (action < T) {
+            hand[base + action]++;
+            played[base + action]--;
+        } else if (action < END_PHASE) {
+            int t = action - T;
+            supply[t]++;
+            discard[base + t]--;
+            owned[base + t]--;
+        }
+    }
+
+    /**
+     * Gets the number of actions that can be undone.
+     *
+     * @return the number of applied actions since construction or the last
+     *         {@link #copyFrom}
+     */
+    public int getUndoDepth() {
+        return depth;
+    }
+
+    /**
+     * Checks whether the game is over: the last FRAMEWORK card has been bought
+     * and the turn in which it was bought has ended.
+     *
+     * @return true if the game is over
+     */
+    public boolean isTerminal() {
+        return supply[FRAMEWORK] == 0 && phase == PHASE_MONEY;
+    }
+
+    /**
+     * Gets a player's score: the total value of the victory cards they own.
+     *
+     * @param player the player's seat
+     * @return the player's score
+     */
+    public int getScore(int player) {
+        return Scoring.victoryPoints(owned, player * T);
+    }
+
+    /**
+     * Gets the number of players.
+     *
+     * @return the number of players
+     */
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    /**
+     * Gets the seat of the player whose turn it is.
+     *
+     * @return the current player's seat
+     */
+    public int getCurrentPlayer() {
+        return current;
+    }
+
+    /**
+     * Gets the phase of the current turn.
+     *
+     * @return {@link GameState.TurnPhase#MONEY MONEY} or
+     *         {@link GameState.TurnPhase#BUY BUY}
+     */
+    public GameState.TurnPhase getPhase() {
+        return phase == PHASE_BUY ? GameState.TurnPhase.BUY : GameState.TurnPhase.MONEY;
+    }
+
+    /**
+     * Gets the money the current player has to spend.
+     *
+     * @return the spendable money
+     */
+    public int getMoney() {
+        return money;
+    }
+
+    /**
+     * Gets the number of buys the current player has left.
+     *
+     * @return the available buys
+     */
+    public int getBuys() {
+        return buys;
+    }
+
+    /**
+     * Gets the {@link ZobristHash} fingerprint of this position, which is
+     * maintained as actions are applied and undone. It equals
+     * {@link ZobristHash#of(GameState)} of the GameState a Player would be
+     * given in this position.
+     *
+     * @return the fingerprint
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Gets the number of turns completed since this state was created.
+     *
+     * @return the number of turns
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    /**
+     * Gets the number of cards of a type left in the supply.
+     *
+     * @param type the card type
+     * @return the number of available cards
+     */
+    public int getSupply(Card.Type type) {
+        return supply[type.ordinal()];
+    }
+
+    /**
+     * Gets the number of cards of a type owned by a player.
+     *
+     * @param player the player's seat
+     * @param type   the card type
+     * @return the number of cards owned
+     */
+    public int getOwned(int player, Card.Type type) {
+        return owned[player * T + type.ordinal()];
+    }
+
+    /**
+     * Gets the number of unplayed cards of a type in a player's hand.
+     *
+     * @param player the player's seat
+     * @param type   the card type
+     * @return the number of unplayed cards
+     */
+    public int getHandCount(int player, Card.Type type) {
+        return hand[player * T + type.ordinal()];
+    }
+
+    /**
+     * Gets the number of cards in a player's deck.
+     *
+     * @param player the player's seat
+     * @return the size of the deck
+     */
+    public int getDeckSize(int player) {
+        return deckSize[player];
+    }
+
+    /**
+     * Gets the action that plays a card of the specified type.
+     *
+     * @param type a {@link Card.Type.Category#MONEY MONEY} card type
+     * @return the action
+     */
+    public static int playAction(Card.Type type) {
+        return type.ordinal();
+    }
+
+    /**
+     * Gets the action that buys a card of the specified type.
+     *
+     * @param type the card type
+     * @return the action
+     */
+    public static int buyAction(Card.Type type) {
+        return T + type.ordinal();
+    }
+
+    /**
+     * Converts a decision to an action.
+     *
+     * @param decision the decision
+     * @return the corresponding action
+     */
+    public static int toAction(Decision decision) {
+        if (decision instanceof PlayCardDecision play) {
+            return playAction(play.getCard().getType());
+        } else if (decision instanceof BuyDecision buy) {
+            return buyAction(buy.getCardType());
+        }
+        return END_PHASE;
+    }
+
+    /**
+     * Finds the decision corresponding to an action among the options offered
+     * by an Engine. For an action that plays a card, this is the first offered
+     * card of that type.
+     *
+     * @param action  the action
+     * @param options the offered decisions
+     * @return the first matching option
+     * @throws IllegalArgumentException if no option matches the action
+     */
+    public static Decision toDecision(int action, ImmutableList<Decision> options) {
+        for (Decision option : options) {
+            if (option instanceof EndPhaseDecision ? action == END_PHASE : toAction(option) == action) {
+                return option;
+            }
+        }
+        throw new IllegalArgumentException("Action " + action + " is not among the options " + options);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder("SearchState[turn=").append(turn).append(", player=").append(current)
+                .append(", phase=").append(getPhase()).append(", money=").append(money).append(", buys=")
+                .append(buys).append(", supply=").append(Arrays.toString(supply));
+        for (int p = 0; p < playerCount; p++) {
+            s.append(", p").append(p).append("={owned=")
+                    .append(Arrays.toString(Arrays.copyOfRange(owned, p * T, p * T + T))).append(", hand=")
+                    .append(Arrays.toString(Arrays.copyOfRange(hand, p * T, p * T + T))).append(", deck=")
+                    .append(deckSize[p]).append('}');
+        }
+        return s.append(']').toString();
+    }
+
+    /**
+     * Saves the piles that cleanup changes, then discards the hand and played
+     * cards, draws the next hand and passes the turn. The saved frame is
+     * {@code [deck prefix...][prefix length][hand][played][discard][deck size]}.
+     */
+    private void pushCleanup(int player) {
+        int base = player * T;
+        int size = deckSize[player];
+        int prefix = size < ReferenceEngine.HAND_SIZE ? size : 0;
+        ensureUndoCapacity(prefix + 1 + 3 * T + 1);
+        int offset = player * MAX_CARDS;
+        for (int i = 0; i < prefix; i++) {
+            undo[undoSize++] = deck[offset + i];
+        }
+        undo[undoSize++] = prefix;
+        System.arraycopy(hand, base, undo, undoSize, T);
+        undoSize += T;
+        System.arraycopy(played, base, undo, undoSize, T);
+        undoSize += T;
+        System.arraycopy(discard, base, undo, undoSize, T);
+        undoSize += T;
+        undo[undoSize++] = size;
+
+        for (int t = 0; t < T; t++) {
+            discard[base + t] += hand[base + t] + played[base + t];
+            hand[base + t] = 0;
+            played[base + t] = 0;
+        }
+        draw(player);
+        current = (current + 1) % playerCount;
+        phase = PHASE_MONEY;
+        money = 0;
+        buys = 1;
+        turn++;
+        rehash();
+    }
+
+    private void popCleanup(int player) {
+        int base = player * T;
+        deckSize[player] = undo[--undoSize];
+        undoSize -= T;
+        System.arraycopy(undo, undoSize, discard, base, T);
+        undoSize -= T;
+        System.arraycopy(undo, undoSize, played, base, T);
+        undoSize -= T;
+        System.arraycopy(undo, undoSize, hand, base, T);
+        int prefix = undo[--undoSize];
+        int offset = player * MAX_CARDS;
+        for (int i = prefix - 1; i >= 0; i--) {
+            deck[offset + i] = (byte) undo[--undoSize];
+        }
+    }
+
+    /**
+     * Draws a hand, shuffling the discard pile into the deck when the deck runs
+     * out, exactly as the ReferenceEngine does.
+     */
+    private void draw(int player) {
+        int remaining = ReferenceEngine.HAND_SIZE - drawFromDeck(player, ReferenceEngine.HAND_SIZE);
+        if (remaining > 0) {
+            for (int t = 0; t < T; t++) {
+                addToDeck(player, t, discard[player * T + t]);
+                discard[player * T + t] = 0;
+            }
+            shuffleDeck(player);
+            drawFromDeck(player, remaining);
+        }
+    }
+
+    private int drawFromDeck(int player, int count) {
+        int drawn = Math.min(count, deckSize[player]);
+        int offset = player * MAX_CARDS;
+        for (int i = 0; i < drawn; i++) {
+            hand[player * T + deck[offset + --deckSize[player]]]++;
+        }
+        return drawn;
+    }
+
+    private void addToDeck(int player, int type, int count) {
+        int offset = player * MAX_CARDS;
+        for (int i = 0; i < count; i++) {
+            deck[offset + deckSize[player]++] = (byte) type;
+        }
+    }
+
+    private void shuffleDeck(int player) {
+        GameRandom.shuffle(deck, player * MAX_CARDS, deckSize[player], random);
+    }
+
+    /**
+     * Recomputes the fingerprint from scratch. {@link #apply} and {@link #undo}
+     * update it incrementally, and must always agree with this.
+     */
+    void rehash() {
+        long h = ZobristHash.phaseKey(PHASES[phase]) ^ ZobristHash.moneyKey(money) ^ ZobristHash.buysKey(buys);
+        int base = current * T;
+        for (int t = 0; t < T; t++) {
+            h ^= ZobristHash.supplyKey(t, supply[t]) ^ ZobristHash.unplayedKey(t, hand[base + t])
+                    ^ ZobristHash.playedKey(t, played[base + t]);
+        }
+        fingerprint = h;
+    }
+
+    private void ensureUndoCapacity(int needed) {
+        if (undoSize + needed > undo.length) {
+            undo = Arrays.copyOf(undo, Math.max(undo.length * 2, undoSize + needed));
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package edu.brandeis.cosi.atg.api.search;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * A bounded, concurrent map from 64-bit position fingerprints (see
+ * {@link ZobristHash}) to values such as evaluations or search results.
+ * <br/>
+ * <br/>
+ * The table is divided into stripes, each guarded by its own lock, so threads
+ * working on different positions rarely contend. Within a stripe, entries are
+ * stored in sets of four slots chosen by the fingerprint; when a set is full, a
+ * new entry replaces the least recently used entry of that set. The table
+ * never grows beyond its capacity and never allocates after construction,
+ * other than in the functions passed to {@link #computeIfAbsent}.
+ * <br/>
+ * <br/>
+ * Fingerprints are compared in full, so a lookup only returns a value stored
+ * under the same fingerprint. Distinct positions with the same fingerprint
+ * share an entry, which is unlikely (about one chance in 2<sup>64</sup> per
+ * pair) but possible.
+ *
+ * @param <V> the type of the stored values
+ */
+public final class TranspositionTable<V> {
+    private static final int WAYS = 4;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final int setMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * The entries guarded by a single lock.
+     */
+    private static final class Stripe {
+        final long[] keys;
+        final Object[] values;
+        /** When each entry was last used, by this stripe's clock. */
+        final long[] used;
+        long clock;
+        int size;
+
+        Stripe(int slots) {
+            keys = new long[slots];
+            values = new Object[slots];
+            used = new long[slots];
+        }
+    }
+
+    /**
+     * Constructs a TranspositionTable with four stripes per available
+     * processor.
+     *
+     * @param capacity the maximum number of entries; rounded up to a power of
+     *                 two
+     */
+    public TranspositionTable(int capacity) {
+        this(capacity, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a TranspositionTable.
+     *
+     * @param capacity the maximum number of entries; rounded up to a power of
+     *                 two
+     * @param stripes  the number of independently locked stripes; rounded up to
+     *                 a power of two
+     */
+    public TranspositionTable(int capacity, int stripes) {
+        if (capacity < 1 || stripes < 1) {
+            throw new IllegalArgumentException("Capacity and stripes must be positive");
+        }
+        int stripeCount = powerOfTwo(stripes);
+        int slots = Math.max(WAYS, powerOfTwo(capacity) / stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(slots);
+        }
+        this.stripeMask = stripeCount - 1;
+        this.setMask = slots / WAYS - 1;
+    }
+
+    /**
+     * Gets the value stored for a fingerprint.
+     *
+     * @param key the fingerprint
+     * @return the stored value, or null if there is none
+     */
+    public V get(long key) {
+        Stripe stripe = stripe(key);
+        synchronized (stripe) {
+            int slot = find(stripe, key);
+            if (slot < 0) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            stripe.used[slot] = ++stripe.clock;
+            return value(stripe, slot);
+        }
+    }
+
+    /**
+     * Stores a value for a fingerprint, replacing any value already stored for
+     * it.
+     *
+     * @param key   the fingerprint
+     * @param value the value; must not be null
+     */
+    public void put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        Stripe stripe = stripe(key);
+        synchronized (stripe) {
+            int slot = find(stripe, key);
+            store(stripe, slot >= 0 ? slot : victim(stripe, key), key, value);
+        }
+    }
+
+    /**
+     * Gets the value stored for a fingerprint, computing and storing it if there
+     * is none. The function is called while holding the stripe's lock, so it
+     * should be fast and must not access this table.
+     *
+     * @param key      the fingerprint
+     * @param function computes the value from the fingerprint; must not return
+     *                 null
+     * @return the stored or computed value
+     */
+    public V computeIfAbsent(long key, LongFunction<? extends V> function) {
+        Stripe stripe = stripe(key);
+        synchronized (stripe) {
+            int slot = find(stripe, key);
+            if (slot >= 0) {
+                hits.increment();
+                stripe.used[slot] = ++stripe.clock;
+                return value(stripe, slot);
+            }
+            misses.increment();
+            V value = function.apply(key);
+            if (value == null) {
+                throw new NullPointerException("function returned null");
+            }
+            store(stripe, victim(stripe, key), key, value);
+            return value;
+        }
+    }
+
+    /**
+     * Gets the number of entries in the table.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Gets the maximum number of entries in the table.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return stripes.length * stripes[0].keys.length;
+    }
+
+    /**
+     * Gets the number of lookups that found a value.
+     *
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that did not find a value.
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of entries replaced to make room for new ones.
+     *
+     * @return the number of evictions
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Removes all entries. Statistics are not reset.
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Arrays.fill(stripe.values, null);
+                stripe.size = 0;
+            }
+        }
+    }
+
+    private Stripe stripe(long key) {
+        return stripes[(int) (spread(key) >>> 40) & stripeMask];
+    }
+
+    private int firstSlot(long key) {
+        return ((int) spread(key) & setMask) * WAYS;
+    }
+
+    /**
+     * Mixes the bits of a key with the finalizer of SplitMix64, so that keys
+     * which are not uniformly random, such as keys that differ only in their
+     * high bits, still spread across stripes and sets.
+     */
+    private static long spread(long key) {
+        long h = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    private int find(Stripe stripe, long key) {
+        int first = firstSlot(key);
+        for (int i = first; i < first + WAYS; i++) {
+            if (stripe.values[i] != null && stripe.keys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Finds an empty slot in the key's set, or else its least recently used slot. */
+    private int victim(Stripe stripe, long key) {
+        int first = firstSlot(key);
+        int victim = first;
+        for (int i = first; i < first + WAYS; i++) {
+            if (stripe.values[i] == null) {
+                return i;
+            }
+            if (stripe.used[i] < stripe.used[victim]) {
+                victim = i;
+            }
+        }
+        evictions.increment();
+        return victim;
+    }
+
+    private void store(Stripe stripe, int slot, long key, V value) {
+        if (stripe.values[slot] == null) {
+            stripe.size++;
+        }
+        stripe.keys[slot] = key;
+        stripe.values[slot] = value;
+        stripe.used[slot] = ++stripe.clock;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(Stripe stripe, int slot) {
+        return (V) stripe.values[slot];
+    }
+
+    private static int powerOfTwo(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+}
@@ -0,0 +1,221 @@
+package edu.brandeis.cosi.atg.api.search;
+
+import java.util.SplittableRandom;
+
+import edu.brandeis.cosi.atg.api.GameDeck;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Hand;
+import edu.brandeis.cosi.atg.api.cards.Card;
+
+/**
+ * A 64-bit Zobrist fingerprint of a game position, suitable as the key of a
+ * {@link TranspositionTable}.
+ * <br/>
+ * <br/>
+ * The fingerprint covers what determines a player's decision: the number of
+ * cards of each type in the supply, the number of played and unplayed cards of
+ * each type in the current player's hand, the turn phase, the spendable money
+ * and the available buys. It does not include the player's name or the
+ * identities of individual cards, so equivalent positions of different
+ * players, or with different cards of the same type, have the same
+ * fingerprint. A count of zero contributes nothing, so a missing
+ * {@link GameDeck} entry or a null Hand is the same as an empty one.
+ * <br/>
+ * <br/>
+ * The fingerprint is the exclusive or of one random key per component and
+ * value, so changing a single component updates it in constant time. Engines
+ * and searches can keep a ZobristHash up to date as their state changes with
+ * the setters below; {@link #of(GameState)} computes the same value from
+ * scratch. {@link SearchState#getFingerprint()} maintains it incrementally.
+ * Keys are generated from a fixed seed, so fingerprints are stable across
+ * runs. A ZobristHash is not thread safe.
+ */
+public final class ZobristHash {
+    private static final Card.Type[] TYPES = Card.Type.values();
+    private static final int T = TYPES.length;
+    /** Counts below this use precomputed keys; larger counts are mixed on demand. */
+    private static final int TABLE_SIZE = 64;
+    private static final long SEED = 0x41544721L;
+
+    private static final int SUPPLY = 0;
+    private static final int UNPLAYED = 1;
+    private static final int PLAYED = 2;
+    private static final int MONEY = 3;
+    private static final int BUYS = 4;
+    private static final int PHASE = 5;
+    /** Keys indexed by {@code [component][type][count]}; money and buys use type 0. */
+    private static final long[][][] KEYS = new long[PHASE + 1][T][TABLE_SIZE];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[][] component : KEYS) {
+            for (long[] values : component) {
+                for (int count = 1; count < TABLE_SIZE; count++) {
+                    values[count] = random.nextLong();
+                }
+            }
+        }
+    }
+
+    private final int[] supply = new int[T];
+    private final int[] unplayed = new int[T];
+    private final int[] played = new int[T];
+    private GameState.TurnPhase phase;
+    private int money;
+    private int buys;
+    private long hash;
+
+    /**
+     * Constructs a ZobristHash of an empty position: no cards, no phase, and no
+     * money or buys. Its value is 0.
+     */
+    public ZobristHash() {
+    }
+
+    /**
+     * Constructs a ZobristHash of a GameState.
+     *
+     * @param state the state
+     */
+    public ZobristHash(GameState state) {
+        GameDeck deck = state.getDeck();
+        if (deck != null) {
+            for (Card.Type type : TYPES) {
+                setSupply(type, deck.getNumAvailable(type));
+            }
+        }
+        Hand hand = state.getCurrentPlayerHand();
+        if (hand != null) {
+            for (Card.Type type : TYPES) {
+                setUnplayed(type, hand.countUnplayed(type));
+                setPlayed(type, hand.countPlayed(type));
+            }
+        }
+        setPhase(state.getTurnPhase());
+        setMoney(state.getSpendableMoney());
+        setBuys(state.getAvailableBuys());
+    }
+
+    /**
+     * Computes the fingerprint of a GameState.
+     *
+     * @param state the state
+     * @return the fingerprint
+     */
+    public static long of(GameState state) {
+        return new ZobristHash(state).get();
+    }
+
+    /**
+     * Gets the fingerprint of the current position.
+     *
+     * @return the fingerprint
+     */
+    public long get() {
+        return hash;
+    }
+
+    /**
+     * Sets the number of cards of a type in the supply.
+     *
+     * @param type  the card type
+     * @param count the number of cards
+     */
+    public void setSupply(Card.Type type, int count) {
+        int t = type.ordinal();
+        hash ^= supplyKey(t, supply[t]) ^ supplyKey(t, count);
+        supply[t] = count;
+    }
+
+    /**
+     * Sets the number of unplayed cards of a type in the current player's hand.
+     *
+     * @param type  the card type
+     * @param count the number of cards
+     */
+    public void setUnplayed(Card.Type type, int count) {
+        int t = type.ordinal();
+        hash ^= unplayedKey(t, unplayed[t]) ^ unplayedKey(t, count);
+        unplayed[t] = count;
+    }
+
+    /**
+     * Sets the number of played cards of a type in the current player's hand.
+     *
+     * @param type  the card type
+     * @param count the number of cards
+     */
+    public void setPlayed(Card.Type type, int count) {
+        int t = type.ordinal();
+        hash ^= playedKey(t, played[t]) ^ playedKey(t, count);
+        played[t] = count;
+    }
+
+    /**
+     * Sets the turn phase.
+     *
+     * @param phase the phase, or null for none
+     */
+    public void setPhase(GameState.TurnPhase phase) {
+        hash ^= phaseKey(this.phase) ^ phaseKey(phase);
+        this.phase = phase;
+    }
+
+    /**
+     * Sets the spendable money.
+     *
+     * @param money the money
+     */
+    public void setMoney(int money) {
+        hash ^= moneyKey(this.money) ^ moneyKey(money);
+        this.money = money;
+    }
+
+    /**
+     * Sets the available buys.
+     *
+     * @param buys the number of buys
+     */
+    public void setBuys(int buys) {
+        hash ^= buysKey(this.buys) ^ buysKey(buys);
+        this.buys = buys;
+    }
+
+    static long supplyKey(int type, int count) {
+        return key(SUPPLY, type, count);
+    }
+
+    static long unplayedKey(int type, int count) {
+        return key(UNPLAYED, type, count);
+    }
+
+    static long playedKey(int type, int count) {
+        return key(PLAYED, type, count);
+    }
+
+    static long moneyKey(int money) {
+        return key(MONEY, 0, money);
+    }
+
+    static long buysKey(int buys) {
+        return key(BUYS, 0, buys);
+    }
+
+    static long phaseKey(GameState.TurnPhase phase) {
+        return phase == null ? 0 : key(PHASE, 0, phase.ordinal() + 1);
+    }
+
+    private static long key(int component, int type, int count) {
+        if (count >= 0 && count < TABLE_SIZE) {
+            return KEYS[component][type][count];
+        }
+        return mix(SEED ^ ((long) component << 56) ^ ((long) type << 48) ^ (count & 0xFFFFFFFFL));
+    }
+
+    /** The SplitMix64 finalizer. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
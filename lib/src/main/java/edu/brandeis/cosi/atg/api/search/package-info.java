@@ -0,0 +1,27 @@
+/**
+ * This package contains tools for {@link edu.brandeis.cosi.atg.api.Player
+ * Players} that search future states of a game.
+ * <br/>
+ * <br/>
+ * A {@link edu.brandeis.cosi.atg.api.search.SearchState} is a mutable,
+ * primitive representation of a game following the rules of the
+ * {@link edu.brandeis.cosi.atg.api.engine.ReferenceEngine}, with constant time
+ * {@link edu.brandeis.cosi.atg.api.search.SearchState#apply apply} and
+ * {@link edu.brandeis.cosi.atg.api.search.SearchState#undo undo}. It is built
+ * from a {@link edu.brandeis.cosi.atg.api.GameState} and the cards counted by
+ * a {@link edu.brandeis.cosi.atg.api.search.CardCounter}, with the
+ * information hidden from the player (the order of every deck, and the
+ * opponents' hands) sampled at random.
+ * <br/>
+ * <br/>
+ * {@link edu.brandeis.cosi.atg.api.search.MonteCarloTreeSearch} searches a
+ * SearchState on several threads and recommends an action.
+ * <br/>
+ * <br/>
+ * {@link edu.brandeis.cosi.atg.api.search.ZobristHash} fingerprints positions,
+ * whether given as a {@link edu.brandeis.cosi.atg.api.GameState} or maintained
+ * incrementally by a SearchState, and a
+ * {@link edu.brandeis.cosi.atg.api.search.TranspositionTable} caches values
+ * such as evaluations by fingerprint, shared between threads.
+ */
+package edu.brandeis.cosi.atg.api.search;
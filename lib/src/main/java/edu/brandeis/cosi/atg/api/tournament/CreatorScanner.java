@@ -0,0 +1,181 @@
+package edu.brandeis.cosi.atg.api.tournament;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import edu.brandeis.cosi.atg.api.Engine;
+import edu.brandeis.cosi.atg.api.EngineCreator;
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.PlayerCreator;
+
+/**
+ * Finds {@link EngineCreator} and {@link PlayerCreator} methods on the
+ * classpath.
+ *
+ * Classes are found by listing the directories and jar files that contain a
+ * given package, so only classes in that package (and its subpackages) are
+ * loaded. Classes are loaded without being initialized.
+ */
+public final class CreatorScanner {
+
+    private CreatorScanner() {
+    }
+
+    /**
+     * Finds the single {@link EngineCreator} method in the specified package.
+     *
+     * @param loader      the class loader to search
+     * @param packageName the package to search, including subpackages
+     * @return a factory which invokes the engine creator method
+     * @throws IllegalStateException if there is not exactly one valid engine
+     *                               creator method in the package
+     */
+    public static EngineFactory findEngineCreator(ClassLoader loader, String packageName) {
+        ImmutableList<Method> methods = findAnnotatedMethods(loader, packageName, EngineCreator.class);
+        if (methods.size() != 1) {
+            throw new IllegalStateException(
+                    "Expected exactly one @EngineCreator method in " + packageName + ", found " + methods);
+        }
+        Method method = methods.get(0);
+        checkSignature(method, Engine.class, Player.class, Player.class, GameObserver.class);
+        return (player1, player2, observer) -> (Engine) invoke(method, player1, player2, observer);
+    }
+
+    /**
+     * Finds all {@link PlayerCreator} methods in the specified package.
+     *
+     * @param loader      the class loader to search
+     * @param packageName the package to search, including subpackages
+     * @return a map of player names, as given by
+     *         {@link PlayerCreator#playerName()}, to suppliers which invoke the
+     *         corresponding player creator method
+     * @throws IllegalStateException if a player creator method is invalid, or two
+     *                               player creators share a name
+     */
+    public static ImmutableMap<String, Supplier<Player>> findPlayerCreators(ClassLoader loader, String packageName) {
+        ImmutableMap.Builder<String, Supplier<Player>> players = ImmutableMap.builder();
+        for (Method method : findAnnotatedMethods(loader, packageName, PlayerCreator.class)) {
+            checkSignature(method, Player.class);
+            players.put(method.getAnnotation(PlayerCreator.class).playerName(), () -> (Player) invoke(method));
+        }
+        try {
+            return players.buildOrThrow();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Duplicate @PlayerCreator name in " + packageName, e);
+        }
+    }
+
+    /**
+     * Finds all methods in the specified package with the specified annotation.
+     *
+     * @param loader      the class loader to search
+     * @param packageName the package to search, including subpackages
+     * @param annotation  the annotation to look for
+     * @return the annotated methods, ordered by class name
+     * @throws UncheckedIOException if the classpath cannot be read
+     */
+    public static ImmutableList<Method> findAnnotatedMethods(ClassLoader loader, String packageName,
+            Class<? extends Annotation> annotation) {
+        ImmutableList.Builder<Method> methods = ImmutableList.builder();
+        for (String className : findClassNames(loader, packageName)) {
+            Class<?> type;
+            try {
+                type = Class.forName(className, false, loader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                continue;
+            }
+            for (Method method : type.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(annotation)) {
+                    methods.add(method);
+                }
+            }
+        }
+        return methods.build();
+    }
+
+    private static TreeSet<String> findClassNames(ClassLoader loader, String packageName) {
+        String path = packageName.replace('.', '/');
+        TreeSet<String> classNames = new TreeSet<>();
+        try {
+            Enumeration<URL> roots = loader.getResources(path);
+            while (roots.hasMoreElements()) {
+                URL root = roots.nextElement();
+                if (root.getProtocol().equals("file")) {
+                    Path directory = Paths.get(root.toURI());
+                    try (Stream<Path> files = Files.walk(directory)) {
+                        Iterator<Path> iterator = files.iterator();
+                        while (iterator.hasNext()) {
+                            String relative = directory.relativize(iterator.next()).toString().replace('\\', '/');
+                            addClassName(classNames, path + "/" + relative);
+                        }
+                    }
+                } else if (root.getProtocol().equals("jar")) {
+                    JarURLConnection connection = (JarURLConnection) root.openConnection();
+                    connection.setUseCaches(false);
+                    try (JarFile jar = connection.getJarFile()) {
+                        Enumeration<JarEntry> entries = jar.entries();
+                        while (entries.hasMoreElements()) {
+                            String name = entries.nextElement().getName();
+                            if (name.startsWith(path + "/")) {
+                                addClassName(classNames, name);
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to scan classpath for " + packageName, e);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Unable to scan classpath for " + packageName, e);
+        }
+        return classNames;
+    }
+
+    private static void addClassName(TreeSet<String> classNames, String resource) {
+        if (resource.endsWith(".class") && !resource.endsWith("module-info.class")
+                && !resource.endsWith("package-info.class")) {
+            classNames.add(resource.substring(0, resource.length() - ".class".length()).replace('/', '.'));
+        }
+    }
+
+    private static void checkSignature(Method method, Class<?> returnType, Class<?>... parameterTypes) {
+        int modifiers = method.getModifiers();
+        if (!Modifier.isPublic(modifiers) || !Modifier.isStatic(modifiers)
+                || !returnType.isAssignableFrom(method.getReturnType())
+                || !Arrays.equals(method.getParameterTypes(), parameterTypes)) {
+            throw new IllegalStateException("Invalid creator method signature: " + method);
+        }
+    }
+
+    private static Object invoke(Method method, Object... args) {
+        try {
+            return method.invoke(null, args);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Creator method " + method + " threw an exception", e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unable to invoke creator method " + method, e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package edu.brandeis.cosi.atg.api.tournament;
+
+import edu.brandeis.cosi.atg.api.Engine;
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.Player;
+
+/**
+ * Creates an {@link Engine} for a single game. This has the same signature as
+ * an {@link edu.brandeis.cosi.atg.api.EngineCreator EngineCreator} method.
+ */
+@FunctionalInterface
+public interface EngineFactory {
+
+    /**
+     * Creates an engine for a single game.
+     *
+     * @param player1  the first player
+     * @param player2  the second player
+     * @param observer an observer that will be notified of all game events, or
+     *                 null if no observer is required
+     * @return a new engine
+     */
+    public Engine create(Player player1, Player player2, GameObserver observer);
+}
@@ -0,0 +1,292 @@
+package edu.brandeis.cosi.atg.api.tournament;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * The outcome of a {@link PairedEvaluation} of a candidate player against a
+ * baseline player.
+ * <br/>
+ * <br/>
+ * Results are reported from the candidate's point of view. Each pair of games
+ * scores 0 to 4 points for the candidate (two per win, one per draw), and the
+ * number of pairs with each score is the pentanomial distribution from which
+ * the score, its variance, the Elo estimate and the log-likelihood ratio are
+ * computed. A game lost by a violation or a forfeit counts as a loss for the
+ * player at fault; pairs in which a violation could not be attributed to one
+ * player are excluded as errors. The score difference is only known for games
+ * that finished, so it is averaged over the pairs in which both games
+ * finished.
+ */
+public final class EvaluationResult {
+    /** The z-score for a 95% confidence interval. */
+    private static final double Z = 1.96;
+
+    /**
+     * The conclusion of the sequential probability ratio test.
+     */
+    public enum Verdict {
+        /** The candidate is stronger by at least the tested Elo difference. */
+        ACCEPTED,
+        /** The candidate is not stronger by the tested Elo difference. */
+        REJECTED,
+        /** The maximum number of pairs was played without a conclusion. */
+        INCONCLUSIVE
+    }
+
+    private final ImmutableList<Long> pentanomial;
+    private final long wins;
+    private final long draws;
+    private final long losses;
+    private final long errors;
+    private final double meanScoreDifference;
+    private final double scoreDifferenceStandardError;
+    private final double logLikelihoodRatio;
+    private final double lowerBound;
+    private final double upperBound;
+    private final Verdict verdict;
+
+    /**
+     * Constructs an EvaluationResult.
+     *
+     * @param pentanomial                  the number of pairs in which the
+     *                                     candidate scored 0, 1, 2, 3 and 4
+     *                                     points
+     * @param wins                         the number of games the candidate won
+     * @param draws                        the number of games drawn
+     * @param losses                       the number of games the candidate
+     *                                     lost
+     * @param errors                       the number of pairs excluded because
+     *                                     of an error
+     * @param meanScoreDifference          the mean over pairs in which both
+     *                                     games finished of the candidate's total
+     *                                     game score minus the baseline's
+     * @param scoreDifferenceStandardError the standard error of that mean
+     * @param logLikelihoodRatio           the final log-likelihood ratio
+     * @param lowerBound                   the ratio at or below which the test
+     *                                     rejects
+     * @param upperBound                   the ratio at or above which the test
+     *                                     accepts
+     * @param verdict                      the conclusion of the test
+     */
+    public EvaluationResult(ImmutableList<Long> pentanomial, long wins, long draws, long losses, long errors,
+            double meanScoreDifference, double scoreDifferenceStandardError, double logLikelihoodRatio,
+            double lowerBound, double upperBound, Verdict verdict) {
+        if (pentanomial.size() != 5) {
+            throw new IllegalArgumentException("A pentanomial distribution has 5 counts: " + pentanomial);
+        }
+        this.pentanomial = pentanomial;
+        this.wins = wins;
+        this.draws = draws;
+        this.losses = losses;
+        this.errors = errors;
+        this.meanScoreDifference = meanScoreDifference;
+        this.scoreDifferenceStandardError = scoreDifferenceStandardError;
+        this.logLikelihoodRatio = logLikelihoodRatio;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.verdict = verdict;
+    }
+
+    /**
+     * Gets the number of pairs in which the candidate scored 0, 1, 2, 3 and 4
+     * points.
+     *
+     * @return the five counts
+     */
+    public ImmutableList<Long> getPentanomial() {
+        return pentanomial;
+    }
+
+    /**
+     * Gets the number of pairs played without an error.
+     *
+     * @return the number of pairs
+     */
+    public long getPairs() {
+        long pairs = 0;
+        for (long count : pentanomial) {
+            pairs += count;
+        }
+        return pairs;
+    }
+
+    /**
+     * Gets the number of games the candidate won.
+     *
+     * @return the number of wins
+     */
+    public long getWins() {
+        return wins;
+    }
+
+    /**
+     * Gets the number of games drawn.
+     *
+     * @return the number of draws
+     */
+    public long getDraws() {
+        return draws;
+    }
+
+    /**
+     * Gets the number of games the candidate lost.
+     *
+     * @return the number of losses
+     */
+    public long getLosses() {
+        return losses;
+    }
+
+    /**
+     * Gets the number of pairs excluded because a game ended with an error.
+     *
+     * @return the number of errors
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Gets the candidate's expected score per game, counting a draw as half a
+     * win.
+     *
+     * @return the score, between 0 and 1, or 0.5 if no pairs were played
+     */
+    public double getScore() {
+        long pairs = getPairs();
+        if (pairs == 0) {
+            return 0.5;
+        }
+        double points = 0;
+        for (int i = 0; i < 5; i++) {
+            points += i * pentanomial.get(i);
+        }
+        return points / (4.0 * pairs);
+    }
+
+    /**
+     * Gets the standard error of {@link #getScore()}, computed from the
+     * variance of the pair scores.
+     *
+     * @return the standard error of the score
+     */
+    public double getScoreStandardError() {
+        long pairs = getPairs();
+        if (pairs < 2) {
+            return 0.5;
+        }
+        double score = getScore();
+        double variance = 0;
+        for (int i = 0; i < 5; i++) {
+            double deviation = i / 4.0 - score;
+            variance += pentanomial.get(i) * deviation * deviation;
+        }
+        return Math.sqrt(variance / (pairs - 1) / pairs);
+    }
+
+    /**
+     * Gets the Elo difference between the candidate and the baseline implied by
+     * the score.
+     *
+     * @return the estimated Elo difference
+     */
+    public double getElo() {
+        return elo(getScore());
+    }
+
+    /**
+     * Gets the lower bound of the 95% confidence interval for the Elo
+     * difference.
+     *
+     * @return the lower bound
+     */
+    public double getEloLowerBound() {
+        return elo(getScore() - Z * getScoreStandardError());
+    }
+
+    /**
+     * Gets the upper bound of the 95% confidence interval for the Elo
+     * difference.
+     *
+     * @return the upper bound
+     */
+    public double getEloUpperBound() {
+        return elo(getScore() + Z * getScoreStandardError());
+    }
+
+    /**
+     * Gets the mean over pairs in which both games finished of the candidate's
+     * total game score minus the baseline's.
+     *
+     * @return the mean score difference per pair
+     */
+    public double getMeanScoreDifference() {
+        return meanScoreDifference;
+    }
+
+    /**
+     * Gets the standard error of {@link #getMeanScoreDifference()}.
+     *
+     * @return the standard error of the score difference
+     */
+    public double getScoreDifferenceStandardError() {
+        return scoreDifferenceStandardError;
+    }
+
+    /**
+     * Gets the log-likelihood ratio of the test when it stopped.
+     *
+     * @return the log-likelihood ratio
+     */
+    public double getLogLikelihoodRatio() {
+        return logLikelihoodRatio;
+    }
+
+    /**
+     * Gets the log-likelihood ratio at or below which the test rejects.
+     *
+     * @return the lower bound
+     */
+    public double getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * Gets the log-likelihood ratio at or above which the test accepts.
+     *
+     * @return the upper bound
+     */
+    public double getUpperBound() {
+        return upperBound;
+    }
+
+    /**
+     * Gets the conclusion of the test.
+     *
+     * @return the verdict
+     */
+    public Verdict getVerdict() {
+        return verdict;
+    }
+
+    /**
+     * Converts an expected score to an Elo difference.
+     *
+     * @param score the expected score, between 0 and 1
+     * @return the Elo difference
+     */
+    static double elo(double score) {
+        double clamped = Math.min(1 - 1e-9, Math.max(1e-9, score));
+        return -400 * Math.log10(1 / clamped - 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%s after %d pairs: Elo %.1f [%.1f, %.1f], score %.3f (%d-%d-%d, %d errors), "
+                        + "score difference %.2f +/- %.2f, LLR %.2f [%.2f, %.2f], pentanomial %s",
+                verdict, getPairs(), getElo(), getEloLowerBound(), getEloUpperBound(), getScore(), wins, draws, losses,
+                errors, meanScoreDifference, scoreDifferenceStandardError, logLikelihoodRatio, lowerBound, upperBound,
+                pentanomial);
+    }
+}
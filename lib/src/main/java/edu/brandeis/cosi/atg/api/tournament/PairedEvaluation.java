@@ -0,0 +1,273 @@
+package edu.brandeis.cosi.atg.api.tournament;
+
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.PlayerViolationException;
+import edu.brandeis.cosi.atg.api.random.GameRandom;
+
+/**
+ * Compares a candidate player with a baseline player using as few games as
+ * possible.
+ * <br/>
+ * <br/>
+ * Games are played in pairs with common random numbers: both games of a pair
+ * use the same random source (see {@link GameRandom#forGame(long, long)}),
+ * and the players swap seats for the second game. The candidate therefore
+ * faces the same starting deals as the baseline did, and most of the luck of
+ * the shuffle and the advantage of moving first cancel out within the pair.
+ * Results are analyzed per pair rather than per game, which accounts for the
+ * correlation between the two games and gives a smaller variance.
+ * <br/>
+ * <br/>
+ * After each pair, a sequential probability ratio test (the generalized SPRT
+ * on the pentanomial pair scores, as used by chess engine testing frameworks)
+ * weighs the hypothesis that the candidate is stronger by {@code elo1}
+ * against the hypothesis that it is stronger by only {@code elo0}, and stops
+ * as soon as either is supported with error rates {@code alpha} and
+ * {@code beta}. Pairs run concurrently but are analyzed in order, so with
+ * deterministic players the result does not depend on the parallelism.
+ * <br/>
+ * <br/>
+ * As in a {@link Tournament}, a game that ends with a
+ * {@link PlayerViolationException} naming one of the players, or in which
+ * only one player forfeited under a deadline, is a loss for that player and
+ * a win for its opponent, so a candidate that throws, hangs or cheats is
+ * scored as losing. A pair is excluded only if a violation cannot be
+ * attributed to exactly one player, for example because both players have the
+ * same name. Any other exception from an engine or player supplier is not
+ * expected, and ends the evaluation.
+ * <br/>
+ * <br/>
+ * Example usage:
+ *
+ * <pre>
+ * PairedEvaluation evaluation = new PairedEvaluation(
+ *         (p1, p2, observer, random) -&gt; new ReferenceEngine(ImmutableList.of(p1, p2), observer, random),
+ *         NewBot::new, OldBot::new, 8, 42);
+ * EvaluationResult result = evaluation.run(0, 10, 0.05, 0.05, 100_000);
+ * </pre>
+ */
+public final class PairedEvaluation {
+    private final SeededEngineFactory engineFactory;
+    private final Supplier<Player> candidate;
+    private final Supplier<Player> baseline;
+    private final int parallelism;
+    private final long seed;
+
+    /**
+     * The result of one pair of games, from the candidate's point of view.
+     */
+    private static final class PairOutcome {
+        /** Two points per win and one per draw, or -1 if the pair is excluded. */
+        int points = -1;
+        int wins;
+        int draws;
+        /** Whether both games finished, so that the score difference counts. */
+        boolean finished = true;
+        int scoreDifference;
+    }
+
+    /**
+     * Constructs a PairedEvaluation.
+     *
+     * @param engineFactory creates an engine for each game from the game's
+     *                      random source
+     * @param candidate     a supplier of new instances of the candidate player
+     * @param baseline      a supplier of new instances of the baseline player
+     * @param parallelism   the maximum number of pairs to play concurrently
+     * @param seed          the seed from which every pair's random source is
+     *                      derived
+     */
+    public PairedEvaluation(SeededEngineFactory engineFactory, Supplier<Player> candidate, Supplier<Player> baseline,
+            int parallelism, long seed) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.engineFactory = engineFactory;
+        this.candidate = candidate;
+        this.baseline = baseline;
+        this.parallelism = parallelism;
+        this.seed = seed;
+    }
+
+    /**
+     * Plays pairs of games until the test reaches a conclusion or
+     * {@code maxPairs} pairs have been played.
+     *
+     * @param elo0     the Elo difference of the null hypothesis
+     * @param elo1     the Elo difference of the alternative hypothesis, greater
+     *                 than {@code elo0}
+     * @param alpha    the probability of accepting when the null hypothesis is
+     *                 true
+     * @param beta     the probability of rejecting when the alternative
+     *                 hypothesis is true
+     * @param maxPairs the maximum number of pairs to play
+     * @return the result of the evaluation
+     * @throws InterruptedException if interrupted while waiting for games to
+     *                              finish
+     */
+    public EvaluationResult run(double elo0, double elo1, double alpha, double beta, long maxPairs)
+            throws InterruptedException {
+        if (!(elo1 > elo0) || !(alpha > 0 && alpha < 1) || !(beta > 0 && beta < 1) || maxPairs < 1) {
+            throw new IllegalArgumentException("Invalid test parameters");
+        }
+        double lowerBound = Math.log(beta / (1 - alpha));
+        double upperBound = Math.log((1 - beta) / alpha);
+        double score0 = expectedScore(elo0);
+        double score1 = expectedScore(elo1);
+
+        long[] pentanomial = new long[5];
+        long wins = 0;
+        long draws = 0;
+        long losses = 0;
+        long errors = 0;
+        long finishedPairs = 0;
+        double differenceSum = 0;
+        double differenceSquares = 0;
+        double llr = 0;
+        EvaluationResult.Verdict verdict = EvaluationResult.Verdict.INCONCLUSIVE;
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        ArrayDeque<ForkJoinTask<PairOutcome>> window = new ArrayDeque<>();
+        long nextPair = 0;
+        try {
+            while (true) {
+                while (window.size() < 2 * parallelism && nextPair < maxPairs) {
+                    long pair = nextPair++;
+                    window.add(pool.submit(() -> playPair(pair)));
+                }
+                if (window.isEmpty()) {
+                    break;
+                }
+                PairOutcome outcome;
+                try {
+                    outcome = window.poll().get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Game failed unexpectedly", e.getCause());
+                }
+                if (outcome.points < 0) {
+                    errors++;
+                    continue;
+                }
+                pentanomial[outcome.points]++;
+                wins += outcome.wins;
+                draws += outcome.draws;
+                losses += 2 - outcome.wins - outcome.draws;
+                if (outcome.finished) {
+                    finishedPairs++;
+                    differenceSum += outcome.scoreDifference;
+                    differenceSquares += (double) outcome.scoreDifference * outcome.scoreDifference;
+                }
+
+                llr = logLikelihoodRatio(pentanomial, score0, score1);
+                if (llr >= upperBound) {
+                    verdict = EvaluationResult.Verdict.ACCEPTED;
+                    break;
+                }
+                if (llr <= lowerBound) {
+                    verdict = EvaluationResult.Verdict.REJECTED;
+                    break;
+                }
+            }
+        } finally {
+            for (ForkJoinTask<PairOutcome> pending : window) {
+                pending.cancel(true);
+            }
+            pool.shutdownNow();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+
+        double meanDifference = finishedPairs == 0 ? 0 : differenceSum / finishedPairs;
+        double differenceError = finishedPairs < 2 ? 0
+                : Math.sqrt(Math.max(0, differenceSquares - finishedPairs * meanDifference * meanDifference)
+                        / (finishedPairs - 1) / finishedPairs);
+        return new EvaluationResult(ImmutableList.of(pentanomial[0], pentanomial[1], pentanomial[2], pentanomial[3],
+                pentanomial[4]), wins, draws, losses, errors, meanDifference, differenceError, llr, lowerBound,
+                upperBound, verdict);
+    }
+
+    private PairOutcome playPair(long pair) {
+        long pairSeed = GameRandom.gameSeed(seed, pair);
+        PairOutcome outcome = new PairOutcome();
+        int points = 0;
+        for (int game = 0; game < 2; game++) {
+            Player first = candidate.get();
+            Player second = baseline.get();
+            Player player1 = game == 0 ? first : second;
+            Player player2 = game == 0 ? second : first;
+            int gamePoints;
+            try {
+                ImmutableList<Player.ScorePair> scores = engineFactory
+                        .create(player1, player2, null, new SplittableRandom(pairSeed)).play();
+                int candidateScore = Tournament.scoreOf(scores, first);
+                int baselineScore = Tournament.scoreOf(scores, second);
+                outcome.scoreDifference += candidateScore - baselineScore;
+                boolean candidateForfeited = Tournament.isForfeited(first);
+                if (candidateForfeited != Tournament.isForfeited(second)) {
+                    gamePoints = candidateForfeited ? 0 : 2;
+                } else {
+                    gamePoints = Integer.compare(candidateScore, baselineScore) + 1;
+                }
+            } catch (PlayerViolationException e) {
+                String violator = e.getPlayerName();
+                boolean byCandidate = violator != null && violator.equals(first.getName());
+                boolean byBaseline = violator != null && violator.equals(second.getName());
+                if (byCandidate == byBaseline) {
+                    return outcome;
+                }
+                outcome.finished = false;
+                gamePoints = byCandidate ? 0 : 2;
+            } finally {
+                Tournament.release(first);
+                Tournament.release(second);
+            }
+            if (gamePoints == 2) {
+                outcome.wins++;
+            } else if (gamePoints == 1) {
+                outcome.draws++;
+            }
+            points += gamePoints;
+        }
+        outcome.points = points;
+        return outcome;
+    }
+
+    /**
+     * Computes the log-likelihood ratio of the normalized generalized SPRT from
+     * the pentanomial counts. A prior of half a pair in every category keeps the
+     * variance from collapsing when the first pairs all have the same score,
+     * which is common with common random numbers, so the test cannot stop
+     * after only a handful of pairs.
+     */
+    static double logLikelihoodRatio(long[] pentanomial, double score0, double score1) {
+        double prior = 0.5;
+        double pairs = 0;
+        double mean = 0;
+        for (int i = 0; i < 5; i++) {
+            double count = pentanomial[i] + prior;
+            pairs += count;
+            mean += count * i / 4.0;
+        }
+        mean /= pairs;
+        double variance = 0;
+        for (int i = 0; i < 5; i++) {
+            double deviation = i / 4.0 - mean;
+            variance += (pentanomial[i] + prior) * deviation * deviation;
+        }
+        variance /= pairs;
+        return pairs * (score1 - score0) * (2 * mean - score0 - score1) / (2 * variance);
+    }
+
+    private static double expectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+}
@@ -0,0 +1,35 @@
+package edu.brandeis.cosi.atg.api.tournament;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates the results of a single player while a {@link Tournament} is
+ * running. Safe to update from many games concurrently.
+ */
+final class PlayerRecord {
+    final String playerName;
+    final LongAdder wins = new LongAdder();
+    final LongAdder draws = new LongAdder();
+    final LongAdder losses = new LongAdder();
+    final LongAdder errors = new LongAdder();
+    final LongAdder totalScore = new LongAdder();
+    final LongAdder scoredGames = new LongAdder();
+
+    PlayerRecord(String playerName) {
+        this.playerName = playerName;
+    }
+
+    /**
+     * Gets the points used to rank players between Swiss rounds.
+     *
+     * @return two points per win and one per draw
+     */
+    long points() {
+        return 2 * wins.sum() + draws.sum();
+    }
+
+    Standing toStanding() {
+        return new Standing(playerName, wins.sum(), draws.sum(), losses.sum(), errors.sum(), totalScore.sum(),
+                scoredGames.sum());
+    }
+}
@@ -0,0 +1,31 @@
+package edu.brandeis.cosi.atg.api.tournament;
+
+import java.util.SplittableRandom;
+
+import edu.brandeis.cosi.atg.api.Engine;
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.Player;
+
+/**
+ * Creates an {@link Engine} for a single game that draws all of its randomness
+ * from a given random source, so that the game can be reproduced. For example,
+ * {@code (p1, p2, observer, random) -> new ReferenceEngine(ImmutableList.of(p1, p2), observer, random)}.
+ *
+ * @see edu.brandeis.cosi.atg.api.random.GameRandom
+ */
+@FunctionalInterface
+public interface SeededEngineFactory {
+
+    /**
+     * Creates an engine for a single game.
+     *
+     * @param player1  the first player
+     * @param player2  the second player
+     * @param observer an observer that will be notified of all game events, or
+     *                 null if no observer is required
+     * @param random   the random source for the game, which is not shared with
+     *                 any other game
+     * @return a new engine
+     */
+    public Engine create(Player player1, Player player2, GameObserver observer, SplittableRandom random);
+}
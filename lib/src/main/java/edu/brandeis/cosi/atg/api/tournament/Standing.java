@@ -0,0 +1,175 @@
+package edu.brandeis.cosi.atg.api.tournament;
+
+/**
+ * The results of a single player in a {@link Tournament}.
+ *
+ * The win rate counts a draw as half a win. A game forfeited by a
+ * {@link edu.brandeis.cosi.atg.api.PlayerViolationException} counts as an
+ * error and a loss for the violator, and as a win for its opponent, as does a
+ * game in which the violator's supplier failed to create it. Neither player
+ * scores points in such a game, so it is left out of the average score. A game forfeited by missing a deadline under the
+ * {@link edu.brandeis.cosi.atg.api.deadline.DeadlinePolicy#FORFEIT FORFEIT}
+ * policy counts as a loss for the forfeiting player whatever the points, and
+ * as a win for its opponent. Games which ended with any other error are
+ * excluded from the win rate.
+ */
+public final class Standing {
+    /** The z-score for a 95% confidence interval. */
+    private static final double Z = 1.96;
+
+    private final String playerName;
+    private final long wins;
+    private final long draws;
+    private final long losses;
+    private final long errors;
+    private final long totalScore;
+    private final long scoredGames;
+
+    /**
+     * Constructs a Standing with the specified results.
+     *
+     * @param playerName  the name of the player
+     * @param wins        the number of games won
+     * @param draws       the number of games drawn
+     * @param losses      the number of games lost
+     * @param errors      the number of games which ended with an error, other
+     *                    than violations by the opponent
+     * @param totalScore  the sum of the player's scores over all scored games
+     * @param scoredGames the number of games which finished with a score for
+     *                    each player, including games forfeited by missing a
+     *                    deadline
+     */
+    public Standing(String playerName, long wins, long draws, long losses, long errors, long totalScore,
+            long scoredGames) {
+        this.playerName = playerName;
+        this.wins = wins;
+        this.draws = draws;
+        this.losses = losses;
+        this.errors = errors;
+        this.totalScore = totalScore;
+        this.scoredGames = scoredGames;
+    }
+
+    /**
+     * Gets the name of the player.
+     *
+     * @return the name of the player
+     */
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    /**
+     * Gets the number of games won.
+     *
+     * @return the number of games won
+     */
+    public long getWins() {
+        return wins;
+    }
+
+    /**
+     * Gets the number of games drawn.
+     *
+     * @return the number of games drawn
+     */
+    public long getDraws() {
+        return draws;
+    }
+
+    /**
+     * Gets the number of games lost.
+     *
+     * @return the number of games lost
+     */
+    public long getLosses() {
+        return losses;
+    }
+
+    /**
+     * Gets the number of games which ended with an error, other than violations
+     * by the opponent.
+     *
+     * @return the number of games which ended with an error
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Gets the number of games which were won, drawn or lost, including games
+     * forfeited by a violation.
+     *
+     * @return the number of completed games
+     */
+    public long getGamesCompleted() {
+        return wins + draws + losses;
+    }
+
+    /**
+     * Gets the number of games which finished with a score for each player.
+     * Unlike {@link #getGamesCompleted()}, this excludes games forfeited by a
+     * violation.
+     *
+     * @return the number of scored games
+     */
+    public long getScoredGames() {
+        return scoredGames;
+    }
+
+    /**
+     * Gets the average score of the player over all scored games.
+     *
+     * @return the average score, or 0 if no games were scored
+     */
+    public double getAverageScore() {
+        return scoredGames == 0 ? 0 : (double) totalScore / scoredGames;
+    }
+
+    /**
+     * Gets the fraction of completed games won, counting a draw as half a win.
+     *
+     * @return the win rate, or 0 if no games were completed
+     */
+    public double getWinRate() {
+        long games = getGamesCompleted();
+        return games == 0 ? 0 : (wins + 0.5 * draws) / games;
+    }
+
+    /**
+     * Gets the lower bound of the 95% Wilson score interval for the win rate.
+     *
+     * @return the lower bound of the confidence interval
+     */
+    public double getWinRateLowerBound() {
+        return wilsonBound(-1);
+    }
+
+    /**
+     * Gets the upper bound of the 95% Wilson score interval for the win rate.
+     *
+     * @return the upper bound of the confidence interval
+     */
+    public double getWinRateUpperBound() {
+        return wilsonBound(1);
+    }
+
+    private double wilsonBound(int sign) {
+        long games = getGamesCompleted();
+        if (games == 0) {
+            return sign < 0 ? 0 : 1;
+        }
+        double p = getWinRate();
+        double z2 = Z * Z;
+        double center = p + z2 / (2 * games);
+        double margin = Z * Math.sqrt(p * (1 - p) / games + z2 / (4.0 * games * games));
+        return Math.min(1, Math.max(0, (center + sign * margin) / (1 + z2 / games)));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: win rate %.3f [%.3f, %.3f] (%d-%d-%d, %d errors), average score %.2f",
+                playerName, getWinRate(), getWinRateLowerBound(), getWinRateUpperBound(), wins, draws, losses,
+                errors, getAverageScore());
+    }
+}
@@ -0,0 +1,400 @@
+package edu.brandeis.cosi.atg.api.tournament;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import edu.brandeis.cosi.atg.api.Engine;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.PlayerViolationException;
+import edu.brandeis.cosi.atg.api.deadline.DeadlinePlayer;
+import edu.brandeis.cosi.atg.api.random.GameRandom;
+
+/**
+ * Runs many games between a set of players concurrently, and aggregates the
+ * results into a {@link Standing} for each player.
+ * <br/>
+ * <br/>
+ * Every game uses freshly created {@link Player} instances and a freshly
+ * created {@link Engine}. Within a match, players alternate seats from game to
+ * game so that neither player always moves first. Games are run on a
+ * {@link ForkJoinPool}, so engines and players must not share mutable state
+ * across instances.
+ * <br/>
+ * <br/>
+ * Two formats are supported:
+ * <ul>
+ * <li>{@link #runRoundRobin() Round robin}: every player plays a match against
+ * every other player. All games are run at once.</li>
+ * <li>{@link #runSwiss(int) Swiss}: in each round, players are ranked by their
+ * results so far and paired with a similarly ranked opponent they have not yet
+ * played. The games of a round are run at once, and each round starts when the
+ * previous one finishes.</li>
+ * </ul>
+ * <br/>
+ * <br/>
+ * Games are numbered in the order they are scheduled, starting from 0 in each
+ * run. A tournament created with a {@link SeededEngineFactory} gives each game
+ * the random source {@link GameRandom#forGame(long, long)} of the tournament
+ * seed and the game's number, so with deterministic players a run produces the
+ * same results however its games are scheduled across threads, and a game
+ * listed by {@link #getFailedGames()} can be replayed on its own.
+ */
+public final class Tournament {
+    private final SeededEngineFactory engineFactory;
+    private final ImmutableMap<String, Supplier<Player>> players;
+    private final int gamesPerMatch;
+    private final int parallelism;
+    private final long seed;
+
+    private long nextGame;
+    private final Set<Long> failedGames = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs a Tournament.
+     *
+     * @param engineFactory creates an engine for each game
+     * @param players       a map of player names to suppliers of new player
+     *                      instances; players that are {@link AutoCloseable}
+     *                      are closed after their game, and a supplier that
+     *                      fails forfeits the game
+     * @param gamesPerMatch the number of games played between each pair of
+     *                      opponents
+     * @param parallelism   the maximum number of games to run concurrently
+     */
+    public Tournament(EngineFactory engineFactory, ImmutableMap<String, Supplier<Player>> players, int gamesPerMatch,
+            int parallelism) {
+        this((player1, player2, observer, random) -> engineFactory.create(player1, player2, observer), players,
+                gamesPerMatch, parallelism, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Constructs a reproducible Tournament.
+     *
+     * @param engineFactory creates an engine for each game from the game's
+     *                      random source
+     * @param players       a map of player names to suppliers of new player
+     *                      instances; players that are {@link AutoCloseable}
+     *                      are closed after their game, and a supplier that
+     *                      fails forfeits the game
+     * @param gamesPerMatch the number of games played between each pair of
+     *                      opponents
+     * @param parallelism   the maximum number of games to run concurrently
+     * @param seed          the seed from which every game's random source is
+     *                      derived
+     */
+    public Tournament(SeededEngineFactory engineFactory, ImmutableMap<String, Supplier<Player>> players,
+            int gamesPerMatch, int parallelism, long seed) {
+        if (players.size() < 2) {
+            throw new IllegalArgumentException("A tournament requires at least 2 players");
+        }
+        if (gamesPerMatch < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("gamesPerMatch and parallelism must be positive");
+        }
+        this.engineFactory = engineFactory;
+        this.players = players;
+        this.gamesPerMatch = gamesPerMatch;
+        this.parallelism = parallelism;
+        this.seed = seed;
+    }
+
+    /**
+     * Gets the seed from which every game's random source is derived.
+     *
+     * @return the tournament seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the numbers of the games in the most recent run that ended with an
+     * exception, such as a
+     * {@link edu.brandeis.cosi.atg.api.PlayerViolationException
+     * PlayerViolationException}. A game forfeited by a violation, or by a
+     * player supplier that throws or returns {@code null}, counts as an error
+     * and a loss for the player at fault and as a win for its opponent; any other
+     * failed game counts as an error for both players.
+     *
+     * @return the failed game numbers, in ascending order
+     */
+    public ImmutableList<Long> getFailedGames() {
+        return ImmutableList.sortedCopyOf(failedGames);
+    }
+
+    /**
+     * Creates a Tournament using the engine and players found on the classpath,
+     * running one game per available processor at a time.
+     *
+     * @param loader        the class loader to search
+     * @param enginePackage the package containing the
+     *                      {@link edu.brandeis.cosi.atg.api.EngineCreator
+     *                      EngineCreator}
+     * @param playerPackage the package containing the
+     *                      {@link edu.brandeis.cosi.atg.api.PlayerCreator
+     *                      PlayerCreators}
+     * @param gamesPerMatch the number of games played between each pair of
+     *                      opponents
+     * @return a new Tournament
+     * @see CreatorScanner
+     */
+    public static Tournament fromClasspath(ClassLoader loader, String enginePackage, String playerPackage,
+            int gamesPerMatch) {
+        return new Tournament(CreatorScanner.findEngineCreator(loader, enginePackage),
+                CreatorScanner.findPlayerCreators(loader, playerPackage), gamesPerMatch,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Plays a match between every pair of players.
+     *
+     * @return the standings, sorted from highest win rate to lowest
+     * @throws InterruptedException if interrupted while waiting for games to
+     *                              finish
+     */
+    public ImmutableList<Standing> runRoundRobin() throws InterruptedException {
+        Map<String, PlayerRecord> records = newRecords();
+        List<String> names = players.keySet().asList();
+        List<String[]> pairings = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            for (int j = i + 1; j < names.size(); j++) {
+                pairings.add(new String[] { names.get(i), names.get(j) });
+            }
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            runMatches(pool, pairings, records);
+        } finally {
+            shutdown(pool);
+        }
+        return standings(records);
+    }
+
+    /**
+     * Plays a Swiss tournament with the specified number of rounds. If there is
+     * an odd number of players, the lowest ranked player without an opponent sits
+     * out each round.
+     *
+     * @param rounds the number of rounds to play
+     * @return the standings, sorted from highest win rate to lowest
+     * @throws InterruptedException if interrupted while waiting for games to
+     *                              finish
+     */
+    public ImmutableList<Standing> runSwiss(int rounds) throws InterruptedException {
+        Map<String, PlayerRecord> records = newRecords();
+        Set<String> played = new HashSet<>();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (int round = 0; round < rounds; round++) {
+                List<String> ranked = new ArrayList<>(records.keySet());
+                ranked.sort(Comparator.comparingLong((String name) -> records.get(name).points()).reversed()
+                        .thenComparing(Comparator.naturalOrder()));
+                List<String[]> pairings = new ArrayList<>();
+                while (ranked.size() > 1) {
+                    String first = ranked.remove(0);
+                    int opponent = 0;
+                    for (int i = 0; i < ranked.size(); i++) {
+                        if (!played.contains(matchKey(first, ranked.get(i)))) {
+                            opponent = i;
+                            break;
+                        }
+                    }
+                    String second = ranked.remove(opponent);
+                    played.add(matchKey(first, second));
+                    pairings.add(new String[] { first, second });
+                }
+                runMatches(pool, pairings, records);
+            }
+        } finally {
+            shutdown(pool);
+        }
+        return standings(records);
+    }
+
+    private Map<String, PlayerRecord> newRecords() {
+        nextGame = 0;
+        failedGames.clear();
+        Map<String, PlayerRecord> records = new LinkedHashMap<>();
+        for (String name : players.keySet()) {
+            records.put(name, new PlayerRecord(name));
+        }
+        return records;
+    }
+
+    private void runMatches(ForkJoinPool pool, List<String[]> pairings, Map<String, PlayerRecord> records)
+            throws InterruptedException {
+        List<ForkJoinTask<?>> games = new ArrayList<>(pairings.size() * gamesPerMatch);
+        for (String[] pairing : pairings) {
+            PlayerRecord first = records.get(pairing[0]);
+            PlayerRecord second = records.get(pairing[1]);
+            for (int game = 0; game < gamesPerMatch; game++) {
+                boolean swap = game % 2 == 1;
+                long gameIndex = nextGame++;
+                games.add(pool.submit(() -> playGame(swap ? second : first, swap ? first : second, gameIndex)));
+            }
+        }
+        for (ForkJoinTask<?> game : games) {
+            try {
+                game.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Game failed unexpectedly", e.getCause());
+            }
+        }
+    }
+
+    private void playGame(PlayerRecord record1, PlayerRecord record2, long gameIndex) {
+        Player player1 = null;
+        Player player2 = null;
+        ImmutableList<Player.ScorePair> scores;
+        try {
+            player1 = create(record1);
+            player2 = create(record2);
+            scores = engineFactory.create(player1, player2, null, GameRandom.forGame(seed, gameIndex)).play();
+        } catch (PlayerViolationException e) {
+            failedGames.add(gameIndex);
+            forfeit(record1, player1, record2, player2, e.getPlayerName());
+            return;
+        } catch (RuntimeException e) {
+            failedGames.add(gameIndex);
+            if (player1 == null) {
+                lose(record1, record2);
+            } else if (player2 == null) {
+                lose(record2, record1);
+            } else {
+                record1.errors.increment();
+                record2.errors.increment();
+            }
+            return;
+        } finally {
+            release(player1);
+            release(player2);
+        }
+        int score1 = scoreOf(scores, player1);
+        int score2 = scoreOf(scores, player2);
+        record1.totalScore.add(score1);
+        record2.totalScore.add(score2);
+        record1.scoredGames.increment();
+        record2.scoredGames.increment();
+        boolean forfeited1 = isForfeited(player1);
+        if (forfeited1 != isForfeited(player2)) {
+            PlayerRecord loser = forfeited1 ? record1 : record2;
+            PlayerRecord winner = forfeited1 ? record2 : record1;
+            loser.losses.increment();
+            winner.wins.increment();
+        } else if (score1 > score2) {
+            record1.wins.increment();
+            record2.losses.increment();
+        } else if (score1 < score2) {
+            record1.losses.increment();
+            record2.wins.increment();
+        } else {
+            record1.draws.increment();
+            record2.draws.increment();
+        }
+    }
+
+    /**
+     * Creates a new instance of a player, treating a supplier that returns
+     * {@code null} like one that throws.
+     */
+    private Player create(PlayerRecord record) {
+        Player player = players.get(record.playerName).get();
+        if (player == null) {
+            throw new IllegalStateException("The supplier of " + record.playerName + " returned null");
+        }
+        return player;
+    }
+
+    /**
+     * Scores a game which ended with a violation as a loss for the violator and a
+     * win for its opponent, or as an error for both players if the violator
+     * cannot be identified.
+     */
+    private static void forfeit(PlayerRecord record1, Player player1, PlayerRecord record2, Player player2,
+            String violator) {
+        boolean first = violator != null && violator.equals(player1.getName());
+        boolean second = violator != null && violator.equals(player2.getName());
+        if (first == second) {
+            record1.errors.increment();
+            record2.errors.increment();
+            return;
+        }
+        if (first) {
+            lose(record1, record2);
+        } else {
+            lose(record2, record1);
+        }
+    }
+
+    /**
+     * Scores a game which could not be played or finished because of one player
+     * as an error and a loss for that player and a win for its opponent.
+     */
+    private static void lose(PlayerRecord loser, PlayerRecord winner) {
+        loser.errors.increment();
+        loser.losses.increment();
+        winner.wins.increment();
+    }
+
+    /**
+     * Checks whether a player forfeited its game by missing a deadline under
+     * the {@link edu.brandeis.cosi.atg.api.deadline.DeadlinePolicy#FORFEIT
+     * FORFEIT} policy.
+     */
+    static boolean isForfeited(Player player) {
+        return player instanceof DeadlinePlayer deadline && deadline.isForfeited();
+    }
+
+    /**
+     * Closes a player that holds resources beyond a single game, such as a
+     * {@link edu.brandeis.cosi.atg.api.remote.RemotePlayer}.
+     */
+    static void release(Player player) {
+        if (player instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                // The game is already over; there is nothing left to affect.
+            }
+        }
+    }
+
+    static int scoreOf(ImmutableList<Player.ScorePair> scores, Player player) {
+        for (Player.ScorePair score : scores) {
+            if (score.player == player) {
+                return score.getScore();
+            }
+        }
+        throw new IllegalStateException("Engine did not return a score for " + player.getName());
+    }
+
+    private static String matchKey(String first, String second) {
+        return first.compareTo(second) < 0 ? first + '\0' + second : second + '\0' + first;
+    }
+
+    private static ImmutableList<Standing> standings(Map<String, PlayerRecord> records) {
+        return records.values().stream()
+                .map(PlayerRecord::toStanding)
+                .sorted(Comparator.comparingDouble(Standing::getWinRate).reversed())
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    private static void shutdown(ForkJoinPool pool) throws InterruptedException {
+        pool.shutdownNow();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+    }
+}
@@ -0,0 +1,20 @@
+/**
+ * This package contains a tournament runner, which plays many games between
+ * {@link edu.brandeis.cosi.atg.api.Player Players} concurrently and summarizes
+ * the results.
+ * <br/>
+ * <br/>
+ * Engines and players are discovered through their
+ * {@link edu.brandeis.cosi.atg.api.EngineCreator EngineCreator} and
+ * {@link edu.brandeis.cosi.atg.api.PlayerCreator PlayerCreator} methods using
+ * {@link edu.brandeis.cosi.atg.api.tournament.CreatorScanner}, and games are
+ * run by a {@link edu.brandeis.cosi.atg.api.tournament.Tournament}, which reports
+ * a {@link edu.brandeis.cosi.atg.api.tournament.Standing} for each player.
+ * <br/>
+ * <br/>
+ * To decide whether one player is stronger than another, a
+ * {@link edu.brandeis.cosi.atg.api.tournament.PairedEvaluation} plays pairs of
+ * games with the same random source and swapped seats, and stops as soon as a
+ * sequential test reaches a conclusion.
+ */
+package edu.brandeis.cosi.atg.api.tournament;
@@ -0,0 +1,62 @@
+package edu.brandeis.cosi.atg.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import edu.brandeis.cosi.atg.api.cards.Card;
+
+public class GameDeckTest {
+    @Test
+    public void mapConstructorKeepsOnlyTheGivenTypes() {
+        ImmutableMap<Card.Type, Integer> counts = ImmutableMap.of(Card.Type.BITCOIN, 3, Card.Type.METHOD, 0);
+        GameDeck deck = new GameDeck(counts);
+
+        assertEquals(counts, deck.getCardCounts());
+        assertEquals(ImmutableSet.of(Card.Type.BITCOIN, Card.Type.METHOD), deck.getCardTypes());
+        assertEquals(3, deck.getNumAvailable(Card.Type.BITCOIN));
+        assertEquals(0, deck.getNumAvailable(Card.Type.METHOD));
+        assertEquals(0, deck.getNumAvailable(Card.Type.FRAMEWORK));
+    }
+
+    @Test
+    public void arrayConstructorCopiesEveryType() {
+        int[] counts = { 8, 8, 8, 46, 40, 30 };
+        GameDeck deck = new GameDeck(counts);
+        counts[Card.Type.METHOD.ordinal()] = 0;
+
+        assertEquals(ImmutableSet.copyOf(Card.Type.values()), deck.getCardTypes());
+        assertEquals(8, deck.getNumAvailable(Card.Type.METHOD));
+        assertEquals(46, deck.getNumAvailable(Card.Type.BITCOIN));
+        assertEquals(30, deck.getNumAvailable(Card.Type.DOGECOIN));
+        assertEquals(30, (int) deck.getCardCounts().get(Card.Type.DOGECOIN));
+        assertThrows(IllegalArgumentException.class, () -> new GameDeck(new int[] { 1, 2, 3 }));
+    }
+
+    @Test
+    public void withDeltaCopiesTheDeck() {
+        GameDeck deck = new GameDeck(ImmutableMap.of(Card.Type.BITCOIN, 3));
+        GameDeck bought = deck.withDelta(Card.Type.BITCOIN, -1);
+        GameDeck added = deck.withDelta(Card.Type.MODULE, 2);
+
+        assertEquals(3, deck.getNumAvailable(Card.Type.BITCOIN));
+        assertEquals(ImmutableMap.of(Card.Type.BITCOIN, 3), deck.getCardCounts());
+        assertEquals(ImmutableMap.of(Card.Type.BITCOIN, 2), bought.getCardCounts());
+        assertEquals(ImmutableMap.of(Card.Type.BITCOIN, 3, Card.Type.MODULE, 2), added.getCardCounts());
+        assertEquals(ImmutableMap.of(Card.Type.BITCOIN, 0), bought.withDelta(Card.Type.BITCOIN, -2).getCardCounts());
+        assertThrows(IllegalArgumentException.class, () -> bought.withDelta(Card.Type.BITCOIN, -3));
+        assertThrows(IllegalArgumentException.class, () -> deck.withDelta(Card.Type.FRAMEWORK, -1));
+    }
+
+    @Test
+    public void jsonShapeIsTheCardCountsMap() throws Exception {
+        GameDeck deck = new GameDeck(ImmutableMap.of(Card.Type.BITCOIN, 3, Card.Type.FRAMEWORK, 8));
+
+        assertEquals("{\"cardCounts\":{\"BITCOIN\":3,\"FRAMEWORK\":8}}", new ObjectMapper().writeValueAsString(deck));
+    }
+}
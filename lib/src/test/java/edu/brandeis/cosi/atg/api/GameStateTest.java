@@ -0,0 +1,87 @@
+package edu.brandeis.cosi.atg.api;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import edu.brandeis.cosi.atg.api.cards.Card;
+import edu.brandeis.cosi.atg.api.json.GameJsonCodec;
+
+public class GameStateTest {
+    private static final Hand HAND = new Hand(ImmutableList.of(Card.of(Card.Type.BITCOIN, 1)),
+            ImmutableList.of(Card.of(Card.Type.METHOD, 2), Card.of(Card.Type.DOGECOIN, 3)));
+    private static final GameDeck DECK = new GameDeck(ImmutableMap.of(Card.Type.FRAMEWORK, 8, Card.Type.BITCOIN, 40));
+
+    /**
+     * A supplier that counts how often it is called.
+     */
+    private static final class Counting<T> implements Supplier<T> {
+        private final T value;
+        int calls;
+
+        Counting(T value) {
+            this.value = value;
+        }
+
+        @Override
+        public T get() {
+            calls++;
+            return value;
+        }
+    }
+
+    @Test
+    public void lazyPartsAreBuiltOnFirstUseOnly() {
+        Counting<Hand> hand = new Counting<>(HAND);
+        Counting<GameDeck> deck = new Counting<>(DECK);
+        GameState state = GameState.lazy("p", hand, GameState.TurnPhase.BUY, 3, 1, deck);
+
+        assertEquals("p", state.getCurrentPlayerName());
+        assertEquals(GameState.TurnPhase.BUY, state.getTurnPhase());
+        assertEquals(3, state.getSpendableMoney());
+        assertEquals(1, state.getAvailableBuys());
+        assertEquals(0, hand.calls);
+        assertEquals(0, deck.calls);
+
+        assertSame(DECK, state.getDeck());
+        assertSame(DECK, state.getDeck());
+        assertEquals(0, hand.calls);
+        assertEquals(1, deck.calls);
+        assertSame(HAND, state.getCurrentPlayerHand());
+        assertSame(HAND, state.getCurrentPlayerHand());
+        assertEquals(1, hand.calls);
+        assertEquals(1, deck.calls);
+    }
+
+    @Test
+    public void lazyStateWithoutAHandSourceHasNoHand() {
+        Counting<GameDeck> deck = new Counting<>(DECK);
+        GameState state = GameState.lazy("p", null, GameState.TurnPhase.MONEY, 0, 1, deck);
+
+        assertNull(state.getCurrentPlayerHand());
+        assertNull(state.getCurrentPlayerHand());
+        assertSame(DECK, state.getDeck());
+        assertEquals(1, deck.calls);
+    }
+
+    @Test
+    public void lazyAndEagerStatesAreWrittenAlike() throws IOException {
+        GameJsonCodec codec = new GameJsonCodec();
+        for (boolean withHand : new boolean[] { true, false }) {
+            GameState eager = new GameState("p", withHand ? HAND : null, GameState.TurnPhase.CLEANUP, 5, 2, DECK);
+            GameState lazy = GameState.lazy("p", withHand ? () -> HAND : null, GameState.TurnPhase.CLEANUP, 5, 2,
+                    () -> DECK);
+
+            assertArrayEquals(codec.writeGameState(eager), codec.writeGameState(lazy));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package edu.brandeis.cosi.atg.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.cards.Card;
+
+public class HandTest {
+    private static final Card PLAYED = Card.of(Card.Type.ETHEREUM, 40);
+    private static final Card BITCOIN = Card.of(Card.Type.BITCOIN, 1);
+    private static final Card METHOD = Card.of(Card.Type.METHOD, 2);
+    private static final Card DOGECOIN = Card.of(Card.Type.DOGECOIN, 3);
+    private static final Card BITCOIN2 = Card.of(Card.Type.BITCOIN, 4);
+
+    private static Hand hand() {
+        return new Hand(ImmutableList.of(PLAYED), ImmutableList.of(BITCOIN, METHOD, DOGECOIN, BITCOIN2));
+    }
+
+    @Test
+    public void playedCardsAreListedInPlayOrder() {
+        Hand hand = hand().play(BITCOIN2).play(BITCOIN).play(DOGECOIN);
+
+        assertEquals(List.of(PLAYED, BITCOIN2, BITCOIN, DOGECOIN), new ArrayList<>(hand.getPlayedCards()));
+        assertEquals(List.of(METHOD), new ArrayList<>(hand.getUnplayedCards()));
+    }
+
+    @Test
+    public void unplayedCardsKeepTheirOrder() {
+        Hand hand = hand().play(METHOD);
+
+        assertEquals(List.of(BITCOIN, DOGECOIN, BITCOIN2), new ArrayList<>(hand.getUnplayedCards()));
+    }
+
+    @Test
+    public void playingLeavesTheOriginalHandUnchanged() {
+        Hand original = hand();
+        Hand first = original.play(DOGECOIN);
+        Hand second = original.play(BITCOIN);
+
+        assertEquals(List.of(PLAYED), new ArrayList<>(original.getPlayedCards()));
+        assertEquals(List.of(PLAYED, DOGECOIN), new ArrayList<>(first.getPlayedCards()));
+        assertEquals(List.of(PLAYED, BITCOIN), new ArrayList<>(second.getPlayedCards()));
+        assertEquals(1, second.countPlayed(Card.Type.BITCOIN));
+        assertEquals(1, second.countUnplayed(Card.Type.BITCOIN));
+        assertEquals(0, first.countPlayed(Card.Type.BITCOIN));
+        assertEquals(1, first.countPlayed(Card.Type.DOGECOIN));
+    }
+
+    @Test
+    public void onlyUnplayedCardsCanBePlayed() {
+        Hand hand = hand().play(BITCOIN);
+
+        assertThrows(IllegalArgumentException.class, () -> hand.play(BITCOIN));
+        assertThrows(IllegalArgumentException.class, () -> hand.play(PLAYED));
+        assertThrows(IllegalArgumentException.class, () -> hand.play(Card.of(Card.Type.MODULE, 9)));
+    }
+
+    @Test
+    public void containsPlayedAndUnplayedCards() {
+        Hand hand = hand().play(METHOD);
+
+        assertTrue(hand.contains(PLAYED));
+        assertTrue(hand.contains(METHOD));
+        assertTrue(hand.contains(BITCOIN2));
+        assertFalse(hand.contains(Card.of(Card.Type.BITCOIN, 5)));
+        assertFalse(hand.contains(Card.of(Card.Type.METHOD, 1)));
+        assertEquals(5, hand.getAllCards().size());
+    }
+}
@@ -0,0 +1,148 @@
+package edu.brandeis.cosi.atg.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.cards.Card;
+import edu.brandeis.cosi.atg.api.decisions.BuyDecision;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.decisions.PlayCardDecision;
+import edu.brandeis.cosi.atg.api.event.Event;
+
+/**
+ * Simple {@link Player}s and {@link GameObserver}s shared by the tests.
+ */
+public final class TestPlayers {
+    private TestPlayers() {
+    }
+
+    /**
+     * A player that plays every money card and buys the most expensive card it
+     * can afford.
+     */
+    public static class BigMoney implements Player {
+        private final String name;
+        private final boolean autoPlaysMoney;
+
+        public BigMoney(String name) {
+            this(name, false);
+        }
+
+        public BigMoney(String name, boolean autoPlaysMoney) {
+            this.name = name;
+            this.autoPlaysMoney = autoPlaysMoney;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+            Decision best = options.get(options.size() - 1);
+            int bestCost = -1;
+            for (Decision decision : options) {
+                if (decision instanceof PlayCardDecision play
+                        && play.getCard().getCategory() == Card.Type.Category.MONEY) {
+                    return decision;
+                }
+                if (decision instanceof BuyDecision buy && buy.getCardType().getCost() > bestCost) {
+                    best = buy;
+                    bestCost = buy.getCardType().getCost();
+                }
+            }
+            return best;
+        }
+
+        @Override
+        public Optional<GameObserver> getObserver() {
+            return Optional.empty();
+        }
+
+        @Override
+        public boolean autoPlaysMoney() {
+            return autoPlaysMoney;
+        }
+    }
+
+    /**
+     * A player that chooses uniformly among its options.
+     */
+    public static final class RandomPlayer implements Player {
+        private final String name;
+        private final SplittableRandom random;
+
+        public RandomPlayer(String name, long seed) {
+            this.name = name;
+            this.random = new SplittableRandom(seed);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+            return options.get(random.nextInt(options.size()));
+        }
+
+        @Override
+        public Optional<GameObserver> getObserver() {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * A player that always ends the current phase.
+     */
+    public static final class Idle implements Player {
+        private final String name;
+
+        public Idle(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+            return options.get(options.size() - 1);
+        }
+
+        @Override
+        public Optional<GameObserver> getObserver() {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * An observer that records every state and event it is notified of.
+     */
+    public static final class Recorder implements GameObserver {
+        public final List<GameState> states = new ArrayList<>();
+        public final List<Event> events = new ArrayList<>();
+
+        @Override
+        public synchronized void notifyEvent(GameState state, Event event) {
+            states.add(state);
+            events.add(event);
+        }
+
+        public synchronized List<String> descriptions() {
+            List<String> descriptions = new ArrayList<>(events.size());
+            for (Event event : events) {
+                descriptions.add(event.getDescription());
+            }
+            return descriptions;
+        }
+    }
+}
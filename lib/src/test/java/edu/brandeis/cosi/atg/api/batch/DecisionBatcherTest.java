@@ -0,0 +1,147 @@
+package edu.brandeis.cosi.atg.api.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.cards.Card;
+import edu.brandeis.cosi.atg.api.decisions.BuyDecision;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.decisions.EndPhaseDecision;
+
+public class DecisionBatcherTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final GameState STATE = GameState.lazy("a", null, GameState.TurnPhase.BUY, 8, 1, null);
+    private static final ImmutableList<Decision> OPTIONS = ImmutableList.of(BuyDecision.of(Card.Type.FRAMEWORK),
+            EndPhaseDecision.of(GameState.TurnPhase.BUY));
+
+    private static BatchPlayer batchPlayer(Function<ImmutableList<DecisionRequest>, ImmutableList<Decision>> decide) {
+        return new BatchPlayer() {
+            @Override
+            public String getName() {
+                return "batch";
+            }
+
+            @Override
+            public ImmutableList<Decision> makeDecisions(ImmutableList<DecisionRequest> requests) {
+                return decide.apply(requests);
+            }
+        };
+    }
+
+    private static ImmutableList<Decision> firstOptions(ImmutableList<DecisionRequest> requests) {
+        ImmutableList.Builder<Decision> decisions = ImmutableList.builder();
+        for (DecisionRequest request : requests) {
+            decisions.add(request.getOptions().get(0));
+        }
+        return decisions.build();
+    }
+
+    /**
+     * Prompts a new player of the batcher on each of several threads at once.
+     *
+     * @return the number of prompts that failed with an IllegalStateException
+     */
+    private static int promptConcurrently(DecisionBatcher batcher, int threads, Runnable whileWaiting)
+            throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger failures = new AtomicInteger();
+        List<Thread> games = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Player player = batcher.newPlayer();
+            Thread game = new Thread(() -> {
+                try {
+                    start.await();
+                    assertEquals(OPTIONS.get(0), player.makeDecision(STATE, OPTIONS));
+                } catch (IllegalStateException e) {
+                    failures.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            game.start();
+            games.add(game);
+        }
+        start.countDown();
+        whileWaiting.run();
+        for (Thread game : games) {
+            game.join(TIMEOUT.toMillis());
+            assertFalse(game.isAlive(), "A prompt is still waiting");
+        }
+        return failures.get();
+    }
+
+    @Test
+    public void decidesConcurrentPromptsInBatches() throws InterruptedException {
+        DecisionBatcher batcher = new DecisionBatcher(batchPlayer(DecisionBatcherTest::firstOptions), 8,
+                Duration.ofMillis(200));
+        try {
+            assertEquals(0, promptConcurrently(batcher, 16, () -> {
+            }));
+            assertEquals(16, batcher.getRequestCount());
+            assertTrue(batcher.getMeanBatchSize() > 1, "Mean batch size " + batcher.getMeanBatchSize());
+        } finally {
+            batcher.close();
+        }
+    }
+
+    @Test
+    public void wrongNumberOfDecisionsFailsTheBatch() {
+        DecisionBatcher batcher = new DecisionBatcher(batchPlayer(requests -> ImmutableList.of()), 4,
+                Duration.ofMillis(1));
+        try {
+            Player player = batcher.newPlayer();
+            assertThrows(IllegalStateException.class, () -> player.makeDecision(STATE, OPTIONS));
+        } finally {
+            batcher.close();
+        }
+    }
+
+    @Test
+    public void errorFromTheBatchPlayerFailsEveryPrompt() {
+        Thread.UncaughtExceptionHandler handler = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler((thread, e) -> {
+        });
+        DecisionBatcher batcher = new DecisionBatcher(batchPlayer(requests -> {
+            throw new AssertionError("expected");
+        }), 4, Duration.ofMillis(1));
+        try {
+            assertTimeoutPreemptively(TIMEOUT, () -> {
+                assertEquals(4, promptConcurrently(batcher, 4, () -> {
+                }));
+                // The dispatcher has stopped, so later prompts fail rather than wait
+                Player late = batcher.newPlayer();
+                assertThrows(IllegalStateException.class, () -> late.makeDecision(STATE, OPTIONS));
+            });
+        } finally {
+            batcher.close();
+            Thread.setDefaultUncaughtExceptionHandler(handler);
+        }
+    }
+
+    @Test
+    public void closeRacingWithPromptsLeavesNoneWaiting() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            DecisionBatcher batcher = new DecisionBatcher(batchPlayer(DecisionBatcherTest::firstOptions), 4,
+                    Duration.ofMillis(1));
+            promptConcurrently(batcher, 8, batcher::close);
+            Player late = batcher.newPlayer();
+            assertThrows(IllegalStateException.class, () -> late.makeDecision(STATE, OPTIONS));
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package edu.brandeis.cosi.atg.api.cache;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.GameDeck;
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Hand;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.PlayerViolationException;
+import edu.brandeis.cosi.atg.api.TestPlayers;
+import edu.brandeis.cosi.atg.api.cards.Card;
+import edu.brandeis.cosi.atg.api.decisions.BuyDecision;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.decisions.EndPhaseDecision;
+import edu.brandeis.cosi.atg.api.decisions.PlayCardDecision;
+import edu.brandeis.cosi.atg.api.engine.ReferenceEngine;
+
+public class DecisionCacheTest {
+    private static final Card.Type[] TYPES = Card.Type.values();
+    private static final Decision END_MONEY = EndPhaseDecision.of(GameState.TurnPhase.MONEY);
+
+    /**
+     * A player that plays the first card it is offered, or else takes the last
+     * option, and counts how often it is asked.
+     */
+    private static final class Counting implements Player {
+        int calls;
+
+        @Override
+        public String getName() {
+            return "counting";
+        }
+
+        @Override
+        public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+            calls++;
+            for (Decision option : options) {
+                if (option instanceof PlayCardDecision) {
+                    return option;
+                }
+            }
+            return options.get(options.size() - 1);
+        }
+
+        @Override
+        public Optional<GameObserver> getObserver() {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * A prompt described by the fields that make up a cache key. Counts are
+     * indexed by {@link Card.Type#ordinal()}.
+     */
+    private static final class Prompt {
+        int[] supply = { 8, 8, 8, 40, 30, 20 };
+        GameState.TurnPhase phase = GameState.TurnPhase.MONEY;
+        int money = 3;
+        int buys = 1;
+        int[] unplayed = { 2, 0, 0, 2, 1, 0 };
+        int[] played = { 0, 0, 0, 1, 0, 0 };
+
+        /** A prompt with every field at the largest value that fits. */
+        static Prompt largest() {
+            Prompt prompt = new Prompt();
+            Arrays.fill(prompt.supply, 0x3F);
+            Arrays.fill(prompt.unplayed, 0x1F);
+            Arrays.fill(prompt.played, 0x1F);
+            prompt.phase = GameState.TurnPhase.BUY;
+            prompt.money = 0xFF;
+            prompt.buys = 0x1F;
+            return prompt;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("supply=%s %s money=%d buys=%d unplayed=%s played=%s", Arrays.toString(supply),
+                    phase, money, buys, Arrays.toString(unplayed), Arrays.toString(played));
+        }
+
+        /**
+         * Builds the state with card ids starting at {@code firstId}, so that
+         * equal prompts can be built from different cards.
+         */
+        GameState state(int firstId) {
+            int id = firstId;
+            ImmutableList.Builder<Card> playedCards = ImmutableList.builder();
+            ImmutableList.Builder<Card> unplayedCards = ImmutableList.builder();
+            for (Card.Type type : TYPES) {
+                for (int i = 0; i < played[type.ordinal()]; i++) {
+                    playedCards.add(new Card(type, id++));
+                }
+                for (int i = 0; i < unplayed[type.ordinal()]; i++) {
+                    unplayedCards.add(new Card(type, id++));
+                }
+            }
+            return new GameState("counting", new Hand(playedCards.build(), unplayedCards.build()), phase, money, buys,
+                    new GameDeck(supply));
+        }
+
+        /**
+         * Builds the MONEY phase options for the state: one play per unplayed
+         * money card, then ending the phase.
+         */
+        static ImmutableList<Decision> options(GameState state) {
+            ImmutableList.Builder<Decision> options = ImmutableList.builder();
+            for (Card card : state.getCurrentPlayerHand().getUnplayedCards()) {
+                if (card.getCategory() == Card.Type.Category.MONEY) {
+                    options.add(new PlayCardDecision(card));
+                }
+            }
+            return options.add(END_MONEY).build();
+        }
+    }
+
+    @Test
+    public void equalPromptsWithDifferentCardsShareAnEntry() {
+        DecisionCache cache = new DecisionCache(1024);
+        Counting player = new Counting();
+        Prompt prompt = new Prompt();
+
+        GameState first = prompt.state(0);
+        ImmutableList<Decision> firstOptions = Prompt.options(first);
+        Decision chosen = cache.decide(player, first, firstOptions);
+        GameState second = prompt.state(100);
+        ImmutableList<Decision> secondOptions = Prompt.options(second);
+        Decision replayed = cache.decide(player, second, secondOptions);
+
+        assertEquals(1, player.calls);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        // The cached position is replayed against the new options
+        assertSame(secondOptions.get(firstOptions.indexOf(chosen)), replayed);
+        assertNotSame(chosen, replayed);
+    }
+
+    @Test
+    public void promptsDifferingInOneFieldHaveDistinctKeys() {
+        List<Prompt> prompts = new ArrayList<>();
+        prompts.add(new Prompt());
+        // Each field at the smallest and largest values that fit in its bits,
+        // none of them equal to the base prompt's value
+        for (int t = 0; t < TYPES.length; t++) {
+            for (int count : new int[] { 0, 1, 0x3F }) {
+                Prompt prompt = new Prompt();
+                prompt.supply[t] = count;
+                prompts.add(prompt);
+            }
+            for (int count : new int[] { 5, 0x1F }) {
+                Prompt unplayed = new Prompt();
+                unplayed.unplayed[t] = count;
+                prompts.add(unplayed);
+                Prompt played = new Prompt();
+                played.played[t] = count;
+                prompts.add(played);
+            }
+        }
+        for (int money : new int[] { 0, 4, 0xFF }) {
+            Prompt prompt = new Prompt();
+            prompt.money = money;
+            prompts.add(prompt);
+        }
+        for (int buys : new int[] { 0, 2, 0x1F }) {
+            Prompt prompt = new Prompt();
+            prompt.buys = buys;
+            prompts.add(prompt);
+        }
+        Prompt buyPhase = new Prompt();
+        buyPhase.phase = GameState.TurnPhase.BUY;
+        prompts.add(buyPhase);
+        // Neighbouring fields at their largest values, one bit apart
+        prompts.add(Prompt.largest());
+        Prompt moneyPhase = Prompt.largest();
+        moneyPhase.phase = GameState.TurnPhase.MONEY;
+        prompts.add(moneyPhase);
+        for (int buys : new int[] { 0x0F, 0x1E }) {
+            Prompt fewerBuys = Prompt.largest();
+            fewerBuys.buys = buys;
+            prompts.add(fewerBuys);
+        }
+        Prompt lessMoney = Prompt.largest();
+        lessMoney.money = 0xFE;
+        prompts.add(lessMoney);
+        for (int t = 0; t < TYPES.length; t++) {
+            Prompt supply = Prompt.largest();
+            supply.supply[t] = 0x3E;
+            prompts.add(supply);
+            Prompt unplayed = Prompt.largest();
+            unplayed.unplayed[t] = 0x1E;
+            prompts.add(unplayed);
+            Prompt played = Prompt.largest();
+            played.played[t] = 0x1E;
+            prompts.add(played);
+        }
+
+        DecisionCache cache = new DecisionCache(1 << 14);
+        Counting player = new Counting();
+        ImmutableList<Decision> options = ImmutableList.of(END_MONEY);
+        for (Prompt prompt : prompts) {
+            int calls = player.calls;
+            cache.decide(player, prompt.state(0), options);
+            assertEquals(calls + 1, player.calls, "answered from another prompt's entry: " + prompt);
+        }
+        assertEquals(0, cache.getBypassCount());
+        assertEquals(prompts.size(), cache.getMissCount());
+
+        for (Prompt prompt : prompts) {
+            cache.decide(player, prompt.state(1000), options);
+        }
+        assertEquals(prompts.size(), cache.getHitCount());
+        assertEquals(prompts.size(), player.calls);
+    }
+
+    @Test
+    public void optionSequencesOfDifferentLengthsAndOrdersHaveDistinctKeys() {
+        DecisionCache cache = new DecisionCache(1024);
+        Counting player = new Counting();
+        GameState state = new Prompt().state(0);
+        // Playing a METHOD is never offered, but it is action 0, which must
+        // not read as a missing option
+        Decision playMethod = new PlayCardDecision(new Card(Card.Type.METHOD, 0));
+        Decision playBitcoin = new PlayCardDecision(new Card(Card.Type.BITCOIN, 1));
+        Decision buyBitcoin = BuyDecision.of(Card.Type.BITCOIN);
+        Decision buyMethod = BuyDecision.of(Card.Type.METHOD);
+
+        List<List<Decision>> sequences = List.of(ImmutableList.of(END_MONEY),
+                ImmutableList.of(playMethod, END_MONEY), ImmutableList.of(playMethod, playMethod, END_MONEY),
+                ImmutableList.of(playBitcoin, END_MONEY), ImmutableList.of(buyBitcoin, buyMethod, END_MONEY),
+                ImmutableList.of(buyMethod, buyBitcoin, END_MONEY), Collections.nCopies(16, buyBitcoin),
+                Collections.nCopies(15, buyBitcoin));
+        for (List<Decision> options : sequences) {
+            cache.decide(player, state, ImmutableList.copyOf(options));
+        }
+        assertEquals(sequences.size(), player.calls);
+        assertEquals(sequences.size(), cache.getMissCount());
+        assertEquals(0, cache.getBypassCount());
+    }
+
+    @Test
+    public void promptsThatDoNotFitAreBypassed() {
+        List<Prompt> prompts = new ArrayList<>();
+        Prompt supply = new Prompt();
+        supply.supply[Card.Type.BITCOIN.ordinal()] = 0x40;
+        prompts.add(supply);
+        Prompt unplayed = new Prompt();
+        unplayed.unplayed[Card.Type.MODULE.ordinal()] = 0x20;
+        prompts.add(unplayed);
+        Prompt played = new Prompt();
+        played.played[Card.Type.BITCOIN.ordinal()] = 0x20;
+        prompts.add(played);
+        Prompt money = new Prompt();
+        money.money = 0x100;
+        prompts.add(money);
+        Prompt buys = new Prompt();
+        buys.buys = 0x20;
+        prompts.add(buys);
+
+        DecisionCache cache = new DecisionCache(1024);
+        Counting player = new Counting();
+        ImmutableList<Decision> options = ImmutableList.of(END_MONEY);
+        ImmutableList.Builder<Decision> tooMany = ImmutableList.builder();
+        for (int i = 0; i < 17; i++) {
+            tooMany.add(BuyDecision.of(Card.Type.BITCOIN));
+        }
+        GameState hidden = new GameState("counting", null, GameState.TurnPhase.BUY, 3, 1,
+                new GameDeck(new Prompt().supply));
+        for (int round = 0; round < 2; round++) {
+            for (Prompt prompt : prompts) {
+                cache.decide(player, prompt.state(0), options);
+            }
+            cache.decide(player, new Prompt().state(0), tooMany.build());
+            cache.decide(player, hidden, options);
+        }
+
+        assertEquals(2 * (prompts.size() + 2), player.calls);
+        assertEquals(2 * (prompts.size() + 2), cache.getBypassCount());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void cachedPlayerPlaysTheSameGames() throws PlayerViolationException {
+        DecisionCache cache = new DecisionCache(1 << 16);
+        for (long seed = 0; seed < 20; seed++) {
+            List<Player.ScorePair> plain = new ReferenceEngine(ImmutableList.of(new TestPlayers.BigMoney("a"),
+                    new TestPlayers.RandomPlayer("b", seed)), null, new SplittableRandom(seed)).play();
+            List<Player.ScorePair> cached = new ReferenceEngine(ImmutableList.of(
+                    cache.wrap(new TestPlayers.BigMoney("a")), new TestPlayers.RandomPlayer("b", seed)), null,
+                    new SplittableRandom(seed)).play();
+            for (int i = 0; i < plain.size(); i++) {
+                assertEquals(plain.get(i).getScore(), cached.get(i).getScore(), "seed " + seed);
+            }
+        }
+        assertThat(cache.getHitCount(), greaterThan(0L));
+        assertEquals(0, cache.getBypassCount());
+    }
+}
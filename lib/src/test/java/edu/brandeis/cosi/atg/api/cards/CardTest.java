@@ -0,0 +1,104 @@
+package edu.brandeis.cosi.atg.api.cards;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.PlayerViolationException;
+import edu.brandeis.cosi.atg.api.TestPlayers;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.decisions.PlayCardDecision;
+import edu.brandeis.cosi.atg.api.engine.ReferenceEngine;
+
+public class CardTest {
+    @Test
+    public void ofSharesInstancesForPoolIds() {
+        for (Card.Type type : Card.Type.values()) {
+            for (int id = 0; id < Card.POOL_SIZE; id++) {
+                Card card = Card.of(type, id);
+                assertSame(card, Card.of(type, id));
+                assertEquals(type, card.getType());
+                assertEquals(id, card.getId());
+            }
+            for (int id : new int[] { -1, Card.POOL_SIZE, Integer.MAX_VALUE }) {
+                Card card = Card.of(type, id);
+                assertNotSame(card, Card.of(type, id));
+                assertEquals(card, Card.of(type, id));
+                assertEquals(id, card.getId());
+            }
+        }
+    }
+
+    @Test
+    public void poolCoversTheStandardSupply() {
+        int supply = 0;
+        for (Card.Type type : Card.Type.values()) {
+            supply += ReferenceEngine.getInitialSupply(type);
+        }
+        assertEquals(Card.POOL_SIZE, supply);
+    }
+
+    @Test
+    public void equalityAndHashCodeDependOnTypeAndId() {
+        Set<Integer> hashes = new HashSet<>();
+        int ids = 10_000;
+        for (Card.Type type : Card.Type.values()) {
+            for (int id = 0; id < ids; id++) {
+                hashes.add(Card.of(type, id).hashCode());
+            }
+        }
+        assertEquals(Card.Type.values().length * ids, hashes.size());
+        assertEquals(Card.of(Card.Type.BITCOIN, 3), new Card(Card.Type.BITCOIN, 3));
+        assertEquals(Card.of(Card.Type.BITCOIN, 3).hashCode(), new Card(Card.Type.BITCOIN, 3).hashCode());
+        assertNotEquals(Card.of(Card.Type.BITCOIN, 3), Card.of(Card.Type.ETHEREUM, 3));
+        assertNotEquals(Card.of(Card.Type.BITCOIN, 3), Card.of(Card.Type.BITCOIN, 4));
+    }
+
+    @Test
+    public void deserializedCardsAreShared() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+
+        assertSame(Card.of(Card.Type.DOGECOIN, 12),
+                mapper.readValue("{\"type\":\"DOGECOIN\",\"id\":12}", Card.class));
+        assertEquals(new Card(Card.Type.DOGECOIN, 1000),
+                mapper.readValue("{\"type\":\"DOGECOIN\",\"id\":1000}", Card.class));
+    }
+
+    @Test
+    public void engineOnlyHandsOutSharedCards() throws PlayerViolationException {
+        Set<Card> seen = new HashSet<>();
+        Player collector = new TestPlayers.BigMoney("collector") {
+            @Override
+            public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+                for (Card card : state.getCurrentPlayerHand().getAllCards()) {
+                    assertSame(Card.of(card.getType(), card.getId()), card);
+                    seen.add(card);
+                }
+                for (Decision option : options) {
+                    if (option instanceof PlayCardDecision play) {
+                        assertSame(Card.of(play.getCard().getType(), play.getCard().getId()), play.getCard());
+                    }
+                }
+                return super.makeDecision(state, options);
+            }
+        };
+        new ReferenceEngine(ImmutableList.of(collector, new TestPlayers.BigMoney("b")), null,
+                new SplittableRandom(4)).play();
+
+        assertThat(seen.size(), greaterThan(10));
+    }
+}
@@ -0,0 +1,246 @@
+package edu.brandeis.cosi.atg.api.deadline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.cards.Card;
+import edu.brandeis.cosi.atg.api.decisions.BuyDecision;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.decisions.EndPhaseDecision;
+import edu.brandeis.cosi.atg.api.event.Event;
+import edu.brandeis.cosi.atg.api.event.GameEvent;
+
+public class DeadlinePlayerTest {
+    private static final Duration DEADLINE = Duration.ofMillis(20);
+    private static final GameState STATE = GameState.lazy("slow", null, GameState.TurnPhase.BUY, 8, 1, null);
+    private static final Decision BUY = BuyDecision.of(Card.Type.FRAMEWORK);
+    private static final Decision END = EndPhaseDecision.of(GameState.TurnPhase.BUY);
+    private static final ImmutableList<Decision> OPTIONS = ImmutableList.of(BUY, END);
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    public void shutDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * A player that buys, but can be made to hang while ignoring interrupts.
+     * It records how many of its calls overlap, and every event it observes.
+     */
+    private static class Hanging implements Player, GameObserver {
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile boolean hang;
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger active = new AtomicInteger();
+        volatile int maxActive;
+        final List<String> observed = new ArrayList<>();
+
+        @Override
+        public String getName() {
+            return "slow";
+        }
+
+        @Override
+        public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+            calls.incrementAndGet();
+            maxActive = Math.max(maxActive, active.incrementAndGet());
+            try {
+                if (hang) {
+                    Uninterruptibles.awaitUninterruptibly(release);
+                }
+                return options.get(0);
+            } finally {
+                active.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void notifyEvent(GameState state, Event event) {
+            maxActive = Math.max(maxActive, active.incrementAndGet());
+            synchronized (observed) {
+                observed.add(event.getDescription());
+            }
+            active.decrementAndGet();
+        }
+
+        @Override
+        public Optional<GameObserver> getObserver() {
+            return Optional.of(this);
+        }
+    }
+
+    /**
+     * Waits for the wrapped player's call to return, and for the DeadlinePlayer
+     * to notice.
+     */
+    private static void awaitIdle(Hanging player) throws InterruptedException {
+        for (int i = 0; i < 1000 && player.active.get() > 0; i++) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(20);
+    }
+
+    @Test
+    public void decisionWithinTheDeadlineIsReturned() {
+        DecisionDeadlines deadlines = new DecisionDeadlines(Duration.ofSeconds(10), DeadlinePolicy.THROW, executor);
+        DeadlinePlayer player = deadlines.wrap(new Hanging());
+
+        assertEquals(BUY, player.makeDecision(STATE, OPTIONS));
+        assertEquals(1, deadlines.getLatencies().get("slow").getCount());
+        assertEquals(0L, deadlines.getTimeoutCounts().getOrDefault("slow", 0L));
+    }
+
+    @Test
+    public void hungDecisionIsNeverRunConcurrently() throws InterruptedException {
+        DecisionDeadlines deadlines = new DecisionDeadlines(DEADLINE, DeadlinePolicy.END_PHASE, executor);
+        Hanging hanging = new Hanging();
+        hanging.hang = true;
+        DeadlinePlayer player = deadlines.wrap(hanging);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(END, player.makeDecision(STATE, OPTIONS));
+        }
+        assertEquals(1, hanging.calls.get());
+        assertEquals(5L, deadlines.getTimeoutCounts().get("slow"));
+
+        hanging.hang = false;
+        hanging.release.countDown();
+        awaitIdle(hanging);
+        assertEquals(BUY, player.makeDecision(STATE, OPTIONS));
+        assertEquals(2, hanging.calls.get());
+        assertEquals(1, hanging.maxActive);
+    }
+
+    @Test
+    public void callAbandonedBeforeItStartsFreesThePlayer() throws InterruptedException {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch blocker = new CountDownLatch(1);
+            single.submit(() -> Uninterruptibles.awaitUninterruptibly(blocker));
+            DecisionDeadlines deadlines = new DecisionDeadlines(DEADLINE, DeadlinePolicy.END_PHASE, single);
+            Hanging hanging = new Hanging();
+            DeadlinePlayer player = deadlines.wrap(hanging);
+
+            // Queued behind the blocker, so it times out before it starts
+            assertEquals(END, player.makeDecision(STATE, OPTIONS));
+            blocker.countDown();
+            assertEquals(BUY, player.makeDecision(STATE, OPTIONS));
+            assertEquals(1, hanging.calls.get());
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    public void throwPolicyThrows() {
+        DecisionDeadlines deadlines = new DecisionDeadlines(DEADLINE, DeadlinePolicy.THROW, executor);
+        Hanging hanging = new Hanging();
+        hanging.hang = true;
+        DeadlinePlayer player = deadlines.wrap(hanging);
+        try {
+            DecisionTimeoutException e = assertThrows(DecisionTimeoutException.class,
+                    () -> player.makeDecision(STATE, OPTIONS));
+            assertEquals("slow", e.getPlayerName());
+            assertEquals(DEADLINE.toNanos(), e.getDeadlineNanos());
+        } finally {
+            hanging.release.countDown();
+        }
+    }
+
+    @Test
+    public void forfeitEndsEveryLaterPhase() throws InterruptedException {
+        DecisionDeadlines deadlines = new DecisionDeadlines(DEADLINE, DeadlinePolicy.FORFEIT, executor);
+        Hanging hanging = new Hanging();
+        hanging.hang = true;
+        DeadlinePlayer player = deadlines.wrap(hanging);
+
+        assertFalse(player.isForfeited());
+        assertEquals(END, player.makeDecision(STATE, OPTIONS));
+        assertTrue(player.isForfeited());
+        hanging.hang = false;
+        hanging.release.countDown();
+        awaitIdle(hanging);
+        assertEquals(END, player.makeDecision(STATE, OPTIONS));
+        assertEquals(1, hanging.calls.get());
+    }
+
+    @Test
+    public void eventsAreHeldWhileALateDecisionRuns() throws InterruptedException {
+        DecisionDeadlines deadlines = new DecisionDeadlines(DEADLINE, DeadlinePolicy.END_PHASE, executor);
+        Hanging hanging = new Hanging();
+        DeadlinePlayer player = deadlines.wrap(hanging);
+        GameObserver observer = player.getObserver().orElseThrow();
+
+        observer.notifyEvent(STATE, new GameEvent("before"));
+        hanging.hang = true;
+        assertEquals(END, player.makeDecision(STATE, OPTIONS));
+        observer.notifyEvent(STATE, new GameEvent("during 1"));
+        observer.notifyEvent(STATE, new GameEvent("during 2"));
+        synchronized (hanging.observed) {
+            assertEquals(List.of("before"), hanging.observed);
+        }
+
+        hanging.release.countDown();
+        awaitIdle(hanging);
+        observer.notifyEvent(STATE, new GameEvent("after"));
+        synchronized (hanging.observed) {
+            assertEquals(List.of("before", "during 1", "during 2", "after"), hanging.observed);
+        }
+        assertEquals(1, hanging.maxActive);
+    }
+
+    @Test
+    public void playerWithoutAnObserverHasNone() {
+        Player silent = new Hanging() {
+            @Override
+            public Optional<GameObserver> getObserver() {
+                return Optional.empty();
+            }
+        };
+        assertFalse(new DecisionDeadlines(DEADLINE, DeadlinePolicy.THROW, executor).wrap(silent).getObserver()
+                .isPresent());
+    }
+
+    @Test
+    public void closeInterruptsTheRunningDecision() throws Exception {
+        DecisionDeadlines deadlines = new DecisionDeadlines(DEADLINE, DeadlinePolicy.END_PHASE, executor);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Player sleeper = new Hanging() {
+            @Override
+            public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return options.get(0);
+            }
+        };
+        DeadlinePlayer player = deadlines.wrap(sleeper);
+        assertEquals(END, player.makeDecision(STATE, OPTIONS));
+        player.close();
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,99 @@
+package edu.brandeis.cosi.atg.api.decisions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import edu.brandeis.cosi.atg.api.GameDeck;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.cards.Card;
+
+public class BuyOptionsTest {
+    private static final Card.Type[] TYPES = Card.Type.values();
+
+    /**
+     * Builds the BUY phase options the way the Engine documentation describes
+     * them.
+     */
+    private static List<Decision> expectedOptions(int money, int availableMask) {
+        List<Decision> options = new ArrayList<>();
+        for (Card.Type type : TYPES) {
+            if ((availableMask & (1 << type.ordinal())) != 0 && type.getCost() <= money) {
+                options.add(new BuyDecision(type));
+            }
+        }
+        options.add(new EndPhaseDecision(GameState.TurnPhase.BUY));
+        return options;
+    }
+
+    @Test
+    public void optionsMatchTheRulesForEveryMoneyAndMask() {
+        for (int money = -1; money <= 20; money++) {
+            for (int mask = 0; mask < 1 << TYPES.length; mask++) {
+                ImmutableList<Decision> options = BuyOptions.options(money, mask);
+                assertEquals(expectedOptions(money, mask), options, "money " + money + ", mask " + mask);
+                assertSame(options, BuyOptions.options(money, mask));
+            }
+        }
+    }
+
+    @Test
+    public void isOfferedAgreesWithTheOptions() {
+        List<Decision> candidates = new ArrayList<>();
+        for (Card.Type type : TYPES) {
+            candidates.add(new BuyDecision(type));
+        }
+        candidates.add(new EndPhaseDecision(GameState.TurnPhase.BUY));
+        candidates.add(new EndPhaseDecision(GameState.TurnPhase.MONEY));
+        candidates.add(new PlayCardDecision(Card.of(Card.Type.BITCOIN, 0)));
+
+        for (int money = -1; money <= 20; money++) {
+            for (int mask = 0; mask < 1 << TYPES.length; mask++) {
+                ImmutableList<Decision> options = BuyOptions.options(money, mask);
+                for (Decision candidate : candidates) {
+                    assertEquals(options.contains(candidate), BuyOptions.isOffered(candidate, money, mask),
+                            candidate + " with money " + money + ", mask " + mask);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void availableMaskHasTypesWithCardsLeft() {
+        GameDeck deck = new GameDeck(ImmutableMap.of(Card.Type.BITCOIN, 2, Card.Type.FRAMEWORK, 0,
+                Card.Type.MODULE, 1));
+
+        assertEquals(1 << Card.Type.BITCOIN.ordinal() | 1 << Card.Type.MODULE.ordinal(),
+                BuyOptions.availableMask(deck));
+        assertEquals(0, BuyOptions.availableMask(new GameDeck(new int[TYPES.length])));
+    }
+
+    @Test
+    public void decisionsAreSharedInstances() throws Exception {
+        for (Card.Type type : TYPES) {
+            assertSame(BuyDecision.of(type), BuyDecision.of(type));
+        }
+        for (GameState.TurnPhase phase : GameState.TurnPhase.values()) {
+            assertSame(EndPhaseDecision.of(phase), EndPhaseDecision.of(phase));
+        }
+        ImmutableList<Decision> all = BuyOptions.options(100, (1 << TYPES.length) - 1);
+        for (Card.Type type : TYPES) {
+            assertSame(BuyDecision.of(type), all.get(type.ordinal()));
+        }
+        assertSame(EndPhaseDecision.of(GameState.TurnPhase.BUY), all.get(TYPES.length));
+
+        ObjectMapper mapper = new ObjectMapper();
+        assertSame(BuyDecision.of(Card.Type.MODULE),
+                mapper.readValue(mapper.writeValueAsString(BuyDecision.of(Card.Type.MODULE)), BuyDecision.class));
+        assertSame(EndPhaseDecision.of(GameState.TurnPhase.MONEY), mapper.readValue(
+                mapper.writeValueAsString(EndPhaseDecision.of(GameState.TurnPhase.MONEY)), EndPhaseDecision.class));
+    }
+}
@@ -0,0 +1,221 @@
+package edu.brandeis.cosi.atg.api.engine;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.GameDeck;
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Hand;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.PlayerViolationException;
+import edu.brandeis.cosi.atg.api.TestPlayers;
+import edu.brandeis.cosi.atg.api.cards.Card;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.event.EndTurnEvent;
+import edu.brandeis.cosi.atg.api.event.Event;
+import edu.brandeis.cosi.atg.api.event.GainCardEvent;
+import edu.brandeis.cosi.atg.api.event.PlayCardEvent;
+import edu.brandeis.cosi.atg.api.json.GameJsonCodec;
+
+public class HandViewTest {
+    private static final GameJsonCodec CODEC = new GameJsonCodec();
+
+    private static String json(GameState state) {
+        try {
+            return new String(CODEC.writeGameState(state));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Collects the states a player and the observer are given, either as they
+     * arrive or by keeping them until the game is over.
+     */
+    private static final class States implements GameObserver {
+        private final boolean readImmediately;
+        private final List<Object> states = new ArrayList<>();
+
+        States(boolean readImmediately) {
+            this.readImmediately = readImmediately;
+        }
+
+        @Override
+        public void notifyEvent(GameState state, Event event) {
+            add(state);
+        }
+
+        void add(GameState state) {
+            states.add(readImmediately ? json(state) : state);
+        }
+
+        Player wrap(Player player) {
+            return new Player() {
+                @Override
+                public String getName() {
+                    return player.getName();
+                }
+
+                @Override
+                public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+                    add(state);
+                    return player.makeDecision(state, options);
+                }
+
+                @Override
+                public Optional<GameObserver> getObserver() {
+                    return player.getObserver();
+                }
+
+                @Override
+                public boolean autoPlaysMoney() {
+                    return player.autoPlaysMoney();
+                }
+            };
+        }
+
+        List<String> read() {
+            List<String> read = new ArrayList<>(states.size());
+            for (Object state : states) {
+                read.add(state instanceof GameState gameState ? json(gameState) : (String) state);
+            }
+            return read;
+        }
+    }
+
+    private static PlayerState player(int[] played, int[] hand) {
+        PlayerState player = new PlayerState(new TestPlayers.Idle("p"));
+        System.arraycopy(played, 0, player.played, 0, played.length);
+        player.playedSize = played.length;
+        System.arraycopy(hand, 0, player.hand, 0, hand.length);
+        player.handSize = hand.length;
+        return player;
+    }
+
+    private static List<Card> cards(int... ids) {
+        List<Card> cards = new ArrayList<>();
+        for (int id : ids) {
+            cards.add(ReferenceEngine.card(id));
+        }
+        return cards;
+    }
+
+    @Test
+    public void handViewIsACopyBuiltOnce() {
+        PlayerState player = player(new int[] { 7 }, new int[] { 3, 12, 40 });
+        HandView view = new HandView(player);
+        player.hand[0] = 41;
+        player.handSize = 1;
+        player.playedSize = 0;
+
+        Hand hand = view.get();
+        assertEquals(cards(7), new ArrayList<>(hand.getPlayedCards()));
+        assertEquals(cards(3, 12, 40), new ArrayList<>(hand.getUnplayedCards()));
+        assertSame(hand, view.get());
+    }
+
+    @Test
+    public void playingACardUpdatesABuiltHand() {
+        HandView view = new HandView(player(new int[] { 7 }, new int[] { 3, 12, 40 }));
+        // Nothing to update until the Hand has been built
+        assertNull(view.afterPlaying(ReferenceEngine.card(12)));
+
+        Hand hand = view.get();
+        HandView next = view.afterPlaying(ReferenceEngine.card(12));
+        assertSame(hand, view.get());
+        assertEquals(cards(7, 12), new ArrayList<>(next.get().getPlayedCards()));
+        assertEquals(cards(3, 40), new ArrayList<>(next.get().getUnplayedCards()));
+        assertSame(next.get(), next.get());
+    }
+
+    @Test
+    public void deckViewIsACopyBuiltOnce() {
+        int[] supply = new int[ReferenceEngine.TYPE_COUNT];
+        supply[Card.Type.FRAMEWORK.ordinal()] = 8;
+        DeckView view = new DeckView(supply);
+        supply[Card.Type.FRAMEWORK.ordinal()] = 0;
+
+        GameDeck deck = view.get();
+        assertEquals(8, deck.getNumAvailable(Card.Type.FRAMEWORK));
+        assertSame(deck, view.get());
+    }
+
+    @Test
+    public void statesReadLateDescribeTheMomentTheyWereGiven() throws PlayerViolationException {
+        for (boolean autoPlaysMoney : new boolean[] { false, true }) {
+            List<List<String>> games = new ArrayList<>();
+            for (boolean readImmediately : new boolean[] { true, false }) {
+                States states = new States(readImmediately);
+                new ReferenceEngine(ImmutableList.of(states.wrap(new TestPlayers.BigMoney("a", autoPlaysMoney)),
+                        states.wrap(new TestPlayers.RandomPlayer("b", 4))), states, new SplittableRandom(4)).play();
+                games.add(states.read());
+            }
+
+            assertEquals(games.get(0), games.get(1), "autoPlaysMoney " + autoPlaysMoney);
+        }
+    }
+
+    @Test
+    public void statesFollowTheEvents() throws PlayerViolationException {
+        for (boolean autoPlaysMoney : new boolean[] { false, true }) {
+            // The supply left after the gains so far, and the cards played this turn
+            Map<Card.Type, Integer> supply = new EnumMap<>(Card.Type.class);
+            List<Card> played = new ArrayList<>();
+            List<Runnable> lateChecks = new ArrayList<>();
+            GameObserver events = (state, event) -> {
+                if (event instanceof GainCardEvent gain) {
+                    supply.merge(gain.getDecision(), -1, Integer::sum);
+                } else if (event instanceof PlayCardEvent play) {
+                    played.add(play.getCard());
+                } else if (event instanceof EndTurnEvent) {
+                    // The turn ends with a freshly drawn hand
+                    assertEquals(0, state.getCurrentPlayerHand().getPlayedCards().size());
+                    played.clear();
+                }
+            };
+            Player checked = new TestPlayers.BigMoney("a", autoPlaysMoney) {
+                @Override
+                public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+                    if (supply.isEmpty()) {
+                        // Nothing has been gained before the first decision
+                        supply.putAll(state.getDeck().getCardCounts());
+                    }
+                    Map<Card.Type, Integer> expectedSupply = new EnumMap<>(supply);
+                    List<Card> expectedPlayed = new ArrayList<>(played);
+                    Runnable check = () -> {
+                        assertEquals(expectedSupply, state.getDeck().getCardCounts());
+                        assertEquals(expectedPlayed, new ArrayList<>(state.getCurrentPlayerHand().getPlayedCards()));
+                    };
+                    // Read half the states as they are given, so their views are reused
+                    if (lateChecks.size() % 2 == 0) {
+                        check.run();
+                    }
+                    lateChecks.add(check);
+                    return super.makeDecision(state, options);
+                }
+            };
+            new ReferenceEngine(ImmutableList.of(checked, new TestPlayers.RandomPlayer("b", 6)), events,
+                    new SplittableRandom(6)).play();
+
+            assertThat(lateChecks.size(), greaterThan(10));
+            lateChecks.forEach(Runnable::run);
+        }
+    }
+}
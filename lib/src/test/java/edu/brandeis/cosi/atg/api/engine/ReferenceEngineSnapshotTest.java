@@ -0,0 +1,87 @@
+package edu.brandeis.cosi.atg.api.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.PlayerViolationException;
+import edu.brandeis.cosi.atg.api.TestPlayers;
+import edu.brandeis.cosi.atg.api.event.EndTurnEvent;
+
+public class ReferenceEngineSnapshotTest {
+    private static final long SEED = 77L;
+    private static final int SNAPSHOT_TURN = 10;
+
+    private static ImmutableList<Player> players() {
+        return ImmutableList.of(new TestPlayers.BigMoney("a"), new TestPlayers.BigMoney("b"));
+    }
+
+    @Test
+    public void resumedGameContinuesTheOriginal() throws Exception {
+        TestPlayers.Recorder original = new TestPlayers.Recorder();
+        AtomicReference<ReferenceEngine> engine = new AtomicReference<>();
+        AtomicReference<CompletableFuture<byte[]>> snapshot = new AtomicReference<>();
+        AtomicInteger eventsBeforeSnapshot = new AtomicInteger(-1);
+        GameObserver requester = (state, event) -> {
+            original.notifyEvent(state, event);
+            if (event instanceof EndTurnEvent && engine.get().getTurnCount() == SNAPSHOT_TURN) {
+                snapshot.set(engine.get().requestSnapshot());
+                snapshot.get().thenRun(() -> eventsBeforeSnapshot.set(original.events.size()));
+            }
+        };
+        engine.set(new ReferenceEngine(players(), requester, new SplittableRandom(SEED)));
+        List<Player.ScorePair> originalScores = engine.get().play();
+
+        assertTrue(snapshot.get().isDone());
+        assertTrue(eventsBeforeSnapshot.get() > 0);
+        assertTrue(eventsBeforeSnapshot.get() < original.events.size());
+        TestPlayers.Recorder resumed = new TestPlayers.Recorder();
+        ReferenceEngine resumedEngine = ReferenceEngine.resume(snapshot.get().get(), players(), resumed);
+        List<Player.ScorePair> resumedScores = resumedEngine.play();
+
+        List<String> expected = original.descriptions();
+        assertEquals(expected.subList(eventsBeforeSnapshot.get(), expected.size()), resumed.descriptions());
+        assertEquals(engine.get().getTurnCount(), resumedEngine.getTurnCount());
+        for (int i = 0; i < originalScores.size(); i++) {
+            assertEquals(originalScores.get(i).player.getName(), resumedScores.get(i).player.getName());
+            assertEquals(originalScores.get(i).getScore(), resumedScores.get(i).getScore());
+        }
+    }
+
+    @Test
+    public void snapshotOfAFinishedGameCompletesImmediately() throws PlayerViolationException {
+        ReferenceEngine engine = new ReferenceEngine(players(), null, new SplittableRandom(SEED));
+        engine.play();
+        assertTrue(engine.requestSnapshot().isDone());
+    }
+
+    @Test
+    public void malformedSnapshotIsRejected() throws Exception {
+        ReferenceEngine engine = new ReferenceEngine(players(), null, new SplittableRandom(SEED));
+        CompletableFuture<byte[]> request = engine.requestSnapshot();
+        engine.play();
+        byte[] snapshot = request.get();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ReferenceEngine.resume(Arrays.copyOf(snapshot, snapshot.length - 1), players(), null));
+        byte[] corrupt = snapshot.clone();
+        corrupt[0] ^= 1;
+        assertThrows(IllegalArgumentException.class, () -> ReferenceEngine.resume(corrupt, players(), null));
+        ImmutableList<Player> renamed = ImmutableList.of(new TestPlayers.BigMoney("a"),
+                new TestPlayers.BigMoney("c"));
+        assertThrows(IllegalArgumentException.class, () -> ReferenceEngine.resume(snapshot, renamed, null));
+    }
+}
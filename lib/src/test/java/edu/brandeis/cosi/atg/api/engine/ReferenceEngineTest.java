@@ -0,0 +1,344 @@
+package edu.brandeis.cosi.atg.api.engine;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.PlayerViolationException;
+import edu.brandeis.cosi.atg.api.TestPlayers;
+import edu.brandeis.cosi.atg.api.cards.Card;
+import edu.brandeis.cosi.atg.api.decisions.BuyDecision;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.decisions.EndPhaseDecision;
+import edu.brandeis.cosi.atg.api.decisions.PlayCardDecision;
+import edu.brandeis.cosi.atg.api.event.EndTurnEvent;
+import edu.brandeis.cosi.atg.api.event.GainCardEvent;
+import edu.brandeis.cosi.atg.api.event.PlayCardEvent;
+import edu.brandeis.cosi.atg.api.metrics.EngineMetrics;
+
+public class ReferenceEngineTest {
+    private static final long SEED = 20240901L;
+
+    private static List<Player.ScorePair> play(Player player1, Player player2, GameObserver observer, long seed)
+            throws PlayerViolationException {
+        return new ReferenceEngine(ImmutableList.of(player1, player2), observer, new SplittableRandom(seed)).play();
+    }
+
+    @Test
+    public void fixedSeedReplaysTheSameGame() throws PlayerViolationException {
+        TestPlayers.Recorder first = new TestPlayers.Recorder();
+        TestPlayers.Recorder second = new TestPlayers.Recorder();
+        List<Player.ScorePair> firstScores = play(new TestPlayers.RandomPlayer("a", 1),
+                new TestPlayers.RandomPlayer("b", 2), first, SEED);
+        List<Player.ScorePair> secondScores = play(new TestPlayers.RandomPlayer("a", 1),
+                new TestPlayers.RandomPlayer("b", 2), second, SEED);
+
+        assertEquals(first.descriptions(), second.descriptions());
+        assertEquals(firstScores.size(), secondScores.size());
+        for (int i = 0; i < firstScores.size(); i++) {
+            assertEquals(firstScores.get(i).player.getName(), secondScores.get(i).player.getName());
+            assertEquals(firstScores.get(i).getScore(), secondScores.get(i).getScore());
+        }
+    }
+
+    @Test
+    public void offersOnlyLegalDecisions() throws PlayerViolationException {
+        for (long seed = 0; seed < 20; seed++) {
+            play(new RuleChecker(new TestPlayers.RandomPlayer("a", seed)),
+                    new RuleChecker(new TestPlayers.BigMoney("b")), null, seed);
+        }
+    }
+
+    @Test
+    public void endsWhenFrameworksRunOutAndScoresVictoryPoints() throws PlayerViolationException {
+        TestPlayers.Recorder recorder = new TestPlayers.Recorder();
+        List<Player.ScorePair> scores = play(new TestPlayers.BigMoney("a"), new TestPlayers.BigMoney("b"),
+                recorder, SEED);
+
+        Map<String, Integer> points = new HashMap<>();
+        int frameworks = 0;
+        int turns = 0;
+        for (Object event : recorder.events) {
+            if (event instanceof GainCardEvent gain) {
+                Card.Type type = gain.getDecision();
+                if (type.getCategory() == Card.Type.Category.VICTORY) {
+                    points.merge(gain.getPlayerName(), type.getValue(), Integer::sum);
+                }
+                if (type == Card.Type.FRAMEWORK) {
+                    frameworks++;
+                }
+            } else if (event instanceof EndTurnEvent) {
+                turns++;
+            }
+        }
+        assertEquals(ReferenceEngine.getInitialSupply(Card.Type.FRAMEWORK), frameworks);
+        assertThat(scores.get(0).getScore(), greaterThanOrEqualTo(scores.get(1).getScore()));
+        for (Player.ScorePair score : scores) {
+            int expected = ReferenceEngine.STARTING_METHODS * Card.Type.METHOD.getValue()
+                    + points.getOrDefault(score.player.getName(), 0);
+            assertEquals(expected, score.getScore(), score.player.getName());
+        }
+    }
+
+    @Test
+    public void moneyIsTheSumOfPlayedCards() throws PlayerViolationException {
+        GameObserver checker = (state, event) -> {
+            if (state.getTurnPhase() == GameState.TurnPhase.MONEY && event instanceof PlayCardEvent) {
+                int played = 0;
+                for (Card card : state.getCurrentPlayerHand().getPlayedCards()) {
+                    played += card.getValue();
+                }
+                assertEquals(played, state.getSpendableMoney());
+            }
+        };
+        play(new TestPlayers.BigMoney("a"), new TestPlayers.RandomPlayer("b", 3), checker, SEED);
+    }
+
+    @Test
+    public void autoPlayedMoneyGivesTheSameGame() throws PlayerViolationException {
+        TestPlayers.Recorder prompted = new TestPlayers.Recorder();
+        TestPlayers.Recorder automatic = new TestPlayers.Recorder();
+        List<Player.ScorePair> promptedScores = play(new TestPlayers.BigMoney("a", false),
+                new TestPlayers.BigMoney("b", false), prompted, SEED);
+        List<Player.ScorePair> automaticScores = play(new TestPlayers.BigMoney("a", true),
+                new TestPlayers.BigMoney("b", true), automatic, SEED);
+
+        assertEquals(prompted.descriptions(), automatic.descriptions());
+        assertEquals(promptedScores.get(0).getScore(), automaticScores.get(0).getScore());
+        assertEquals(promptedScores.get(1).getScore(), automaticScores.get(1).getScore());
+    }
+
+    /**
+     * Plays the last money card offered each time, so that cards are not played
+     * in hand order, and checks at each BUY prompt that the hand lists the
+     * played cards in play order.
+     */
+    private static final class ReversePlayer extends TestPlayers.BigMoney {
+        private final boolean readsHandWhilePlaying;
+        private final List<Card> played = new ArrayList<>();
+        final List<List<Card>> unplayedAtBuy = new ArrayList<>();
+        private boolean buying;
+
+        ReversePlayer(String name, boolean readsHandWhilePlaying) {
+            super(name, false);
+            this.readsHandWhilePlaying = readsHandWhilePlaying;
+        }
+
+        @Override
+        public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+            if (state.getTurnPhase() == GameState.TurnPhase.BUY) {
+                if (!buying) {
+                    assertEquals(played, new ArrayList<>(state.getCurrentPlayerHand().getPlayedCards()));
+                    unplayedAtBuy.add(new ArrayList<>(state.getCurrentPlayerHand().getUnplayedCards()));
+                }
+                buying = true;
+                return super.makeDecision(state, options);
+            }
+            if (buying) {
+                played.clear();
+                buying = false;
+            }
+            if (readsHandWhilePlaying) {
+                state.getCurrentPlayerHand().getPlayedCards();
+            }
+            Decision last = options.get(options.size() - 1);
+            for (Decision option : options) {
+                if (option instanceof PlayCardDecision) {
+                    last = option;
+                }
+            }
+            if (last instanceof PlayCardDecision play) {
+                played.add(play.getCard());
+            }
+            return last;
+        }
+    }
+
+    @Test
+    public void handsListPlayedCardsInPlayOrder() throws PlayerViolationException {
+        ReversePlayer derived = new ReversePlayer("a", true);
+        play(derived, new TestPlayers.BigMoney("b"), null, SEED);
+        ReversePlayer rebuilt = new ReversePlayer("a", false);
+        play(rebuilt, new TestPlayers.BigMoney("b"), null, SEED);
+
+        // Hands derived from the previous prompt's hand and hands rebuilt from
+        // the engine's piles agree
+        assertThat(derived.unplayedAtBuy.size(), greaterThan(10));
+        assertEquals(derived.unplayedAtBuy, rebuilt.unplayedAtBuy);
+    }
+
+    @Test
+    public void idlePlayersAreAbandonedAtTheTurnLimit() throws PlayerViolationException {
+        ReferenceEngine engine = new ReferenceEngine(
+                ImmutableList.of(new TestPlayers.Idle("a"), new TestPlayers.Idle("b")), null,
+                new SplittableRandom(SEED), EngineMetrics.NONE, 50);
+        TurnLimitException e = assertThrows(TurnLimitException.class, engine::play);
+
+        assertEquals(50, e.getTurns());
+        assertEquals(50, engine.getTurnCount());
+    }
+
+    @Test
+    public void turnLimitDoesNotAffectFinishedGames() throws PlayerViolationException {
+        List<Player.ScorePair> unlimited = play(new TestPlayers.BigMoney("a"),
+                new TestPlayers.BigMoney("b"), null, SEED);
+        ReferenceEngine engine = new ReferenceEngine(
+                ImmutableList.of(new TestPlayers.BigMoney("a"), new TestPlayers.BigMoney("b")), null,
+                new SplittableRandom(SEED), EngineMetrics.NONE, 1000);
+        List<Player.ScorePair> limited = engine.play();
+
+        assertThat(engine.getTurnCount(), lessThan(1000L));
+        for (int i = 0; i < 2; i++) {
+            assertEquals(unlimited.get(i).getScore(), limited.get(i).getScore());
+        }
+    }
+
+    @Test
+    public void decisionNotOfferedIsAViolation() {
+        Player cheater = new Scripted("cheater", (state, options) -> BuyDecision.of(Card.Type.FRAMEWORK));
+        PlayerViolationException e = assertThrows(PlayerViolationException.class,
+                () -> play(new TestPlayers.BigMoney("honest"), cheater, null, SEED));
+        assertEquals("cheater", e.getPlayerName());
+        assertThat(e.getMessage(), containsString("not offered"));
+    }
+
+    @Test
+    public void playingAVictoryCardIsAViolation() {
+        Player cheater = new Scripted("cheater", (state, options) -> {
+            if (state.getTurnPhase() == GameState.TurnPhase.MONEY) {
+                for (Card card : state.getCurrentPlayerHand().getUnplayedCards()) {
+                    if (card.getCategory() == Card.Type.Category.VICTORY) {
+                        return new PlayCardDecision(card);
+                    }
+                }
+            }
+            return options.get(options.size() - 1);
+        });
+        PlayerViolationException e = assertThrows(PlayerViolationException.class,
+                () -> play(cheater, new TestPlayers.Idle("honest"), null, SEED));
+        assertEquals("cheater", e.getPlayerName());
+    }
+
+    @Test
+    public void missingDecisionIsAViolation() {
+        Player silent = new Scripted("silent", (state, options) -> null);
+        PlayerViolationException e = assertThrows(PlayerViolationException.class,
+                () -> play(silent, new TestPlayers.Idle("honest"), null, SEED));
+        assertEquals("silent", e.getPlayerName());
+    }
+
+    @Test
+    public void exceptionFromAPlayerIsAViolation() {
+        Player thrower = new Scripted("thrower", (state, options) -> {
+            throw new IllegalStateException("broken");
+        });
+        PlayerViolationException e = assertThrows(PlayerViolationException.class,
+                () -> play(new TestPlayers.Idle("honest"), thrower, null, SEED));
+        assertEquals("thrower", e.getPlayerName());
+        assertThat(e.getCause().getMessage(), equalTo("broken"));
+    }
+
+    /**
+     * Checks every prompt against the rules before delegating to another
+     * player.
+     */
+    private static final class RuleChecker implements Player {
+        private final Player delegate;
+
+        RuleChecker(Player delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+            Set<Decision> expected = new HashSet<>();
+            switch (state.getTurnPhase()) {
+                case MONEY:
+                    for (Card card : state.getCurrentPlayerHand().getUnplayedCards()) {
+                        if (card.getCategory() == Card.Type.Category.MONEY) {
+                            expected.add(new PlayCardDecision(card));
+                        }
+                    }
+                    expected.add(EndPhaseDecision.of(GameState.TurnPhase.MONEY));
+                    break;
+                case BUY:
+                    assertThat(state.getAvailableBuys(), greaterThan(0));
+                    for (Card.Type type : Card.Type.values()) {
+                        if (type.getCost() <= state.getSpendableMoney()
+                                && state.getDeck().getCardCounts().getOrDefault(type, 0) > 0) {
+                            expected.add(BuyDecision.of(type));
+                        }
+                    }
+                    expected.add(EndPhaseDecision.of(GameState.TurnPhase.BUY));
+                    break;
+                default:
+                    throw new AssertionError("Prompted in phase " + state.getTurnPhase());
+            }
+            assertEquals(expected, new HashSet<>(options), state.getTurnPhase().toString());
+            assertEquals(expected.size(), options.size(), "Duplicate options");
+            assertTrue(options.get(options.size() - 1) instanceof EndPhaseDecision);
+            return delegate.makeDecision(state, options);
+        }
+
+        @Override
+        public Optional<GameObserver> getObserver() {
+            return Optional.empty();
+        }
+    }
+
+    private interface Script {
+        Decision decide(GameState state, ImmutableList<Decision> options);
+    }
+
+    private static final class Scripted implements Player {
+        private final String name;
+        private final Script script;
+
+        Scripted(String name, Script script) {
+            this.name = name;
+            this.script = script;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+            return script.decide(state, options);
+        }
+
+        @Override
+        public Optional<GameObserver> getObserver() {
+            return Optional.empty();
+        }
+    }
+}
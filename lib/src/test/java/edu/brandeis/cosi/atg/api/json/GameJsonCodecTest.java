@@ -0,0 +1,147 @@
+package edu.brandeis.cosi.atg.api.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.TestPlayers;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.engine.ReferenceEngine;
+import edu.brandeis.cosi.atg.api.event.Event;
+import edu.brandeis.cosi.atg.api.event.GainCardEvent;
+import edu.brandeis.cosi.atg.api.event.GameEvent;
+
+public class GameJsonCodecTest {
+    private final GameJsonCodec codec = new GameJsonCodec();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final TestPlayers.Recorder recorder = new TestPlayers.Recorder();
+    private final List<GameState> promptStates = new ArrayList<>();
+    private final List<ImmutableList<Decision>> prompts = new ArrayList<>();
+    private final List<Decision> decisions = new ArrayList<>();
+
+    /**
+     * Plays a game, keeping every state, option list, decision and event.
+     */
+    @BeforeEach
+    public void playGame() throws Exception {
+        Player capturing = new TestPlayers.BigMoney("b") {
+            @Override
+            public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+                Decision decision = super.makeDecision(state, options);
+                promptStates.add(state);
+                prompts.add(options);
+                decisions.add(decision);
+                return decision;
+            }
+        };
+        ImmutableList<Player> players = ImmutableList.of(new TestPlayers.RandomPlayer("a", 8), capturing);
+        new ReferenceEngine(players, recorder, new SplittableRandom(8)).play();
+        recorder.notifyEvent(GameState.lazy("a", null, GameState.TurnPhase.BUY, 2, 1, null),
+                new GameEvent("a \"quoted\" description\n"));
+    }
+
+    private void assertSameJson(Object value, byte[] json) throws IOException {
+        assertEquals(mapper.readTree(mapper.writeValueAsBytes(value)), mapper.readTree(json),
+                String.valueOf(value));
+    }
+
+    /**
+     * Writes a list of decisions with its element type, which is otherwise lost
+     * to erasure along with the type discriminator.
+     */
+    private byte[] writeOptions(ImmutableList<Decision> options) throws IOException {
+        return mapper.writerFor(new TypeReference<List<Decision>>() {
+        }).writeValueAsBytes(options);
+    }
+
+    @Test
+    public void writesWhatObjectMapperWrites() throws Exception {
+        for (GameState state : recorder.states) {
+            assertSameJson(state, codec.writeGameState(state));
+        }
+        for (GameState state : promptStates) {
+            assertSameJson(state, codec.writeGameState(state));
+        }
+        for (Event event : recorder.events) {
+            assertSameJson(event, codec.writeEvent(event));
+        }
+        for (ImmutableList<Decision> options : prompts) {
+            assertEquals(mapper.readTree(writeOptions(options)), mapper.readTree(codec.writeDecisions(options)));
+        }
+        for (Decision decision : decisions) {
+            assertSameJson(decision, codec.writeDecision(decision));
+        }
+    }
+
+    @Test
+    public void readsWhatObjectMapperWrites() throws Exception {
+        for (GameState state : recorder.states) {
+            byte[] json = mapper.writeValueAsBytes(state);
+            assertSameJson(state, codec.writeGameState(codec.readGameState(json)));
+        }
+        for (Event event : recorder.events) {
+            byte[] json = mapper.writeValueAsBytes(event);
+            assertSameJson(event, codec.writeEvent(codec.readEvent(json)));
+        }
+        for (ImmutableList<Decision> options : prompts) {
+            assertEquals(options, codec.readDecisions(writeOptions(options)));
+        }
+        for (Decision decision : decisions) {
+            assertEquals(decision, codec.readDecision(mapper.writeValueAsBytes(decision)));
+        }
+    }
+
+    @Test
+    public void objectMapperReadsWhatTheCodecWrites() throws Exception {
+        for (Event event : recorder.events) {
+            if (event instanceof GainCardEvent) {
+                // Written as "decision" but read as "cardType", so the annotations
+                // cannot read their own output either
+                continue;
+            }
+            Event read = mapper.readValue(codec.writeEvent(event), Event.class);
+            assertSameJson(event, mapper.writeValueAsBytes(read));
+        }
+        for (Decision decision : decisions) {
+            assertEquals(decision, mapper.readValue(codec.writeDecision(decision), Decision.class));
+        }
+    }
+
+    private String stateError(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return assertThrows(JsonParseException.class, () -> codec.readGameState(bytes)).getOriginalMessage();
+    }
+
+    private String decisionError(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return assertThrows(JsonParseException.class, () -> codec.readDecision(bytes)).getOriginalMessage();
+    }
+
+    @Test
+    public void rejectsUnknownAndMalformedValues() {
+        assertEquals("Unknown Type: NOPE", stateError("{\"deck\":{\"cardCounts\":{\"NOPE\":3}}}"));
+        assertEquals("Duplicate card count: BITCOIN",
+                stateError("{\"deck\":{\"cardCounts\":{\"BITCOIN\":3,\"BITCOIN\":4}}}"));
+        assertEquals("Expected VALUE_NUMBER_INT but found VALUE_STRING",
+                stateError("{\"deck\":{\"cardCounts\":{\"BITCOIN\":\"3\"}}}"));
+        assertEquals("Unknown Type: NOPE", decisionError("{\"type\":\"BUY\",\"cardType\":\"NOPE\"}"));
+        assertEquals("Expected VALUE_STRING but found START_ARRAY",
+                decisionError("{\"type\":\"BUY\",\"cardType\":[]}"));
+    }
+}
@@ -0,0 +1,127 @@
+package edu.brandeis.cosi.atg.api.log;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.PlayerViolationException;
+import edu.brandeis.cosi.atg.api.TestPlayers;
+import edu.brandeis.cosi.atg.api.engine.ReferenceEngine;
+import edu.brandeis.cosi.atg.api.event.GameEvent;
+import edu.brandeis.cosi.atg.api.json.GameJsonCodec;
+
+public class GameLogTest {
+    private final GameJsonCodec codec = new GameJsonCodec();
+
+    /**
+     * Plays a game, recording it both in memory and in a log.
+     */
+    static byte[] playAndLog(long seed, TestPlayers.Recorder recorder) throws IOException, PlayerViolationException {
+        return playAndLog(seed, recorder, "a", "b");
+    }
+
+    /**
+     * Plays a game between players with the specified names, recording it both
+     * in memory and in a log.
+     */
+    static byte[] playAndLog(long seed, TestPlayers.Recorder recorder, String name1, String name2)
+            throws IOException, PlayerViolationException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GameLogWriter writer = new GameLogWriter(bytes)) {
+            GameObserver both = (state, event) -> {
+                recorder.notifyEvent(state, event);
+                writer.notifyEvent(state, event);
+            };
+            both.notifyEvent(GameState.lazy(name1, null, GameState.TurnPhase.MONEY, 0, 1, null),
+                    new GameEvent("Game " + seed + " started"));
+            ImmutableList<Player> players = ImmutableList.of(new TestPlayers.RandomPlayer(name1, seed),
+                    new TestPlayers.BigMoney(name2));
+            new ReferenceEngine(players, both, new SplittableRandom(seed)).play();
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void readsBackEveryRecord() throws Exception {
+        TestPlayers.Recorder recorder = new TestPlayers.Recorder();
+        byte[] log = playAndLog(5, recorder);
+
+        try (GameLogReader reader = new GameLogReader(new ByteArrayInputStream(log))) {
+            for (int i = 0; i < recorder.events.size(); i++) {
+                Optional<GameLogRecord> record = reader.read();
+                assertTrue(record.isPresent(), "Record " + i);
+                assertArrayEquals(codec.writeGameState(recorder.states.get(i)),
+                        codec.writeGameState(record.get().getState()), "State " + i);
+                assertArrayEquals(codec.writeEvent(recorder.events.get(i)),
+                        codec.writeEvent(record.get().getEvent()), "Event " + i);
+            }
+            assertFalse(reader.read().isPresent());
+        }
+    }
+
+    @Test
+    public void replaysEveryRecord() throws Exception {
+        TestPlayers.Recorder recorder = new TestPlayers.Recorder();
+        byte[] log = playAndLog(6, recorder);
+
+        TestPlayers.Recorder replayed = new TestPlayers.Recorder();
+        try (GameLogReader reader = new GameLogReader(new ByteArrayInputStream(log))) {
+            assertEquals(recorder.events.size(), reader.replay(replayed));
+        }
+        assertEquals(recorder.descriptions(), replayed.descriptions());
+    }
+
+    @Test
+    public void rejectsOtherData() {
+        assertThrows(IOException.class,
+                () -> new GameLogReader(new ByteArrayInputStream(new byte[] { 'A', 'T', 'G', 'X', 1 })));
+    }
+
+    /**
+     * Builds a log holding one record with no deck or hand, whose player,
+     * phase, money, buys and event fields are the specified bytes.
+     */
+    private static byte[] corruptLog(int kind, int... fields) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(GameLogFormat.MAGIC);
+        out.write(GameLogFormat.VERSION);
+        out.write(kind | GameLogFormat.FLAG_DECK_NULL | GameLogFormat.FLAG_HAND_NULL);
+        for (int b : fields) {
+            out.write(b);
+        }
+        return out.toByteArray();
+    }
+
+    private static String readError(byte[] log) throws IOException {
+        try (GameLogReader reader = new GameLogReader(new ByteArrayInputStream(log))) {
+            return assertThrows(IOException.class, reader::read).getMessage();
+        }
+    }
+
+    @Test
+    public void rejectsOutOfRangeValues() throws IOException {
+        assertEquals("Invalid turn phase in game log: 9",
+                readError(corruptLog(GameLogFormat.KIND_END_TURN, 0, 9, 0, 0)));
+        assertEquals("Invalid card type in game log: 99",
+                readError(corruptLog(GameLogFormat.KIND_GAIN_CARD, 0, 0, 0, 0, 99, 0)));
+        assertTrue(readError(corruptLog(GameLogFormat.KIND_PLAY_CARD, 0, 0, 0, 0, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF,
+                0xFF, 0xFF, 0xFF, 0xFF, 0x01, 0)).startsWith("Invalid card id in game log"));
+        assertTrue(readError(corruptLog(GameLogFormat.KIND_END_TURN, 0, 0, 0xFF, 0xFF, 0xFF, 0xFF, 0x7F, 0))
+                .startsWith("Value out of range in game log"));
+    }
+}
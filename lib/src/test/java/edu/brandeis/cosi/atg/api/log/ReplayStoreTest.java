@@ -0,0 +1,241 @@
+package edu.brandeis.cosi.atg.api.log;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.TestPlayers;
+import edu.brandeis.cosi.atg.api.cards.Card;
+import edu.brandeis.cosi.atg.api.event.EndTurnEvent;
+import edu.brandeis.cosi.atg.api.event.Event;
+import edu.brandeis.cosi.atg.api.event.GainCardEvent;
+import edu.brandeis.cosi.atg.api.event.PlayCardEvent;
+import edu.brandeis.cosi.atg.api.json.GameJsonCodec;
+
+public class ReplayStoreTest {
+    private static final int GAMES = 12;
+    /** Small enough that the games span several segments. */
+    private static final long SEGMENT_SIZE = 8 << 10;
+
+    @TempDir
+    Path directory;
+
+    private final List<Long> gameIds = new ArrayList<>();
+    private final List<List<Row>> games = new ArrayList<>();
+
+    /**
+     * An event, with the fields that queries can match.
+     */
+    private record Row(long gameId, int index, Class<? extends Event> type, String player, Card.Type cardType,
+            int turn) {
+    }
+
+    private void appendGames(ReplayStore store) throws Exception {
+        for (int seed = 0; seed < GAMES; seed++) {
+            TestPlayers.Recorder recorder = new TestPlayers.Recorder();
+            long gameId = store.append(GameLogTest.playAndLog(seed, recorder));
+            gameIds.add(gameId);
+            games.add(rows(gameId, recorder));
+        }
+    }
+
+    /**
+     * Computes the indexed fields of each event the way the store documents
+     * them.
+     */
+    private static List<Row> rows(long gameId, TestPlayers.Recorder recorder) {
+        List<Row> rows = new ArrayList<>();
+        Map<String, Integer> turns = new HashMap<>();
+        for (int i = 0; i < recorder.events.size(); i++) {
+            Event event = recorder.events.get(i);
+            GameState state = recorder.states.get(i);
+            String current = state.getCurrentPlayerName();
+            int turn = turns.getOrDefault(current, 0) + 1;
+            String player = current;
+            Card.Type cardType = null;
+            if (event instanceof PlayCardEvent play) {
+                player = play.getPlayerName();
+                cardType = play.getCard().getType();
+            } else if (event instanceof GainCardEvent gain) {
+                player = gain.getPlayerName();
+                cardType = gain.getDecision();
+            } else if (event instanceof EndTurnEvent) {
+                turns.put(current, turn);
+            }
+            rows.add(new Row(gameId, i, event.getClass(), player, cardType, turn));
+        }
+        return rows;
+    }
+
+    private List<Row> bruteForce(Class<? extends Event> type, String player, Card.Type cardType, int minTurn,
+            int maxTurn) {
+        List<Row> matches = new ArrayList<>();
+        for (List<Row> game : games) {
+            for (Row row : game) {
+                if ((type == Event.class || row.type() == type) && (player == null || player.equals(row.player()))
+                        && (cardType == null || cardType == row.cardType()) && row.turn() >= minTurn
+                        && row.turn() <= maxTurn) {
+                    matches.add(row);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void checkQueries(ReplayStore store, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Class<? extends Event>> types = List.of(Event.class, PlayCardEvent.class, GainCardEvent.class,
+                EndTurnEvent.class);
+        String[] players = { null, "a", "b", "c", "nobody" };
+        for (int query = 0; query < 200; query++) {
+            Class<? extends Event> type = types.get(random.nextInt(types.size()));
+            String player = players[random.nextInt(players.length)];
+            Card.Type cardType = random.nextBoolean() ? null
+                    : Card.Type.values()[random.nextInt(Card.Type.values().length)];
+            int minTurn = random.nextBoolean() ? 1 : random.nextInt(1, 30);
+            int maxTurn = random.nextBoolean() ? Integer.MAX_VALUE : minTurn + random.nextInt(0, 10);
+
+            List<Row> expected = bruteForce(type, player, cardType, minTurn, maxTurn);
+            ImmutableList<ReplayHit> hits = store.find(type, player, cardType, minTurn, maxTurn);
+            String description = type.getSimpleName() + " " + player + " " + cardType + " " + minTurn + "-"
+                    + maxTurn;
+            assertEquals(expected.size(), hits.size(), description);
+            for (int i = 0; i < hits.size(); i++) {
+                assertEquals(expected.get(i).gameId(), hits.get(i).getGameId(), description);
+                assertEquals(expected.get(i).index(), hits.get(i).getRecordIndex(), description);
+                assertEquals(expected.get(i).turn(), hits.get(i).getTurn(), description);
+            }
+        }
+    }
+
+    @Test
+    public void findMatchesEveryEventThatMeetsTheCriteria() throws Exception {
+        try (ReplayStore store = new ReplayStore(directory, SEGMENT_SIZE)) {
+            appendGames(store);
+            assertThat(segmentCount(), greaterThan(1));
+            checkQueries(store, 1);
+        }
+    }
+
+    @Test
+    public void reopenedStoreFindsTheSameEvents() throws Exception {
+        try (ReplayStore store = new ReplayStore(directory, SEGMENT_SIZE)) {
+            appendGames(store);
+        }
+        try (ReplayStore store = new ReplayStore(directory, SEGMENT_SIZE)) {
+            checkQueries(store, 2);
+        }
+    }
+
+    @Test
+    public void missingPostingsAreRebuilt() throws Exception {
+        try (ReplayStore store = new ReplayStore(directory, SEGMENT_SIZE)) {
+            appendGames(store);
+        }
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.toString().endsWith(".post")) {
+                    Files.delete(file);
+                }
+            }
+        }
+        try (ReplayStore store = new ReplayStore(directory, SEGMENT_SIZE)) {
+            checkQueries(store, 3);
+        }
+    }
+
+    @Test
+    public void hitsReadBackTheirRecords() throws Exception {
+        GameJsonCodec codec = new GameJsonCodec();
+        try (ReplayStore store = new ReplayStore(directory, SEGMENT_SIZE)) {
+            appendGames(store);
+            ImmutableList<ReplayHit> hits = store.find(GainCardEvent.class, "b", Card.Type.FRAMEWORK, 1,
+                    Integer.MAX_VALUE);
+            assertThat(hits.size(), greaterThan(0));
+            for (ReplayHit hit : hits) {
+                GameLogRecord record = hit.getRecord();
+                GameLogRecord same = hit.getGame().get(hit.getRecordIndex());
+                assertArrayEquals(codec.writeEvent(record.getEvent()), codec.writeEvent(same.getEvent()));
+                GainCardEvent gain = (GainCardEvent) record.getEvent();
+                assertEquals("b", gain.getPlayerName());
+                assertEquals(Card.Type.FRAMEWORK, gain.getDecision());
+            }
+        }
+    }
+
+    @Test
+    public void tornNameIsDiscardedOnReopen() throws Exception {
+        try (ReplayStore store = new ReplayStore(directory, SEGMENT_SIZE)) {
+            appendGames(store);
+        }
+        // A name whose length says 9 bytes, cut off after 3, then a game with a new name
+        Files.write(directory.resolve("names.dat"), new byte[] { 0, 9, 'z', 'z', 'z' }, StandardOpenOption.APPEND);
+        try (ReplayStore store = new ReplayStore(directory, SEGMENT_SIZE)) {
+            checkQueries(store, 4);
+            TestPlayers.Recorder recorder = new TestPlayers.Recorder();
+            long gameId = store.append(GameLogTest.playAndLog(GAMES, recorder, "c", "a"));
+            games.add(rows(gameId, recorder));
+            checkQueries(store, 5);
+        }
+        try (ReplayStore store = new ReplayStore(directory, SEGMENT_SIZE)) {
+            assertEquals(0, store.find(Event.class, "zzz", null, 1, Integer.MAX_VALUE).size());
+            checkQueries(store, 6);
+        }
+    }
+
+    @Test
+    public void postingsThatDoNotMatchTheirSegmentAreRebuilt() throws Exception {
+        try (ReplayStore store = new ReplayStore(directory, SEGMENT_SIZE)) {
+            appendGames(store);
+        }
+        // Well-formed postings of an empty segment, and a file cut off in its header
+        new SegmentPostings().write(directory.resolve("segment-00000.post"));
+        Files.write(directory.resolve("segment-00001.post"), new byte[] { 0, 0, 0, 7, 0, 0 });
+        try (ReplayStore store = new ReplayStore(directory, SEGMENT_SIZE)) {
+            checkQueries(store, 7);
+        }
+    }
+
+    @Test
+    public void partialGameIsDiscardedOnReopen() throws Exception {
+        try (ReplayStore store = new ReplayStore(directory, SEGMENT_SIZE)) {
+            appendGames(store);
+        }
+        // A game whose log and index entries were written but not its .games entry
+        int last = segmentCount() - 1;
+        for (String extension : List.of("log", "idx")) {
+            Path file = directory.resolve(String.format("segment-%05d.%s", last, extension));
+            Files.write(file, new byte[ReplayStore.INDEX_ENTRY_SIZE * 3], StandardOpenOption.APPEND);
+        }
+        try (ReplayStore store = new ReplayStore(directory, SEGMENT_SIZE)) {
+            checkQueries(store, 8);
+            TestPlayers.Recorder recorder = new TestPlayers.Recorder();
+            long gameId = store.append(GameLogTest.playAndLog(GAMES, recorder));
+            games.add(rows(gameId, recorder));
+            checkQueries(store, 9);
+        }
+    }
+
+    private int segmentCount() throws IOException {
+        try (var files = Files.list(directory)) {
+            return (int) files.filter(file -> file.toString().endsWith(".log")).count();
+        }
+    }
+}
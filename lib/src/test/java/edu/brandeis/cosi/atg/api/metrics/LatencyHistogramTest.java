@@ -0,0 +1,157 @@
+package edu.brandeis.cosi.atg.api.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+    /** The index of the bucket that holds {@link Long#MAX_VALUE}. */
+    private static final int LAST_BUCKET = LatencyHistogram.bucketOf(Long.MAX_VALUE);
+
+    /**
+     * Values at and around every power of two, and a spread of random values.
+     */
+    private static List<Long> sampleValues() {
+        List<Long> values = new ArrayList<>();
+        for (int bit = 0; bit < 63; bit++) {
+            long power = 1L << bit;
+            values.add(power - 1);
+            values.add(power);
+            values.add(power + 1);
+            values.add(power + power / 2);
+        }
+        values.add(Long.MAX_VALUE);
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 10_000; i++) {
+            values.add(random.nextLong(Long.MAX_VALUE) >>> random.nextInt(63));
+        }
+        return values;
+    }
+
+    @Test
+    public void bucketsAreExactBelowSixtyFour() {
+        for (long value = 0; value < 64; value++) {
+            assertEquals(value, LatencyHistogram.bucketOf(value));
+            assertEquals(value, LatencyHistogram.highestValueIn((int) value));
+        }
+        assertEquals(64, LatencyHistogram.bucketOf(64));
+        assertEquals(65, LatencyHistogram.highestValueIn(64));
+    }
+
+    @Test
+    public void bucketsTileAllValuesWithoutGaps() {
+        // The 15KB footprint is 59 powers of two of 32 buckets each
+        assertEquals(59 * 32 - 1, LAST_BUCKET);
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValueIn(LAST_BUCKET));
+        for (int bucket = 0; bucket < LAST_BUCKET; bucket++) {
+            long highest = LatencyHistogram.highestValueIn(bucket);
+            assertEquals(bucket, LatencyHistogram.bucketOf(highest), "bucket " + bucket);
+            assertEquals(bucket + 1, LatencyHistogram.bucketOf(highest + 1), "bucket " + bucket);
+        }
+    }
+
+    @Test
+    public void bucketsAreWithinOneThirtySecondOfTheirValues() {
+        for (long value : sampleValues()) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            long highest = LatencyHistogram.highestValueIn(bucket);
+            long lowest = bucket == 0 ? 0 : LatencyHistogram.highestValueIn(bucket - 1) + 1;
+            assertThat("lowest of " + value, lowest, lessThanOrEqualTo(value));
+            assertThat("highest of " + value, highest, greaterThanOrEqualTo(value));
+            assertThat("width at " + value, highest - lowest, lessThanOrEqualTo(lowest / 32));
+        }
+    }
+
+    @Test
+    public void percentilesAreWithinThePrecisionOfTheHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000, histogram.getMax());
+        assertEquals(5000.5, histogram.getMean(), 1e-9);
+        assertEquals(1, histogram.getValueAtPercentile(0));
+        assertEquals(10_000, histogram.getValueAtPercentile(100));
+        for (int percentile = 1; percentile < 100; percentile++) {
+            long exact = percentile * 100L;
+            long reported = histogram.getValueAtPercentile(percentile);
+            assertThat(reported, greaterThanOrEqualTo(exact));
+            assertThat(reported, lessThanOrEqualTo(exact + exact / 32));
+        }
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(100.5));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(-1));
+    }
+
+    @Test
+    public void negativeDurationsAreRecordedAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void addMergesAndResetClears() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            first.record(10);
+        }
+        second.record(1_000_000);
+        first.add(second);
+
+        assertEquals(100, first.getCount());
+        assertEquals(1_000_000, first.getMax());
+        assertEquals(10, first.getValueAtPercentile(99));
+        assertEquals(1_000_000, first.getValueAtPercentile(99.5));
+        assertEquals((99 * 10 + 1_000_000) / 100.0, first.getMean(), 1e-9);
+
+        first.reset();
+        assertEquals(0, first.getCount());
+        assertEquals(0, first.getMax());
+        assertEquals(0, first.getMean());
+        assertEquals(0, first.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void concurrentRecordsAreAllCounted() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            long value = 1000L * (t + 1);
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    histogram.record(value);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(400_000, histogram.getCount());
+        assertEquals(8000, histogram.getMax());
+        assertEquals(4500, histogram.getMean(), 1e-9);
+        // Each thread's value holds an eighth of the counts
+        long p12 = histogram.getValueAtPercentile(12.5);
+        assertThat(p12, greaterThanOrEqualTo(1000L));
+        assertThat(p12, lessThanOrEqualTo(1000L + 1000 / 32));
+        long p13 = histogram.getValueAtPercentile(13);
+        assertThat(p13, greaterThanOrEqualTo(2000L));
+        assertThat(p13, lessThanOrEqualTo(2000L + 2000 / 32));
+    }
+}
@@ -0,0 +1,146 @@
+package edu.brandeis.cosi.atg.api.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.PlayerViolationException;
+import edu.brandeis.cosi.atg.api.TestPlayers;
+import edu.brandeis.cosi.atg.api.cards.Card;
+import edu.brandeis.cosi.atg.api.decisions.BuyDecision;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.engine.ReferenceEngine;
+
+public class MetricsRegistryTest {
+    /**
+     * Counts the prompts of every player it wraps, by player and by phase.
+     */
+    private static final class Prompts {
+        final Map<String, Integer> byPlayer = new HashMap<>();
+        final Map<GameState.TurnPhase, Integer> byPhase = new EnumMap<>(GameState.TurnPhase.class);
+
+        Player wrap(Player player) {
+            return new Player() {
+                @Override
+                public String getName() {
+                    return player.getName();
+                }
+
+                @Override
+                public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+                    byPlayer.merge(player.getName(), 1, Integer::sum);
+                    byPhase.merge(state.getTurnPhase(), 1, Integer::sum);
+                    return player.makeDecision(state, options);
+                }
+
+                @Override
+                public Optional<GameObserver> getObserver() {
+                    return player.getObserver();
+                }
+            };
+        }
+    }
+
+    @Test
+    public void enginesReportEveryGameTurnDecisionAndEvent() throws PlayerViolationException {
+        MetricsRegistry metrics = new MetricsRegistry();
+        Prompts prompts = new Prompts();
+        TestPlayers.Recorder recorder = new TestPlayers.Recorder();
+        long turns = 0;
+        for (long seed = 0; seed < 5; seed++) {
+            ReferenceEngine engine = new ReferenceEngine(
+                    ImmutableList.of(prompts.wrap(new TestPlayers.BigMoney("big")),
+                            prompts.wrap(new TestPlayers.RandomPlayer("random", seed))),
+                    recorder, new SplittableRandom(seed), metrics);
+            engine.play();
+            turns += engine.getTurnCount();
+        }
+
+        assertEquals(5, metrics.getGameCount());
+        assertEquals(5, metrics.getGameLatencies().getCount());
+        assertEquals(turns, metrics.getTurnCount());
+        assertEquals(turns, metrics.getTurnLatencies().getCount());
+        assertEquals(recorder.events.size(), metrics.getEventCount());
+        int decisions = prompts.byPlayer.values().stream().mapToInt(Integer::intValue).sum();
+        assertEquals(decisions, metrics.getDecisionCount());
+        for (GameState.TurnPhase phase : GameState.TurnPhase.values()) {
+            assertEquals((long) prompts.byPhase.getOrDefault(phase, 0),
+                    metrics.getDecisionLatencies(phase).getCount());
+        }
+        assertEquals(prompts.byPlayer.keySet(), metrics.getDecisionLatencies().keySet());
+        for (Map.Entry<String, LatencyHistogram> entry : metrics.getDecisionLatencies().entrySet()) {
+            assertEquals((long) prompts.byPlayer.get(entry.getKey()), entry.getValue().getCount());
+        }
+        assertEquals(0, metrics.getViolationCount());
+        assertThat(metrics.getTurnLatencies().getMax(), greaterThan(0L));
+    }
+
+    @Test
+    public void violationsAreCountedByPlayer() throws PlayerViolationException {
+        MetricsRegistry metrics = new MetricsRegistry();
+        Player cheater = new TestPlayers.BigMoney("cheater") {
+            @Override
+            public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+                return BuyDecision.of(Card.Type.FRAMEWORK);
+            }
+        };
+        for (long seed = 0; seed < 2; seed++) {
+            ReferenceEngine engine = new ReferenceEngine(ImmutableList.of(cheater, new TestPlayers.BigMoney("b")),
+                    null, new SplittableRandom(seed), metrics);
+            assertThrows(PlayerViolationException.class, engine::play);
+        }
+
+        assertEquals(2, metrics.getViolationCount());
+        assertEquals(ImmutableMap.of("cheater", 2L), metrics.getViolationCounts());
+        assertEquals(2, metrics.getGameCount());
+    }
+
+    @Test
+    public void sampledTurnsRecordAllocations() throws PlayerViolationException {
+        MetricsRegistry metrics = new MetricsRegistry(2);
+        ReferenceEngine engine = new ReferenceEngine(
+                ImmutableList.of(new TestPlayers.BigMoney("a"), new TestPlayers.BigMoney("b")), null,
+                new SplittableRandom(1), metrics);
+        engine.play();
+
+        if (metrics.getAllocationSampleInterval() == 0) {
+            // Per-thread allocation counters are not supported by this JVM
+            assertEquals(0, metrics.getTurnAllocations().getCount());
+        } else {
+            assertEquals((engine.getTurnCount() + 1) / 2, metrics.getTurnAllocations().getCount());
+        }
+        assertEquals(0, new MetricsRegistry().getAllocationSampleInterval());
+        assertThrows(IllegalArgumentException.class, () -> new MetricsRegistry(-1));
+    }
+
+    @Test
+    public void exporterWritesCountersAndEscapedLabels() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.gameEnded(2_000_000_000L, 10);
+        metrics.decisionMade("say \"hi\"", GameState.TurnPhase.BUY, 1000);
+        metrics.violation("a\\b", new PlayerViolationException("test"));
+        String text = MetricsExporter.toText(metrics);
+
+        assertThat(text, containsString("# TYPE atg_games_total counter\natg_games_total 1\n"));
+        assertThat(text, containsString("atg_game_seconds_count 1\n"));
+        assertThat(text, containsString("atg_decision_seconds_count{phase=\"BUY\"} 1\n"));
+        assertThat(text, containsString("atg_player_decision_seconds_count{player=\"say \\\"hi\\\"\"} 1\n"));
+        assertThat(text, containsString("atg_violations_total{player=\"a\\\\b\"} 1\n"));
+    }
+}
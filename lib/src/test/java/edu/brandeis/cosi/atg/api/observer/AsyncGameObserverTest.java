@@ -0,0 +1,253 @@
+package edu.brandeis.cosi.atg.api.observer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.event.Event;
+import edu.brandeis.cosi.atg.api.event.GameEvent;
+
+public class AsyncGameObserverTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final GameState STATE = GameState.lazy("a", null, GameState.TurnPhase.MONEY, 0, 1, null);
+
+    private static Event event(int i) {
+        return new GameEvent("event " + i);
+    }
+
+    /**
+     * An observer that checks events arrive in order and can be made to wait.
+     */
+    private static final class Gate implements GameObserver {
+        final CountDownLatch open;
+        final CountDownLatch entered = new CountDownLatch(1);
+        final AtomicInteger handled = new AtomicInteger();
+        final List<String> descriptions = new ArrayList<>();
+
+        Gate(boolean open) {
+            this.open = new CountDownLatch(open ? 0 : 1);
+        }
+
+        @Override
+        public void notifyEvent(GameState state, Event event) {
+            entered.countDown();
+            try {
+                open.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            descriptions.add(event.getDescription());
+            handled.incrementAndGet();
+        }
+    }
+
+    @Test
+    public void flushWaitsForEveryPublishedEvent() throws Exception {
+        AtomicInteger handled = new AtomicInteger();
+        AsyncGameObserver observer = new AsyncGameObserver((state, event) -> {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            handled.incrementAndGet();
+        }, 16, AsyncGameObserver.Backpressure.BLOCK);
+        try {
+            for (int i = 0; i < 50; i++) {
+                observer.notifyEvent(STATE, event(i));
+            }
+            observer.flush();
+            assertEquals(50, handled.get());
+            assertEquals(50, observer.getDeliveredCount());
+            assertEquals(0, observer.getLag());
+        } finally {
+            observer.close();
+        }
+    }
+
+    @Test
+    public void flushWaitsForTheEventBeingDelivered() throws Exception {
+        Gate gate = new Gate(false);
+        AsyncGameObserver observer = new AsyncGameObserver(gate, 16, AsyncGameObserver.Backpressure.BLOCK);
+        try {
+            observer.notifyEvent(STATE, event(0));
+            assertTrue(gate.entered.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+            // The event has been dequeued, but the delegate has not finished with it
+            assertEquals(0, observer.getLag());
+            CountDownLatch flushed = new CountDownLatch(1);
+            Thread flusher = new Thread(() -> {
+                try {
+                    observer.flush();
+                    flushed.countDown();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            flusher.start();
+            assertFalse(flushed.await(100, TimeUnit.MILLISECONDS));
+            gate.open.countDown();
+            assertTrue(flushed.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+            assertEquals(1, gate.handled.get());
+        } finally {
+            gate.open.countDown();
+            observer.close();
+        }
+    }
+
+    @Test
+    public void closeDeliversEveryPendingEventInOrder() {
+        Gate gate = new Gate(false);
+        AsyncGameObserver observer = new AsyncGameObserver(gate, 64, AsyncGameObserver.Backpressure.BLOCK);
+        for (int i = 0; i < 40; i++) {
+            observer.notifyEvent(STATE, event(i));
+        }
+        gate.open.countDown();
+        observer.close();
+
+        assertEquals(40, gate.handled.get());
+        for (int i = 0; i < 40; i++) {
+            assertEquals("event " + i, gate.descriptions.get(i));
+        }
+        assertEquals(0, observer.getDroppedCount());
+    }
+
+    @Test
+    public void eventsPublishedAfterCloseAreDropped() {
+        Gate gate = new Gate(true);
+        AsyncGameObserver observer = new AsyncGameObserver(gate, 16, AsyncGameObserver.Backpressure.BLOCK);
+        observer.close();
+        observer.notifyEvent(STATE, event(0));
+
+        assertEquals(0, gate.handled.get());
+        assertEquals(1, observer.getDroppedCount());
+    }
+
+    @Test
+    public void closeRacingWithPublishersStrandsNothing() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            AtomicInteger handled = new AtomicInteger();
+            AsyncGameObserver observer = new AsyncGameObserver((state, event) -> handled.incrementAndGet(), 8,
+                    AsyncGameObserver.Backpressure.BLOCK);
+            int producers = 4;
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < 200; i++) {
+                        observer.notifyEvent(STATE, event(i));
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            start.countDown();
+            Thread.sleep(round % 3);
+            observer.close();
+            for (Thread thread : threads) {
+                thread.join(TIMEOUT.toMillis());
+                assertFalse(thread.isAlive(), "A producer is stuck");
+            }
+
+            // Every event is either delivered or counted as dropped
+            assertEquals(producers * 200L, observer.getDeliveredCount() + observer.getDroppedCount());
+            assertEquals(observer.getDeliveredCount(), handled.get());
+            assertEquals(0, observer.getLag(), "Events were left in the buffer");
+        }
+    }
+
+    @Test
+    public void exceptionsAreCountedAndDeliveryContinues() {
+        AtomicInteger handled = new AtomicInteger();
+        AsyncGameObserver observer = new AsyncGameObserver((state, event) -> {
+            if (handled.incrementAndGet() % 2 == 0) {
+                throw new IllegalStateException("expected");
+            }
+        }, 16, AsyncGameObserver.Backpressure.BLOCK);
+        for (int i = 0; i < 10; i++) {
+            observer.notifyEvent(STATE, event(i));
+        }
+        observer.close();
+
+        assertEquals(10, handled.get());
+        assertEquals(10, observer.getDeliveredCount());
+        assertEquals(5, observer.getFailedCount());
+    }
+
+    @Test
+    public void blockedPublishersGiveUpWhenTheConsumerDies() {
+        Thread.UncaughtExceptionHandler handler = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler((thread, e) -> {
+        });
+        try {
+            AsyncGameObserver observer = new AsyncGameObserver((state, event) -> {
+                throw new AssertionError("expected");
+            }, 4, AsyncGameObserver.Backpressure.BLOCK);
+            assertTimeoutPreemptively(TIMEOUT, () -> {
+                for (int i = 0; i < 100; i++) {
+                    observer.notifyEvent(STATE, event(i));
+                }
+                observer.flush();
+                observer.close();
+            });
+            assertTrue(observer.getDroppedCount() > 0);
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(handler);
+        }
+    }
+
+    @Test
+    public void idleConsumerParksUntilAnEventIsPublished() throws Exception {
+        Gate gate = new Gate(true);
+        AsyncGameObserver observer = new AsyncGameObserver(gate, 16, AsyncGameObserver.Backpressure.BLOCK);
+        try {
+            Thread consumer = consumerThread();
+            for (int i = 0; i < 3; i++) {
+                // Parked without a timeout, rather than polling
+                long deadline = System.nanoTime() + TIMEOUT.toNanos();
+                while (consumer.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+                    Thread.sleep(1);
+                }
+                assertEquals(Thread.State.WAITING, consumer.getState());
+                observer.notifyEvent(STATE, event(i));
+                assertTimeoutPreemptively(TIMEOUT, observer::flush);
+                assertEquals(i + 1, gate.handled.get());
+            }
+        } finally {
+            observer.close();
+        }
+    }
+
+    /**
+     * Finds the consumer thread of the only open AsyncGameObserver.
+     */
+    private static Thread consumerThread() {
+        Thread found = null;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("atg-async-observer-") && thread.isAlive()) {
+                assertNull(found, "More than one consumer thread");
+                found = thread;
+            }
+        }
+        assertNotNull(found, "No consumer thread");
+        return found;
+    }
+}
@@ -0,0 +1,159 @@
+package edu.brandeis.cosi.atg.api.observer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.TestPlayers;
+import edu.brandeis.cosi.atg.api.cards.Card;
+import edu.brandeis.cosi.atg.api.engine.ReferenceEngine;
+import edu.brandeis.cosi.atg.api.event.EndTurnEvent;
+import edu.brandeis.cosi.atg.api.event.Event;
+import edu.brandeis.cosi.atg.api.event.GainCardEvent;
+import edu.brandeis.cosi.atg.api.event.PlayCardEvent;
+
+public class OpponentTrackerTest {
+    private static final ImmutableMap<Card.Type, Integer> STARTING_CARDS = ImmutableMap.of(Card.Type.BITCOIN,
+            ReferenceEngine.STARTING_BITCOINS, Card.Type.METHOD, ReferenceEngine.STARTING_METHODS);
+
+    private static TestPlayers.Recorder playGame(long seed) throws Exception {
+        TestPlayers.Recorder recorder = new TestPlayers.Recorder();
+        ImmutableList<Player> players = ImmutableList.of(new TestPlayers.BigMoney("a"),
+                new TestPlayers.RandomPlayer("b", seed));
+        new ReferenceEngine(players, recorder, new SplittableRandom(seed)).play();
+        return recorder;
+    }
+
+    /**
+     * Checks that a model's totals agree with its card counts.
+     */
+    private static void assertConsistent(PlayerModel model) {
+        int cards = 0;
+        int money = 0;
+        int points = 0;
+        for (Card.Type type : Card.Type.values()) {
+            int count = model.getCount(type);
+            cards += count;
+            if (type.getCategory() == Card.Type.Category.MONEY) {
+                money += count * type.getValue();
+            } else {
+                points += count * type.getValue();
+            }
+        }
+        assertEquals(cards, model.getTotalCards(), model.toString());
+        assertEquals(money, model.getMoneyValue(), model.toString());
+        assertEquals(points, model.getVictoryPoints(), model.toString());
+    }
+
+    @Test
+    public void modelsMatchTheEventsOfAGame() throws Exception {
+        TestPlayers.Recorder recorder = playGame(3);
+        OpponentTracker tracker = new OpponentTracker(STARTING_CARDS);
+        for (int i = 0; i < recorder.events.size(); i++) {
+            tracker.notifyEvent(recorder.states.get(i), recorder.events.get(i));
+        }
+
+        for (String name : List.of("a", "b")) {
+            int[] counts = new int[Card.Type.values().length];
+            counts[Card.Type.BITCOIN.ordinal()] = ReferenceEngine.STARTING_BITCOINS;
+            counts[Card.Type.METHOD.ordinal()] = ReferenceEngine.STARTING_METHODS;
+            int moneyPlayed = 0;
+            int turns = 0;
+            for (int i = 0; i < recorder.events.size(); i++) {
+                Event event = recorder.events.get(i);
+                if (event instanceof GainCardEvent gain && gain.getPlayerName().equals(name)) {
+                    counts[gain.getDecision().ordinal()]++;
+                } else if (event instanceof PlayCardEvent play && play.getPlayerName().equals(name)
+                        && play.getCard().getType().getCategory() == Card.Type.Category.MONEY) {
+                    moneyPlayed += play.getCard().getType().getValue();
+                } else if (event instanceof EndTurnEvent
+                        && recorder.states.get(i).getCurrentPlayerName().equals(name)) {
+                    turns++;
+                }
+            }
+            PlayerModel model = tracker.getModel(name).orElseThrow();
+            for (Card.Type type : Card.Type.values()) {
+                assertEquals(counts[type.ordinal()], model.getCount(type), name + " " + type);
+            }
+            assertEquals(moneyPlayed, model.getMoneyPlayed(), name);
+            assertEquals(turns, model.getTurnsTaken(), name);
+            assertTrue(turns > 0);
+            assertConsistent(model);
+        }
+        assertEquals(2, tracker.getModels().size());
+    }
+
+    @Test
+    public void playersStartWithTheGivenCards() {
+        OpponentTracker tracker = new OpponentTracker(ImmutableMap.of(Card.Type.ETHEREUM, 2));
+        assertFalse(tracker.getModel("a").isPresent());
+
+        GameState state = GameState.lazy("a", null, GameState.TurnPhase.BUY, 0, 1, null);
+        tracker.notifyEvent(state, new GainCardEvent(Card.Type.MODULE, "a"));
+        PlayerModel model = tracker.getModel("a").orElseThrow();
+        assertEquals(2, model.getCount(Card.Type.ETHEREUM));
+        assertEquals(0, model.getCount(Card.Type.BITCOIN));
+        assertEquals(3, model.getTotalCards());
+        assertEquals(2 * Card.Type.ETHEREUM.getValue(), model.getMoneyValue());
+        assertEquals(Card.Type.MODULE.getValue(), model.getVictoryPoints());
+        assertConsistent(model);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new OpponentTracker(ImmutableMap.of(Card.Type.BITCOIN, -1)));
+    }
+
+    @Test
+    public void readersOnOtherThreadsSeeConsistentModels() throws Exception {
+        TestPlayers.Recorder recorder = playGame(5);
+        OpponentTracker tracker = new OpponentTracker(STARTING_CARDS);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    int lastCards = 0;
+                    while (!done.get()) {
+                        PlayerModel model = tracker.getModels().get("b");
+                        if (model != null) {
+                            assertConsistent(model);
+                            // A newer model never has fewer cards
+                            assertTrue(model.getTotalCards() >= lastCards);
+                            lastCards = model.getTotalCards();
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < recorder.events.size(); i++) {
+                tracker.notifyEvent(recorder.states.get(i), recorder.events.get(i));
+            }
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+    }
+}
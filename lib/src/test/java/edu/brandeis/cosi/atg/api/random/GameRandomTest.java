@@ -0,0 +1,126 @@
+package edu.brandeis.cosi.atg.api.random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+public class GameRandomTest {
+    @Test
+    public void gameSeedsAreDistinctAcrossSeedsAndIndices() {
+        Set<Long> seeds = new HashSet<>();
+        for (long seed = -50; seed < 50; seed++) {
+            for (long game = 0; game < 1000; game++) {
+                seeds.add(GameRandom.gameSeed(seed, game));
+            }
+        }
+        assertEquals(100 * 1000, seeds.size());
+        // Consecutive games are not a fixed step apart
+        Set<Long> steps = new HashSet<>();
+        for (long game = 0; game < 100; game++) {
+            steps.add(GameRandom.gameSeed(0, game + 1) - GameRandom.gameSeed(0, game));
+        }
+        assertEquals(100, steps.size());
+        assertEquals(GameRandom.gameSeed(42, 7), GameRandom.gameSeed(42, 7));
+        assertNotEquals(GameRandom.gameSeed(42, 7), GameRandom.gameSeed(7, 42));
+    }
+
+    @Test
+    public void gameSeedsHaveBalancedBits() {
+        int games = 10_000;
+        int[] ones = new int[Long.SIZE];
+        for (long game = 0; game < games; game++) {
+            long seed = GameRandom.gameSeed(1, game);
+            for (int bit = 0; bit < Long.SIZE; bit++) {
+                ones[bit] += (int) (seed >>> bit) & 1;
+            }
+        }
+        // Within five standard deviations (5 * 50) of half the games
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            assertThat("bit " + bit, ones[bit], both(greaterThan(games / 2 - 250)).and(lessThan(games / 2 + 250)));
+        }
+    }
+
+    @Test
+    public void forGameUsesTheGameSeed() {
+        SplittableRandom game = GameRandom.forGame(3, 9);
+        SplittableRandom expected = new SplittableRandom(GameRandom.gameSeed(3, 9));
+        for (int i = 0; i < 10; i++) {
+            assertEquals(expected.nextLong(), game.nextLong());
+        }
+    }
+
+    @Test
+    public void shufflesOnlyTheRequestedRange() {
+        int[] cards = new int[20];
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = i;
+        }
+        GameRandom.shuffle(cards, 5, 10, new SplittableRandom(1));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, cards[i]);
+            assertEquals(15 + i, cards[15 + i]);
+        }
+        int[] shuffled = Arrays.copyOfRange(cards, 5, 15);
+        assertNotEquals(Arrays.toString(new int[] { 5, 6, 7, 8, 9, 10, 11, 12, 13, 14 }), Arrays.toString(shuffled));
+        Arrays.sort(shuffled);
+        assertArrayEquals(new int[] { 5, 6, 7, 8, 9, 10, 11, 12, 13, 14 }, shuffled);
+    }
+
+    @Test
+    public void idAndTypeShufflesDrawTheSameNumbers() {
+        for (int length = 0; length < 40; length++) {
+            int[] ids = new int[length + 2];
+            byte[] types = new byte[length + 2];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = i;
+                types[i] = (byte) i;
+            }
+            SplittableRandom idRandom = new SplittableRandom(length);
+            SplittableRandom typeRandom = new SplittableRandom(length);
+            GameRandom.shuffle(ids, 1, length, idRandom);
+            GameRandom.shuffle(types, 1, length, typeRandom);
+
+            for (int i = 0; i < ids.length; i++) {
+                assertEquals(ids[i], types[i], "length " + length);
+            }
+            // Both consumed the same draws
+            assertEquals(idRandom.nextLong(), typeRandom.nextLong());
+        }
+        SplittableRandom unused = new SplittableRandom(5);
+        GameRandom.shuffle(new int[] { 1 }, 0, 1, unused);
+        assertEquals(new SplittableRandom(5).nextLong(), unused.nextLong());
+    }
+
+    @Test
+    public void shufflesAreUniform() {
+        Map<String, Integer> counts = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(11);
+        int shuffles = 240_000;
+        for (int i = 0; i < shuffles; i++) {
+            int[] cards = { 0, 1, 2, 3 };
+            GameRandom.shuffle(cards, 0, 4, random);
+            counts.merge(Arrays.toString(cards), 1, Integer::sum);
+        }
+
+        // All 24 orders, each within five standard deviations (about 490)
+        assertEquals(24, counts.size());
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            assertThat(entry.getKey(), entry.getValue(),
+                    both(greaterThan(shuffles / 24 - 490)).and(lessThan(shuffles / 24 + 490)));
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package edu.brandeis.cosi.atg.api.remote;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.PlayerViolationException;
+import edu.brandeis.cosi.atg.api.TestPlayers;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.engine.ReferenceEngine;
+
+public class RemotePlayerServerTest {
+    /** Observers of the "observed" players the server has created. */
+    private final List<TestPlayers.Recorder> recorders = new ArrayList<>();
+    /** Released to let "blocking" players decide. */
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ExecutorService executor;
+    private RemotePlayerServer server;
+    private SocketAddress address;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        executor = Executors.newFixedThreadPool(4);
+        server = new RemotePlayerServer(ImmutableMap.of(
+                "big", () -> new TestPlayers.BigMoney("big"),
+                "auto", () -> new TestPlayers.BigMoney("auto", true),
+                "observed", this::observed,
+                "failing", () -> new TestPlayers.BigMoney("failing") {
+                    @Override
+                    public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+                        throw new IllegalArgumentException("no thanks");
+                    }
+                },
+                "blocking", () -> new TestPlayers.BigMoney("blocking") {
+                    @Override
+                    public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return super.makeDecision(state, options);
+                    }
+                },
+                "broken", () -> {
+                    throw new IllegalStateException("cannot create");
+                }), executor);
+        address = server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    @AfterEach
+    public void stopServer() throws IOException {
+        release.countDown();
+        server.close();
+        executor.shutdownNow();
+    }
+
+    private synchronized Player observed() {
+        TestPlayers.Recorder recorder = new TestPlayers.Recorder();
+        recorders.add(recorder);
+        return new TestPlayers.BigMoney("observed") {
+            @Override
+            public Optional<GameObserver> getObserver() {
+                return Optional.of(recorder);
+            }
+        };
+    }
+
+    private static List<String> play(Player first, Player second, long seed) throws PlayerViolationException {
+        TestPlayers.Recorder recorder = new TestPlayers.Recorder();
+        new ReferenceEngine(ImmutableList.of(first, second), recorder, new SplittableRandom(seed)).play();
+        return recorder.descriptions();
+    }
+
+    @Test
+    public void remotePlayersPlayLikeLocalOnes() throws Exception {
+        try (RemotePlayerClient client = RemotePlayerClient.connect(address)) {
+            for (long seed = 0; seed < 3; seed++) {
+                try (RemotePlayer remote = client.open("big")) {
+                    assertEquals("big", remote.getName());
+                    assertFalse(remote.autoPlaysMoney());
+                    assertFalse(remote.getObserver().isPresent());
+                    assertEquals(play(new TestPlayers.BigMoney("big"), new TestPlayers.RandomPlayer("r", seed), seed),
+                            play(remote, new TestPlayers.RandomPlayer("r", seed), seed));
+                }
+            }
+            assertTrue(client.open("auto").autoPlaysMoney());
+            assertEquals(0, client.getPendingCount());
+        }
+    }
+
+    @Test
+    public void eventsReachTheRemoteObserverInOrder() throws Exception {
+        List<String> expected;
+        try (RemotePlayerClient client = RemotePlayerClient.connect(address)) {
+            try (RemotePlayer remote = client.open("observed")) {
+                assertTrue(remote.getObserver().isPresent());
+                expected = play(remote, new TestPlayers.BigMoney("other"), 5);
+            }
+        }
+        TestPlayers.Recorder recorder;
+        synchronized (this) {
+            assertEquals(1, recorders.size());
+            recorder = recorders.get(0);
+        }
+        // Events are not acknowledged, so wait for the last of them
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (recorder.descriptions().size() < expected.size() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, recorder.descriptions());
+    }
+
+    @Test
+    public void gamesOnOneConnectionRunConcurrently() throws Exception {
+        ExecutorService games = Executors.newFixedThreadPool(8);
+        try (RemotePlayerClient client = RemotePlayerClient.connect(address)) {
+            List<Future<List<String>>> remote = new ArrayList<>();
+            for (long seed = 0; seed < 16; seed++) {
+                long gameSeed = seed;
+                remote.add(games.submit(() -> {
+                    try (RemotePlayer player = client.open("big")) {
+                        return play(player, new TestPlayers.RandomPlayer("r", gameSeed), gameSeed);
+                    }
+                }));
+            }
+            for (int seed = 0; seed < remote.size(); seed++) {
+                assertEquals(play(new TestPlayers.BigMoney("big"), new TestPlayers.RandomPlayer("r", seed), seed),
+                        remote.get(seed).get(30, TimeUnit.SECONDS), "seed " + seed);
+            }
+        } finally {
+            games.shutdownNow();
+        }
+    }
+
+    @Test
+    public void openFailuresAreReported() throws IOException {
+        try (RemotePlayerClient client = RemotePlayerClient.connect(address)) {
+            IOException unknown = assertThrows(IOException.class, () -> client.open("nobody"));
+            assertThat(unknown.getMessage(), containsString("Unknown player nobody"));
+            IOException broken = assertThrows(IOException.class, () -> client.open("broken"));
+            assertThat(broken.getMessage(), containsString("cannot create"));
+            UncheckedIOException supplied = assertThrows(UncheckedIOException.class,
+                    () -> client.supplier("nobody").get());
+            assertThat(supplied.getCause().getMessage(), containsString("Unknown player nobody"));
+            // The connection is still usable
+            assertEquals("big", client.open("big").getName());
+        }
+    }
+
+    @Test
+    public void remoteExceptionsAreViolations() throws IOException {
+        try (RemotePlayerClient client = RemotePlayerClient.connect(address);
+                RemotePlayer remote = client.open("failing")) {
+            PlayerViolationException e = assertThrows(PlayerViolationException.class,
+                    () -> play(remote, new TestPlayers.BigMoney("other"), 1));
+            assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+            assertThat(e.getCause().getMessage(), containsString("no thanks"));
+        }
+    }
+
+    @Test
+    public void closingTheServerFailsWaitingDecisions() throws Exception {
+        try (RemotePlayerClient client = RemotePlayerClient.connect(address)) {
+            RemotePlayer remote = client.open("blocking");
+            ExecutorService game = Executors.newSingleThreadExecutor();
+            try {
+                Future<List<String>> played = game.submit(() -> play(remote, new TestPlayers.BigMoney("other"), 1));
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (client.getPendingCount() == 0 && System.nanoTime() < deadline) {
+                    Thread.sleep(10);
+                }
+                assertEquals(1, client.getPendingCount());
+                server.close();
+
+                Exception e = assertThrows(Exception.class, () -> played.get(10, TimeUnit.SECONDS));
+                assertThat(e.getCause(), instanceOf(PlayerViolationException.class));
+                assertThat(e.getCause().getCause(), instanceOf(UncheckedIOException.class));
+                assertEquals(0, client.getPendingCount());
+                assertThrows(IOException.class, () -> client.open("big"));
+            } finally {
+                game.shutdownNow();
+            }
+        }
+    }
+}
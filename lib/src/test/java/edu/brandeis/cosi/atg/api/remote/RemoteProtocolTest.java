@@ -0,0 +1,168 @@
+package edu.brandeis.cosi.atg.api.remote;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class RemoteProtocolTest {
+    /**
+     * A channel that returns at most one byte per read, to exercise frames that
+     * arrive in pieces.
+     */
+    private static final class Trickle implements ReadableByteChannel {
+        private final ByteBuffer input;
+
+        Trickle(byte[] bytes) {
+            this.input = ByteBuffer.wrap(bytes);
+        }
+
+        @Override
+        public int read(ByteBuffer destination) {
+            if (!input.hasRemaining()) {
+                return -1;
+            }
+            destination.put(input.get());
+            return 1;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private interface FrameWriter {
+        void write(WritableByteChannel channel) throws IOException;
+    }
+
+    private static byte[] frames(FrameWriter writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writer.write(Channels.newChannel(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static RemoteProtocol.FrameReader reader(byte[] bytes) {
+        return new RemoteProtocol.FrameReader(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    }
+
+    private static byte[] filled(int length, int seed) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (i * 31 + seed);
+        }
+        return bytes;
+    }
+
+    @Test
+    public void framesHoldTheirTypeGameAndParts() throws IOException {
+        byte[] bytes = frames(channel -> {
+            RemoteProtocol.writeFrame(channel, RemoteProtocol.CLOSE, 7);
+            RemoteProtocol.writeFrame(channel, RemoteProtocol.OPEN, -3, RemoteProtocol.utf8("béta"));
+            RemoteProtocol.writeFrame(channel, RemoteProtocol.DECIDE, Integer.MAX_VALUE, new byte[0],
+                    new byte[] { 1, 2 }, new byte[] { 3 });
+        });
+        // Each frame is its length, type and game id, then every part but the last
+        // preceded by its length; "béta" is five bytes of UTF-8
+        assertEquals((4 + 5) + (4 + 5 + 5) + (4 + 5 + 4 + 0 + 4 + 2 + 1), bytes.length);
+
+        for (RemoteProtocol.FrameReader frames : Arrays.asList(reader(bytes),
+                new RemoteProtocol.FrameReader(new Trickle(bytes)))) {
+            ByteBuffer close = frames.next();
+            assertEquals(RemoteProtocol.CLOSE, close.get());
+            assertEquals(7, close.getInt());
+            assertFalse(close.hasRemaining());
+
+            ByteBuffer open = frames.next();
+            assertEquals(RemoteProtocol.OPEN, open.get());
+            assertEquals(-3, open.getInt());
+            assertEquals("béta", RemoteProtocol.utf8(RemoteProtocol.rest(open)));
+
+            ByteBuffer decide = frames.next();
+            assertEquals(RemoteProtocol.DECIDE, decide.get());
+            assertEquals(Integer.MAX_VALUE, decide.getInt());
+            assertArrayEquals(new byte[0], RemoteProtocol.part(decide));
+            assertArrayEquals(new byte[] { 1, 2 }, RemoteProtocol.part(decide));
+            assertArrayEquals(new byte[] { 3 }, RemoteProtocol.rest(decide));
+
+            assertNull(frames.next());
+        }
+    }
+
+    @Test
+    public void framesLargerThanTheBuffersRoundTrip() throws IOException {
+        byte[] state = filled(300_000, 1);
+        byte[] options = filled(70_000, 2);
+        byte[] bytes = frames(channel -> {
+            RemoteProtocol.writeFrame(channel, RemoteProtocol.DECIDE, 1, state, options);
+            RemoteProtocol.writeFrame(channel, RemoteProtocol.DECISION, 2, RemoteProtocol.utf8("small"));
+        });
+        RemoteProtocol.FrameReader frames = reader(bytes);
+
+        ByteBuffer decide = frames.next();
+        assertEquals(RemoteProtocol.DECIDE, decide.get());
+        assertEquals(1, decide.getInt());
+        assertArrayEquals(state, RemoteProtocol.part(decide));
+        assertArrayEquals(options, RemoteProtocol.rest(decide));
+        ByteBuffer decision = frames.next();
+        assertEquals(2, decision.getInt(1));
+        assertNull(frames.next());
+    }
+
+    @Test
+    public void oversizedFramesAreNotWritten() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        WritableByteChannel channel = Channels.newChannel(bytes);
+
+        IOException e = assertThrows(IOException.class, () -> RemoteProtocol.writeFrame(channel,
+                RemoteProtocol.EVENT, 1, new byte[RemoteProtocol.MAX_FRAME_LENGTH / 2],
+                new byte[RemoteProtocol.MAX_FRAME_LENGTH / 2]));
+        assertThat(e.getMessage(), containsString("too large"));
+        assertEquals(0, bytes.size());
+    }
+
+    @Test
+    public void invalidLengthsAreRejected() {
+        byte[] tooShort = ByteBuffer.allocate(8).putInt(4).put(RemoteProtocol.CLOSE).array();
+        byte[] tooLong = ByteBuffer.allocate(8).putInt(RemoteProtocol.MAX_FRAME_LENGTH + 1).array();
+        byte[] negative = ByteBuffer.allocate(8).putInt(-1).array();
+
+        for (byte[] bytes : Arrays.asList(tooShort, tooLong, negative)) {
+            IOException e = assertThrows(IOException.class, () -> reader(bytes).next());
+            assertThat(e.getMessage(), containsString("Invalid frame length"));
+        }
+    }
+
+    @Test
+    public void streamsEndingWithinAFrameFail() throws IOException {
+        byte[] bytes = frames(channel -> RemoteProtocol.writeFrame(channel, RemoteProtocol.OPEN, 1,
+                RemoteProtocol.utf8("player")));
+
+        for (int length = 1; length < bytes.length; length++) {
+            byte[] truncated = Arrays.copyOf(bytes, length);
+            assertThrows(EOFException.class, () -> reader(truncated).next(), "length " + length);
+            assertThrows(EOFException.class, () -> new RemoteProtocol.FrameReader(new Trickle(truncated)).next(),
+                    "length " + length);
+        }
+        assertNull(reader(new byte[0]).next());
+    }
+}
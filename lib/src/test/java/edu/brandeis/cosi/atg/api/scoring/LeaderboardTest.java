@@ -0,0 +1,160 @@
+package edu.brandeis.cosi.atg.api.scoring;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.TestPlayers;
+import edu.brandeis.cosi.atg.api.tournament.Standing;
+
+public class LeaderboardTest {
+    private static final int THREADS = 8;
+    private static final int GAMES_PER_THREAD = 5_000;
+
+    @Test
+    public void registeringTwiceReturnsTheSameId() {
+        Leaderboard leaderboard = new Leaderboard(2);
+        int alice = leaderboard.register("alice");
+        int bob = leaderboard.register("bob");
+
+        assertEquals(alice, leaderboard.register("alice"));
+        assertEquals("bob", leaderboard.getName(bob));
+        assertEquals(2, leaderboard.size());
+        assertThrows(IllegalStateException.class, () -> leaderboard.register("carol"));
+    }
+
+    @Test
+    public void unknownIdsAreRejected() {
+        Leaderboard leaderboard = new Leaderboard(4);
+        int alice = leaderboard.register("alice");
+
+        assertThrows(IllegalArgumentException.class, () -> leaderboard.getRating(1));
+        assertThrows(IllegalArgumentException.class, () -> leaderboard.recordGame(alice, 1, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> leaderboard.recordGame(alice, 1, alice, 0));
+    }
+
+    @Test
+    public void twoPlayerGameMovesRatingsSymmetrically() {
+        Leaderboard leaderboard = new Leaderboard(2, 16);
+        int winner = leaderboard.register("winner");
+        int loser = leaderboard.register("loser");
+        leaderboard.recordGame(winner, 10, loser, 4);
+
+        assertEquals(Leaderboard.INITIAL_RATING + 8, leaderboard.getRating(winner), 1e-9);
+        assertEquals(Leaderboard.INITIAL_RATING - 8, leaderboard.getRating(loser), 1e-9);
+        assertArrayEquals(new int[] { winner, loser }, leaderboard.getRanking());
+        Standing standing = leaderboard.getStanding(winner);
+        assertEquals(1, standing.getWins());
+        assertEquals(10, standing.getAverageScore(), 1e-9);
+        assertEquals(1, leaderboard.getStanding(loser).getLosses());
+    }
+
+    @Test
+    public void sharedTopScoreDrawsInAMultiplayerGame() {
+        Leaderboard leaderboard = new Leaderboard(3);
+        ImmutableList<Player.ScorePair> scores = ImmutableList.of(
+                new Player.ScorePair(new TestPlayers.Idle("a"), 7),
+                new Player.ScorePair(new TestPlayers.Idle("b"), 7),
+                new Player.ScorePair(new TestPlayers.Idle("c"), 2));
+        leaderboard.recordGame(scores);
+
+        assertEquals(3, leaderboard.size());
+        assertEquals(1, leaderboard.getStanding(leaderboard.register("a")).getDraws());
+        assertEquals(1, leaderboard.getStanding(leaderboard.register("b")).getDraws());
+        assertEquals(1, leaderboard.getStanding(leaderboard.register("c")).getLosses());
+        double total = 0;
+        for (int player = 0; player < 3; player++) {
+            total += leaderboard.getRating(player);
+        }
+        assertEquals(3 * Leaderboard.INITIAL_RATING, total, 1e-9);
+        assertEquals(2, leaderboard.getRanking()[2]);
+    }
+
+    @Test
+    public void concurrentGamesLoseNoResults() throws Exception {
+        int players = 100;
+        Leaderboard leaderboard = new Leaderboard(players);
+        AtomicLong expected = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int g = 0; g < GAMES_PER_THREAD; g++) {
+                        // Registration races with recording games by name on
+                        // other threads.
+                        int first = (thread * 31 + g) % players;
+                        int second = (first + 1 + g % (players - 1)) % players;
+                        int[] ids = { leaderboard.register("p" + first), leaderboard.register("p" + second),
+                                leaderboard.register("p" + (first + 2) % players) };
+                        if (ids[2] == ids[0] || ids[2] == ids[1]) {
+                            leaderboard.recordGame(ids[0], g % 3, ids[1], 1);
+                            expected.addAndGet(2);
+                        } else {
+                            leaderboard.recordGame(ids, new int[] { g % 3, 1, 0 }, 3);
+                            expected.addAndGet(3);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(players, leaderboard.size());
+        long results = 0;
+        double totalRating = 0;
+        for (int player = 0; player < players; player++) {
+            results += leaderboard.getStanding(player).getGamesCompleted();
+            totalRating += leaderboard.getRating(player);
+        }
+        assertEquals(expected.get(), results);
+        assertEquals(players * Leaderboard.INITIAL_RATING, totalRating, 1e-6);
+    }
+
+    @Test
+    public void concurrentRegistrationAssignsDistinctIds() throws Exception {
+        int players = 1_000;
+        Leaderboard leaderboard = new Leaderboard(players);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int p = 0; p < players; p++) {
+                        int id = leaderboard.register("p" + p);
+                        // An id is usable as soon as it is visible.
+                        assertEquals("p" + p, leaderboard.getName(id));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(players, leaderboard.size());
+        for (int p = 0; p < players; p++) {
+            assertEquals("p" + p, leaderboard.getName(leaderboard.register("p" + p)));
+        }
+    }
+}
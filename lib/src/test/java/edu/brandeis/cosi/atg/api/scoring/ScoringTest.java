@@ -0,0 +1,42 @@
+package edu.brandeis.cosi.atg.api.scoring;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import edu.brandeis.cosi.atg.api.cards.Card;
+
+public class ScoringTest {
+    private static final int TYPES = Card.Type.values().length;
+
+    @Test
+    public void onlyVictoryCardsScore() {
+        int[] counts = new int[TYPES];
+        counts[Card.Type.METHOD.ordinal()] = 7;
+        counts[Card.Type.MODULE.ordinal()] = 2;
+        counts[Card.Type.FRAMEWORK.ordinal()] = 1;
+        counts[Card.Type.BITCOIN.ordinal()] = 9;
+        counts[Card.Type.DOGECOIN.ordinal()] = 3;
+
+        assertEquals(7 * 1 + 2 * 3 + 6, Scoring.victoryPoints(counts));
+    }
+
+    @Test
+    public void offsetSelectsAPlayersCounts() {
+        int[] counts = new int[2 * TYPES];
+        counts[Card.Type.METHOD.ordinal()] = 3;
+        counts[TYPES + Card.Type.FRAMEWORK.ordinal()] = 2;
+
+        assertEquals(3, Scoring.victoryPoints(counts, 0));
+        assertEquals(12, Scoring.victoryPoints(counts, TYPES));
+    }
+
+    @Test
+    public void rankKeepsSeatOrderForTies() {
+        int[] order = new int[5];
+        Scoring.rank(new int[] { 4, 9, 4, 9, 1 }, 5, order);
+
+        assertArrayEquals(new int[] { 1, 3, 0, 2, 4 }, order);
+    }
+}
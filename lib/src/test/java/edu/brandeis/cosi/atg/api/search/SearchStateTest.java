@@ -0,0 +1,105 @@
+package edu.brandeis.cosi.atg.api.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import edu.brandeis.cosi.atg.api.cards.Card;
+
+public class SearchStateTest {
+    private static final int PLAYOUTS = 50;
+
+    /**
+     * Checks that the incrementally maintained fingerprint matches one computed
+     * from scratch.
+     */
+    private static void assertFingerprintCurrent(SearchState state) {
+        long fingerprint = state.getFingerprint();
+        state.rehash();
+        assertEquals(fingerprint, state.getFingerprint(), state.toString());
+    }
+
+    private static int randomLegalAction(SearchState state, SplittableRandom random) {
+        int[] actions = new int[SearchState.ACTION_COUNT];
+        int count = state.legalActions(actions);
+        assertTrue(count > 0, state.toString());
+        int action = actions[random.nextInt(count)];
+        assertTrue(state.isLegal(action));
+        return action;
+    }
+
+    @Test
+    public void playoutsReachTheEndOfTheGame() {
+        for (int seed = 0; seed < PLAYOUTS; seed++) {
+            SplittableRandom random = new SplittableRandom(seed);
+            SearchState state = SearchState.newGame(2 + seed % 3, new SplittableRandom(seed));
+            while (!state.isTerminal()) {
+                state.apply(randomLegalAction(state, random));
+            }
+            assertEquals(0, state.getSupply(Card.Type.FRAMEWORK));
+        }
+    }
+
+    @Test
+    public void applyKeepsTheFingerprintCurrent() {
+        for (int seed = 0; seed < PLAYOUTS; seed++) {
+            SplittableRandom random = new SplittableRandom(seed);
+            SearchState state = SearchState.newGame(2 + seed % 3, new SplittableRandom(seed));
+            assertFingerprintCurrent(state);
+            while (!state.isTerminal()) {
+                state.apply(randomLegalAction(state, random));
+                assertFingerprintCurrent(state);
+            }
+        }
+    }
+
+    @Test
+    public void undoRestoresEveryEarlierState() {
+        for (int seed = 0; seed < PLAYOUTS; seed++) {
+            SplittableRandom random = new SplittableRandom(seed);
+            SearchState state = SearchState.newGame(2, new SplittableRandom(seed));
+            List<String> descriptions = new ArrayList<>();
+            List<Long> fingerprints = new ArrayList<>();
+            while (!state.isTerminal()) {
+                descriptions.add(state.toString());
+                fingerprints.add(state.getFingerprint());
+                state.apply(randomLegalAction(state, random));
+            }
+            assertEquals(descriptions.size(), state.getUndoDepth());
+            for (int i = descriptions.size() - 1; i >= 0; i--) {
+                state.undo();
+                assertEquals(descriptions.get(i), state.toString());
+                assertEquals((long) fingerprints.get(i), state.getFingerprint());
+                assertFingerprintCurrent(state);
+            }
+            assertEquals(0, state.getUndoDepth());
+            assertThrows(IllegalStateException.class, state::undo);
+        }
+    }
+
+    @Test
+    public void interleavedApplyAndUndoMatchACopy() {
+        SplittableRandom random = new SplittableRandom(99);
+        SearchState state = SearchState.newGame(3, new SplittableRandom(99));
+        for (int step = 0; step < 5000 && !state.isTerminal(); step++) {
+            if (state.getUndoDepth() > 0 && random.nextInt(3) == 0) {
+                state.undo();
+            } else {
+                SearchState copy = new SearchState(3, new SplittableRandom(0));
+                copy.copyFrom(state);
+                state.apply(randomLegalAction(state, random));
+                assertFingerprintCurrent(state);
+                state.undo();
+                assertEquals(copy.toString(), state.toString());
+                assertEquals(copy.getFingerprint(), state.getFingerprint());
+                state.apply(randomLegalAction(state, random));
+            }
+        }
+    }
+}
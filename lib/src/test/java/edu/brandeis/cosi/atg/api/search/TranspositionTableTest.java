@@ -0,0 +1,196 @@
+package edu.brandeis.cosi.atg.api.search;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTest {
+    private static final int THREADS = 8;
+
+    /**
+     * Runs a task on several threads at once and rethrows the first failure.
+     */
+    private static void runConcurrently(Task task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(thread);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface Task {
+        void run(int thread) throws Exception;
+    }
+
+    @Test
+    public void putReplacesTheValueForAFingerprint() {
+        TranspositionTable<String> table = new TranspositionTable<>(64, 4);
+        table.put(7, "a");
+        table.put(7, "b");
+
+        assertEquals("b", table.get(7));
+        assertNull(table.get(8));
+        assertNull(table.get(7 | Long.MIN_VALUE));
+        assertEquals(1, table.size());
+        assertEquals(1, table.getHitCount());
+        assertEquals(2, table.getMissCount());
+    }
+
+    @Test
+    public void fullSetEvictsItsLeastRecentlyUsedEntry() {
+        // A single stripe with a single set of four slots
+        TranspositionTable<String> table = new TranspositionTable<>(4, 1);
+        for (long key = 1; key <= 4; key++) {
+            table.put(key, Long.toString(key));
+        }
+        table.get(1);
+        table.computeIfAbsent(5, Long::toString);
+
+        assertEquals(4, table.size());
+        assertEquals(1, table.getEvictionCount());
+        assertNull(table.get(2));
+        assertEquals("1", table.get(1));
+        assertEquals("3", table.get(3));
+        assertEquals("5", table.get(5));
+    }
+
+    @Test
+    public void sizeNeverExceedsCapacity() {
+        TranspositionTable<String> table = new TranspositionTable<>(100, 3);
+        assertEquals(128, table.getCapacity());
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 10_000; i++) {
+            table.put(random.nextLong(), "x");
+            assertThat(table.size(), lessThanOrEqualTo(table.getCapacity()));
+        }
+        assertEquals(10_000 - table.size(), table.getEvictionCount());
+
+        table.clear();
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void keysDifferingOnlyInHighBitsDoNotEvictEachOther() {
+        TranspositionTable<String> table = new TranspositionTable<>(1024, 4);
+        for (long i = 0; i < 64; i++) {
+            table.put(i << 58, Long.toString(i));
+        }
+        for (long i = 0; i < 64; i++) {
+            table.put(i << 32, Long.toString(i));
+        }
+
+        assertEquals(0, table.getEvictionCount());
+        for (long i = 0; i < 64; i++) {
+            assertEquals(Long.toString(i), table.get(i << 58));
+            assertEquals(Long.toString(i), table.get(i << 32));
+        }
+    }
+
+    @Test
+    public void concurrentComputeIfAbsentComputesEachValueOnce() throws Exception {
+        int keys = 64;
+        TranspositionTable<String> table = new TranspositionTable<>(4096, 16);
+        AtomicIntegerArray calls = new AtomicIntegerArray(keys);
+        String[][] seen = new String[THREADS][keys];
+
+        runConcurrently(thread -> {
+            for (int round = 0; round < 200; round++) {
+                for (int i = 0; i < keys; i++) {
+                    // Each thread walks the keys from a different starting point
+                    int key = (i + thread * 7) % keys;
+                    String value = table.computeIfAbsent(key * 0x1_0000_0001L, k -> {
+                        calls.incrementAndGet(key);
+                        // Widens the window in which a racing thread could
+                        // compute the same value
+                        Thread.yield();
+                        return new String("value " + k);
+                    });
+                    if (seen[thread][key] == null) {
+                        seen[thread][key] = value;
+                    }
+                    assertSame(seen[thread][key], value);
+                }
+            }
+        });
+
+        assertEquals(0, table.getEvictionCount());
+        assertEquals(keys, table.size());
+        for (int key = 0; key < keys; key++) {
+            assertEquals(1, calls.get(key), "calls for key " + key);
+            for (int thread = 1; thread < THREADS; thread++) {
+                assertSame(seen[0][key], seen[thread][key]);
+            }
+        }
+        assertEquals(keys, table.getMissCount());
+        assertEquals((long) THREADS * 200 * keys - keys, table.getHitCount());
+    }
+
+    @Test
+    public void concurrentUpdatesUnderEvictionKeepTheTableConsistent() throws Exception {
+        TranspositionTable<long[]> table = new TranspositionTable<>(64, 4);
+        LongAdder computed = new LongAdder();
+
+        runConcurrently(thread -> {
+            SplittableRandom random = new SplittableRandom(thread);
+            for (int i = 0; i < 20_000; i++) {
+                long key = random.nextInt(1000);
+                long[] value;
+                if (i % 3 == 0) {
+                    value = new long[] { key };
+                    table.put(key, value);
+                    computed.increment();
+                } else {
+                    value = table.computeIfAbsent(key, k -> {
+                        computed.increment();
+                        return new long[] { k };
+                    });
+                }
+                // Whatever is returned was stored under the requested key
+                assertEquals(key, value[0]);
+                long[] current = table.get(key);
+                if (current != null) {
+                    assertEquals(key, current[0]);
+                }
+            }
+        });
+
+        assertThat(table.size(), lessThanOrEqualTo(table.getCapacity()));
+        // Every stored value either filled an empty slot, replaced the value
+        // for the same key, or evicted another entry
+        assertThat(table.size() + table.getEvictionCount(), lessThanOrEqualTo(computed.sum()));
+        for (long key = 0; key < 1000; key++) {
+            long[] value = table.get(key);
+            if (value != null) {
+                assertEquals(key, value[0]);
+            }
+        }
+    }
+}
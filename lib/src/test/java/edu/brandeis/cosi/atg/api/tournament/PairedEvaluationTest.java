@@ -0,0 +1,128 @@
+package edu.brandeis.cosi.atg.api.tournament;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.TestPlayers;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.engine.ReferenceEngine;
+
+public class PairedEvaluationTest {
+    private static final SeededEngineFactory ENGINES = (player1, player2, observer,
+            random) -> new ReferenceEngine(ImmutableList.of(player1, player2), observer, random);
+
+    private static EvaluationResult evaluate(Supplier<Player> candidate, Supplier<Player> baseline, int parallelism,
+            long maxPairs) throws InterruptedException {
+        return new PairedEvaluation(ENGINES, candidate, baseline, parallelism, 7).run(0, 50, 0.05, 0.05, maxPairs);
+    }
+
+    @Test
+    public void violatingCandidateLosesEveryGame() throws InterruptedException {
+        EvaluationResult result = evaluate(() -> new Thrower("candidate"), () -> new TestPlayers.BigMoney("base"), 2,
+                100);
+
+        assertEquals(EvaluationResult.Verdict.REJECTED, result.getVerdict());
+        assertEquals(0, result.getWins());
+        assertEquals(2 * result.getPairs(), result.getLosses());
+        assertEquals(0, result.getErrors());
+        assertEquals(result.getPairs(), (long) result.getPentanomial().get(0));
+    }
+
+    @Test
+    public void violatingBaselineLosesEveryGame() throws InterruptedException {
+        EvaluationResult result = evaluate(() -> new TestPlayers.Idle("candidate"), () -> new Thrower("base"), 2,
+                100);
+
+        assertEquals(EvaluationResult.Verdict.ACCEPTED, result.getVerdict());
+        assertEquals(2 * result.getPairs(), result.getWins());
+        assertEquals(0, result.getMeanScoreDifference());
+    }
+
+    @Test
+    public void unattributableViolationExcludesThePair() throws InterruptedException {
+        EvaluationResult result = evaluate(() -> new Thrower("same"), () -> new TestPlayers.BigMoney("same"), 1, 10);
+
+        assertEquals(10, result.getErrors());
+        assertEquals(0, result.getPairs());
+        assertEquals(EvaluationResult.Verdict.INCONCLUSIVE, result.getVerdict());
+    }
+
+    @Test
+    public void engineFailureEndsTheEvaluation() {
+        SeededEngineFactory broken = (player1, player2, observer, random) -> () -> {
+            throw new IllegalStateException("engine bug");
+        };
+        PairedEvaluation evaluation = new PairedEvaluation(broken, () -> new TestPlayers.BigMoney("a"),
+                () -> new TestPlayers.BigMoney("b"), 1, 7);
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> evaluation.run(0, 50, 0.05, 0.05, 10));
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        assertEquals("engine bug", cause.getMessage());
+    }
+
+    @Test
+    public void mirroredPlayersScoreEvenPairs() throws InterruptedException {
+        EvaluationResult result = evaluate(() -> new TestPlayers.BigMoney("candidate"),
+                () -> new TestPlayers.BigMoney("base"), 4, 20);
+
+        assertEquals(result.getPairs(), (long) result.getPentanomial().get(2));
+        assertEquals(0, result.getMeanScoreDifference());
+    }
+
+    @Test
+    public void resultDoesNotDependOnParallelism() throws InterruptedException {
+        Supplier<Player> candidate = () -> new TestPlayers.RandomPlayer("candidate", 1);
+        Supplier<Player> baseline = () -> new TestPlayers.BigMoney("base");
+        EvaluationResult serial = evaluate(candidate, baseline, 1, 30);
+        EvaluationResult parallel = evaluate(candidate, baseline, 4, 30);
+
+        assertEquals(serial.getPentanomial(), parallel.getPentanomial());
+        assertEquals(serial.getMeanScoreDifference(), parallel.getMeanScoreDifference());
+        assertEquals(serial.getLogLikelihoodRatio(), parallel.getLogLikelihoodRatio());
+    }
+
+    @Test
+    public void likelihoodRatioFavoursTheBetterHypothesis() {
+        assertThat(PairedEvaluation.logLikelihoodRatio(new long[] { 0, 0, 10, 30, 60 }, 0.5, 0.6), greaterThan(0.0));
+        assertThat(PairedEvaluation.logLikelihoodRatio(new long[] { 60, 30, 10, 0, 0 }, 0.5, 0.6), lessThan(0.0));
+    }
+
+    private static final class Thrower implements Player {
+        private final String name;
+
+        Thrower(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+            throw new IllegalStateException("expected");
+        }
+
+        @Override
+        public Optional<GameObserver> getObserver() {
+            return Optional.empty();
+        }
+    }
+}
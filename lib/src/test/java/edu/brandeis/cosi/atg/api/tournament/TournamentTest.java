@@ -0,0 +1,164 @@
+package edu.brandeis.cosi.atg.api.tournament;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import edu.brandeis.cosi.atg.api.GameObserver;
+import edu.brandeis.cosi.atg.api.GameState;
+import edu.brandeis.cosi.atg.api.Player;
+import edu.brandeis.cosi.atg.api.TestPlayers;
+import edu.brandeis.cosi.atg.api.deadline.DeadlinePolicy;
+import edu.brandeis.cosi.atg.api.deadline.DecisionDeadlines;
+import edu.brandeis.cosi.atg.api.decisions.Decision;
+import edu.brandeis.cosi.atg.api.engine.ReferenceEngine;
+
+public class TournamentTest {
+    private static final int GAMES = 4;
+    private static final SeededEngineFactory ENGINES = (player1, player2, observer,
+            random) -> new ReferenceEngine(ImmutableList.of(player1, player2), observer, random);
+
+    private static Map<String, Standing> run(ImmutableMap<String, Supplier<Player>> players)
+            throws InterruptedException {
+        Map<String, Standing> standings = new HashMap<>();
+        for (Standing standing : new Tournament(ENGINES, players, GAMES, 2, 42).runRoundRobin()) {
+            standings.put(standing.getPlayerName(), standing);
+        }
+        return standings;
+    }
+
+    private static void assertRecord(Standing standing, long wins, long losses, long errors) {
+        assertEquals(wins, standing.getWins(), standing.toString());
+        assertEquals(losses, standing.getLosses(), standing.toString());
+        assertEquals(errors, standing.getErrors(), standing.toString());
+    }
+
+    @Test
+    public void violationIsALossForTheViolator() throws InterruptedException {
+        Map<String, Standing> standings = run(ImmutableMap.of(
+                "thrower", () -> new Thrower("thrower"),
+                "honest", () -> new TestPlayers.BigMoney("honest")));
+
+        assertRecord(standings.get("thrower"), 0, GAMES, GAMES);
+        assertRecord(standings.get("honest"), GAMES, 0, 0);
+    }
+
+    @Test
+    public void violationsAreLeftOutOfTheAverageScore() throws InterruptedException {
+        Map<String, Standing> standings = run(ImmutableMap.of(
+                "thrower", () -> new Thrower("thrower"),
+                "honest", () -> new TestPlayers.BigMoney("honest"),
+                "other", () -> new TestPlayers.BigMoney("other")));
+
+        Standing honest = standings.get("honest");
+        assertEquals(2 * GAMES, honest.getGamesCompleted());
+        assertEquals(GAMES, honest.getScoredGames());
+        assertEquals(0, standings.get("thrower").getScoredGames());
+        assertEquals(0, standings.get("thrower").getAverageScore());
+        assertTrue(honest.getAverageScore() > 0, honest.toString());
+    }
+
+    @Test
+    public void failingSupplierIsALossForItsPlayer() throws InterruptedException {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger closed = new AtomicInteger();
+        Map<String, Standing> standings = run(ImmutableMap.of(
+                "broken", () -> {
+                    throw new IllegalStateException("expected");
+                },
+                "honest", () -> new Closeable("honest", created, closed)));
+
+        assertRecord(standings.get("broken"), 0, GAMES, GAMES);
+        assertRecord(standings.get("honest"), GAMES, 0, 0);
+        assertTrue(created.get() > 0);
+        assertEquals(created.get(), closed.get());
+    }
+
+    @Test
+    public void nullFromASupplierIsALossForItsPlayer() throws InterruptedException {
+        Map<String, Standing> standings = run(ImmutableMap.of(
+                "missing", () -> null,
+                "honest", () -> new TestPlayers.BigMoney("honest")));
+
+        assertRecord(standings.get("missing"), 0, GAMES, GAMES);
+        assertRecord(standings.get("honest"), GAMES, 0, 0);
+    }
+
+    @Test
+    public void forfeitIsALossForTheForfeiter() throws InterruptedException {
+        DecisionDeadlines deadlines = new DecisionDeadlines(Duration.ofMillis(5), DeadlinePolicy.FORFEIT);
+        Map<String, Standing> standings = run(ImmutableMap.of(
+                "slow", deadlines.supplier(() -> new Slow("slow")),
+                "fast", () -> new TestPlayers.BigMoney("fast")));
+
+        assertEquals(0, standings.get("slow").getWins());
+        assertEquals(GAMES, standings.get("slow").getLosses());
+        assertEquals(GAMES, standings.get("fast").getWins());
+        assertEquals(GAMES, standings.get("slow").getScoredGames());
+    }
+
+    private static final class Thrower implements Player {
+        private final String name;
+
+        Thrower(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+            throw new IllegalStateException("expected");
+        }
+
+        @Override
+        public Optional<GameObserver> getObserver() {
+            return Optional.empty();
+        }
+    }
+
+    private static final class Slow extends TestPlayers.BigMoney {
+        Slow(String name) {
+            super(name);
+        }
+
+        @Override
+        public Decision makeDecision(GameState state, ImmutableList<Decision> options) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.makeDecision(state, options);
+        }
+    }
+
+    private static final class Closeable extends TestPlayers.BigMoney implements AutoCloseable {
+        private final AtomicInteger closed;
+
+        Closeable(String name, AtomicInteger created, AtomicInteger closed) {
+            super(name);
+            this.closed = closed;
+            created.incrementAndGet();
+        }
+
+        @Override
+        public void close() {
+            closed.incrementAndGet();
+        }
+    }
+}